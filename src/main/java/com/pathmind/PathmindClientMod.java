@@ -1,11 +1,18 @@
 package com.pathmind;
 
+import com.pathmind.data.GraphAutoSaveService;
 import com.pathmind.data.PresetManager;
 import com.pathmind.execution.ExecutionManager;
+import com.pathmind.nodes.SensorContext;
 import com.pathmind.screen.PathmindMainMenuIntegration;
 import com.pathmind.screen.PathmindVisualEditorScreen;
 import com.pathmind.ui.overlay.ActiveNodeOverlay;
+import com.pathmind.util.BlockLocationIndex;
+import com.pathmind.util.ClientThreadBridge;
+import com.pathmind.util.InventoryIndex;
+import com.pathmind.util.RenderedResourceSensor;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientWorldEvents;
@@ -44,12 +51,23 @@ public class PathmindClientMod implements ClientModInitializer {
         // Hook into the main menu for button and keyboard support
         PathmindMainMenuIntegration.register();
 
-        // Register client tick events for keybind handling
+        // Register client tick events for keybind handling and node chain scheduling
         ClientTickEvents.END_CLIENT_TICK.register(client -> {
             handleKeybinds(client);
+            ClientThreadBridge.drain();
+            RenderedResourceSensor.getInstance().onClientTick(client);
+            SensorContext.invalidate();
+            ExecutionManager.getInstance().onClientTick();
         });
 
+        // Keep the opt-in block location index in sync with loaded chunks
+        ClientChunkEvents.CHUNK_LOAD.register((world, chunk) -> BlockLocationIndex.getInstance().onChunkLoad(chunk));
+        ClientChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> BlockLocationIndex.getInstance().onChunkUnload(chunk));
+
         ClientWorldEvents.AFTER_CLIENT_WORLD_CHANGE.register((client, world) -> {
+            BlockLocationIndex.getInstance().clear();
+            RenderedResourceSensor.getInstance().clear();
+            InventoryIndex.getInstance().invalidate();
             if (world != null) {
                 worldShutdownHandled = false;
             } else {
@@ -67,6 +85,7 @@ public class PathmindClientMod implements ClientModInitializer {
 
         ClientLifecycleEvents.CLIENT_STOPPING.register(client -> {
             handleClientShutdown("client stopping", true);
+            GraphAutoSaveService.getInstance().flush();
         });
         
         // Register HUD render callback for the active node overlay
@@ -0,0 +1,166 @@
+package com.pathmind.data;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes preset snapshots on a background thread so the editor never waits on disk I/O.
+ * Snapshots for the same preset are coalesced: rapid edits within the debounce window
+ * produce a single write of the newest state. Each write goes through a temp file and an
+ * atomic rename, so a crash mid-write keeps the previous preset intact. Anything still queued
+ * when the JVM exits is written by a shutdown hook, which also covers saves queued by screens
+ * that close after the client-stopping event.
+ */
+public final class GraphAutoSaveService {
+    public static final long DEBOUNCE_MS = 750L;
+
+    private static GraphAutoSaveService instance;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Pathmind-AutoSave");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, PendingSave> pending = new LinkedHashMap<>();
+    private volatile PendingSave inFlight;
+
+    private static final class PendingSave {
+        private final String presetName;
+        private NodeGraphData snapshot;
+        private boolean scheduled;
+        // Completes with the outcome of the write that includes this snapshot
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingSave(String presetName, NodeGraphData snapshot) {
+            this.presetName = presetName;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private GraphAutoSaveService() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "Pathmind-AutoSaveFlush"));
+    }
+
+    public static synchronized GraphAutoSaveService getInstance() {
+        if (instance == null) {
+            instance = new GraphAutoSaveService();
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a snapshot to be written once the debounce window has passed.
+     * The snapshot must not be modified after it is handed over. The future completes with
+     * whether the write succeeded, once this snapshot or a newer one for the preset is written.
+     */
+    public CompletableFuture<Boolean> schedule(String presetName, NodeGraphData snapshot) {
+        return enqueue(presetName, snapshot, DEBOUNCE_MS);
+    }
+
+    /**
+     * Queue a snapshot to be written as soon as the background thread is free.
+     */
+    public CompletableFuture<Boolean> saveNow(String presetName, NodeGraphData snapshot) {
+        return enqueue(presetName, snapshot, 0L);
+    }
+
+    private CompletableFuture<Boolean> enqueue(String presetName, NodeGraphData snapshot, long delayMs) {
+        if (presetName == null || snapshot == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        CompletableFuture<Boolean> result;
+        String key = presetName.toLowerCase(Locale.ROOT);
+        synchronized (pending) {
+            PendingSave save = pending.get(key);
+            if (save == null) {
+                save = new PendingSave(presetName, snapshot);
+                pending.put(key, save);
+            } else {
+                save.snapshot = snapshot;
+            }
+            result = save.result;
+            if (save.scheduled && delayMs > 0L) {
+                return result;
+            }
+            save.scheduled = true;
+        }
+        executor.schedule(() -> write(key), delayMs, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * Returns a private copy of the newest unwritten snapshot for the preset, or null if none is pending.
+     */
+    public NodeGraphData getPendingSnapshot(String presetName) {
+        if (presetName == null) {
+            return null;
+        }
+        NodeGraphData snapshot;
+        synchronized (pending) {
+            PendingSave save = pending.get(presetName.toLowerCase(Locale.ROOT));
+            if (save == null) {
+                PendingSave writing = inFlight;
+                save = writing != null && writing.presetName.equalsIgnoreCase(presetName) ? writing : null;
+            }
+            snapshot = save != null ? save.snapshot : null;
+        }
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            return NodeGraphBinaryFormat.decode(NodeGraphBinaryFormat.encode(snapshot));
+        } catch (IOException e) {
+            System.err.println("GraphAutoSaveService: Failed to copy pending snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write every pending snapshot on the calling thread. Used on shutdown.
+     */
+    public void flush() {
+        String[] keys;
+        synchronized (pending) {
+            keys = pending.keySet().toArray(new String[0]);
+        }
+        for (String key : keys) {
+            write(key);
+        }
+    }
+
+    private void write(String key) {
+        // Writes from the executor and flush() must not interleave, or an older snapshot could land last
+        synchronized (this) {
+            PendingSave save;
+            synchronized (pending) {
+                save = pending.remove(key);
+                if (save == null) {
+                    return;
+                }
+                inFlight = save;
+            }
+            boolean saved = false;
+            try {
+                saved = NodeGraphPersistence.saveNodeGraphDataForPreset(save.presetName, save.snapshot);
+                if (!saved) {
+                    System.err.println("GraphAutoSaveService: Failed to save preset " + save.presetName);
+                }
+            } finally {
+                inFlight = null;
+                save.result.complete(saved);
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+}
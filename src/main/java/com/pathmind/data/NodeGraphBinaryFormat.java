@@ -0,0 +1,303 @@
+package com.pathmind.data;
+
+import com.pathmind.nodes.NodeMode;
+import com.pathmind.nodes.NodeType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, versioned binary encoding of {@link NodeGraphData}.
+ *
+ * Layout (version 1): magic "PMG" + version byte, node delay, a string table shared by ids,
+ * parameter names/values/types, name tables for the node types and modes in use, then nodes and
+ * connections. Integers are varints (zig-zag for signed values) and every string or enum is stored
+ * as an index, so renamed or removed enum constants resolve through the same aliases as JSON.
+ */
+final class NodeGraphBinaryFormat {
+    static final int VERSION = 1;
+    private static final byte[] MAGIC = {'P', 'M', 'G'};
+    private static final int NULL_INDEX = 0;
+
+    private NodeGraphBinaryFormat() {
+    }
+
+    static boolean isBinary(byte[] bytes) {
+        if (bytes == null || bytes.length < MAGIC.length + 1) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static byte[] encode(NodeGraphData data) throws IOException {
+        Interner strings = new Interner();
+        Interner typeNames = new Interner();
+        Interner modeNames = new Interner();
+        List<NodeGraphData.NodeData> nodes = data.getNodes() != null ? data.getNodes() : new ArrayList<>();
+        List<NodeGraphData.ConnectionData> connections = data.getConnections() != null ? data.getConnections() : new ArrayList<>();
+
+        // Body is written first so the tables only contain values that are actually referenced
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(bodyBytes);
+        writeVarInt(body, nodes.size());
+        for (NodeGraphData.NodeData node : nodes) {
+            writeVarInt(body, strings.indexOf(node.getId()));
+            writeVarInt(body, typeNames.indexOf(node.getType() != null ? node.getType().name() : null));
+            writeVarInt(body, modeNames.indexOf(node.getMode() != null ? node.getMode().name() : null));
+            writeSignedVarInt(body, node.getX());
+            writeSignedVarInt(body, node.getY());
+
+            List<NodeGraphData.ParameterData> parameters = node.getParameters();
+            writeVarInt(body, parameters != null ? parameters.size() : 0);
+            if (parameters != null) {
+                for (NodeGraphData.ParameterData parameter : parameters) {
+                    writeVarInt(body, strings.indexOf(parameter.getName()));
+                    writeVarInt(body, strings.indexOf(parameter.getValue()));
+                    writeVarInt(body, strings.indexOf(parameter.getType()));
+                }
+            }
+
+            writeVarInt(body, strings.indexOf(node.getAttachedSensorId()));
+            writeVarInt(body, strings.indexOf(node.getParentControlId()));
+            writeVarInt(body, strings.indexOf(node.getAttachedActionId()));
+            writeVarInt(body, strings.indexOf(node.getParentActionControlId()));
+            writeVarInt(body, strings.indexOf(node.getAttachedParameterId()));
+            writeVarInt(body, strings.indexOf(node.getParentParameterHostId()));
+
+            List<NodeGraphData.ParameterAttachmentData> attachments = node.getParameterAttachments();
+            writeVarInt(body, attachments != null ? attachments.size() : 0);
+            if (attachments != null) {
+                for (NodeGraphData.ParameterAttachmentData attachment : attachments) {
+                    writeSignedVarInt(body, attachment.getSlotIndex());
+                    writeVarInt(body, strings.indexOf(attachment.getParameterNodeId()));
+                }
+            }
+        }
+
+        writeVarInt(body, connections.size());
+        for (NodeGraphData.ConnectionData connection : connections) {
+            writeVarInt(body, strings.indexOf(connection.getOutputNodeId()));
+            writeVarInt(body, strings.indexOf(connection.getInputNodeId()));
+            writeSignedVarInt(body, connection.getOutputSocket());
+            writeSignedVarInt(body, connection.getInputSocket());
+        }
+        body.flush();
+
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream(bodyBytes.size() + 256);
+        DataOutputStream out = new DataOutputStream(outBytes);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        writeVarLong(out, data.getNodeDelayMs());
+        strings.writeTo(out);
+        typeNames.writeTo(out);
+        modeNames.writeTo(out);
+        bodyBytes.writeTo(out);
+        out.flush();
+        return outBytes.toByteArray();
+    }
+
+    static NodeGraphData decode(byte[] bytes) throws IOException {
+        if (!isBinary(bytes)) {
+            throw new IOException("Not a Pathmind binary graph");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, MAGIC.length, bytes.length - MAGIC.length));
+        int version = in.readUnsignedByte();
+        if (version > VERSION) {
+            throw new IOException("Unsupported binary graph version " + version);
+        }
+
+        NodeGraphData data = new NodeGraphData();
+        data.setNodeDelayMs(readVarLong(in));
+        String[] strings = readTable(in);
+        String[] typeNames = readTable(in);
+        String[] modeNames = readTable(in);
+
+        NodeType[] types = new NodeType[typeNames.length];
+        for (int i = 0; i < typeNames.length; i++) {
+            types[i] = NodeGraphPersistence.resolveNodeType(typeNames[i]);
+        }
+        NodeMode[] modes = new NodeMode[modeNames.length];
+        for (int i = 0; i < modeNames.length; i++) {
+            modes[i] = NodeGraphPersistence.resolveNodeMode(modeNames[i]);
+        }
+
+        int nodeCount = readCount(in);
+        List<NodeGraphData.NodeData> nodes = new ArrayList<>(nodeCount);
+        for (int n = 0; n < nodeCount; n++) {
+            NodeGraphData.NodeData node = new NodeGraphData.NodeData();
+            node.setId(lookup(strings, readVarInt(in)));
+            node.setType(lookup(types, readVarInt(in), "Node type"));
+            node.setMode(lookup(modes, readVarInt(in), "Node mode"));
+            node.setX(readSignedVarInt(in));
+            node.setY(readSignedVarInt(in));
+
+            int parameterCount = readCount(in);
+            List<NodeGraphData.ParameterData> parameters = new ArrayList<>(parameterCount);
+            for (int p = 0; p < parameterCount; p++) {
+                String name = lookup(strings, readVarInt(in));
+                String value = lookup(strings, readVarInt(in));
+                String type = lookup(strings, readVarInt(in));
+                parameters.add(new NodeGraphData.ParameterData(name, value, type));
+            }
+            node.setParameters(parameters);
+
+            node.setAttachedSensorId(lookup(strings, readVarInt(in)));
+            node.setParentControlId(lookup(strings, readVarInt(in)));
+            node.setAttachedActionId(lookup(strings, readVarInt(in)));
+            node.setParentActionControlId(lookup(strings, readVarInt(in)));
+            node.setAttachedParameterId(lookup(strings, readVarInt(in)));
+            node.setParentParameterHostId(lookup(strings, readVarInt(in)));
+
+            int attachmentCount = readCount(in);
+            List<NodeGraphData.ParameterAttachmentData> attachments = new ArrayList<>(attachmentCount);
+            for (int a = 0; a < attachmentCount; a++) {
+                int slotIndex = readSignedVarInt(in);
+                attachments.add(new NodeGraphData.ParameterAttachmentData(slotIndex, lookup(strings, readVarInt(in))));
+            }
+            node.setParameterAttachments(attachments);
+            nodes.add(node);
+        }
+        data.setNodes(nodes);
+
+        int connectionCount = readCount(in);
+        List<NodeGraphData.ConnectionData> connections = new ArrayList<>(connectionCount);
+        for (int c = 0; c < connectionCount; c++) {
+            String outputId = lookup(strings, readVarInt(in));
+            String inputId = lookup(strings, readVarInt(in));
+            int outputSocket = readSignedVarInt(in);
+            int inputSocket = readSignedVarInt(in);
+            connections.add(new NodeGraphData.ConnectionData(outputId, inputId, outputSocket, inputSocket));
+        }
+        data.setConnections(connections);
+        return data;
+    }
+
+    /**
+     * Assigns 1-based indices to strings in first-seen order; index 0 encodes null.
+     */
+    private static final class Interner {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        private int indexOf(String value) {
+            if (value == null) {
+                return NULL_INDEX;
+            }
+            Integer index = indices.get(value);
+            if (index == null) {
+                values.add(value);
+                index = values.size();
+                indices.put(value, index);
+            }
+            return index;
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            writeVarInt(out, values.size());
+            for (String value : values) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, utf8.length);
+                out.write(utf8);
+            }
+        }
+    }
+
+    private static String[] readTable(DataInputStream in) throws IOException {
+        int count = readCount(in);
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            byte[] utf8 = new byte[readCount(in)];
+            in.readFully(utf8);
+            values[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    private static String lookup(String[] table, int index) throws IOException {
+        return lookup(table, index, "String");
+    }
+
+    private static <T> T lookup(T[] table, int index, String kind) throws IOException {
+        if (index == NULL_INDEX) {
+            return null;
+        }
+        if (index < 0 || index > table.length) {
+            throw new IOException(kind + " index " + index + " out of range");
+        }
+        return table[index - 1];
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static void writeSignedVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0L) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarInt too long");
+    }
+
+    /**
+     * A length or element count; every element takes at least one byte, so a count beyond the
+     * remaining input means the file is truncated or corrupt.
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = readVarInt(in);
+        if (count < 0 || count > in.available()) {
+            throw new IOException("Count " + count + " exceeds the remaining data");
+        }
+        return count;
+    }
+
+    private static int readSignedVarInt(DataInputStream in) throws IOException {
+        int raw = readVarInt(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0L;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("VarLong too long");
+    }
+}
@@ -10,17 +10,22 @@ import java.util.List;
  * Serializable data structure for saving and loading node graphs.
  */
 public class NodeGraphData {
+    public static final long DEFAULT_NODE_DELAY_MS = 150L;
+
     private List<NodeData> nodes;
     private List<ConnectionData> connections;
+    private long nodeDelayMs;
     
     public NodeGraphData() {
         this.nodes = new ArrayList<>();
         this.connections = new ArrayList<>();
+        this.nodeDelayMs = DEFAULT_NODE_DELAY_MS;
     }
     
     public NodeGraphData(List<NodeData> nodes, List<ConnectionData> connections) {
         this.nodes = nodes;
         this.connections = connections;
+        this.nodeDelayMs = DEFAULT_NODE_DELAY_MS;
     }
     
     public List<NodeData> getNodes() {
@@ -38,6 +43,17 @@ public class NodeGraphData {
     public void setConnections(List<ConnectionData> connections) {
         this.connections = connections;
     }
+
+    /**
+     * Delay inserted before each node starts executing. Zero lets instant nodes run back to back.
+     */
+    public long getNodeDelayMs() {
+        return nodeDelayMs;
+    }
+
+    public void setNodeDelayMs(long nodeDelayMs) {
+        this.nodeDelayMs = Math.max(0L, nodeDelayMs);
+    }
     
     /**
      * Data structure for a single node
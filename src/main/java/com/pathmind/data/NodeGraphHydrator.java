@@ -0,0 +1,216 @@
+package com.pathmind.data;
+
+import com.pathmind.nodes.Node;
+import com.pathmind.nodes.NodeConnection;
+import com.pathmind.nodes.NodeParameter;
+import com.pathmind.nodes.ParameterType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Rebuilds live nodes and connections from {@link NodeGraphData} in two phases.
+ * Phase one builds every node on its own (id, mode, parameters, dimensions); nodes share no
+ * state at that point, so large graphs are built in parallel. Phase two links sensors, action
+ * children, parameters and connections in one pass over an id-to-node map.
+ */
+public final class NodeGraphHydrator {
+    // Below this the fork/join overhead outweighs the per-node work
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    public enum ParameterRestore {
+        /** Use the saved parameter list as-is, including names and types. */
+        REPLACE,
+        /** Keep the mode's default parameters and overwrite the values saved under the same name. */
+        MERGE
+    }
+
+    public static final class Result {
+        private final List<Node> nodes;
+        private final Map<String, Node> nodeMap;
+        private final List<NodeConnection> connections;
+
+        private Result(List<Node> nodes, Map<String, Node> nodeMap, List<NodeConnection> connections) {
+            this.nodes = nodes;
+            this.nodeMap = nodeMap;
+            this.connections = connections;
+        }
+
+        public List<Node> getNodes() {
+            return nodes;
+        }
+
+        public Map<String, Node> getNodeMap() {
+            return nodeMap;
+        }
+
+        public List<NodeConnection> getConnections() {
+            return connections;
+        }
+    }
+
+    private NodeGraphHydrator() {
+    }
+
+    public static Result hydrate(NodeGraphData data, ParameterRestore restore) {
+        List<NodeGraphData.NodeData> nodeData = data.getNodes() != null ? data.getNodes() : Collections.emptyList();
+        int count = nodeData.size();
+        long startNanos = System.nanoTime();
+
+        Node[] built = new Node[count];
+        if (count >= PARALLEL_THRESHOLD) {
+            IntStream.range(0, count).parallel().forEach(i -> built[i] = buildNode(nodeData.get(i), restore));
+        } else {
+            for (int i = 0; i < count; i++) {
+                built[i] = buildNode(nodeData.get(i), restore);
+            }
+        }
+
+        List<Node> nodes = new ArrayList<>(count);
+        Map<String, Node> nodeMap = new HashMap<>(Math.max(16, count * 2));
+        for (Node node : built) {
+            nodes.add(node);
+            nodeMap.put(node.getId(), node);
+        }
+
+        link(nodeData, nodeMap);
+        List<NodeConnection> connections = buildConnections(data.getConnections(), nodeMap);
+
+        if (count >= PARALLEL_THRESHOLD) {
+            long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000L;
+            System.out.println("NodeGraphHydrator: Hydrated " + count + " nodes in " + elapsedMs + " ms");
+        }
+        return new Result(nodes, nodeMap, connections);
+    }
+
+    private static Node buildNode(NodeGraphData.NodeData nodeData, ParameterRestore restore) {
+        Node node = new Node(nodeData.getId(), nodeData.getType(), nodeData.getX(), nodeData.getY());
+
+        // Setting the mode reinitializes the parameters, so saved values are applied afterwards
+        if (nodeData.getMode() != null) {
+            node.setMode(nodeData.getMode());
+        }
+
+        List<NodeGraphData.ParameterData> saved = nodeData.getParameters();
+        if (restore == ParameterRestore.REPLACE) {
+            List<NodeParameter> restored = new ArrayList<>(saved != null ? saved.size() : 0);
+            if (saved != null) {
+                for (NodeGraphData.ParameterData paramData : saved) {
+                    ParameterType paramType = ParameterType.valueOf(paramData.getType());
+                    restored.add(new NodeParameter(paramData.getName(), paramType, paramData.getValue()));
+                }
+            }
+            node.replaceParameters(restored);
+        } else if (saved != null && !saved.isEmpty()) {
+            Map<String, String> savedValues = new HashMap<>();
+            for (NodeGraphData.ParameterData paramData : saved) {
+                savedValues.put(paramData.getName(), paramData.getValue());
+            }
+            for (NodeParameter param : node.getParameters()) {
+                String savedValue = savedValues.get(param.getName());
+                if (savedValue != null) {
+                    param.setStringValue(savedValue);
+                }
+            }
+        }
+        node.recalculateDimensions();
+        return node;
+    }
+
+    private static void link(List<NodeGraphData.NodeData> nodeData, Map<String, Node> nodeMap) {
+        // Host-side references are applied first; child-side ones only repair links the host did not record
+        List<NodeGraphData.NodeData> childReferences = new ArrayList<>();
+        for (NodeGraphData.NodeData data : nodeData) {
+            Node node = nodeMap.get(data.getId());
+            if (node == null) {
+                continue;
+            }
+
+            if (data.getAttachedSensorId() != null) {
+                Node sensor = nodeMap.get(data.getAttachedSensorId());
+                if (sensor != null) {
+                    node.attachSensor(sensor);
+                }
+            }
+
+            if (data.getAttachedActionId() != null) {
+                Node child = nodeMap.get(data.getAttachedActionId());
+                if (child != null) {
+                    node.attachActionNode(child);
+                }
+            }
+
+            List<NodeGraphData.ParameterAttachmentData> attachments = data.getParameterAttachments();
+            boolean hasSlotAttachments = attachments != null && !attachments.isEmpty();
+            if (hasSlotAttachments) {
+                // Sort a copy; the data may be a snapshot shared with the autosave thread
+                List<NodeGraphData.ParameterAttachmentData> ordered = new ArrayList<>(attachments);
+                ordered.sort(Comparator.comparingInt(NodeGraphData.ParameterAttachmentData::getSlotIndex));
+                for (NodeGraphData.ParameterAttachmentData attachment : ordered) {
+                    Node parameter = nodeMap.get(attachment.getParameterNodeId());
+                    if (parameter != null) {
+                        node.attachParameter(parameter, attachment.getSlotIndex());
+                    }
+                }
+            } else if (data.getAttachedParameterId() != null) {
+                Node parameter = nodeMap.get(data.getAttachedParameterId());
+                if (parameter != null && parameter.getParentParameterHost() == null) {
+                    node.attachParameter(parameter);
+                }
+            }
+
+            if (data.getParentControlId() != null || data.getParentActionControlId() != null
+                || (!hasSlotAttachments && data.getParentParameterHostId() != null)) {
+                childReferences.add(data);
+            }
+        }
+
+        for (NodeGraphData.NodeData data : childReferences) {
+            Node node = nodeMap.get(data.getId());
+            if (data.getParentControlId() != null) {
+                Node control = nodeMap.get(data.getParentControlId());
+                if (control != null && node.isSensorNode() && node.getParentControl() != control) {
+                    control.attachSensor(node);
+                }
+            }
+            if (data.getParentActionControlId() != null) {
+                Node control = nodeMap.get(data.getParentActionControlId());
+                if (control != null && node.getParentActionControl() != control && control.canAcceptActionNode(node)) {
+                    control.attachActionNode(node);
+                }
+            }
+            List<NodeGraphData.ParameterAttachmentData> attachments = data.getParameterAttachments();
+            if ((attachments == null || attachments.isEmpty()) && data.getParentParameterHostId() != null) {
+                Node host = nodeMap.get(data.getParentParameterHostId());
+                if (host != null && node.isParameterNode() && node.getParentParameterHost() == null) {
+                    host.attachParameter(node);
+                }
+            }
+        }
+    }
+
+    private static List<NodeConnection> buildConnections(List<NodeGraphData.ConnectionData> connectionData, Map<String, Node> nodeMap) {
+        if (connectionData == null) {
+            return new ArrayList<>();
+        }
+        List<NodeConnection> connections = new ArrayList<>(connectionData.size());
+        for (NodeGraphData.ConnectionData connData : connectionData) {
+            Node outputNode = nodeMap.get(connData.getOutputNodeId());
+            Node inputNode = nodeMap.get(connData.getInputNodeId());
+            if (outputNode == null || inputNode == null) {
+                System.err.println("NodeGraphHydrator: Failed to restore connection: missing node(s)");
+                continue;
+            }
+            if (outputNode.isSensorNode() || inputNode.isSensorNode()) {
+                continue;
+            }
+            connections.add(new NodeConnection(outputNode, inputNode, connData.getOutputSocket(), connData.getInputSocket()));
+        }
+        return connections;
+    }
+}
@@ -7,12 +7,14 @@ import com.pathmind.nodes.NodeConnection;
 import com.pathmind.nodes.NodeParameter;
 import com.pathmind.nodes.NodeType;
 
-import java.io.Reader;
+import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -20,6 +22,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles saving and loading node graphs to/from disk.
+ * Presets are stored in the compact binary format; JSON is kept for import/export and legacy presets.
  */
 public class NodeGraphPersistence {
     private static final Gson GSON = new GsonBuilder()
@@ -28,7 +31,7 @@ public class NodeGraphPersistence {
             .registerTypeAdapter(com.pathmind.nodes.NodeMode.class, new NodeModeAdapter())
             .create();
 
-    private static final Map<String, String> IN_MEMORY_JSON_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, byte[]> IN_MEMORY_GRAPH_CACHE = new ConcurrentHashMap<>();
 
     /**
      * Save the current node graph to disk
@@ -38,14 +41,77 @@ public class NodeGraphPersistence {
     }
 
     public static boolean saveNodeGraphForPreset(String presetName, List<Node> nodes, List<NodeConnection> connections) {
-        Path savePath = PresetManager.getPresetPath(presetName);
+        return saveNodeGraphForPreset(presetName, nodes, connections, NodeGraphData.DEFAULT_NODE_DELAY_MS);
+    }
+
+    public static boolean saveNodeGraphForPreset(String presetName, List<Node> nodes, List<NodeConnection> connections, long nodeDelayMs) {
         NodeGraphData data = buildNodeGraphData(nodes, connections);
-        cachePresetGraph(presetName, data);
-        return writeNodeGraphDataToPath(data, savePath);
+        data.setNodeDelayMs(nodeDelayMs);
+        return saveNodeGraphDataForPreset(presetName, data);
+    }
+
+    /**
+     * Save already-built graph data to the preset's binary file, replacing any legacy JSON preset.
+     */
+    public static boolean saveNodeGraphDataForPreset(String presetName, NodeGraphData data) {
+        byte[] encoded;
+        try {
+            encoded = NodeGraphBinaryFormat.encode(data);
+        } catch (IOException e) {
+            System.err.println("Failed to encode node graph: " + e.getMessage());
+            return false;
+        }
+        String key = cacheKeyForPreset(presetName);
+        if (key != null) {
+            IN_MEMORY_GRAPH_CACHE.put(key, encoded);
+        }
+
+        Path savePath = PresetManager.getPresetBinaryPath(presetName);
+        try {
+            if (savePath.getParent() != null) {
+                Files.createDirectories(savePath.getParent());
+            }
+            writeAtomically(savePath, encoded);
+            retireLegacyJson(presetName, savePath);
+            System.out.println("Node graph saved successfully to: " + savePath);
+            return true;
+        } catch (Exception e) {
+            System.err.println("Failed to save node graph: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Move a legacy JSON preset aside as {@code <name>.json.bak} once the binary file that replaces it
+     * reads back correctly, so a bad encode or a downgrade never loses the preset.
+     */
+    private static void retireLegacyJson(String presetName, Path binaryPath) {
+        Path legacyPath = PresetManager.getPresetPath(presetName);
+        if (!Files.exists(legacyPath)) {
+            return;
+        }
+        try {
+            NodeGraphBinaryFormat.decode(Files.readAllBytes(binaryPath));
+        } catch (Exception e) {
+            System.err.println("Keeping legacy preset " + legacyPath + ": binary copy failed to read back: " + e.getMessage());
+            return;
+        }
+        Path backupPath = legacyPath.resolveSibling(legacyPath.getFileName() + ".bak");
+        try {
+            Files.move(legacyPath, backupPath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Failed to back up legacy preset " + legacyPath + ": " + e.getMessage());
+        }
     }
 
     public static boolean saveNodeGraphToPath(List<Node> nodes, List<NodeConnection> connections, Path savePath) {
+        return saveNodeGraphToPath(nodes, connections, savePath, NodeGraphData.DEFAULT_NODE_DELAY_MS);
+    }
+
+    public static boolean saveNodeGraphToPath(List<Node> nodes, List<NodeConnection> connections, Path savePath, long nodeDelayMs) {
         NodeGraphData data = buildNodeGraphData(nodes, connections);
+        data.setNodeDelayMs(nodeDelayMs);
         return writeNodeGraphDataToPath(data, savePath);
     }
 
@@ -57,7 +123,13 @@ public class NodeGraphPersistence {
     }
 
     public static NodeGraphData loadNodeGraphForPreset(String presetName) {
-        Path savePath = PresetManager.getPresetPath(presetName);
+        NodeGraphData pending = GraphAutoSaveService.getInstance().getPendingSnapshot(presetName);
+        if (pending != null) {
+            return pending;
+        }
+
+        Path binaryPath = PresetManager.getPresetBinaryPath(presetName);
+        Path savePath = Files.exists(binaryPath) ? binaryPath : PresetManager.getPresetPath(presetName);
         NodeGraphData data = loadNodeGraphFromPath(savePath);
         if (data != null) {
             cachePresetGraph(presetName, data);
@@ -66,10 +138,10 @@ public class NodeGraphPersistence {
 
         String key = cacheKeyForPath(savePath);
         if (key != null) {
-            String cached = IN_MEMORY_JSON_CACHE.get(key);
+            byte[] cached = IN_MEMORY_GRAPH_CACHE.get(key);
             if (cached != null) {
                 try {
-                    return GSON.fromJson(cached, NodeGraphData.class);
+                    return NodeGraphBinaryFormat.decode(cached);
                 } catch (Exception e) {
                     System.err.println("Failed to deserialize cached node graph: " + e.getMessage());
                 }
@@ -79,6 +151,9 @@ public class NodeGraphPersistence {
         return null;
     }
 
+    /**
+     * Load a graph from either a binary preset or a JSON export, detected from the file contents.
+     */
     public static NodeGraphData loadNodeGraphFromPath(Path savePath) {
         try {
             if (!Files.exists(savePath)) {
@@ -86,11 +161,9 @@ public class NodeGraphPersistence {
                 return null;
             }
 
-            try (Reader reader = Files.newBufferedReader(savePath)) {
-                NodeGraphData data = GSON.fromJson(reader, NodeGraphData.class);
-                System.out.println("Node graph loaded successfully from: " + savePath);
-                return data;
-            }
+            NodeGraphData data = decodeGraphFile(savePath);
+            System.out.println("Node graph loaded successfully from: " + savePath);
+            return data;
 
         } catch (Exception e) {
             System.err.println("Failed to load node graph: " + e.getMessage());
@@ -100,131 +173,39 @@ public class NodeGraphPersistence {
     }
 
     /**
-     * Convert loaded data back to Node objects
+     * Read a graph file without logging, for indexing. Returns null when it is missing or unreadable.
      */
-    public static List<Node> convertToNodes(NodeGraphData data) {
-        List<Node> nodes = new ArrayList<>();
-        Map<String, Node> nodeMap = new HashMap<>();
-
-        // Create nodes
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            Node node = new Node(nodeData.getType(), nodeData.getX(), nodeData.getY());
-
-            // Set the same ID using reflection
-            try {
-                java.lang.reflect.Field idField = Node.class.getDeclaredField("id");
-                idField.setAccessible(true);
-                idField.set(node, nodeData.getId());
-            } catch (Exception e) {
-                System.err.println("Failed to set node ID: " + e.getMessage());
-            }
-
-            // Save parameter values before setting mode (which will reinitialize parameters)
-            Map<String, String> savedParamValues = new HashMap<>();
-            if (nodeData.getParameters() != null) {
-                for (NodeGraphData.ParameterData paramData : nodeData.getParameters()) {
-                    savedParamValues.put(paramData.getName(), paramData.getValue());
-                }
-            }
-
-            // Set the mode if it exists (this will reinitialize parameters)
-            if (nodeData.getMode() != null) {
-                node.setMode(nodeData.getMode());
-            }
-
-            // Restore saved parameter values (overwrite the default parameters with saved ones)
-            if (!savedParamValues.isEmpty()) {
-                for (NodeParameter param : node.getParameters()) {
-                    String savedValue = savedParamValues.get(param.getName());
-                    if (savedValue != null) {
-                        param.setStringValue(savedValue);
-                    }
-                }
-            }
-            node.recalculateDimensions();
-
-            nodes.add(node);
-            nodeMap.put(nodeData.getId(), node);
-        }
-
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            if (nodeData.getAttachedSensorId() != null) {
-                Node control = nodeMap.get(nodeData.getId());
-                Node sensor = nodeMap.get(nodeData.getAttachedSensorId());
-                if (control != null && sensor != null) {
-                    control.attachSensor(sensor);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            if (nodeData.getParentControlId() != null) {
-                Node sensor = nodeMap.get(nodeData.getId());
-                Node control = nodeMap.get(nodeData.getParentControlId());
-                if (sensor != null && control != null && sensor.isSensorNode()) {
-                    control.attachSensor(sensor);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            if (nodeData.getAttachedActionId() != null) {
-                Node control = nodeMap.get(nodeData.getId());
-                Node child = nodeMap.get(nodeData.getAttachedActionId());
-                if (control != null && child != null) {
-                    control.attachActionNode(child);
-                }
-            }
+    static NodeGraphData readGraphFile(Path savePath) {
+        try {
+            return decodeGraphFile(savePath);
+        } catch (Exception e) {
+            return null;
         }
+    }
 
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            if (nodeData.getParentActionControlId() != null) {
-                Node child = nodeMap.get(nodeData.getId());
-                Node control = nodeMap.get(nodeData.getParentActionControlId());
-                if (child != null && control != null && control.canAcceptActionNode(child)) {
-                    control.attachActionNode(child);
-                }
-            }
-        }
+    private static NodeGraphData decodeGraphFile(Path savePath) throws IOException {
+        byte[] bytes = Files.readAllBytes(savePath);
+        return NodeGraphBinaryFormat.isBinary(bytes)
+            ? NodeGraphBinaryFormat.decode(bytes)
+            : GSON.fromJson(new String(bytes, StandardCharsets.UTF_8), NodeGraphData.class);
+    }
 
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            List<NodeGraphData.ParameterAttachmentData> attachments = nodeData.getParameterAttachments();
-            if (attachments != null && !attachments.isEmpty()) {
-                Node host = nodeMap.get(nodeData.getId());
-                if (host != null) {
-                    attachments.sort(java.util.Comparator.comparingInt(NodeGraphData.ParameterAttachmentData::getSlotIndex));
-                    for (NodeGraphData.ParameterAttachmentData attachment : attachments) {
-                        Node parameter = nodeMap.get(attachment.getParameterNodeId());
-                        if (parameter != null) {
-                            host.attachParameter(parameter, attachment.getSlotIndex());
-                        }
-                    }
-                }
-            } else if (nodeData.getAttachedParameterId() != null) {
-                Node host = nodeMap.get(nodeData.getId());
-                Node parameter = nodeMap.get(nodeData.getAttachedParameterId());
-                if (host != null && parameter != null && parameter.getParentParameterHost() == null) {
-                    host.attachParameter(parameter);
-                }
-            }
-        }
+    /**
+     * Serialize graph data to the shareable JSON format.
+     */
+    public static String toJson(NodeGraphData data) {
+        return GSON.toJson(data);
+    }
 
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            List<NodeGraphData.ParameterAttachmentData> attachments = nodeData.getParameterAttachments();
-            if (attachments != null && !attachments.isEmpty()) {
-                continue;
-            }
-            if (nodeData.getParentParameterHostId() != null) {
-                Node parameter = nodeMap.get(nodeData.getId());
-                Node host = nodeMap.get(nodeData.getParentParameterHostId());
-                if (parameter != null && host != null && parameter.isParameterNode()
-                    && parameter.getParentParameterHost() == null) {
-                    host.attachParameter(parameter);
-                }
-            }
-        }
+    public static NodeGraphData fromJson(String json) {
+        return GSON.fromJson(json, NodeGraphData.class);
+    }
 
-        return nodes;
+    /**
+     * Convert loaded data back to Node objects
+     */
+    public static List<Node> convertToNodes(NodeGraphData data) {
+        return NodeGraphHydrator.hydrate(data, NodeGraphHydrator.ParameterRestore.MERGE).getNodes();
     }
 
     /**
@@ -272,17 +253,21 @@ public class NodeGraphPersistence {
 
     public static boolean hasSavedNodeGraph(String presetName) {
         Path path = PresetManager.getPresetPath(presetName);
-        if (Files.exists(path)) {
+        if (Files.exists(path) || Files.exists(PresetManager.getPresetBinaryPath(presetName))) {
             return true;
         }
         String key = cacheKeyForPath(path);
-        return key != null && IN_MEMORY_JSON_CACHE.containsKey(key);
+        return key != null && IN_MEMORY_GRAPH_CACHE.containsKey(key);
     }
 
     private static void cachePresetGraph(String presetName, NodeGraphData data) {
         String key = cacheKeyForPreset(presetName);
         if (key != null && data != null) {
-            IN_MEMORY_JSON_CACHE.put(key, GSON.toJson(data));
+            try {
+                IN_MEMORY_GRAPH_CACHE.put(key, NodeGraphBinaryFormat.encode(data));
+            } catch (IOException e) {
+                System.err.println("Failed to cache node graph: " + e.getMessage());
+            }
         }
     }
 
@@ -299,12 +284,21 @@ public class NodeGraphPersistence {
             return null;
         }
         String name = fileName.toString();
-        if (name.endsWith(".json")) {
-            name = name.substring(0, name.length() - 5);
+        if (name.endsWith(".json") || name.endsWith(".pmg")) {
+            name = name.substring(0, name.lastIndexOf('.'));
         }
         return name.toLowerCase(Locale.ROOT);
     }
 
+    /**
+     * Build the saved form of the given nodes and connections without writing it anywhere.
+     */
+    public static NodeGraphData buildNodeGraphData(List<Node> nodes, List<NodeConnection> connections, long nodeDelayMs) {
+        NodeGraphData data = buildNodeGraphData(nodes, connections);
+        data.setNodeDelayMs(nodeDelayMs);
+        return data;
+    }
+
     private static NodeGraphData buildNodeGraphData(List<Node> nodes, List<NodeConnection> connections) {
         NodeGraphData data = new NodeGraphData();
 
@@ -369,6 +363,50 @@ public class NodeGraphPersistence {
         return data;
     }
 
+    /**
+     * Write to a temp file next to the target, then rename it over the target.
+     */
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, bytes);
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static NodeType resolveNodeType(String name) {
+        try {
+            if ("MINE".equals(name)) {
+                return NodeType.COLLECT;
+            }
+            if ("CLOSE_INVENTORY".equals(name)) {
+                return NodeType.CLOSE_GUI;
+            }
+            return NodeType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            // Handle unknown node types gracefully
+            System.err.println("Unknown node type: " + name + ", skipping...");
+            return null;
+        }
+    }
+
+    static com.pathmind.nodes.NodeMode resolveNodeMode(String name) {
+        try {
+            if ("MINE_SINGLE".equals(name)) {
+                return com.pathmind.nodes.NodeMode.COLLECT_SINGLE;
+            }
+            if ("MINE_MULTIPLE".equals(name)) {
+                return com.pathmind.nodes.NodeMode.COLLECT_MULTIPLE;
+            }
+            return com.pathmind.nodes.NodeMode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown node mode: " + name + ", skipping...");
+            return null;
+        }
+    }
+
     private static boolean writeNodeGraphDataToPath(NodeGraphData data, Path savePath) {
         try {
             if (savePath.getParent() != null) {
@@ -398,20 +436,7 @@ class NodeTypeAdapter extends com.google.gson.TypeAdapter<NodeType> {
 
     @Override
     public NodeType read(com.google.gson.stream.JsonReader in) throws java.io.IOException {
-        String name = in.nextString();
-        try {
-            if ("MINE".equals(name)) {
-                return NodeType.COLLECT;
-            }
-            if ("CLOSE_INVENTORY".equals(name)) {
-                return NodeType.CLOSE_GUI;
-            }
-            return NodeType.valueOf(name);
-        } catch (IllegalArgumentException e) {
-            // Handle unknown node types gracefully
-            System.err.println("Unknown node type: " + name + ", skipping...");
-            return null;
-        }
+        return NodeGraphPersistence.resolveNodeType(in.nextString());
     }
 }
 
@@ -434,18 +459,6 @@ class NodeModeAdapter extends com.google.gson.TypeAdapter<com.pathmind.nodes.Nod
             in.nextNull();
             return null;
         }
-        String name = in.nextString();
-        try {
-            if ("MINE_SINGLE".equals(name)) {
-                return com.pathmind.nodes.NodeMode.COLLECT_SINGLE;
-            }
-            if ("MINE_MULTIPLE".equals(name)) {
-                return com.pathmind.nodes.NodeMode.COLLECT_MULTIPLE;
-            }
-            return com.pathmind.nodes.NodeMode.valueOf(name);
-        } catch (IllegalArgumentException e) {
-            System.err.println("Unknown node mode: " + name + ", skipping...");
-            return null;
-        }
+        return NodeGraphPersistence.resolveNodeMode(in.nextString());
     }
 }
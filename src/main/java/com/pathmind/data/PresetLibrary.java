@@ -0,0 +1,350 @@
+package com.pathmind.data;
+
+import com.pathmind.nodes.NodeType;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of the presets directory. The index holds each preset's file, size and
+ * modification time, plus a summary of its graph (node count and nodes per type). A background
+ * thread rebuilds it whenever the directory changes, so the editor reads names and metadata
+ * without touching the disk. Summaries are parsed on that thread, and only for files that are
+ * new or changed. Full graphs are loaded on demand through {@link #loadGraphAsync(String)}.
+ */
+public final class PresetLibrary {
+    private static final long FALLBACK_RESCAN_MS = 2000L;
+
+    private static PresetLibrary instance;
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Pathmind-PresetLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object scanLock = new Object();
+    private volatile Map<String, PresetInfo> presets = Collections.emptyMap();
+    private volatile List<String> sortedNames = Collections.emptyList();
+    private volatile long version;
+    private volatile boolean watching;
+    private volatile long lastScanMs;
+
+    /**
+     * Snapshot of one preset file. The summary fields are -1 / empty until the file has been parsed.
+     */
+    public static final class PresetInfo {
+        private final String name;
+        private final Path path;
+        private final long lastModified;
+        private final long size;
+        private final int nodeCount;
+        private final Map<NodeType, Integer> nodeTypeCounts;
+
+        private PresetInfo(String name, Path path, long lastModified, long size, int nodeCount, Map<NodeType, Integer> nodeTypeCounts) {
+            this.name = name;
+            this.path = path;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.nodeCount = nodeCount;
+            this.nodeTypeCounts = nodeTypeCounts;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public boolean hasSummary() {
+            return nodeCount >= 0;
+        }
+
+        public int getNodeCount() {
+            return nodeCount;
+        }
+
+        public Map<NodeType, Integer> getNodeTypeCounts() {
+            return nodeTypeCounts;
+        }
+
+        private boolean sameFile(Path otherPath, long otherModified, long otherSize) {
+            return path.equals(otherPath) && lastModified == otherModified && size == otherSize;
+        }
+    }
+
+    private PresetLibrary() {
+    }
+
+    public static synchronized PresetLibrary getInstance() {
+        if (instance == null) {
+            instance = new PresetLibrary();
+            instance.start();
+        }
+        return instance;
+    }
+
+    /**
+     * Preset names found on disk, sorted case-insensitively.
+     */
+    public List<String> getPresetNames() {
+        rescanIfUnwatched();
+        return sortedNames;
+    }
+
+    /**
+     * Indexed metadata for the preset, or null when no file exists for it.
+     */
+    public PresetInfo getInfo(String presetName) {
+        if (presetName == null) {
+            return null;
+        }
+        rescanIfUnwatched();
+        return presets.get(presetName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * The names, in order, that contain the query ignoring case; all of them for a blank query.
+     */
+    public static List<String> search(List<String> names, String query) {
+        if (query == null || query.isBlank()) {
+            return names;
+        }
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+        List<String> matches = new ArrayList<>();
+        for (String name : names) {
+            if (name.toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(name);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Incremented every time the index changes, so callers can tell when to re-read it.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Rescan the directory on the calling thread, e.g. right after creating or deleting a preset.
+     */
+    public void refresh() {
+        scan(false);
+    }
+
+    /**
+     * Load the preset's graph on a background thread. Completes with null when there is no saved graph.
+     */
+    public CompletableFuture<NodeGraphData> loadGraphAsync(String presetName) {
+        return CompletableFuture.supplyAsync(() -> NodeGraphPersistence.loadNodeGraphForPreset(presetName), loader);
+    }
+
+    private void start() {
+        PresetManager.initialize();
+        scan(false);
+        Thread watcherThread = new Thread(this::watchLoop, "Pathmind-PresetWatcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void watchLoop() {
+        Path directory = PresetManager.getPresetsDirectory();
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+            watching = true;
+            // Files changed between the first scan and registration would otherwise go unnoticed
+            scan(true);
+            while (!Thread.currentThread().isInterrupted()) {
+                // Saves write a temp file and rename it; let the burst settle before rescanning
+                WatchKey next = watchService.take();
+                do {
+                    next.pollEvents();
+                    if (!next.reset()) {
+                        System.err.println("PresetLibrary: Presets directory is no longer watchable");
+                        return;
+                    }
+                    next = watchService.poll(100L, TimeUnit.MILLISECONDS);
+                } while (next != null);
+                scan(true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException | IOException | UnsupportedOperationException e) {
+            System.err.println("PresetLibrary: Falling back to periodic rescans: " + e.getMessage());
+        } finally {
+            watching = false;
+        }
+    }
+
+    private void rescanIfUnwatched() {
+        if (!watching && System.currentTimeMillis() - lastScanMs >= FALLBACK_RESCAN_MS) {
+            scan(false);
+            loader.execute(this::summarizePending);
+        }
+    }
+
+    private void scan(boolean summarize) {
+        synchronized (scanLock) {
+            Map<String, PresetInfo> previous = presets;
+            Map<String, PresetInfo> found = new LinkedHashMap<>();
+            Path directory = PresetManager.getPresetsDirectory();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path path : stream) {
+                    indexFile(path, previous, found);
+                }
+            } catch (IOException e) {
+                System.err.println("PresetLibrary: Failed to list presets: " + e.getMessage());
+                return;
+            } finally {
+                lastScanMs = System.currentTimeMillis();
+            }
+            if (!sameIndex(previous, found)) {
+                publish(found);
+            }
+        }
+        if (summarize) {
+            summarizePending();
+        }
+    }
+
+    /**
+     * Parse presets that have no summary yet. Runs outside the scan lock so a refresh from the
+     * render thread never waits on parsing; results for files changed meanwhile are dropped.
+     */
+    private void summarizePending() {
+        Map<String, PresetInfo> summaries = new LinkedHashMap<>();
+        for (Map.Entry<String, PresetInfo> entry : presets.entrySet()) {
+            if (!entry.getValue().hasSummary()) {
+                summaries.put(entry.getKey(), summarize(entry.getValue()));
+            }
+        }
+        if (summaries.isEmpty()) {
+            return;
+        }
+        synchronized (scanLock) {
+            Map<String, PresetInfo> updated = new LinkedHashMap<>(presets);
+            boolean changed = false;
+            for (Map.Entry<String, PresetInfo> entry : summaries.entrySet()) {
+                PresetInfo current = updated.get(entry.getKey());
+                PresetInfo summary = entry.getValue();
+                if (current != null && current.sameFile(summary.getPath(), summary.getLastModified(), summary.getSize())) {
+                    updated.put(entry.getKey(), summary);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                publish(updated);
+            }
+        }
+    }
+
+    private void publish(Map<String, PresetInfo> index) {
+        List<String> names = new ArrayList<>(index.size());
+        for (PresetInfo info : index.values()) {
+            names.add(info.getName());
+        }
+        names.sort(Comparator.comparing(name -> name.toLowerCase(Locale.ROOT)));
+        presets = Collections.unmodifiableMap(index);
+        sortedNames = Collections.unmodifiableList(names);
+        version++;
+    }
+
+    private static void indexFile(Path path, Map<String, PresetInfo> previous, Map<String, PresetInfo> found) {
+        String fileName = path.getFileName().toString();
+        boolean binary = fileName.endsWith(PresetManager.BINARY_EXTENSION);
+        if (!binary && !fileName.endsWith(PresetManager.JSON_EXTENSION)) {
+            return;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            // Removed between listing and reading; the next event rescans
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            return;
+        }
+
+        String name = fileName.substring(0, fileName.lastIndexOf('.'));
+        String key = name.toLowerCase(Locale.ROOT);
+        PresetInfo existing = found.get(key);
+        // The binary file wins over a legacy JSON file of the same preset, as when loading
+        if (existing != null && (!binary || existing.getPath().getFileName().toString().endsWith(PresetManager.BINARY_EXTENSION))) {
+            return;
+        }
+
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        PresetInfo known = previous.get(key);
+        if (known != null && known.sameFile(path, lastModified, size)) {
+            found.put(key, known);
+        } else {
+            found.put(key, new PresetInfo(name, path, lastModified, size, -1, Collections.emptyMap()));
+        }
+    }
+
+    private static PresetInfo summarize(PresetInfo info) {
+        NodeGraphData data = NodeGraphPersistence.readGraphFile(info.getPath());
+        int nodeCount = 0;
+        Map<NodeType, Integer> typeCounts = new EnumMap<>(NodeType.class);
+        if (data != null && data.getNodes() != null) {
+            for (NodeGraphData.NodeData node : data.getNodes()) {
+                if (node == null) {
+                    continue;
+                }
+                nodeCount++;
+                if (node.getType() != null) {
+                    typeCounts.merge(node.getType(), 1, Integer::sum);
+                }
+            }
+        }
+        return new PresetInfo(info.getName(), info.getPath(), info.getLastModified(), info.getSize(),
+            nodeCount, Collections.unmodifiableMap(typeCounts));
+    }
+
+    private static boolean sameIndex(Map<String, PresetInfo> previous, Map<String, PresetInfo> found) {
+        if (previous.size() != found.size()) {
+            return false;
+        }
+        for (Map.Entry<String, PresetInfo> entry : found.entrySet()) {
+            if (previous.get(entry.getKey()) != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
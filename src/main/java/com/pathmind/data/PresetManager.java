@@ -12,8 +12,6 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Utility class that manages Pathmind workspace presets.
@@ -23,6 +21,8 @@ public final class PresetManager {
     private static final String PRESETS_DIRECTORY_NAME = "presets";
     private static final String ACTIVE_PRESET_FILE_NAME = "active_preset.txt";
     private static final String DEFAULT_PRESET_NAME = "Default";
+    static final String JSON_EXTENSION = ".json";
+    static final String BINARY_EXTENSION = ".pmg";
 
     private PresetManager() {
     }
@@ -76,34 +76,25 @@ public final class PresetManager {
     }
 
     /**
-     * List all available presets.
+     * List all available presets. Names come from the {@link PresetLibrary} index, so this does not touch the disk.
      */
     public static List<String> getAvailablePresets() {
-        initialize();
-        List<String> presets = new ArrayList<>();
-        Path presetsDirectory = getPresetsDirectory();
-        try (Stream<Path> pathStream = Files.list(presetsDirectory)) {
-            presets = pathStream
-                .filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(".json"))
-                .map(path -> {
-                    String fileName = path.getFileName().toString();
-                    return fileName.substring(0, fileName.length() - 5);
-                })
-                .collect(Collectors.toCollection(ArrayList::new));
-        } catch (IOException e) {
-            System.err.println("Failed to list presets: " + e.getMessage());
-        }
-
+        List<String> presets = new ArrayList<>(PresetLibrary.getInstance().getPresetNames());
+        boolean added = false;
         if (presets.stream().noneMatch(name -> name.equalsIgnoreCase(DEFAULT_PRESET_NAME))) {
             presets.add(DEFAULT_PRESET_NAME);
+            added = true;
         }
 
         String activePreset = getActivePreset();
         if (presets.stream().noneMatch(name -> name.equalsIgnoreCase(activePreset))) {
             presets.add(activePreset);
+            added = true;
         }
 
-        presets.sort(Comparator.comparing(String::toLowerCase));
+        if (added) {
+            presets.sort(Comparator.comparing(String::toLowerCase));
+        }
         return presets;
     }
 
@@ -124,12 +115,13 @@ public final class PresetManager {
         }
 
         Path presetPath = getPresetPath(sanitized);
-        if (Files.exists(presetPath)) {
+        if (Files.exists(presetPath) || Files.exists(getPresetBinaryPath(sanitized))) {
             return Optional.empty();
         }
 
         try {
             Files.writeString(presetPath, "{}", StandardCharsets.UTF_8);
+            PresetLibrary.getInstance().refresh();
             return Optional.of(sanitized);
         } catch (IOException e) {
             System.err.println("Failed to create preset: " + e.getMessage());
@@ -150,13 +142,16 @@ public final class PresetManager {
         }
 
         initialize();
-        Path presetPath = getPresetsDirectory().resolve(sanitized + ".json");
-        if (!Files.exists(presetPath)) {
+        Path presetPath = getPresetsDirectory().resolve(sanitized + JSON_EXTENSION);
+        Path binaryPath = getPresetsDirectory().resolve(sanitized + BINARY_EXTENSION);
+        if (!Files.exists(presetPath) && !Files.exists(binaryPath)) {
             return false;
         }
 
         try {
-            Files.delete(presetPath);
+            Files.deleteIfExists(presetPath);
+            Files.deleteIfExists(binaryPath);
+            PresetLibrary.getInstance().refresh();
             return true;
         } catch (IOException e) {
             System.err.println("Failed to delete preset: " + e.getMessage());
@@ -172,15 +167,26 @@ public final class PresetManager {
     }
 
     /**
-     * Resolve the save path for a preset.
+     * Resolve the JSON path for a preset. Used for legacy presets and as the default import/export location.
      */
     public static Path getPresetPath(String presetName) {
+        return resolvePresetFile(presetName, JSON_EXTENSION);
+    }
+
+    /**
+     * Resolve the compact binary path that presets are saved to.
+     */
+    public static Path getPresetBinaryPath(String presetName) {
+        return resolvePresetFile(presetName, BINARY_EXTENSION);
+    }
+
+    private static Path resolvePresetFile(String presetName, String extension) {
         initialize();
         String sanitized = sanitizePresetName(presetName);
         if (sanitized.isEmpty()) {
             sanitized = DEFAULT_PRESET_NAME;
         }
-        return getPresetsDirectory().resolve(sanitized + ".json");
+        return getPresetsDirectory().resolve(sanitized + extension);
     }
 
     /**
@@ -191,7 +197,7 @@ public final class PresetManager {
         return minecraftDirectory.resolve(BASE_DIRECTORY_NAME);
     }
 
-    private static Path getPresetsDirectory() {
+    static Path getPresetsDirectory() {
         return getBaseDirectory().resolve(PRESETS_DIRECTORY_NAME);
     }
 
@@ -0,0 +1,137 @@
+package com.pathmind.execution;
+
+import com.pathmind.nodes.Node;
+import com.pathmind.nodes.NodeParameter;
+import com.pathmind.nodes.NodeType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Event registry of a compiled {@link ExecutionPlan}: for every EVENT_CALL node, the normalized
+ * event name and the EVENT_FUNCTION handlers it dispatches to, in plan order. Dispatch is an array
+ * lookup by plan index. The editor marks the table stale through {@link #invalidate()} whenever the
+ * workspace changes, and the next lookup rebuilds it, so renaming a function still applies to a
+ * running or replayed plan without lookups re-reading any names.
+ */
+final class EventDispatchTable {
+    private static final Node[] NO_HANDLERS = new Node[0];
+
+    private final Node[] planNodes;
+    private final int[] eventNodeIndices;
+    private volatile boolean stale;
+    private volatile String[] callNames;
+    private volatile Node[][] callHandlers;
+
+    private EventDispatchTable(Node[] planNodes, int[] eventNodeIndices) {
+        this.planNodes = planNodes;
+        this.eventNodeIndices = eventNodeIndices;
+        rebuild();
+    }
+
+    static EventDispatchTable build(Node[] planNodes) {
+        int count = 0;
+        for (Node node : planNodes) {
+            if (isEventNode(node)) {
+                count++;
+            }
+        }
+        int[] eventNodeIndices = new int[count];
+        int next = 0;
+        for (int i = 0; i < planNodes.length; i++) {
+            if (isEventNode(planNodes[i])) {
+                eventNodeIndices[next++] = i;
+            }
+        }
+        return new EventDispatchTable(planNodes, eventNodeIndices);
+    }
+
+    /**
+     * Normalized event name of the EVENT_CALL node at the plan index, or an empty string when it has none.
+     */
+    String getCallName(int index) {
+        if (stale) {
+            rebuildIfStale();
+        }
+        String[] callNames = this.callNames;
+        String name = index >= 0 && index < callNames.length ? callNames[index] : null;
+        return name != null ? name : "";
+    }
+
+    /**
+     * Handlers the EVENT_CALL node at the plan index dispatches to; the array must not be modified.
+     */
+    Node[] getCallHandlers(int index) {
+        if (stale) {
+            rebuildIfStale();
+        }
+        Node[][] callHandlers = this.callHandlers;
+        Node[] handlers = index >= 0 && index < callHandlers.length ? callHandlers[index] : null;
+        return handlers != null ? handlers : NO_HANDLERS;
+    }
+
+    static String normalizeEventName(String value) {
+        if (value == null) {
+            return "";
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return "";
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Re-read the event names on the next lookup, e.g. after a function was renamed in the editor.
+     */
+    void invalidate() {
+        if (eventNodeIndices.length > 0) {
+            stale = true;
+        }
+    }
+
+    private synchronized void rebuildIfStale() {
+        if (stale) {
+            // Cleared first so an edit made during the rebuild marks the table again
+            stale = false;
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        Map<String, List<Node>> handlersByName = new HashMap<>();
+        String[] names = new String[planNodes.length];
+        for (int i = 0; i < eventNodeIndices.length; i++) {
+            int index = eventNodeIndices[i];
+            Node node = planNodes[index];
+            String name = normalizeEventName(rawName(node));
+            names[index] = name;
+            if (node.getType() == NodeType.EVENT_FUNCTION && !name.isEmpty()) {
+                handlersByName.computeIfAbsent(name, ignored -> new ArrayList<>()).add(node);
+            }
+        }
+
+        Node[][] handlers = new Node[planNodes.length][];
+        for (int index : eventNodeIndices) {
+            if (planNodes[index].getType() != NodeType.EVENT_CALL || names[index].isEmpty()) {
+                continue;
+            }
+            List<Node> matching = handlersByName.get(names[index]);
+            handlers[index] = matching != null ? matching.toArray(new Node[0]) : NO_HANDLERS;
+        }
+        this.callNames = names;
+        this.callHandlers = handlers;
+    }
+
+    private static boolean isEventNode(Node node) {
+        return node.getType() == NodeType.EVENT_FUNCTION || node.getType() == NodeType.EVENT_CALL;
+    }
+
+    private static String rawName(Node node) {
+        NodeParameter param = node.getParameter("Name");
+        return param != null ? param.getStringValue() : null;
+    }
+}
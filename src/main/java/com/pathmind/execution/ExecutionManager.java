@@ -7,26 +7,26 @@ import baritone.api.process.ICustomGoalProcess;
 import baritone.api.process.IExploreProcess;
 import baritone.api.process.IFarmProcess;
 import baritone.api.process.IMineProcess;
+import com.pathmind.nodes.ExecutionFrame;
 import com.pathmind.nodes.Node;
 import com.pathmind.nodes.NodeConnection;
 import com.pathmind.nodes.NodeParameter;
 import com.pathmind.nodes.NodeType;
-import com.pathmind.nodes.ParameterType;
 import com.pathmind.data.NodeGraphData;
+import com.pathmind.data.NodeGraphHydrator;
 import com.pathmind.data.NodeGraphPersistence;
+import com.pathmind.util.BlockLocationIndex;
+import com.pathmind.util.ClientThreadBridge;
+import net.minecraft.client.MinecraftClient;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 import java.util.Objects;
 
 /**
@@ -40,12 +40,17 @@ public class ExecutionManager {
     private long executionStartTime;
     private long executionEndTime;
     private static final long MINIMUM_DISPLAY_DURATION = 3000; // 3 seconds minimum display
-    private NodeGraphData lastExecutedGraph;
-    private NodeGraphData lastGlobalGraph;
+    private ExecutionSnapshot lastExecutedGraph;
+    private ExecutionSnapshot lastGlobalGraph;
+    // Copies of the recorded runs taken before one of their nodes was edited; replays hydrate them
+    private NodeGraphData lastExecutedGraphData;
+    private NodeGraphData lastGlobalGraphData;
+    // Replay waiting for the previous run's chains to unwind; cleared when it starts or is stopped
+    private CompletableFuture<Void> pendingReplay;
     private List<Node> activeNodes;
     private List<NodeConnection> activeConnections;
+    private ExecutionPlan activePlan;
     private final Set<ConnectionKey> activeConnectionLookup;
-    private final List<String> executingEvents;
     private volatile boolean cancelRequested;
     private final Map<Node, ChainController> activeChains;
     private final Map<ConnectionKey, Node> eventConnectionOwners;
@@ -58,15 +63,51 @@ public class ExecutionManager {
     private long activeNodeEndTime;
     private boolean singleplayerPaused;
 
-    private static final long NODE_EXECUTION_DELAY_MS = 150L;
+    private final ExecutionScheduler scheduler;
 
     private static class ChainController {
         final Node startNode;
-        volatile boolean cancelRequested;
-
-        ChainController(Node startNode) {
+        final ExecutionPlan plan;
+        // Loop counters and output sockets of this chain only, indexed like the plan
+        final ExecutionFrame frame;
+        final long nodeDelayMs;
+        // Events this chain is currently inside, so a handler calling its own event is skipped
+        final Set<String> executingEvents = ConcurrentHashMap.newKeySet();
+        // Chain a parallel event handler was forked from; stopping it stops the fork as well
+        final ChainController parent;
+        private volatile boolean cancelRequested;
+        volatile CompletableFuture<Void> completion = CompletableFuture.completedFuture(null);
+
+        ChainController(Node startNode, ExecutionPlan plan, long nodeDelayMs) {
+            this(startNode, plan, nodeDelayMs, null);
+        }
+
+        private ChainController(Node startNode, ExecutionPlan plan, long nodeDelayMs, ChainController parent) {
             this.startNode = startNode;
+            this.plan = plan;
+            this.frame = new ExecutionFrame(plan.size());
+            this.nodeDelayMs = Math.max(0L, nodeDelayMs);
+            this.parent = parent;
             this.cancelRequested = false;
+            if (parent != null) {
+                executingEvents.addAll(parent.executingEvents);
+            }
+        }
+
+        /**
+         * Controller for an event handler run alongside others: its own frame, scheduler slot and
+         * event guard (seeded with this chain's), so handlers do not share loop counters or sockets.
+         */
+        ChainController fork(Node handler) {
+            return new ChainController(handler, plan, nodeDelayMs, this);
+        }
+
+        void cancel() {
+            cancelRequested = true;
+        }
+
+        boolean isCancelled() {
+            return cancelRequested || (parent != null && parent.isCancelled());
         }
     }
 
@@ -109,9 +150,9 @@ public class ExecutionManager {
         this.isExecuting = false;
         this.executionStartTime = 0;
         this.executionEndTime = 0;
-        this.activeNodes = new ArrayList<>();
-        this.activeConnections = new ArrayList<>();
-        this.executingEvents = new ArrayList<>();
+        this.activeNodes = Collections.emptyList();
+        this.activeConnections = Collections.emptyList();
+        this.activePlan = ExecutionPlan.empty();
         this.cancelRequested = false;
         this.activeChains = new ConcurrentHashMap<>();
         this.globalExecutionActive = false;
@@ -124,6 +165,8 @@ public class ExecutionManager {
         this.activeNodePauseStartTime = 0;
         this.activeNodeEndTime = 0;
         this.singleplayerPaused = false;
+        this.scheduler = new ExecutionScheduler();
+        Node.setDefinitionChangeListener(this::onNodeDefinitionChanging);
     }
     
     public static ExecutionManager getInstance() {
@@ -134,10 +177,26 @@ public class ExecutionManager {
     }
 
     public void executeGraph(List<Node> nodes, List<NodeConnection> connections) {
-        executeGraphInternal(nodes, connections, true);
+        executeGraph(nodes, connections, NodeGraphData.DEFAULT_NODE_DELAY_MS);
+    }
+
+    /**
+     * Execute every START chain of the graph, waiting {@code nodeDelayMs} between nodes (0 runs instant nodes back to back).
+     */
+    public void executeGraph(List<Node> nodes, List<NodeConnection> connections, long nodeDelayMs) {
+        executeGraphInternal(nodes, connections, true, nodeDelayMs);
+    }
+
+    /**
+     * Resolve finished Baritone tasks, then advance queued node chains. Called once per client tick
+     * from the client thread so chains unblocked by a completed task continue in the same tick.
+     */
+    public void onClientTick() {
+        PreciseCompletionTracker.getInstance().onClientTick();
+        scheduler.tick();
     }
 
-    private void executeGraphInternal(List<Node> nodes, List<NodeConnection> connections, boolean markGlobalSnapshot) {
+    private void executeGraphInternal(List<Node> nodes, List<NodeConnection> connections, boolean markGlobalSnapshot, long nodeDelayMs) {
         if (nodes == null || connections == null) {
             System.out.println("ExecutionManager: Cannot execute graph - missing nodes or connections.");
             return;
@@ -149,46 +208,136 @@ public class ExecutionManager {
             return;
         }
 
+        List<NodeConnection> filteredConnections = filterConnections(connections);
+        ExecutionPlan plan = ExecutionPlan.compile(nodes, filteredConnections);
+        startSnapshot(new ExecutionSnapshot(plan, startNodes, filteredConnections, nodeDelayMs), markGlobalSnapshot);
+    }
+
+    private void startSnapshot(ExecutionSnapshot snapshot, boolean markGlobalSnapshot) {
         // Ensure Baritone isn't still executing stale goals from a previous session
         cancelAllBaritoneCommands();
 
-        List<NodeConnection> filteredConnections = filterConnections(connections);
-
-        NodeGraphData snapshot = createGraphSnapshot(nodes, filteredConnections);
         this.lastExecutedGraph = snapshot;
+        this.lastExecutedGraphData = null;
         if (markGlobalSnapshot) {
             this.lastGlobalGraph = snapshot;
+            this.lastGlobalGraphData = null;
         }
         this.lastSnapshotWasGlobal = markGlobalSnapshot;
-        this.activeNodes = new ArrayList<>(nodes);
-        this.activeConnections = new ArrayList<>(filteredConnections);
+        this.activePlan = snapshot.getPlan();
+        this.activeNodes = activePlan.getNodes();
+        this.activeConnections = snapshot.getConnections();
+        BlockLocationIndex.getInstance().trackBlocksFor(this.activePlan.getNodes());
         rebuildConnectionState(this.activeNodes, this.activeConnections);
         this.cancelRequested = false;
 
+        List<Node> startNodes = snapshot.getStartNodes();
         startExecution(startNodes, markGlobalSnapshot);
         activeChains.clear();
 
         for (Node startNode : startNodes) {
-            ChainController controller = new ChainController(startNode);
+            ChainController controller = new ChainController(startNode, activePlan, snapshot.getNodeDelayMs());
             activeChains.put(startNode, controller);
             CompletableFuture<Void> chainFuture = runChain(startNode, controller);
+            controller.completion = chainFuture;
             chainFuture.whenComplete((ignored, throwable) -> handleChainCompletion(controller, throwable));
         }
     }
 
-    public void replayLastGraph() {
-        if (lastExecutedGraph == null) {
-            System.out.println("ExecutionManager: No previously executed node graph to replay.");
+    /**
+     * Run a previously started graph again on the same node objects. Chains still running on them
+     * are cancelled first, and the new run starts once every one of those chains has finished.
+     */
+    private void replaySnapshot(ExecutionSnapshot snapshot, boolean markGlobalSnapshot) {
+        if (pendingReplay != null) {
+            System.out.println("ExecutionManager: Replay already waiting for the previous run to stop.");
+            return;
+        }
+
+        List<CompletableFuture<Void>> running = new ArrayList<>();
+        for (ChainController controller : activeChains.values()) {
+            controller.cancel();
+            running.add(controller.completion);
+        }
+        if (running.isEmpty()) {
+            startSnapshot(snapshot, markGlobalSnapshot);
             return;
         }
 
-        if (!executeGraphSnapshot(lastExecutedGraph, lastSnapshotWasGlobal)) {
-            System.out.println("ExecutionManager: No nodes available to replay.");
+        // Let the cancelled chains unwind instead of waiting out Baritone goals and node delays
+        cancelAllBaritoneCommands();
+        scheduler.releaseAll();
+        CompletableFuture<Void> drained = CompletableFuture.allOf(running.toArray(new CompletableFuture<?>[0]));
+        pendingReplay = drained;
+        drained.handle((ignored, throwable) -> null)
+            .thenCompose(ignored -> ClientThreadBridge.run(MinecraftClient.getInstance(), () -> {
+                if (pendingReplay != drained) {
+                    // Stopped while waiting
+                    return;
+                }
+                pendingReplay = null;
+                startSnapshot(snapshot, markGlobalSnapshot);
+            }));
+    }
+
+    /**
+     * Called before an editor node changes. Recorded runs that share the node are copied as they
+     * are now, so replays keep running the graph that was started rather than the edited one.
+     */
+    private void onNodeDefinitionChanging(Node node) {
+        if (lastExecutedGraph != null && lastExecutedGraph.uses(node)) {
+            NodeGraphData data = lastExecutedGraph.toGraphData();
+            if (lastGlobalGraph == lastExecutedGraph) {
+                lastGlobalGraph = null;
+                lastGlobalGraphData = data;
+            }
+            lastExecutedGraph = null;
+            lastExecutedGraphData = data;
+        }
+        if (lastGlobalGraph != null && lastGlobalGraph.uses(node)) {
+            lastGlobalGraphData = lastGlobalGraph.toGraphData();
+            lastGlobalGraph = null;
+        }
+    }
+
+    /**
+     * Have every plan that may still run re-read its event names, after the editor graph changed.
+     */
+    public void invalidateEventDispatch() {
+        activePlan.getEventDispatch().invalidate();
+        for (ChainController controller : activeChains.values()) {
+            controller.plan.getEventDispatch().invalidate();
+        }
+        if (lastExecutedGraph != null) {
+            lastExecutedGraph.getPlan().getEventDispatch().invalidate();
+        }
+        if (lastGlobalGraph != null) {
+            lastGlobalGraph.getPlan().getEventDispatch().invalidate();
+        }
+    }
+
+    public void replayLastGraph() {
+        if (lastExecutedGraph != null) {
+            replaySnapshot(lastExecutedGraph, lastSnapshotWasGlobal);
+            return;
+        }
+        ExecutionSnapshot hydrated = hydrateSnapshot(lastExecutedGraphData);
+        if (hydrated != null) {
+            replaySnapshot(hydrated, lastSnapshotWasGlobal);
+            return;
         }
+
+        System.out.println("ExecutionManager: No previously executed node graph to replay.");
     }
 
     public void playAllGraphs() {
-        if (lastGlobalGraph != null && executeGraphSnapshot(lastGlobalGraph, true)) {
+        if (lastGlobalGraph != null) {
+            replaySnapshot(lastGlobalGraph, true);
+            return;
+        }
+        ExecutionSnapshot hydrated = hydrateSnapshot(lastGlobalGraphData);
+        if (hydrated != null) {
+            replaySnapshot(hydrated, true);
             return;
         }
 
@@ -201,6 +350,10 @@ public class ExecutionManager {
     }
 
     public boolean executeBranch(Node startNode, List<Node> nodes, List<NodeConnection> connections) {
+        return executeBranch(startNode, nodes, connections, NodeGraphData.DEFAULT_NODE_DELAY_MS);
+    }
+
+    public boolean executeBranch(Node startNode, List<Node> nodes, List<NodeConnection> connections, long nodeDelayMs) {
         if (startNode == null || startNode.getType() != NodeType.START) {
             System.out.println("ExecutionManager: Cannot execute branch - invalid START node.");
             return false;
@@ -215,11 +368,12 @@ public class ExecutionManager {
         }
 
         List<NodeConnection> filteredConnections = filterConnections(connections);
-        Set<Node> branchNodeSet = collectBranchNodes(startNode, filteredConnections);
+        ExecutionPlan fullPlan = ExecutionPlan.compile(nodes, filteredConnections);
+        Set<Node> branchNodeSet = fullPlan.collectReachable(startNode);
 
         for (Node node : nodes) {
             if (node.getType() == NodeType.EVENT_FUNCTION) {
-                branchNodeSet.addAll(collectBranchNodes(node, filteredConnections));
+                branchNodeSet.addAll(fullPlan.collectReachable(node));
             }
         }
 
@@ -237,10 +391,13 @@ public class ExecutionManager {
             }
         }
 
-        this.lastExecutedGraph = createGraphSnapshot(branchNodes, branchConnections);
+        this.activePlan = ExecutionPlan.compile(branchNodes, branchConnections);
+        this.lastExecutedGraph = new ExecutionSnapshot(activePlan, Collections.singletonList(startNode), branchConnections, nodeDelayMs);
+        this.lastExecutedGraphData = null;
         this.lastSnapshotWasGlobal = false;
-        this.activeNodes = branchNodes;
-        this.activeConnections = branchConnections;
+        this.activeNodes = activePlan.getNodes();
+        this.activeConnections = lastExecutedGraph.getConnections();
+        BlockLocationIndex.getInstance().trackBlocksFor(this.activePlan.getNodes());
         rebuildConnectionState(this.activeNodes, this.activeConnections);
         this.cancelRequested = false;
 
@@ -250,9 +407,10 @@ public class ExecutionManager {
             this.isExecuting = true;
         }
 
-        ChainController controller = new ChainController(startNode);
+        ChainController controller = new ChainController(startNode, activePlan, nodeDelayMs);
         activeChains.put(startNode, controller);
         CompletableFuture<Void> chainFuture = runChain(startNode, controller);
+        controller.completion = chainFuture;
         chainFuture.whenComplete((ignored, throwable) -> handleChainCompletion(controller, throwable));
         return true;
     }
@@ -319,6 +477,7 @@ public class ExecutionManager {
      */
     public void requestStopAll() {
         cancelAllBaritoneCommands();
+        pendingReplay = null;
 
         if (!isExecuting && activeNode == null && activeChains.isEmpty()) {
             return;
@@ -327,7 +486,7 @@ public class ExecutionManager {
         System.out.println("ExecutionManager: Stop requested for all node trees at time " + System.currentTimeMillis());
         cancelRequested = true;
         for (ChainController controller : activeChains.values()) {
-            controller.cancelRequested = true;
+            controller.cancel();
         }
         this.isExecuting = false;
         this.globalExecutionActive = false;
@@ -335,13 +494,14 @@ public class ExecutionManager {
         clearActiveNodeTiming();
         this.executionStartTime = 0;
         this.executionEndTime = 0;
-        this.activeNodes.clear();
-        this.activeConnections.clear();
+        this.activeNodes = Collections.emptyList();
+        this.activeConnections = Collections.emptyList();
+        this.activePlan = ExecutionPlan.empty();
         this.activeConnectionLookup.clear();
-        this.executingEvents.clear();
         this.eventConnectionOwners.clear();
         this.activeEventFunctionNodes.clear();
         this.activeChains.clear();
+        scheduler.releaseAll();
     }
 
     private void cancelAllBaritoneCommands() {
@@ -401,7 +561,7 @@ public class ExecutionManager {
             return false;
         }
 
-        controller.cancelRequested = true;
+        controller.cancel();
         System.out.println("ExecutionManager: Stop requested for START node " + startNode.getId() + " at time " + System.currentTimeMillis());
         return true;
     }
@@ -411,7 +571,7 @@ public class ExecutionManager {
             return false;
         }
         ChainController controller = activeChains.get(startNode);
-        return controller != null && !controller.cancelRequested;
+        return controller != null && !controller.isCancelled();
     }
     
     /**
@@ -538,25 +698,25 @@ public class ExecutionManager {
     }
 
     private CompletableFuture<Void> runChain(Node currentNode, ChainController controller) {
-        if (cancelRequested || controller == null || controller.cancelRequested) {
+        if (cancelRequested || controller == null || controller.isCancelled()) {
             return CompletableFuture.completedFuture(null);
         }
 
-        return scheduleNodeStartDelay()
+        return scheduleNodeStart(controller)
             .thenCompose(ignored -> {
-                if (cancelRequested || controller.cancelRequested) {
+                if (cancelRequested || controller.isCancelled()) {
                     return CompletableFuture.completedFuture(null);
                 }
 
                 setActiveNode(currentNode);
 
-                if (cancelRequested || controller.cancelRequested) {
+                if (cancelRequested || controller.isCancelled()) {
                     return CompletableFuture.completedFuture(null);
                 }
 
-                return currentNode.execute()
+                return currentNode.execute(controller.frame, controller.plan.indexOf(currentNode))
                     .thenCompose(ignoredFuture -> {
-                        if (cancelRequested || controller.cancelRequested) {
+                        if (cancelRequested || controller.isCancelled()) {
                             return CompletableFuture.completedFuture(null);
                         }
                         return handleEventCallIfNeeded(currentNode, controller);
@@ -565,63 +725,60 @@ public class ExecutionManager {
             });
     }
 
-    private CompletableFuture<Void> scheduleNodeStartDelay() {
-        if (NODE_EXECUTION_DELAY_MS <= 0L) {
-            return CompletableFuture.completedFuture(null);
-        }
-
-        return CompletableFuture.runAsync(() -> { },
-            CompletableFuture.delayedExecutor(NODE_EXECUTION_DELAY_MS, TimeUnit.MILLISECONDS));
+    private CompletableFuture<Void> scheduleNodeStart(ChainController controller) {
+        return scheduler.schedule(controller, controller.nodeDelayMs);
     }
 
     private CompletableFuture<Void> handleEventCallIfNeeded(Node node, ChainController controller) {
-        if (cancelRequested || controller.cancelRequested || node.getType() != NodeType.EVENT_CALL) {
+        if (cancelRequested || controller.isCancelled() || node.getType() != NodeType.EVENT_CALL) {
             return CompletableFuture.completedFuture(null);
         }
 
-        NodeParameter nameParam = node.getParameter("Name");
-        String eventName = normalizeEventName(nameParam != null ? nameParam.getStringValue() : null);
+        EventDispatchTable dispatch = controller.plan.getEventDispatch();
+        int callIndex = controller.plan.indexOf(node);
+        String eventName = dispatch.getCallName(callIndex);
         if (eventName.isEmpty()) {
             return CompletableFuture.completedFuture(null);
         }
 
-        if (executingEvents.contains(eventName)) {
+        if (controller.executingEvents.contains(eventName)) {
             System.out.println("ExecutionManager: Skipping recursive event call for " + eventName);
             return CompletableFuture.completedFuture(null);
         }
 
-        List<Node> handlers = new ArrayList<>();
-        for (Node candidate : activeNodes) {
-            if (candidate.getType() == NodeType.EVENT_FUNCTION) {
-                NodeParameter candidateParam = candidate.getParameter("Name");
-                String candidateName = normalizeEventName(candidateParam != null ? candidateParam.getStringValue() : null);
-                if (!candidateName.isEmpty() && candidateName.equals(eventName)) {
-                    handlers.add(candidate);
-                }
-            }
-        }
-
-        if (handlers.isEmpty()) {
+        Node[] handlers = dispatch.getCallHandlers(callIndex);
+        if (handlers.length == 0) {
             return CompletableFuture.completedFuture(null);
         }
 
-        executingEvents.add(eventName);
-        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
-        for (Node handler : handlers) {
-            if (cancelRequested || controller.cancelRequested) {
-                break;
+        controller.executingEvents.add(eventName);
+        CompletableFuture<Void> chain;
+        NodeParameter parallelParam = node.getParameter("Parallel");
+        if (handlers.length > 1 && parallelParam != null && parallelParam.asBoolean(false)) {
+            // Each handler runs as its own chain, so loop state and output sockets stay separate
+            CompletableFuture<?>[] running = new CompletableFuture<?>[handlers.length];
+            for (int i = 0; i < handlers.length; i++) {
+                running[i] = runEventHandler(handlers[i], controller.fork(handlers[i]));
+            }
+            chain = CompletableFuture.allOf(running);
+        } else {
+            chain = CompletableFuture.completedFuture(null);
+            for (Node handler : handlers) {
+                if (cancelRequested || controller.isCancelled()) {
+                    break;
+                }
+                chain = chain.thenCompose(ignored -> runEventHandler(handler, controller));
             }
-            chain = chain.thenCompose(ignored -> runEventHandler(handler, controller));
         }
-        return chain.whenComplete((ignored, throwable) -> executingEvents.remove(eventName));
+        return chain.whenComplete((ignored, throwable) -> controller.executingEvents.remove(eventName));
     }
 
     private CompletableFuture<Void> continueFromNode(Node currentNode, ChainController controller) {
-        if (cancelRequested || controller == null || controller.cancelRequested) {
+        if (cancelRequested || controller == null || controller.isCancelled()) {
             return CompletableFuture.completedFuture(null);
         }
 
-        int nextSocket = currentNode.consumeNextOutputSocket();
+        int nextSocket = controller.frame.consumeNextOutputSocket(controller.plan.indexOf(currentNode));
 
         if (currentNode.hasAttachedActionNode()) {
             Node attachedAction = currentNode.getAttachedActionNode();
@@ -631,7 +788,7 @@ public class ExecutionManager {
                 if (type == NodeType.CONTROL_FOREVER && nextSocket != Node.NO_OUTPUT) {
                     return runChain(attachedAction, controller)
                         .thenCompose(ignored -> {
-                            if (cancelRequested || controller.cancelRequested) {
+                            if (cancelRequested || controller.isCancelled()) {
                                 return CompletableFuture.completedFuture(null);
                             }
                             return runChain(currentNode, controller);
@@ -641,7 +798,7 @@ public class ExecutionManager {
                 if ((type == NodeType.CONTROL_REPEAT || type == NodeType.CONTROL_REPEAT_UNTIL) && nextSocket == 0) {
                     return runChain(attachedAction, controller)
                         .thenCompose(ignored -> {
-                            if (cancelRequested || controller.cancelRequested) {
+                            if (cancelRequested || controller.isCancelled()) {
                                 return CompletableFuture.completedFuture(null);
                             }
                             return runChain(currentNode, controller);
@@ -654,9 +811,9 @@ public class ExecutionManager {
             return CompletableFuture.completedFuture(null);
         }
 
-        Node nextNode = getNextConnectedNode(currentNode, activeConnections, nextSocket);
+        Node nextNode = controller.plan.getNextNode(currentNode, nextSocket);
         if (nextNode == null && nextSocket > 0) {
-            nextNode = getNextConnectedNode(currentNode, activeConnections, 0);
+            nextNode = controller.plan.getNextNode(currentNode, 0);
         }
         if (nextNode != null) {
             return runChain(nextNode, controller);
@@ -678,155 +835,58 @@ public class ExecutionManager {
             return;
         }
 
-        if (throwable != null && !cancelRequested && !controller.cancelRequested) {
+        if (throwable != null && !cancelRequested && !controller.isCancelled()) {
             System.err.println("ExecutionManager: Error during execution - " + throwable.getMessage());
             throwable.printStackTrace();
         }
 
-        activeChains.remove(controller.startNode);
+        // A replay may already have registered a new controller for the same START node
+        activeChains.remove(controller.startNode, controller);
 
         if (activeChains.isEmpty() && isExecuting) {
             stopExecution();
-            activeNodes.clear();
-            activeConnections.clear();
+            activeNodes = Collections.emptyList();
+            activeConnections = Collections.emptyList();
+            activePlan = ExecutionPlan.empty();
             activeConnectionLookup.clear();
-            executingEvents.clear();
             eventConnectionOwners.clear();
             activeEventFunctionNodes.clear();
         }
     }
 
-    private boolean executeGraphSnapshot(NodeGraphData graphData, boolean markGlobalSnapshot) {
+    /**
+     * Rebuild a recorded run from its copy on fresh nodes, which the editor never touches.
+     */
+    private ExecutionSnapshot hydrateSnapshot(NodeGraphData graphData) {
         if (graphData == null) {
-            return false;
-        }
-
-        Map<String, Node> nodeMap = new HashMap<>();
-        List<Node> nodes = new ArrayList<>();
-
-        for (NodeGraphData.NodeData nodeData : graphData.getNodes()) {
-            Node node = new Node(nodeData.getType(), nodeData.getX(), nodeData.getY());
-
-            try {
-                java.lang.reflect.Field idField = Node.class.getDeclaredField("id");
-                idField.setAccessible(true);
-                idField.set(node, nodeData.getId());
-            } catch (Exception e) {
-                System.err.println("ExecutionManager: Failed to set node ID during replay - " + e.getMessage());
-            }
-
-            if (nodeData.getMode() != null) {
-                node.setMode(nodeData.getMode());
-            }
-
-            node.getParameters().clear();
-            if (nodeData.getParameters() != null) {
-                for (NodeGraphData.ParameterData paramData : nodeData.getParameters()) {
-                    ParameterType paramType = ParameterType.valueOf(paramData.getType());
-                    NodeParameter param = new NodeParameter(paramData.getName(), paramType, paramData.getValue());
-                    node.getParameters().add(param);
-                }
-            }
-            node.recalculateDimensions();
-
-            nodes.add(node);
-            nodeMap.put(nodeData.getId(), node);
-        }
-
-        for (NodeGraphData.NodeData nodeData : graphData.getNodes()) {
-            if (nodeData.getAttachedSensorId() != null) {
-                Node control = nodeMap.get(nodeData.getId());
-                Node sensor = nodeMap.get(nodeData.getAttachedSensorId());
-                if (control != null && sensor != null) {
-                    control.attachSensor(sensor);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : graphData.getNodes()) {
-            if (nodeData.getParentControlId() != null) {
-                Node sensor = nodeMap.get(nodeData.getId());
-                Node control = nodeMap.get(nodeData.getParentControlId());
-                if (sensor != null && control != null && sensor.isSensorNode()) {
-                    control.attachSensor(sensor);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : graphData.getNodes()) {
-            if (nodeData.getAttachedActionId() != null) {
-                Node control = nodeMap.get(nodeData.getId());
-                Node child = nodeMap.get(nodeData.getAttachedActionId());
-                if (control != null && child != null) {
-                    control.attachActionNode(child);
-                }
-            }
+            return null;
         }
 
-        for (NodeGraphData.NodeData nodeData : graphData.getNodes()) {
-            if (nodeData.getParentActionControlId() != null) {
-                Node child = nodeMap.get(nodeData.getId());
-                Node control = nodeMap.get(nodeData.getParentActionControlId());
-                if (child != null && control != null && control.canAcceptActionNode(child)) {
-                    control.attachActionNode(child);
-                }
-            }
+        NodeGraphHydrator.Result hydrated = NodeGraphHydrator.hydrate(graphData, NodeGraphHydrator.ParameterRestore.REPLACE);
+        List<Node> startNodes = findStartNodes(hydrated.getNodes());
+        if (startNodes.isEmpty()) {
+            return null;
         }
 
-        for (NodeGraphData.NodeData nodeData : graphData.getNodes()) {
-            List<NodeGraphData.ParameterAttachmentData> attachments = nodeData.getParameterAttachments();
-            if (attachments != null && !attachments.isEmpty()) {
-                Node host = nodeMap.get(nodeData.getId());
-                if (host != null) {
-                    attachments.sort(java.util.Comparator.comparingInt(NodeGraphData.ParameterAttachmentData::getSlotIndex));
-                    for (NodeGraphData.ParameterAttachmentData attachment : attachments) {
-                        Node parameter = nodeMap.get(attachment.getParameterNodeId());
-                        if (parameter != null) {
-                            host.attachParameter(parameter, attachment.getSlotIndex());
-                        }
-                    }
-                }
-            } else if (nodeData.getAttachedParameterId() != null) {
-                Node host = nodeMap.get(nodeData.getId());
-                Node parameter = nodeMap.get(nodeData.getAttachedParameterId());
-                if (host != null && parameter != null && parameter.getParentParameterHost() == null) {
-                    host.attachParameter(parameter);
-                }
-            }
-        }
+        List<NodeConnection> filteredConnections = filterConnections(hydrated.getConnections());
+        ExecutionPlan plan = ExecutionPlan.compile(hydrated.getNodes(), filteredConnections);
+        return new ExecutionSnapshot(plan, startNodes, filteredConnections, graphData.getNodeDelayMs());
+    }
 
-        for (NodeGraphData.NodeData nodeData : graphData.getNodes()) {
-            List<NodeGraphData.ParameterAttachmentData> attachments = nodeData.getParameterAttachments();
-            if (attachments != null && !attachments.isEmpty()) {
-                continue;
-            }
-            if (nodeData.getParentParameterHostId() != null) {
-                Node parameter = nodeMap.get(nodeData.getId());
-                Node host = nodeMap.get(nodeData.getParentParameterHostId());
-                if (parameter != null && host != null && parameter.isParameterNode()
-                    && parameter.getParentParameterHost() == null) {
-                    host.attachParameter(parameter);
-                }
-            }
+    private boolean executeGraphSnapshot(NodeGraphData graphData, boolean markGlobalSnapshot) {
+        if (graphData == null) {
+            return false;
         }
 
-        List<NodeConnection> connections = new ArrayList<>();
-        for (NodeGraphData.ConnectionData connData : graphData.getConnections()) {
-            Node outputNode = nodeMap.get(connData.getOutputNodeId());
-            Node inputNode = nodeMap.get(connData.getInputNodeId());
-            if (outputNode != null && inputNode != null) {
-                if (outputNode.isSensorNode() || inputNode.isSensorNode()) {
-                    continue;
-                }
-                connections.add(new NodeConnection(outputNode, inputNode, connData.getOutputSocket(), connData.getInputSocket()));
-            }
-        }
+        NodeGraphHydrator.Result hydrated = NodeGraphHydrator.hydrate(graphData, NodeGraphHydrator.ParameterRestore.REPLACE);
+        List<Node> nodes = hydrated.getNodes();
+        List<NodeConnection> connections = hydrated.getConnections();
 
         if (nodes.isEmpty()) {
             return false;
         }
 
-        executeGraphInternal(nodes, connections, markGlobalSnapshot);
+        executeGraphInternal(nodes, connections, markGlobalSnapshot, graphData.getNodeDelayMs());
         return true;
     }
 
@@ -848,28 +908,6 @@ public class ExecutionManager {
         return activeConnectionLookup.contains(key);
     }
 
-    private String normalizeEventName(String value) {
-        if (value == null) {
-            return "";
-        }
-        String trimmed = value.trim();
-        if (trimmed.isEmpty()) {
-            return "";
-        }
-        return trimmed.toLowerCase(Locale.ROOT);
-    }
-
-    private Node getNextConnectedNode(Node currentNode, List<NodeConnection> connections, int outputSocket) {
-        for (NodeConnection connection : connections) {
-            if (connection.getOutputNode() == currentNode) {
-                if (connection.getOutputSocket() == outputSocket) {
-                    return connection.getInputNode();
-                }
-            }
-        }
-        return null;
-    }
-
     private List<Node> findStartNodes(List<Node> nodes) {
         List<Node> startNodes = new ArrayList<>();
         if (nodes == null) {
@@ -885,84 +923,6 @@ public class ExecutionManager {
         return startNodes;
     }
 
-    private Set<Node> collectBranchNodes(Node startNode, List<NodeConnection> connections) {
-        LinkedHashSet<Node> visited = new LinkedHashSet<>();
-        if (startNode == null) {
-            return visited;
-        }
-
-        ArrayDeque<Node> stack = new ArrayDeque<>();
-        stack.push(startNode);
-
-        while (!stack.isEmpty()) {
-            Node current = stack.pop();
-            if (!visited.add(current)) {
-                continue;
-            }
-
-            Node attachedSensor = current.getAttachedSensor();
-            if (attachedSensor != null) {
-                stack.push(attachedSensor);
-            }
-
-            Node attachedAction = current.getAttachedActionNode();
-            if (attachedAction != null) {
-                stack.push(attachedAction);
-            }
-
-            for (NodeConnection connection : connections) {
-                if (connection.getOutputNode() == current) {
-                    stack.push(connection.getInputNode());
-                }
-            }
-        }
-
-        return visited;
-    }
-
-    private NodeGraphData createGraphSnapshot(List<Node> nodes, List<NodeConnection> connections) {
-        NodeGraphData snapshot = new NodeGraphData();
-
-        for (Node node : nodes) {
-            NodeGraphData.NodeData nodeData = new NodeGraphData.NodeData();
-            nodeData.setId(node.getId());
-            nodeData.setType(node.getType());
-            nodeData.setMode(node.getMode());
-            nodeData.setX(node.getX());
-            nodeData.setY(node.getY());
-
-            List<NodeGraphData.ParameterData> parameterDataList = new ArrayList<>();
-            for (NodeParameter parameter : node.getParameters()) {
-                NodeGraphData.ParameterData parameterData = new NodeGraphData.ParameterData();
-                parameterData.setName(parameter.getName());
-                parameterData.setValue(parameter.getStringValue());
-                parameterData.setType(parameter.getType().name());
-                parameterDataList.add(parameterData);
-            }
-            nodeData.setParameters(parameterDataList);
-            nodeData.setAttachedSensorId(node.getAttachedSensorId());
-            nodeData.setParentControlId(node.getParentControlId());
-            nodeData.setAttachedActionId(node.getAttachedActionId());
-            nodeData.setParentActionControlId(node.getParentActionControlId());
-            nodeData.setAttachedParameterId(node.getAttachedParameterId());
-            nodeData.setParentParameterHostId(node.getParentParameterHostId());
-
-            snapshot.getNodes().add(nodeData);
-        }
-
-        for (NodeConnection connection : filterConnections(connections)) {
-            NodeGraphData.ConnectionData connectionData = new NodeGraphData.ConnectionData(
-                    connection.getOutputNode().getId(),
-                    connection.getInputNode().getId(),
-                    connection.getOutputSocket(),
-                    connection.getInputSocket()
-            );
-            snapshot.getConnections().add(connectionData);
-        }
-
-        return snapshot;
-    }
-
     private List<NodeConnection> filterConnections(List<NodeConnection> connections) {
         List<NodeConnection> filtered = new ArrayList<>();
         if (connections == null) {
@@ -1011,7 +971,7 @@ public class ExecutionManager {
                 continue;
             }
 
-            Set<Node> scopeNodes = collectBranchNodes(node, connections);
+            Set<Node> scopeNodes = activePlan.collectReachable(node);
             if (scopeNodes.isEmpty()) {
                 continue;
             }
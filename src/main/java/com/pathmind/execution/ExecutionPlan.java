@@ -0,0 +1,239 @@
+package com.pathmind.execution;
+
+import com.pathmind.nodes.Node;
+import com.pathmind.nodes.NodeConnection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, index-based view of a node graph compiled once per execution.
+ * Every node gets a dense index so chain stepping can resolve the next node
+ * through array lookups instead of scanning the connection list, and event
+ * calls resolve their handlers through the plan's {@link EventDispatchTable}.
+ */
+final class ExecutionPlan {
+    static final int NO_NODE = -1;
+
+    private static final int[] NO_SUCCESSORS = new int[0];
+
+    private final Node[] nodes;
+    private final Map<Node, Integer> indices;
+    private final int[][] successors;
+    private final int[] attachedSensors;
+    private final int[] attachedActions;
+    private final int[][] attachedParameters;
+    private final int connectionCount;
+    private final EventDispatchTable eventDispatch;
+
+    private ExecutionPlan(Node[] nodes, Map<Node, Integer> indices, int[][] successors,
+                          int[] attachedSensors, int[] attachedActions, int[][] attachedParameters,
+                          int connectionCount) {
+        this.nodes = nodes;
+        this.indices = indices;
+        this.successors = successors;
+        this.attachedSensors = attachedSensors;
+        this.attachedActions = attachedActions;
+        this.attachedParameters = attachedParameters;
+        this.connectionCount = connectionCount;
+        this.eventDispatch = EventDispatchTable.build(nodes);
+    }
+
+    static ExecutionPlan empty() {
+        return compile(Collections.emptyList(), Collections.emptyList());
+    }
+
+    /**
+     * Compiles the given nodes and (already filtered) connections into a plan.
+     * Nodes reachable only through attachments or connections are indexed as well.
+     */
+    static ExecutionPlan compile(List<Node> nodes, List<NodeConnection> connections) {
+        List<Node> ordered = new ArrayList<>();
+        Map<Node, Integer> indices = new IdentityHashMap<>();
+        if (nodes != null) {
+            for (Node node : nodes) {
+                register(node, ordered, indices);
+            }
+        }
+        if (connections != null) {
+            for (NodeConnection connection : connections) {
+                register(connection.getOutputNode(), ordered, indices);
+                register(connection.getInputNode(), ordered, indices);
+            }
+        }
+        for (int i = 0; i < ordered.size(); i++) {
+            Node node = ordered.get(i);
+            register(node.getAttachedSensor(), ordered, indices);
+            register(node.getAttachedActionNode(), ordered, indices);
+            for (Node parameter : node.getAttachedParameters().values()) {
+                register(parameter, ordered, indices);
+            }
+        }
+
+        int count = ordered.size();
+        Node[] nodeArray = ordered.toArray(new Node[0]);
+        int[][] successors = new int[count][];
+        int[] sensors = new int[count];
+        int[] actions = new int[count];
+        int[][] parameters = new int[count][];
+
+        for (int i = 0; i < count; i++) {
+            Node node = nodeArray[i];
+            int socketCount = node.getOutputSocketCount();
+            if (socketCount <= 0) {
+                successors[i] = NO_SUCCESSORS;
+            } else {
+                successors[i] = new int[socketCount];
+                java.util.Arrays.fill(successors[i], NO_NODE);
+            }
+            sensors[i] = indexOf(indices, node.getAttachedSensor());
+            actions[i] = indexOf(indices, node.getAttachedActionNode());
+
+            Map<Integer, Node> attached = node.getAttachedParameters();
+            if (attached.isEmpty()) {
+                parameters[i] = NO_SUCCESSORS;
+            } else {
+                int maxSlot = 0;
+                for (Integer slot : attached.keySet()) {
+                    maxSlot = Math.max(maxSlot, slot);
+                }
+                int[] slots = new int[maxSlot + 1];
+                java.util.Arrays.fill(slots, NO_NODE);
+                for (Map.Entry<Integer, Node> entry : attached.entrySet()) {
+                    if (entry.getKey() >= 0) {
+                        slots[entry.getKey()] = indexOf(indices, entry.getValue());
+                    }
+                }
+                parameters[i] = slots;
+            }
+        }
+
+        int connectionCount = 0;
+        if (connections != null) {
+            for (NodeConnection connection : connections) {
+                int from = indexOf(indices, connection.getOutputNode());
+                int socket = connection.getOutputSocket();
+                if (from == NO_NODE || socket < 0 || socket >= successors[from].length) {
+                    continue;
+                }
+                // The first connection on a socket wins, matching the editor's ordering
+                if (successors[from][socket] == NO_NODE) {
+                    successors[from][socket] = indexOf(indices, connection.getInputNode());
+                }
+                connectionCount++;
+            }
+        }
+
+        return new ExecutionPlan(nodeArray, indices, successors, sensors, actions, parameters, connectionCount);
+    }
+
+    private static void register(Node node, List<Node> ordered, Map<Node, Integer> indices) {
+        if (node == null || indices.containsKey(node)) {
+            return;
+        }
+        indices.put(node, ordered.size());
+        ordered.add(node);
+    }
+
+    private static int indexOf(Map<Node, Integer> indices, Node node) {
+        if (node == null) {
+            return NO_NODE;
+        }
+        Integer index = indices.get(node);
+        return index != null ? index : NO_NODE;
+    }
+
+    int size() {
+        return nodes.length;
+    }
+
+    int getConnectionCount() {
+        return connectionCount;
+    }
+
+    EventDispatchTable getEventDispatch() {
+        return eventDispatch;
+    }
+
+    List<Node> getNodes() {
+        return java.util.Arrays.asList(nodes);
+    }
+
+    int indexOf(Node node) {
+        return indexOf(indices, node);
+    }
+
+    Node getNode(int index) {
+        return index >= 0 && index < nodes.length ? nodes[index] : null;
+    }
+
+    /**
+     * Returns the node connected to the given output socket, or null when nothing is connected.
+     */
+    Node getNextNode(Node node, int outputSocket) {
+        int index = indexOf(node);
+        if (index == NO_NODE || outputSocket < 0) {
+            return null;
+        }
+        int[] sockets = successors[index];
+        if (outputSocket >= sockets.length) {
+            return null;
+        }
+        return getNode(sockets[outputSocket]);
+    }
+
+    Node getAttachedSensor(int index) {
+        return getNode(attachedSensors[index]);
+    }
+
+    Node getAttachedAction(int index) {
+        return getNode(attachedActions[index]);
+    }
+
+    Node getAttachedParameter(int index, int slotIndex) {
+        int[] slots = attachedParameters[index];
+        return slotIndex >= 0 && slotIndex < slots.length ? getNode(slots[slotIndex]) : null;
+    }
+
+    /**
+     * Collects every node reachable from the given root through connections and attached sensors/actions.
+     */
+    Set<Node> collectReachable(Node root) {
+        LinkedHashSet<Node> visited = new LinkedHashSet<>();
+        int rootIndex = indexOf(root);
+        if (rootIndex == NO_NODE) {
+            return visited;
+        }
+
+        boolean[] seen = new boolean[nodes.length];
+        int[] stack = new int[nodes.length];
+        int top = 0;
+        stack[top++] = rootIndex;
+        seen[rootIndex] = true;
+
+        while (top > 0) {
+            int current = stack[--top];
+            visited.add(nodes[current]);
+            top = push(stack, top, seen, attachedSensors[current]);
+            top = push(stack, top, seen, attachedActions[current]);
+            for (int next : successors[current]) {
+                top = push(stack, top, seen, next);
+            }
+        }
+        return visited;
+    }
+
+    private static int push(int[] stack, int top, boolean[] seen, int index) {
+        if (index == NO_NODE || seen[index]) {
+            return top;
+        }
+        seen[index] = true;
+        stack[top] = index;
+        return top + 1;
+    }
+}
@@ -0,0 +1,92 @@
+package com.pathmind.execution;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Cooperative, tick-driven scheduler for node chains.
+ * Each chain queues a step before starting its next node; queued steps are released
+ * on the client thread during the end-of-tick callback. Nodes that finish instantly
+ * keep advancing within the same tick until the chain spends its per-tick budget,
+ * while nodes that wait on the world resume on the following tick.
+ */
+final class ExecutionScheduler {
+    static final int MAX_NODES_PER_TICK = 64;
+
+    private final ConcurrentLinkedQueue<PendingStep> pendingSteps = new ConcurrentLinkedQueue<>();
+
+    private static final class PendingStep {
+        private final Object owner;
+        private final long readyAt;
+        private final CompletableFuture<Void> future;
+
+        private PendingStep(Object owner, long readyAt) {
+            this.owner = owner;
+            this.readyAt = readyAt;
+            this.future = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Queue a step for the given owner. The returned future completes on the client thread
+     * once the delay has elapsed and the owner still has budget left in the current tick.
+     */
+    CompletableFuture<Void> schedule(Object owner, long delayMs) {
+        long readyAt = delayMs > 0L ? System.currentTimeMillis() + delayMs : 0L;
+        PendingStep step = new PendingStep(owner, readyAt);
+        pendingSteps.add(step);
+        return step.future;
+    }
+
+    /**
+     * Release every ready step. Steps queued while draining are picked up in the same pass.
+     */
+    void tick() {
+        if (pendingSteps.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<Object, Integer> stepsTaken = new IdentityHashMap<>();
+        List<PendingStep> deferred = new ArrayList<>();
+
+        PendingStep step;
+        while ((step = pendingSteps.poll()) != null) {
+            if (step.readyAt > now) {
+                deferred.add(step);
+                continue;
+            }
+            int taken = stepsTaken.merge(step.owner, 1, Integer::sum);
+            if (taken > MAX_NODES_PER_TICK) {
+                deferred.add(step);
+                continue;
+            }
+            try {
+                step.future.complete(null);
+            } catch (RuntimeException e) {
+                System.err.println("ExecutionScheduler: Error while advancing node chain - " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+
+        pendingSteps.addAll(deferred);
+    }
+
+    /**
+     * Release all queued steps immediately so cancelled chains can unwind.
+     */
+    void releaseAll() {
+        PendingStep step;
+        while ((step = pendingSteps.poll()) != null) {
+            step.future.complete(null);
+        }
+    }
+
+    int getPendingStepCount() {
+        return pendingSteps.size();
+    }
+}
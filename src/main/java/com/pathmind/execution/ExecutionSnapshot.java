@@ -0,0 +1,97 @@
+package com.pathmind.execution;
+
+import com.pathmind.data.NodeGraphData;
+import com.pathmind.data.NodeGraphPersistence;
+import com.pathmind.nodes.Node;
+import com.pathmind.nodes.NodeConnection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Record of a started graph that shares structure with the live editor graph: the compiled plan
+ * over the original {@link Node} objects, the connections it was compiled from and the START nodes.
+ * Replaying reuses it directly, so starting a run never serializes or rebuilds the graph; each chain
+ * gets a fresh {@link com.pathmind.nodes.ExecutionFrame}, which also holds the parameter values
+ * resolved during the run, so the nodes themselves carry no runtime state. Because the nodes are
+ * shared, the manager copies a snapshot into {@link NodeGraphData} just before one of its nodes is
+ * edited, so the last run can still be replayed as it was started.
+ */
+final class ExecutionSnapshot {
+    private final ExecutionPlan plan;
+    private final List<Node> startNodes;
+    private final List<NodeConnection> connections;
+    private final long nodeDelayMs;
+
+    ExecutionSnapshot(ExecutionPlan plan, List<Node> startNodes, List<NodeConnection> connections, long nodeDelayMs) {
+        this.plan = plan;
+        this.startNodes = Collections.unmodifiableList(startNodes);
+        this.connections = Collections.unmodifiableList(connections);
+        this.nodeDelayMs = nodeDelayMs;
+    }
+
+    ExecutionPlan getPlan() {
+        return plan;
+    }
+
+    List<Node> getStartNodes() {
+        return startNodes;
+    }
+
+    List<NodeConnection> getConnections() {
+        return connections;
+    }
+
+    long getNodeDelayMs() {
+        return nodeDelayMs;
+    }
+
+    /**
+     * Whether editing {@code node} changes this run, either because it is in the plan or because it
+     * is attached as a sensor, action or parameter to a node that is.
+     */
+    boolean uses(Node node) {
+        for (Node current = node; current != null; current = getOwner(current)) {
+            if (plan.indexOf(current) != ExecutionPlan.NO_NODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serialize the plan's nodes, everything attached to them and the connections, as they are now.
+     */
+    NodeGraphData toGraphData() {
+        Set<Node> nodes = new LinkedHashSet<>(plan.getNodes());
+        List<Node> pending = new ArrayList<>(nodes);
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            addAttached(node.getAttachedSensor(), nodes, pending);
+            addAttached(node.getAttachedActionNode(), nodes, pending);
+            for (Node parameter : node.getAttachedParameters().values()) {
+                addAttached(parameter, nodes, pending);
+            }
+        }
+        return NodeGraphPersistence.buildNodeGraphData(new ArrayList<>(nodes), connections, nodeDelayMs);
+    }
+
+    private static void addAttached(Node node, Set<Node> nodes, List<Node> pending) {
+        if (node != null && nodes.add(node)) {
+            pending.add(node);
+        }
+    }
+
+    private static Node getOwner(Node node) {
+        if (node.getParentParameterHost() != null) {
+            return node.getParentParameterHost();
+        }
+        if (node.getParentControl() != null) {
+            return node.getParentControl();
+        }
+        return node.getParentActionControl();
+    }
+}
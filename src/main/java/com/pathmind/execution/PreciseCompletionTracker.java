@@ -3,36 +3,48 @@ package com.pathmind.execution;
 import baritone.api.BaritoneAPI;
 import baritone.api.IBaritone;
 import baritone.api.behavior.IPathingBehavior;
+import baritone.api.event.events.PathEvent;
+import baritone.api.event.listener.AbstractGameEventListener;
 import baritone.api.process.ICustomGoalProcess;
 import baritone.api.process.IGetToBlockProcess;
 import baritone.api.process.IMineProcess;
 import baritone.api.process.IExploreProcess;
 import baritone.api.process.IFarmProcess;
-import baritone.api.process.IBaritoneProcess;
-import baritone.api.pathing.goals.Goal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.Optional;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.text.Text;
 
 /**
  * Tracks Baritone processes precisely by monitoring their actual state changes.
  * This provides exact completion detection instead of timeouts or approximations.
+ *
+ * All pending tasks live in a flat, array-backed table that is evaluated in a single
+ * pass once per client tick. Baritone path events trigger an immediate extra pass so
+ * GOTO/COLLECT/FARM completion is noticed as soon as Baritone reports it.
  */
 public class PreciseCompletionTracker {
-    
+
     private static PreciseCompletionTracker instance;
-    private final Map<String, CompletableFuture<Void>> pendingTasks = new ConcurrentHashMap<>();
-    private final Map<String, ProcessState> processStates = new ConcurrentHashMap<>();
-    private final Map<String, Long> taskStartTimes = new ConcurrentHashMap<>();
-    private final Map<String, Long> taskCompletionGraceStarts = new ConcurrentHashMap<>();
-    private final Map<String, String> taskTypes = new ConcurrentHashMap<>();
-    private Timer monitoringTimer;
-    
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final Object lock = new Object();
+    private String[] taskIds = new String[INITIAL_CAPACITY];
+    private String[] taskTypes = new String[INITIAL_CAPACITY];
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<Void>[] taskFutures = new CompletableFuture[INITIAL_CAPACITY];
+    private ProcessState[] processStates = new ProcessState[INITIAL_CAPACITY];
+    private long[] taskStartTimes = new long[INITIAL_CAPACITY];
+    private long[] taskCompletionGraceStarts = new long[INITIAL_CAPACITY];
+    private boolean[] taskWarned = new boolean[INITIAL_CAPACITY];
+    private int taskCount;
+
+    private final List<Resolution> resolvedDuringPass = new ArrayList<>();
+    private volatile boolean baritoneListenerRegistered;
+
     // Task types
     public static final String TASK_GOTO = "goto";
     public static final String TASK_PATH = "path";
@@ -40,14 +52,14 @@ public class PreciseCompletionTracker {
     public static final String TASK_COLLECT = "collect";
     public static final String TASK_EXPLORE = "explore";
     public static final String TASK_FARM = "farm";
-    
+
     // Maximum monitoring duration (in milliseconds) - safety fallback
     // Long-running nodes like Mine can legitimately take several minutes, so we allow a 60-minute window.
     private static final long MAX_MONITORING_DURATION = 3_600_000; // 60 minutes
     private static final long WARNING_THRESHOLD_MS = 300_000; // 5 minutes reminder window
     private static final long TASK_START_TIMEOUT_MS = 8000;
     private static final long COLLECT_COMPLETION_GRACE_MS = 750;
-    
+
     private enum ProcessState {
         STARTING,
         ACTIVE,
@@ -56,220 +68,217 @@ public class PreciseCompletionTracker {
         FAILED
     }
 
+    /**
+     * Outcome of a task, applied to its future outside of the table lock.
+     */
+    private static final class Resolution {
+        private final String taskId;
+        private final CompletableFuture<Void> future;
+        private final long startTime;
+        private final String errorReason;
+        private final String userMessage;
+
+        private Resolution(String taskId, CompletableFuture<Void> future, long startTime, String errorReason, String userMessage) {
+            this.taskId = taskId;
+            this.future = future;
+            this.startTime = startTime;
+            this.errorReason = errorReason;
+            this.userMessage = userMessage;
+        }
+    }
+
     private PreciseCompletionTracker() {
-        this.monitoringTimer = new Timer("PreciseCompletionTimer", true);
     }
-    
+
     public static PreciseCompletionTracker getInstance() {
         if (instance == null) {
             instance = new PreciseCompletionTracker();
         }
         return instance;
     }
-    
+
     /**
      * Start tracking a task with precise completion detection
      */
     public void startTrackingTask(String taskType, CompletableFuture<Void> future) {
         String taskId = createTaskId(taskType);
-        pendingTasks.put(taskId, future);
-        processStates.put(taskId, ProcessState.STARTING);
-        taskStartTimes.put(taskId, System.currentTimeMillis());
-        taskTypes.put(taskId, taskType);
+        synchronized (lock) {
+            ensureCapacity(taskCount + 1);
+            int slot = taskCount++;
+            taskIds[slot] = taskId;
+            taskTypes[slot] = taskType;
+            taskFutures[slot] = future;
+            processStates[slot] = ProcessState.STARTING;
+            taskStartTimes[slot] = System.currentTimeMillis();
+            taskCompletionGraceStarts[slot] = 0L;
+            taskWarned[slot] = false;
+        }
 
         System.out.println("PreciseCompletionTracker: Started tracking task: " + taskType + " (" + taskId + ")");
-
-        // Start monitoring/tracking this specific task
-        startMonitoringTask(taskId);
-        startWarningTimer(taskId);
+        ensureBaritoneListener();
     }
 
     private String createTaskId(String taskType) {
         return taskType + ":" + java.util.UUID.randomUUID();
     }
 
-    private String getTaskType(String taskId) {
-        String storedType = taskTypes.get(taskId);
-        if (storedType != null) {
-            return storedType;
-        }
-        int separator = taskId.indexOf(':');
-        if (separator > 0) {
-            return taskId.substring(0, separator);
+    private void ensureCapacity(int required) {
+        if (required <= taskIds.length) {
+            return;
         }
-        return taskId;
+        int capacity = Math.max(required, taskIds.length * 2);
+        taskIds = Arrays.copyOf(taskIds, capacity);
+        taskTypes = Arrays.copyOf(taskTypes, capacity);
+        taskFutures = Arrays.copyOf(taskFutures, capacity);
+        processStates = Arrays.copyOf(processStates, capacity);
+        taskStartTimes = Arrays.copyOf(taskStartTimes, capacity);
+        taskCompletionGraceStarts = Arrays.copyOf(taskCompletionGraceStarts, capacity);
+        taskWarned = Arrays.copyOf(taskWarned, capacity);
     }
 
     /**
-     * Start monitoring a specific task
+     * Evaluate every pending task once. Called from the client tick so Baritone state is
+     * read on the thread that owns it.
      */
-    private void startMonitoringTask(String taskId) {
-        // Schedule monitoring every 100ms for precise detection
-        TimerTask monitoringTask = new TimerTask() {
-            @Override
-            public void run() {
-                if (!pendingTasks.containsKey(taskId)) {
-                    this.cancel();
-                    return;
-                }
-                
+    public void onClientTick() {
+        evaluatePendingTasks();
+    }
+
+    private void evaluatePendingTasks() {
+        List<Resolution> resolutions;
+        synchronized (lock) {
+            if (taskCount == 0) {
+                return;
+            }
+
+            IBaritone baritone = getBaritone();
+            long now = System.currentTimeMillis();
+            for (int slot = 0; slot < taskCount; slot++) {
                 try {
-                    if (checkTaskCompletion(taskId)) {
-                        this.cancel();
-                    }
+                    evaluateSlot(baritone, slot, now);
                 } catch (Exception e) {
-                    System.err.println("Error monitoring task " + taskId + ": " + e.getMessage());
-                    completeTaskWithError(taskId, "Monitoring error: " + e.getMessage());
-                    this.cancel();
+                    System.err.println("Error monitoring task " + taskIds[slot] + ": " + e.getMessage());
+                    completeTaskWithError(slot, "Monitoring error: " + e.getMessage());
                 }
             }
-        };
-        
-        monitoringTimer.schedule(monitoringTask, 100, 100); // Start in 100ms, repeat every 100ms
+            compactResolvedSlots();
+            resolutions = new ArrayList<>(resolvedDuringPass);
+            resolvedDuringPass.clear();
+        }
+        applyResolutions(resolutions);
     }
 
-    private void startWarningTimer(String taskId) {
-        if (WARNING_THRESHOLD_MS <= 0L) {
-            return;
+    private void evaluateSlot(IBaritone baritone, int slot, long now) {
+        ProcessState currentState = processStates[slot];
+        if (currentState == ProcessState.COMPLETED || currentState == ProcessState.FAILED) {
+            return; // Already handled
         }
-        TimerTask warningTask = new TimerTask() {
-            @Override
-            public void run() {
-                if (!pendingTasks.containsKey(taskId)) {
-                    this.cancel();
-                    return;
-                }
-                String taskType = getTaskType(taskId);
-                String warning = "Long-running Pathmind task '" + taskType + "' has been running for over 5 minutes. Hold tight until it finishes.";
-                System.out.println("PreciseCompletionTracker: " + warning);
-                notifyPlayer(warning);
-                this.cancel();
-            }
-        };
-        monitoringTimer.schedule(warningTask, WARNING_THRESHOLD_MS);
-    }
 
-    /**
-     * Check if a specific task has completed
-     */
-    private boolean checkTaskCompletion(String taskId) {
-        IBaritone baritone = getBaritone();
         if (baritone == null) {
-            completeTaskWithError(taskId, "Baritone not available");
-            return true;
+            completeTaskWithError(slot, "Baritone not available");
+            return;
         }
-        String taskType = getTaskType(taskId);
-        
+
         // Check for timeout
-        Long startTime = taskStartTimes.get(taskId);
-        if (startTime != null && System.currentTimeMillis() - startTime > MAX_MONITORING_DURATION) {
-            completeTaskWithError(taskId, "Task timed out after " + (MAX_MONITORING_DURATION / 1000) + " seconds");
-            return true;
+        if (now - taskStartTimes[slot] > MAX_MONITORING_DURATION) {
+            completeTaskWithError(slot, "Task timed out after " + (MAX_MONITORING_DURATION / 1000) + " seconds");
+            return;
         }
-        
-        ProcessState currentState = processStates.get(taskId);
-        if (currentState == ProcessState.COMPLETED || currentState == ProcessState.FAILED) {
-            return true; // Already handled
+
+        if (!taskWarned[slot] && WARNING_THRESHOLD_MS > 0L && now - taskStartTimes[slot] >= WARNING_THRESHOLD_MS) {
+            taskWarned[slot] = true;
+            String warning = "Long-running Pathmind task '" + taskTypes[slot] + "' has been running for over 5 minutes. Hold tight until it finishes.";
+            System.out.println("PreciseCompletionTracker: " + warning);
+            notifyPlayer(warning);
         }
-        
-        boolean completed = false;
-        ProcessState newState = currentState;
-        
+
+        String taskType = taskTypes[slot];
         switch (taskType) {
             case TASK_GOTO:
             case TASK_PATH:
-                completed = checkPathingCompletion(baritone, taskId);
+                checkPathingCompletion(baritone, slot);
                 break;
-                
+
             case TASK_GOAL:
-                completed = checkGoalCompletion(baritone, taskId);
+                checkGoalCompletion(slot);
                 break;
-                
+
             case TASK_COLLECT:
-                completed = checkCollectCompletion(baritone, taskId);
+                checkCollectCompletion(baritone, slot, now);
                 break;
-                
+
             case TASK_EXPLORE:
-                completed = checkExplorationCompletion(baritone, taskId);
+                checkExplorationCompletion(baritone, slot);
                 break;
-                
+
             case TASK_FARM:
-                completed = checkFarmingCompletion(baritone, taskId);
+                checkFarmingCompletion(baritone, slot);
                 break;
-                
+
             default:
-                System.err.println("Unknown task type: " + taskType + " (" + taskId + ")");
-                completed = true;
+                System.err.println("Unknown task type: " + taskType + " (" + taskIds[slot] + ")");
+                completeTask(slot);
                 break;
         }
-        
-        if (completed) {
-            return true;
-        }
-        
-        return false;
     }
-    
+
     /**
      * Check if pathing tasks (goto/path) have completed
      */
-    private boolean checkPathingCompletion(IBaritone baritone, String taskId) {
+    private void checkPathingCompletion(IBaritone baritone, int slot) {
         IPathingBehavior pathingBehavior = baritone.getPathingBehavior();
         ICustomGoalProcess customGoalProcess = baritone.getCustomGoalProcess();
         IGetToBlockProcess getToBlockProcess = baritone.getGetToBlockProcess();
+        String taskId = taskIds[slot];
 
         // Check if pathing has stopped and no goal is active
         boolean hasPath = pathingBehavior.hasPath();
         boolean isPathing = pathingBehavior.isPathing();
         boolean isActive = customGoalProcess.isActive();
         boolean getToBlockActive = getToBlockProcess != null && getToBlockProcess.isActive();
-        
+
         // Get current state
-        ProcessState currentState = processStates.get(taskId);
-        
+        ProcessState currentState = processStates[slot];
+
         if (currentState == ProcessState.STARTING && (isActive || getToBlockActive)) {
             // Task has started
-            processStates.put(taskId, ProcessState.ACTIVE);
+            processStates[slot] = ProcessState.ACTIVE;
             System.out.println("PreciseCompletionTracker: " + taskId + " is now active");
         } else if (currentState == ProcessState.ACTIVE && !isActive && !getToBlockActive && !hasPath && !isPathing) {
             // Task has completed - no longer active and no pathing happening
             System.out.println("PreciseCompletionTracker: " + taskId + " completed - no longer active");
-            completeTask(taskId);
-            return true;
+            completeTask(slot);
         } else if (currentState == ProcessState.ACTIVE && !isActive && !getToBlockActive && hasPath) {
             // Task is finishing - no longer active but still has a path (might be reaching goal)
-            processStates.put(taskId, ProcessState.COMPLETING);
+            processStates[slot] = ProcessState.COMPLETING;
             System.out.println("PreciseCompletionTracker: " + taskId + " is completing");
         } else if (currentState == ProcessState.COMPLETING && !hasPath && !isPathing && !getToBlockActive) {
             // Path finished - task completed
             System.out.println("PreciseCompletionTracker: " + taskId + " completed - path finished");
-            completeTask(taskId);
-            return true;
+            completeTask(slot);
         }
-        
-        return false;
     }
-    
+
     /**
      * Check if goal setting has completed
      */
-    private boolean checkGoalCompletion(IBaritone baritone, String taskId) {
+    private void checkGoalCompletion(int slot) {
         // Goal setting is immediate, so complete right away
-        completeTask(taskId);
-        return true;
+        completeTask(slot);
     }
-    
+
     /**
      * Check if mining has completed
      */
-    private boolean checkCollectCompletion(IBaritone baritone, String taskId) {
+    private void checkCollectCompletion(IBaritone baritone, int slot, long now) {
         IMineProcess mineProcess = baritone.getMineProcess();
         if (mineProcess == null) {
-            completeTaskWithError(taskId, "Collect process unavailable");
-            return true;
+            completeTaskWithError(slot, "Collect process unavailable");
+            return;
         }
 
-        ProcessState currentState = processStates.get(taskId);
+        String taskId = taskIds[slot];
+        ProcessState currentState = processStates[slot];
         IPathingBehavior pathingBehavior = baritone.getPathingBehavior();
         ICustomGoalProcess customGoalProcess = baritone.getCustomGoalProcess();
         IGetToBlockProcess getToBlockProcess = baritone.getGetToBlockProcess();
@@ -282,141 +291,204 @@ public class PreciseCompletionTracker {
         boolean anyActive = miningActive || pathingActive;
 
         if (currentState == ProcessState.STARTING && anyActive) {
-            processStates.put(taskId, ProcessState.ACTIVE);
+            processStates[slot] = ProcessState.ACTIVE;
             System.out.println("PreciseCompletionTracker: " + taskId + " is now active");
-        } else if (currentState == ProcessState.STARTING && hasTaskExceededStartTimeout(taskId)) {
-            failTaskGracefully(taskId, "Mine task never became active", "Mine task could not start. Make sure the target block exists nearby and Baritone isn't busy.");
-            return true;
+        } else if (currentState == ProcessState.STARTING && now - taskStartTimes[slot] > TASK_START_TIMEOUT_MS) {
+            failTaskGracefully(slot, "Mine task never became active", "Mine task could not start. Make sure the target block exists nearby and Baritone isn't busy.");
         } else if (currentState == ProcessState.ACTIVE) {
             if (!anyActive) {
-                processStates.put(taskId, ProcessState.COMPLETING);
-                taskCompletionGraceStarts.put(taskId, System.currentTimeMillis());
+                processStates[slot] = ProcessState.COMPLETING;
+                taskCompletionGraceStarts[slot] = now;
                 System.out.println("PreciseCompletionTracker: " + taskId + " entering completion grace");
             }
         } else if (currentState == ProcessState.COMPLETING) {
             if (anyActive) {
-                processStates.put(taskId, ProcessState.ACTIVE);
-                taskCompletionGraceStarts.remove(taskId);
+                processStates[slot] = ProcessState.ACTIVE;
+                taskCompletionGraceStarts[slot] = 0L;
                 System.out.println("PreciseCompletionTracker: " + taskId + " resumed mining during grace period");
             } else {
-                Long graceStart = taskCompletionGraceStarts.get(taskId);
-                if (graceStart == null) {
-                    graceStart = System.currentTimeMillis();
-                    taskCompletionGraceStarts.put(taskId, graceStart);
+                if (taskCompletionGraceStarts[slot] == 0L) {
+                    taskCompletionGraceStarts[slot] = now;
                 }
-                if (System.currentTimeMillis() - graceStart >= COLLECT_COMPLETION_GRACE_MS) {
+                if (now - taskCompletionGraceStarts[slot] >= COLLECT_COMPLETION_GRACE_MS) {
                     System.out.println("PreciseCompletionTracker: " + taskId + " completed after grace period");
-                    completeTask(taskId);
-                    return true;
+                    completeTask(slot);
                 }
             }
         }
-
-        return false;
-    }
-
-    private boolean hasTaskExceededStartTimeout(String taskId) {
-        Long startTime = taskStartTimes.get(taskId);
-        if (startTime == null) {
-            return false;
-        }
-        return System.currentTimeMillis() - startTime > TASK_START_TIMEOUT_MS;
     }
 
     /**
      * Check if exploration has completed
      */
-    private boolean checkExplorationCompletion(IBaritone baritone, String taskId) {
+    private void checkExplorationCompletion(IBaritone baritone, int slot) {
         IExploreProcess exploreProcess = baritone.getExploreProcess();
-        
-        ProcessState currentState = processStates.get(taskId);
-        
+        String taskId = taskIds[slot];
+
+        ProcessState currentState = processStates[slot];
+
         if (currentState == ProcessState.STARTING && exploreProcess.isActive()) {
             // Exploration has started
-            processStates.put(taskId, ProcessState.ACTIVE);
+            processStates[slot] = ProcessState.ACTIVE;
             System.out.println("PreciseCompletionTracker: " + taskId + " is now active");
         } else if (currentState == ProcessState.ACTIVE && !exploreProcess.isActive()) {
             // Exploration has completed
             System.out.println("PreciseCompletionTracker: " + taskId + " completed - no longer active");
-            completeTask(taskId);
-            return true;
+            completeTask(slot);
         }
-        
-        return false;
     }
-    
+
     /**
      * Check if farming has completed
      */
-    private boolean checkFarmingCompletion(IBaritone baritone, String taskId) {
+    private void checkFarmingCompletion(IBaritone baritone, int slot) {
         IFarmProcess farmProcess = baritone.getFarmProcess();
-        
-        ProcessState currentState = processStates.get(taskId);
-        
+        String taskId = taskIds[slot];
+
+        ProcessState currentState = processStates[slot];
+
         if (currentState == ProcessState.STARTING && farmProcess.isActive()) {
             // Farming has started
-            processStates.put(taskId, ProcessState.ACTIVE);
+            processStates[slot] = ProcessState.ACTIVE;
             System.out.println("PreciseCompletionTracker: " + taskId + " is now active");
         } else if (currentState == ProcessState.ACTIVE && !farmProcess.isActive()) {
             // Farming has completed
             System.out.println("PreciseCompletionTracker: " + taskId + " completed - no longer active");
-            completeTask(taskId);
-            return true;
+            completeTask(slot);
         }
-        
-        return false;
     }
-    
+
     /**
      * Complete a task successfully
      */
-    private void completeTask(String taskId) {
-        CompletableFuture<Void> future = pendingTasks.remove(taskId);
-        processStates.remove(taskId);
-        Long startTime = taskStartTimes.remove(taskId);
-        taskCompletionGraceStarts.remove(taskId);
-        taskTypes.remove(taskId);
-        
-        if (future != null && !future.isDone()) {
-            long duration = startTime != null ? System.currentTimeMillis() - startTime : 0;
-            System.out.println("PreciseCompletionTracker: Completing task " + taskId + " (duration: " + duration + "ms)");
-            processStates.put(taskId, ProcessState.COMPLETED);
-            future.complete(null);
-        }
+    private void completeTask(int slot) {
+        processStates[slot] = ProcessState.COMPLETED;
+        resolvedDuringPass.add(new Resolution(taskIds[slot], taskFutures[slot], taskStartTimes[slot], null, null));
     }
-    
+
     /**
      * Complete a task with an error
      */
-    private void completeTaskWithError(String taskId, String reason) {
-        CompletableFuture<Void> future = pendingTasks.remove(taskId);
-        processStates.remove(taskId);
-        taskStartTimes.remove(taskId);
-        taskCompletionGraceStarts.remove(taskId);
-        taskTypes.remove(taskId);
+    private void completeTaskWithError(int slot, String reason) {
+        processStates[slot] = ProcessState.FAILED;
+        resolvedDuringPass.add(new Resolution(taskIds[slot], taskFutures[slot], taskStartTimes[slot], reason, null));
+    }
 
-        if (future != null && !future.isDone()) {
-            System.out.println("PreciseCompletionTracker: Completing task " + taskId + " with error: " + reason);
-            processStates.put(taskId, ProcessState.FAILED);
-            future.completeExceptionally(new RuntimeException(reason));
+    private void failTaskGracefully(int slot, String logMessage, String userMessage) {
+        System.out.println("PreciseCompletionTracker: " + logMessage);
+        processStates[slot] = ProcessState.COMPLETED;
+        resolvedDuringPass.add(new Resolution(taskIds[slot], taskFutures[slot], taskStartTimes[slot], null, userMessage));
+    }
+
+    /**
+     * Drop finished slots by moving the last live slot into each hole.
+     */
+    private void compactResolvedSlots() {
+        int slot = 0;
+        while (slot < taskCount) {
+            ProcessState state = processStates[slot];
+            if (state == ProcessState.COMPLETED || state == ProcessState.FAILED) {
+                removeSlot(slot);
+            } else {
+                slot++;
+            }
         }
     }
 
-    private void failTaskGracefully(String taskId, String logMessage, String userMessage) {
-        CompletableFuture<Void> future = pendingTasks.remove(taskId);
-        processStates.remove(taskId);
-        taskStartTimes.remove(taskId);
-        taskCompletionGraceStarts.remove(taskId);
-        taskTypes.remove(taskId);
+    private void removeSlot(int slot) {
+        int last = --taskCount;
+        if (slot != last) {
+            taskIds[slot] = taskIds[last];
+            taskTypes[slot] = taskTypes[last];
+            taskFutures[slot] = taskFutures[last];
+            processStates[slot] = processStates[last];
+            taskStartTimes[slot] = taskStartTimes[last];
+            taskCompletionGraceStarts[slot] = taskCompletionGraceStarts[last];
+            taskWarned[slot] = taskWarned[last];
+        }
+        taskIds[last] = null;
+        taskTypes[last] = null;
+        taskFutures[last] = null;
+        processStates[last] = null;
+    }
 
-        System.out.println("PreciseCompletionTracker: " + logMessage);
-        notifyPlayer(userMessage);
+    private int findSlot(String taskIdOrType) {
+        for (int slot = 0; slot < taskCount; slot++) {
+            if (taskIds[slot].equals(taskIdOrType)) {
+                return slot;
+            }
+        }
+        for (int slot = 0; slot < taskCount; slot++) {
+            if (taskTypes[slot].equals(taskIdOrType)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
 
-        if (future != null && !future.isDone()) {
+    private void applyResolutions(List<Resolution> resolutions) {
+        for (Resolution resolution : resolutions) {
+            CompletableFuture<Void> future = resolution.future;
+            if (future == null || future.isDone()) {
+                continue;
+            }
+            if (resolution.errorReason != null) {
+                System.out.println("PreciseCompletionTracker: Completing task " + resolution.taskId + " with error: " + resolution.errorReason);
+                future.completeExceptionally(new RuntimeException(resolution.errorReason));
+                continue;
+            }
+            if (resolution.userMessage != null) {
+                notifyPlayer(resolution.userMessage);
+            } else {
+                long duration = System.currentTimeMillis() - resolution.startTime;
+                System.out.println("PreciseCompletionTracker: Completing task " + resolution.taskId + " (duration: " + duration + "ms)");
+            }
             future.complete(null);
         }
     }
 
+    private void ensureBaritoneListener() {
+        if (baritoneListenerRegistered) {
+            return;
+        }
+        IBaritone baritone = getBaritone();
+        if (baritone == null) {
+            return;
+        }
+        try {
+            baritone.getGameEventHandler().registerEventListener(new AbstractGameEventListener() {
+                @Override
+                public void onPathEvent(PathEvent event) {
+                    handlePathEvent(event);
+                }
+            });
+            baritoneListenerRegistered = true;
+        } catch (RuntimeException e) {
+            System.err.println("PreciseCompletionTracker: Failed to register Baritone listener: " + e.getMessage());
+        }
+    }
+
+    private void handlePathEvent(PathEvent event) {
+        if (event == null) {
+            return;
+        }
+        switch (event) {
+            case AT_GOAL:
+            case CANCELED:
+            case CALC_FAILED:
+            case NEXT_CALC_FAILED:
+            case CALC_FINISHED_NOW_EXECUTING:
+                // Baritone fires path events from its tick on the client thread
+                MinecraftClient client = MinecraftClient.getInstance();
+                if (client != null && client.isOnThread()) {
+                    evaluatePendingTasks();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
     private void notifyPlayer(String message) {
         MinecraftClient client = MinecraftClient.getInstance();
         if (client == null) {
@@ -441,63 +513,53 @@ public class PreciseCompletionTracker {
      * Mark a task as completed from an external event (e.g. amount monitors).
      */
     public void markTaskCompleted(String taskId) {
-        String resolvedTaskId = resolveTaskId(taskId);
-        if (resolvedTaskId == null) {
+        if (taskId == null) {
             return;
         }
 
-        CompletableFuture<Void> future = pendingTasks.remove(resolvedTaskId);
-        if (future == null) {
-            return;
+        String resolvedTaskId;
+        CompletableFuture<Void> future;
+        long startTime;
+        synchronized (lock) {
+            int slot = findSlot(taskId);
+            if (slot < 0) {
+                return;
+            }
+            resolvedTaskId = taskIds[slot];
+            future = taskFutures[slot];
+            startTime = taskStartTimes[slot];
+            removeSlot(slot);
         }
 
-        processStates.remove(resolvedTaskId);
-        Long startTime = taskStartTimes.remove(resolvedTaskId);
-        taskCompletionGraceStarts.remove(resolvedTaskId);
-        taskTypes.remove(resolvedTaskId);
-
-        if (!future.isDone()) {
-            long duration = startTime != null ? System.currentTimeMillis() - startTime : 0;
+        if (future != null && !future.isDone()) {
+            long duration = System.currentTimeMillis() - startTime;
             System.out.println("PreciseCompletionTracker: Completing task " + resolvedTaskId + " from external signal (duration: " + duration + "ms)");
             future.complete(null);
         }
     }
 
-    private String resolveTaskId(String taskIdOrType) {
-        if (taskIdOrType == null) {
-            return null;
-        }
-        if (pendingTasks.containsKey(taskIdOrType)) {
-            return taskIdOrType;
-        }
-        for (Map.Entry<String, String> entry : taskTypes.entrySet()) {
-            if (entry.getValue().equals(taskIdOrType)) {
-                return entry.getKey();
-            }
-        }
-        return null;
-    }
-
     /**
      * Cancel all pending tasks
      */
     public void cancelAllTasks() {
-        System.out.println("PreciseCompletionTracker: Canceling all pending tasks (" + pendingTasks.size() + " tasks)");
+        List<CompletableFuture<Void>> cancelled = new ArrayList<>();
+        synchronized (lock) {
+            System.out.println("PreciseCompletionTracker: Canceling all pending tasks (" + taskCount + " tasks)");
+            for (int slot = 0; slot < taskCount; slot++) {
+                cancelled.add(taskFutures[slot]);
+            }
+            while (taskCount > 0) {
+                removeSlot(taskCount - 1);
+            }
+        }
 
-        for (String taskId : pendingTasks.keySet()) {
-            CompletableFuture<Void> future = pendingTasks.get(taskId);
+        for (CompletableFuture<Void> future : cancelled) {
             if (future != null && !future.isDone()) {
                 future.completeExceptionally(new RuntimeException("All tasks cancelled"));
             }
         }
-
-        pendingTasks.clear();
-        processStates.clear();
-        taskStartTimes.clear();
-        taskCompletionGraceStarts.clear();
-        taskTypes.clear();
     }
-    
+
     /**
      * Get the Baritone instance
      */
@@ -509,18 +571,30 @@ public class PreciseCompletionTracker {
             return null;
         }
     }
-    
+
     /**
      * Get the number of pending tasks
      */
     public int getPendingTaskCount() {
-        return pendingTasks.size();
+        synchronized (lock) {
+            return taskCount;
+        }
     }
-    
+
     /**
      * Check if a task is still pending
      */
     public boolean isTaskPending(String taskId) {
-        return pendingTasks.containsKey(taskId);
+        if (taskId == null) {
+            return false;
+        }
+        synchronized (lock) {
+            for (int slot = 0; slot < taskCount; slot++) {
+                if (taskIds[slot].equals(taskId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
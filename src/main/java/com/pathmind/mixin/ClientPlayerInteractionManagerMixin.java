@@ -0,0 +1,36 @@
+package com.pathmind.mixin;
+
+import com.pathmind.util.InventoryIndex;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.network.ClientPlayerInteractionManager;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Block placement and item use shrink the held stack in place on the client, without setting the slot.
+ */
+@Mixin(ClientPlayerInteractionManager.class)
+public abstract class ClientPlayerInteractionManagerMixin {
+    @Inject(method = "interactBlock", at = @At("RETURN"))
+    private void pathmind$onInteractBlock(ClientPlayerEntity player, Hand hand, BlockHitResult hitResult, CallbackInfoReturnable<ActionResult> cir) {
+        pathmind$markHandSlots(player);
+    }
+
+    @Inject(method = "interactItem", at = @At("RETURN"))
+    private void pathmind$onInteractItem(PlayerEntity player, Hand hand, CallbackInfoReturnable<ActionResult> cir) {
+        pathmind$markHandSlots(player);
+    }
+
+    private static void pathmind$markHandSlots(PlayerEntity player) {
+        PlayerInventory inventory = player.getInventory();
+        InventoryIndex.getInstance().onSlotChanged(inventory, inventory.getSelectedSlot());
+        InventoryIndex.getInstance().onSlotChanged(inventory, PlayerInventory.OFF_HAND_SLOT);
+    }
+}
@@ -0,0 +1,18 @@
+package com.pathmind.mixin;
+
+import com.pathmind.util.BlockLocationIndex;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientWorld.class)
+public abstract class ClientWorldMixin {
+    @Inject(method = "handleBlockUpdate", at = @At("TAIL"))
+    private void pathmind$onBlockUpdate(BlockPos pos, BlockState state, int flags, CallbackInfo ci) {
+        BlockLocationIndex.getInstance().onBlockUpdate(pos, state);
+    }
+}
@@ -0,0 +1,33 @@
+package com.pathmind.mixin;
+
+import com.pathmind.util.InventoryIndex;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(PlayerInventory.class)
+public abstract class PlayerInventoryMixin {
+    @Inject(method = "setStack", at = @At("TAIL"))
+    private void pathmind$onSetStack(int slot, ItemStack stack, CallbackInfo ci) {
+        InventoryIndex.getInstance().onSlotChanged((PlayerInventory) (Object) this, slot);
+    }
+
+    @Inject(method = "removeStack(II)Lnet/minecraft/item/ItemStack;", at = @At("RETURN"))
+    private void pathmind$onRemoveStack(int slot, int amount, CallbackInfoReturnable<ItemStack> cir) {
+        InventoryIndex.getInstance().onSlotChanged((PlayerInventory) (Object) this, slot);
+    }
+
+    @Inject(method = "removeStack(I)Lnet/minecraft/item/ItemStack;", at = @At("RETURN"))
+    private void pathmind$onRemoveWholeStack(int slot, CallbackInfoReturnable<ItemStack> cir) {
+        InventoryIndex.getInstance().onSlotChanged((PlayerInventory) (Object) this, slot);
+    }
+
+    @Inject(method = {"markDirty", "clear"}, at = @At("TAIL"))
+    private void pathmind$onInventoryChanged(CallbackInfo ci) {
+        InventoryIndex.getInstance().onInventoryChanged((PlayerInventory) (Object) this);
+    }
+}
@@ -0,0 +1,79 @@
+package com.pathmind.nodes;
+
+/**
+ * Runtime state of one executing chain, kept apart from the {@link Node} definitions so several
+ * chains can step through the same nodes at once without sharing loop counters or pending output
+ * sockets. State is stored in arrays indexed by each node's position in the compiled execution plan,
+ * together with the parameter values each node resolved for its current run; indices outside the
+ * frame read as a fresh node and ignore writes.
+ */
+public final class ExecutionFrame {
+    private final int[] nextOutputSockets;
+    private final int[] repeatRemaining;
+    private final boolean[] repeatActive;
+    private final Node.RuntimeParameterData[] runtimeParameters;
+
+    public ExecutionFrame(int nodeCount) {
+        int size = Math.max(0, nodeCount);
+        this.nextOutputSockets = new int[size];
+        this.repeatRemaining = new int[size];
+        this.repeatActive = new boolean[size];
+        this.runtimeParameters = new Node.RuntimeParameterData[size];
+    }
+
+    public int size() {
+        return nextOutputSockets.length;
+    }
+
+    /**
+     * Output socket chosen by the node's last run ({@link Node#NO_OUTPUT} to stop), reset to socket 0 once read.
+     */
+    public int consumeNextOutputSocket(int index) {
+        if (!contains(index)) {
+            return 0;
+        }
+        int value = nextOutputSockets[index];
+        nextOutputSockets[index] = 0;
+        return value;
+    }
+
+    void setNextOutputSocket(int index, int socketIndex) {
+        if (contains(index)) {
+            nextOutputSockets[index] = socketIndex < 0 ? Node.NO_OUTPUT : socketIndex;
+        }
+    }
+
+    boolean isRepeatActive(int index) {
+        return contains(index) && repeatActive[index];
+    }
+
+    int getRepeatRemaining(int index) {
+        return contains(index) ? repeatRemaining[index] : 0;
+    }
+
+    void setRepeat(int index, boolean active, int remaining) {
+        if (contains(index)) {
+            repeatActive[index] = active;
+            repeatRemaining[index] = remaining;
+        }
+    }
+
+    /**
+     * Start a run of the node at {@code index} with empty runtime parameter data.
+     */
+    Node.RuntimeParameterData beginRuntimeParameters(int index) {
+        Node.RuntimeParameterData data = new Node.RuntimeParameterData();
+        if (contains(index)) {
+            runtimeParameters[index] = data;
+        }
+        return data;
+    }
+
+    Node.RuntimeParameterData getRuntimeParameters(int index) {
+        return contains(index) ? runtimeParameters[index] : null;
+    }
+
+    private boolean contains(int index) {
+        return index >= 0 && index < nextOutputSockets.length;
+    }
+}
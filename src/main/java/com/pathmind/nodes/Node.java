@@ -12,8 +12,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import baritone.api.BaritoneAPI;
 import baritone.api.IBaritone;
 import baritone.api.behavior.IPathingBehavior;
@@ -25,7 +26,17 @@ import baritone.api.process.IMineProcess;
 import baritone.api.pathing.goals.GoalBlock;
 import baritone.api.utils.BlockOptionalMeta;
 import com.pathmind.execution.PreciseCompletionTracker;
+import com.pathmind.util.BlockLocationIndex;
+import com.pathmind.util.BlockSearch;
+import com.pathmind.util.CraftingPlanner;
+import com.pathmind.util.CraftingRecipeIndex;
+import com.pathmind.util.CraftingRecipeIndex.GridIngredient;
+import com.pathmind.util.ClientThreadBridge;
+import com.pathmind.util.TextLayoutCache;
+import com.pathmind.util.InventoryIndex;
 import com.pathmind.util.InventorySlotModeHelper;
+import com.pathmind.util.InventoryTransaction;
+import com.pathmind.util.RenderedResourceSensor;
 import net.minecraft.entity.EquipmentSlot;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.entity.player.PlayerInventory;
@@ -55,29 +66,19 @@ import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.Box;
-import net.minecraft.world.RaycastContext;
 import net.minecraft.client.gui.screen.ChatScreen;
 import net.minecraft.client.gui.screen.ingame.CraftingScreen;
 import net.minecraft.client.gui.screen.ingame.InventoryScreen;
 import net.minecraft.client.network.ClientPlayerInteractionManager;
-import net.minecraft.recipe.CraftingRecipe;
 import net.minecraft.recipe.Ingredient;
-import net.minecraft.recipe.IngredientPlacement;
-import net.minecraft.recipe.RecipeEntry;
-import net.minecraft.recipe.ShapedRecipe;
 import net.minecraft.screen.CraftingScreenHandler;
 import net.minecraft.screen.PlayerScreenHandler;
 import net.minecraft.screen.ScreenHandler;
 import net.minecraft.screen.slot.Slot;
 import net.minecraft.screen.slot.SlotActionType;
-import net.minecraft.recipe.input.CraftingRecipeInput;
-import net.minecraft.server.MinecraftServer;
-import net.minecraft.recipe.ServerRecipeManager;
 import net.minecraft.client.network.AbstractClientPlayerEntity;
-import it.unimi.dsi.fastutil.ints.IntList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.lang.reflect.Field;
 import java.util.regex.Pattern;
 
 /**
@@ -93,7 +94,6 @@ public class Node {
     private static final int MIN_WIDTH = 92;
     private static final int MIN_HEIGHT = 44;
     private static final int EVENT_FUNCTION_MIN_HEIGHT = 36;
-    private static final int CHAR_PIXEL_WIDTH = 6;
     private static final int HEADER_HEIGHT = 18;
     private static final int PARAM_LINE_HEIGHT = 10;
     private static final int PARAM_PADDING_TOP = 2;
@@ -104,6 +104,8 @@ public class Node {
     private static final String CHAT_MESSAGE_PREFIX = "\u00A74[\u00A7cPathmind\u00A74] \u00A77";
     private static final long CRAFTING_ACTION_DELAY_MS = 75L;
     private static final int CRAFTING_OUTPUT_POLL_LIMIT = 5;
+    // Crafts placed into the grid at once; one stack per slot
+    private static final int MAX_CRAFT_BATCH = 64;
     private static final int SENSOR_SLOT_MARGIN_HORIZONTAL = 8;
     private static final int SENSOR_SLOT_INNER_PADDING = 4;
     private static final int SENSOR_SLOT_MIN_CONTENT_WIDTH = 60;
@@ -134,16 +136,15 @@ public class Node {
     private static final double PARAMETER_SEARCH_RADIUS = 64.0;
     private static final double DEFAULT_REACH_DISTANCE_SQUARED = 25.0D;
     private static final Pattern UNSAFE_RESOURCE_ID_PATTERN = Pattern.compile("[^a-z0-9_:/.-]");
+    private static Consumer<Node> definitionChangeListener;
     private int width;
     private int height;
-    private int nextOutputSocket = 0;
-    private int repeatRemainingIterations = 0;
-    private boolean repeatActive = false;
-    private boolean lastSensorResult = false;
     private boolean selected = false;
     private boolean dragging = false;
     private int dragOffsetX, dragOffsetY;
     private final List<NodeParameter> parameters;
+    private final List<NodeParameter> parameterView;
+    private ParameterSchema parameterSchema;
     private Node attachedSensor;
     private Node parentControl;
     private Node attachedActionNode;
@@ -152,15 +153,26 @@ public class Node {
     private Node parentParameterHost;
     private int parentParameterSlotIndex;
     private boolean socketsHidden;
-    private RuntimeParameterData runtimeParameterData;
+    private Consumer<Node> boundsListener;
+    private List<String> bodyLabelCache;
+    private int bodyLabelCacheWidth;
 
     public Node(NodeType type, int x, int y) {
-        this.id = java.util.UUID.randomUUID().toString();
+        this(java.util.UUID.randomUUID().toString(), type, x, y);
+    }
+
+    /**
+     * Recreate a node with a known id, e.g. when hydrating a saved graph. Only touches the new
+     * instance, so separate nodes may be constructed concurrently.
+     */
+    public Node(String id, NodeType type, int x, int y) {
+        this.id = id != null ? id : java.util.UUID.randomUUID().toString();
         this.type = type;
         this.mode = NodeMode.getDefaultModeForNodeType(type);
         this.x = x;
         this.y = y;
         this.parameters = new ArrayList<>();
+        this.parameterView = Collections.unmodifiableList(parameters);
         this.attachedSensor = null;
         this.parentControl = null;
         this.attachedActionNode = null;
@@ -171,10 +183,14 @@ public class Node {
         this.socketsHidden = false;
         initializeParameters();
         recalculateDimensions();
-        resetControlState();
     }
 
-    private static final class RuntimeParameterData {
+    /**
+     * Values resolved from attached parameter nodes for one execution of this node. Lives in the
+     * chain's {@link ExecutionFrame}, so the shared node parameters are never rewritten at runtime.
+     */
+    static final class RuntimeParameterData {
+        private NodeParameter[] parameterOverrides;
         private BlockPos targetBlockPos;
         private Vec3d targetVector;
         private Entity targetEntity;
@@ -195,6 +211,30 @@ public class Node {
         private Float resolvedPitch;
         private Float resolvedYawOffset;
         private Float resolvedPitchOffset;
+
+        private void clear() {
+            parameterOverrides = null;
+            targetBlockPos = null;
+            targetVector = null;
+            targetEntity = null;
+            targetItem = null;
+            targetBlockId = null;
+            targetBlockIds = null;
+            targetPlayerName = null;
+            targetItemId = null;
+            targetEntityId = null;
+            message = null;
+            durationSeconds = null;
+            booleanValue = null;
+            handName = null;
+            slotIndex = null;
+            schematicName = null;
+            rangeValue = null;
+            resolvedYaw = null;
+            resolvedPitch = null;
+            resolvedYawOffset = null;
+            resolvedPitchOffset = null;
+        }
     }
 
     private static final class PlacementFailure extends RuntimeException {
@@ -298,6 +338,7 @@ public class Node {
     }
     
     public void setMode(NodeMode mode) {
+        notifyDefinitionChanging();
         // Preserve existing parameter values when mode doesn't change
         boolean modeChanged = this.mode != mode;
         Map<String, String> preservedValues = new HashMap<>();
@@ -324,7 +365,6 @@ public class Node {
         }
         
         recalculateDimensions();
-        resetControlState();
     }
 
     public int getX() {
@@ -347,8 +387,47 @@ public class Node {
     }
 
     private void setPositionSilently(int x, int y) {
+        if (this.x == x && this.y == y) {
+            return;
+        }
         this.x = x;
         this.y = y;
+        notifyBoundsChanged();
+    }
+
+    /**
+     * Register a callback invoked after this node moves or resizes. Used by the editor's spatial index.
+     */
+    public void setBoundsListener(Consumer<Node> listener) {
+        this.boundsListener = listener;
+    }
+
+    public Consumer<Node> getBoundsListener() {
+        return boundsListener;
+    }
+
+    /**
+     * Register a callback invoked just before any node's mode, parameter values or attachments change.
+     * Used by the execution manager to keep a copy of recorded runs that share the node.
+     */
+    public static void setDefinitionChangeListener(Consumer<Node> listener) {
+        definitionChangeListener = listener;
+    }
+
+    /**
+     * Announce that this node's mode, parameter values or attachments are about to change.
+     * Editors that write parameters directly call this first.
+     */
+    public void notifyDefinitionChanging() {
+        if (definitionChangeListener != null) {
+            definitionChangeListener.accept(this);
+        }
+    }
+
+    private void notifyBoundsChanged() {
+        if (boundsListener != null) {
+            boundsListener.accept(this);
+        }
     }
 
     public int getWidth() {
@@ -689,16 +768,6 @@ public class Node {
         return isInput ? x - 4 : x + getWidth() + 4;
     }
     
-    public void setNextOutputSocket(int socketIndex) {
-        this.nextOutputSocket = socketIndex < 0 ? NO_OUTPUT : Math.max(0, socketIndex);
-    }
-
-    public int consumeNextOutputSocket() {
-        int value = this.nextOutputSocket;
-        this.nextOutputSocket = 0;
-        return value;
-    }
-    
     public boolean isSocketClicked(int mouseX, int mouseY, int socketIndex, boolean isInput) {
         if (socketsHidden) {
             return false;
@@ -1044,6 +1113,7 @@ public class Node {
         if (!canAcceptSensor() || sensor == null || !sensor.isSensorNode() || sensor == this) {
             return false;
         }
+        notifyDefinitionChanging();
 
         if (sensor.parentControl == this && attachedSensor == sensor) {
             updateAttachedSensorPosition();
@@ -1074,6 +1144,7 @@ public class Node {
 
     public void detachSensor() {
         if (attachedSensor != null) {
+            notifyDefinitionChanging();
             Node sensor = attachedSensor;
             sensor.parentControl = null;
             attachedSensor = null;
@@ -1089,6 +1160,7 @@ public class Node {
         if (parameter == null || !parameter.isParameterNode() || parameter == this) {
             return false;
         }
+        notifyDefinitionChanging();
         if ((type == NodeType.PLACE || type == NodeType.PLACE_HAND)
             && slotIndex == 1
             && parameter.getType() != null) {
@@ -1152,6 +1224,10 @@ public class Node {
     }
 
     public void detachParameter(int slotIndex) {
+        if (!attachedParameters.containsKey(slotIndex)) {
+            return;
+        }
+        notifyDefinitionChanging();
         Node parameter = attachedParameters.remove(slotIndex);
         if (parameter == null) {
             return;
@@ -1201,21 +1277,25 @@ public class Node {
 
         Map<String, String> existing = exportParameterValues();
         resetParametersToDefaults();
-        applyParameterValuesFromMap(existing);
+        applyParameterValuesFromMap(existing, null);
 
-        boolean applied = applyParameterValuesFromMap(exported);
+        boolean applied = applyParameterValuesFromMap(exported, null);
         if (!applied) {
-            applyParameterValuesFromMap(existing);
+            applyParameterValuesFromMap(existing, null);
         }
         return applied;
     }
 
-    private boolean applyParameterValuesFromMap(Map<String, String> values) {
+    /**
+     * Copy matching values onto this node's parameters, or into the run's overlay when {@code runtime} is given.
+     */
+    private boolean applyParameterValuesFromMap(Map<String, String> values, RuntimeParameterData runtime) {
         if (values == null || values.isEmpty()) {
             return false;
         }
         boolean applied = false;
-        for (NodeParameter target : parameters) {
+        for (int i = 0; i < parameters.size(); i++) {
+            NodeParameter target = parameters.get(i);
             String key = target.getName();
             String value = values.get(key);
             if (value == null) {
@@ -1255,7 +1335,11 @@ public class Node {
                 }
             }
             if (value != null) {
-                target.setStringValue(value);
+                if (runtime != null) {
+                    setRuntimeParameterAt(runtime, i, value);
+                } else {
+                    target.setStringValue(value);
+                }
                 applied = true;
             }
         }
@@ -1327,7 +1411,7 @@ public class Node {
         Map<String, String> existingValues = exportParameterValues();
         resetParametersToDefaults();
         if (!existingValues.isEmpty()) {
-            applyParameterValuesFromMap(existingValues);
+            applyParameterValuesFromMap(existingValues, null);
         }
         if (attachedParameters.isEmpty()) {
             return;
@@ -1342,7 +1426,7 @@ public class Node {
             Map<String, String> exported = parameter.exportParameterValues();
             if (!exported.isEmpty()) {
                 Map<String, String> adjusted = adjustParameterValuesForSlot(exported, slotIndex);
-                applyParameterValuesFromMap(adjusted);
+                applyParameterValuesFromMap(adjusted, null);
             }
         }
     }
@@ -1431,6 +1515,7 @@ public class Node {
         if (!canAcceptActionNode(node)) {
             return false;
         }
+        notifyDefinitionChanging();
 
         if (node.parentActionControl == this && attachedActionNode == node) {
             updateAttachedActionPosition();
@@ -1462,6 +1547,7 @@ public class Node {
 
     public void detachActionNode() {
         if (attachedActionNode != null) {
+            notifyDefinitionChanging();
             Node node = attachedActionNode;
             node.parentActionControl = null;
             node.setSocketsHidden(false);
@@ -1490,6 +1576,11 @@ public class Node {
     }
 
     private void initializeParameters() {
+        addDefaultParameters();
+        parameterSchema = ParameterSchema.forDefaults(type, mode, parameters);
+    }
+
+    private void addDefaultParameters() {
         // Handle generalized nodes with modes
         if (mode != null) {
             switch (mode) {
@@ -1730,6 +1821,8 @@ public class Node {
                 break;
             case EVENT_CALL:
                 parameters.add(new NodeParameter("Name", ParameterType.STRING, "function"));
+                // Run every matching function at once instead of one after another
+                parameters.add(new NodeParameter("Parallel", ParameterType.BOOLEAN, "false"));
                 break;
             case SENSOR_TOUCHING_BLOCK:
             case SENSOR_TOUCHING_ENTITY:
@@ -1831,28 +1924,83 @@ public class Node {
     }
 
     /**
-     * Get all parameters for this node
+     * Get all parameters for this node. The list is read-only; use {@link #replaceParameters} to swap it.
      */
     public List<NodeParameter> getParameters() {
-        return parameters;
+        return parameterView;
     }
 
     /**
      * Get a specific parameter by name
      */
     public NodeParameter getParameter(String name) {
-        for (NodeParameter param : parameters) {
-            if (param.getName().equals(name)) {
-                return param;
-            }
+        int slot = parameterSchema.slotOf(name);
+        return slot >= 0 ? parameters.get(slot) : null;
+    }
+
+    /**
+     * Get the parameter in a slot of the default layout for this node's type and mode (see {@link ParameterSlots}).
+     */
+    private NodeParameter getParameterAt(RuntimeParameterData runtime, int slot) {
+        int index = parameterSchema.resolve(slot);
+        return index >= 0 ? parameterAtIndex(runtime, index) : null;
+    }
+
+    /**
+     * Get a parameter by name as the current run sees it, preferring values resolved from attached parameter nodes.
+     */
+    private NodeParameter getParameter(RuntimeParameterData runtime, String name) {
+        int slot = parameterSchema.slotOf(name);
+        return slot >= 0 ? parameterAtIndex(runtime, slot) : null;
+    }
+
+    private NodeParameter parameterAtIndex(RuntimeParameterData runtime, int index) {
+        if (runtime != null && runtime.parameterOverrides != null && runtime.parameterOverrides[index] != null) {
+            return runtime.parameterOverrides[index];
         }
-        return null;
+        return parameters.get(index);
+    }
+
+    private void setRuntimeParameter(RuntimeParameterData runtime, String name, String value) {
+        if (name == null || value == null) {
+            return;
+        }
+        int slot = parameterSchema.slotOf(name);
+        if (slot >= 0) {
+            setRuntimeParameterAt(runtime, slot, value);
+        }
+    }
+
+    private void setRuntimeParameterAt(RuntimeParameterData runtime, int index, String value) {
+        if (runtime.parameterOverrides == null || runtime.parameterOverrides.length != parameters.size()) {
+            runtime.parameterOverrides = new NodeParameter[parameters.size()];
+        }
+        NodeParameter override = runtime.parameterOverrides[index];
+        if (override == null) {
+            NodeParameter base = parameters.get(index);
+            override = new NodeParameter(base.getName(), base.getType(), base.getStringValue());
+            runtime.parameterOverrides[index] = override;
+        }
+        override.setStringValue(value);
+    }
+
+    /**
+     * Replace the whole parameter list, e.g. with values restored from a save, and rebind the slot schema.
+     */
+    public void replaceParameters(List<NodeParameter> replacement) {
+        notifyDefinitionChanging();
+        parameters.clear();
+        if (replacement != null) {
+            parameters.addAll(replacement);
+        }
+        parameterSchema = ParameterSchema.forList(type, mode, parameters);
     }
 
     public void setParameterValueAndPropagate(String name, String value) {
         if (name == null || value == null) {
             return;
         }
+        notifyDefinitionChanging();
 
         NodeParameter parameter = getParameter(name);
         if (parameter != null) {
@@ -1885,6 +2033,32 @@ public class Node {
         return text.substring(0, maxContentLength) + "...";
     }
 
+    /**
+     * Lines drawn in a parameter node's body (mode label first, then one per parameter), ellipsized
+     * to the given width. Kept until the next {@link #recalculateDimensions()} or
+     * {@link #invalidateTextLayout()}, so the editor does not rebuild or measure them every frame.
+     */
+    public List<String> getBodyLabels(int maxWidth) {
+        if (bodyLabelCache != null && bodyLabelCacheWidth == maxWidth) {
+            return bodyLabelCache;
+        }
+        TextLayoutCache textLayout = TextLayoutCache.getInstance();
+        List<String> labels = new ArrayList<>(parameters.size() + 1);
+        if (supportsModeSelection()) {
+            labels.add(textLayout.trimToWidth(getModeDisplayLabel(), maxWidth));
+        }
+        for (NodeParameter param : parameters) {
+            labels.add(textLayout.trimToWidth(getParameterLabel(param), maxWidth));
+        }
+        bodyLabelCache = Collections.unmodifiableList(labels);
+        bodyLabelCacheWidth = maxWidth;
+        return bodyLabelCache;
+    }
+
+    public void invalidateTextLayout() {
+        bodyLabelCache = null;
+    }
+
     public Map<String, String> exportParameterValues() {
         Map<String, String> values = new HashMap<>();
         for (NodeParameter parameter : parameters) {
@@ -2062,30 +2236,32 @@ public class Node {
      * Recalculate node dimensions based on current content
      */
     public void recalculateDimensions() {
+        int previousWidth = this.width;
+        int previousHeight = this.height;
         if (type == NodeType.START) {
             this.width = START_END_SIZE;
             this.height = START_END_SIZE;
+            if (previousWidth != width || previousHeight != height) {
+                notifyBoundsChanged();
+            }
             return;
         }
 
-        int maxTextLength = Math.max(type.getDisplayName().length(), 1);
+        // Labels may have changed along with the parameters that drive them
+        bodyLabelCache = null;
+        TextLayoutCache textLayout = TextLayoutCache.getInstance();
+        int maxTextWidth = textLayout.getWidth(type.getDisplayName());
         if (isParameterNode()) {
             for (NodeParameter param : parameters) {
-                String paramText = getParameterLabel(param);
-                if (paramText.length() > maxTextLength) {
-                    maxTextLength = paramText.length();
-                }
+                maxTextWidth = Math.max(maxTextWidth, textLayout.getWidth(getParameterLabel(param)));
             }
 
             if (supportsModeSelection()) {
-                String modeLabel = getModeDisplayLabel();
-                if (!modeLabel.isEmpty()) {
-                    maxTextLength = Math.max(maxTextLength, modeLabel.length());
-                }
+                maxTextWidth = Math.max(maxTextWidth, textLayout.getWidth(getModeDisplayLabel()));
             }
         }
 
-        int computedWidth = maxTextLength * CHAR_PIXEL_WIDTH + 24; // padding and border allowance
+        int computedWidth = maxTextWidth + 24; // padding and border allowance
         if (hasParameterSlot()) {
             int parameterContentWidth = PARAMETER_SLOT_MIN_CONTENT_WIDTH;
             if (!attachedParameters.isEmpty()) {
@@ -2198,6 +2374,9 @@ public class Node {
         }
         updateAttachedParameterPositions();
         notifyParentParameterHostOfResize();
+        if (previousWidth != width || previousHeight != height) {
+            notifyBoundsChanged();
+        }
     }
 
     /**
@@ -2226,8 +2405,9 @@ public class Node {
     /**
      * Execute this node asynchronously.
      * Returns a CompletableFuture that completes when the node's command is finished.
+     * Loop counters and the chosen output socket are kept in the chain's frame at {@code frameIndex}.
      */
-    public CompletableFuture<Void> execute() {
+    public CompletableFuture<Void> execute(ExecutionFrame frame, int frameIndex) {
         CompletableFuture<Void> future = new CompletableFuture<>();
 
         // Execute on the main Minecraft thread
@@ -2248,7 +2428,7 @@ public class Node {
         if (client != null) {
             client.execute(() -> {
                 try {
-                    executeNodeCommand(future);
+                    executeNodeCommand(future, frame, frameIndex);
                 } catch (Exception e) {
                     System.err.println("Error executing node " + type + ": " + e.getMessage());
                     e.printStackTrace();
@@ -2262,14 +2442,14 @@ public class Node {
         return future;
     }
 
-    private ParameterHandlingResult preprocessAttachedParameter(EnumSet<ParameterUsage> usages, CompletableFuture<Void> future) {
+    private ParameterHandlingResult preprocessAttachedParameter(EnumSet<ParameterUsage> usages, CompletableFuture<Void> future, RuntimeParameterData runtime) {
         if (!attachedParameters.isEmpty()) {
             java.util.List<Integer> slotIndices = new java.util.ArrayList<>(attachedParameters.keySet());
             java.util.Collections.sort(slotIndices);
             ParameterHandlingResult result = ParameterHandlingResult.CONTINUE;
             boolean resetRuntime = true;
             for (int slotIndex : slotIndices) {
-                ParameterHandlingResult slotResult = preprocessParameterSlot(slotIndex, usages, future, resetRuntime);
+                ParameterHandlingResult slotResult = preprocessParameterSlot(slotIndex, usages, future, resetRuntime, runtime);
                 resetRuntime = false;
                 if (slotResult == ParameterHandlingResult.COMPLETE) {
                     result = ParameterHandlingResult.COMPLETE;
@@ -2283,7 +2463,7 @@ public class Node {
         ParameterHandlingResult result = ParameterHandlingResult.CONTINUE;
         boolean resetRuntime = true;
         for (int i = 0; i < slotCount; i++) {
-            ParameterHandlingResult slotResult = preprocessParameterSlot(i, usages, future, resetRuntime);
+            ParameterHandlingResult slotResult = preprocessParameterSlot(i, usages, future, resetRuntime, runtime);
             resetRuntime = false;
             if (slotResult == ParameterHandlingResult.COMPLETE) {
                 result = ParameterHandlingResult.COMPLETE;
@@ -2293,46 +2473,42 @@ public class Node {
         return result;
     }
 
-    private ParameterHandlingResult preprocessParameterSlot(int slotIndex, EnumSet<ParameterUsage> usages, CompletableFuture<Void> future, boolean resetRuntimeData) {
+    private ParameterHandlingResult preprocessParameterSlot(int slotIndex, EnumSet<ParameterUsage> usages, CompletableFuture<Void> future, boolean resetRuntimeData, RuntimeParameterData runtime) {
         if (!canAcceptParameterAt(slotIndex)) {
             return ParameterHandlingResult.CONTINUE;
         }
         if (resetRuntimeData) {
-            runtimeParameterData = null;
+            runtime.clear();
         }
         Node parameterNode = getAttachedParameter(slotIndex);
-        return preprocessParameterNode(parameterNode, slotIndex, usages, future);
+        return preprocessParameterNode(parameterNode, slotIndex, usages, future, runtime);
     }
 
-    private ParameterHandlingResult preprocessParameterNode(Node parameterNode, int slotIndex, EnumSet<ParameterUsage> usages, CompletableFuture<Void> future) {
+    private ParameterHandlingResult preprocessParameterNode(Node parameterNode, int slotIndex, EnumSet<ParameterUsage> usages, CompletableFuture<Void> future, RuntimeParameterData runtime) {
         if (parameterNode == null) {
             return ParameterHandlingResult.CONTINUE;
         }
-        if (runtimeParameterData == null) {
-            runtimeParameterData = new RuntimeParameterData();
-        }
-
         boolean handled = false;
 
         Map<String, String> exported = parameterNode.exportParameterValues();
         Map<String, String> adjustedValues = adjustParameterValuesForSlot(exported, slotIndex);
         if (!exported.isEmpty()) {
-            handled = applyParameterValuesFromMap(adjustedValues);
+            handled = applyParameterValuesFromMap(adjustedValues, runtime);
         }
 
         if (usages.contains(ParameterUsage.POSITION)) {
-            Optional<Vec3d> targetVec = resolvePositionTarget(parameterNode, runtimeParameterData, future);
+            Optional<Vec3d> targetVec = resolvePositionTarget(parameterNode, runtime, future);
             if (targetVec.isPresent()) {
                 handled = true;
-                runtimeParameterData.targetVector = targetVec.get();
-                applyVectorToCoordinateParameters(targetVec.get());
+                runtime.targetVector = targetVec.get();
+                applyVectorToCoordinateParameters(targetVec.get(), runtime);
             } else if (future != null && future.isDone()) {
                 return ParameterHandlingResult.COMPLETE;
             }
         }
 
         if (usages.contains(ParameterUsage.LOOK_ORIENTATION)) {
-            boolean oriented = resolveLookOrientation(parameterNode, runtimeParameterData, future);
+            boolean oriented = resolveLookOrientation(parameterNode, runtime, future);
             if (oriented) {
                 handled = true;
             } else if (future != null && future.isDone()) {
@@ -2341,7 +2517,7 @@ public class Node {
         }
 
         if (usages.contains(ParameterUsage.TURN_OFFSET)) {
-            boolean offsets = resolveTurnOffsets(parameterNode, runtimeParameterData, future);
+            boolean offsets = resolveTurnOffsets(parameterNode, runtime, future);
             if (offsets) {
                 handled = true;
             } else if (future != null && future.isDone()) {
@@ -2350,7 +2526,7 @@ public class Node {
         }
 
         if (!handled && type == NodeType.MOVE_ITEM && parameterNode.getType() == NodeType.PARAM_ITEM) {
-            if (resolveMoveItemSlotFromItemParameter(parameterNode, slotIndex, future)) {
+            if (resolveMoveItemSlotFromItemParameter(parameterNode, slotIndex, future, runtime)) {
                 handled = true;
             } else {
                 return ParameterHandlingResult.COMPLETE;
@@ -2565,19 +2741,19 @@ public class Node {
         return Optional.empty();
     }
 
-    private void applyVectorToCoordinateParameters(Vec3d targetVec) {
+    private void applyVectorToCoordinateParameters(Vec3d targetVec, RuntimeParameterData runtime) {
         if (targetVec == null) {
             return;
         }
         int x = MathHelper.floor(targetVec.x);
         int y = MathHelper.floor(targetVec.y);
         int z = MathHelper.floor(targetVec.z);
-        if (runtimeParameterData != null) {
-            runtimeParameterData.targetBlockPos = new BlockPos(x, y, z);
+        if (runtime != null) {
+            runtime.targetBlockPos = new BlockPos(x, y, z);
         }
-        setParameterValueAndPropagate("X", Integer.toString(x));
-        setParameterValueAndPropagate("Y", Integer.toString(y));
-        setParameterValueAndPropagate("Z", Integer.toString(z));
+        setRuntimeParameter(runtime, "X", Integer.toString(x));
+        setRuntimeParameter(runtime, "Y", Integer.toString(y));
+        setRuntimeParameter(runtime, "Z", Integer.toString(z));
     }
 
     private boolean isPlayerAtCoordinates(Integer targetX, Integer targetY, Integer targetZ) {
@@ -2608,14 +2784,14 @@ public class Node {
         Float pitchParam = parseNodeFloat(parameterNode, "Pitch");
         if (yawParam != null || pitchParam != null) {
             if (yawParam != null) {
-                setParameterIfPresent("Yaw", formatFloat(yawParam));
+                setRuntimeParameter(data, "Yaw", formatFloat(yawParam));
                 if (data != null) {
                     data.resolvedYaw = yawParam;
                 }
             }
             if (pitchParam != null) {
                 float clamped = MathHelper.clamp(pitchParam, -90.0F, 90.0F);
-                setParameterIfPresent("Pitch", formatFloat(clamped));
+                setRuntimeParameter(data, "Pitch", formatFloat(clamped));
                 if (data != null) {
                     data.resolvedPitch = clamped;
                 }
@@ -2641,8 +2817,8 @@ public class Node {
         float pitch = (float) (-Math.toDegrees(Math.atan2(delta.y, Math.sqrt(delta.x * delta.x + delta.z * delta.z))));
         float clampedPitch = MathHelper.clamp(pitch, -90.0F, 90.0F);
 
-        setParameterIfPresent("Yaw", formatFloat(yaw));
-        setParameterIfPresent("Pitch", formatFloat(clampedPitch));
+        setRuntimeParameter(data, "Yaw", formatFloat(yaw));
+        setRuntimeParameter(data, "Pitch", formatFloat(clampedPitch));
 
         if (data != null) {
             data.resolvedYaw = yaw;
@@ -2661,14 +2837,14 @@ public class Node {
         Float pitchOffset = parseNodeFloat(parameterNode, "PitchOffset");
         if (yawOffset != null || pitchOffset != null) {
             if (yawOffset != null) {
-                setParameterIfPresent("YawOffset", formatFloat(yawOffset));
+                setRuntimeParameter(data, "YawOffset", formatFloat(yawOffset));
                 if (data != null) {
                     data.resolvedYawOffset = yawOffset;
                 }
             }
             if (pitchOffset != null) {
                 float clamped = MathHelper.clamp(pitchOffset, -180.0F, 180.0F);
-                setParameterIfPresent("PitchOffset", formatFloat(clamped));
+                setRuntimeParameter(data, "PitchOffset", formatFloat(clamped));
                 if (data != null) {
                     data.resolvedPitchOffset = clamped;
                 }
@@ -2695,8 +2871,8 @@ public class Node {
         float yawOffsetComputed = MathHelper.wrapDegrees(targetYaw - client.player.getYaw());
         float pitchOffsetComputed = MathHelper.wrapDegrees(targetPitch - client.player.getPitch());
 
-        setParameterIfPresent("YawOffset", formatFloat(yawOffsetComputed));
-        setParameterIfPresent("PitchOffset", formatFloat(pitchOffsetComputed));
+        setRuntimeParameter(data, "YawOffset", formatFloat(yawOffsetComputed));
+        setRuntimeParameter(data, "PitchOffset", formatFloat(pitchOffsetComputed));
 
         if (data != null) {
             data.resolvedYawOffset = yawOffsetComputed;
@@ -2794,16 +2970,6 @@ public class Node {
         }
     }
 
-    private void setParameterIfPresent(String name, String value) {
-        if (name == null || value == null) {
-            return;
-        }
-        NodeParameter parameter = getParameter(name);
-        if (parameter != null) {
-            parameter.setStringValue(value);
-        }
-    }
-
     private static String formatFloat(float value) {
         return String.format(Locale.ROOT, "%.3f", value);
     }
@@ -2869,21 +3035,21 @@ public class Node {
         }
     }
 
-    private List<String> resolveCollectTargets(CompletableFuture<Void> future) {
+    private List<String> resolveCollectTargets(CompletableFuture<Void> future, RuntimeParameterData runtime) {
         List<String> blockIds = new ArrayList<>();
 
-        if (runtimeParameterData != null) {
-            if (runtimeParameterData.targetBlockIds != null) {
-                for (String id : runtimeParameterData.targetBlockIds) {
+        if (runtime != null) {
+            if (runtime.targetBlockIds != null) {
+                for (String id : runtime.targetBlockIds) {
                     addBlockIds(blockIds, id);
                 }
-            } else if (runtimeParameterData.targetBlockId != null) {
-                addBlockIds(blockIds, runtimeParameterData.targetBlockId);
+            } else if (runtime.targetBlockId != null) {
+                addBlockIds(blockIds, runtime.targetBlockId);
             }
         }
 
-        addBlockIds(blockIds, getStringParameter("Block", null));
-        addBlockIds(blockIds, getStringParameter("Blocks", null));
+        addBlockIds(blockIds, getStringParameter(runtime, "Block", null));
+        addBlockIds(blockIds, getStringParameter(runtime, "Blocks", null));
 
         if (blockIds.isEmpty()) {
             sendParameterSearchFailure("No block types specified for " + type.getDisplayName() + ".", future);
@@ -2920,28 +3086,13 @@ public class Node {
             return Optional.empty();
         }
         int radius = Math.max(1, Math.min((int) Math.ceil(range), 64));
-        BlockPos playerPos = client.player.getBlockPos();
-        BlockPos.Mutable mutable = new BlockPos.Mutable();
-        BlockPos bestPos = null;
-        double bestDistance = Double.MAX_VALUE;
-
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -radius; dy <= radius; dy++) {
-                for (int dz = -radius; dz <= radius; dz++) {
-                    mutable.set(playerPos.getX() + dx, playerPos.getY() + dy, playerPos.getZ() + dz);
-                    BlockState state = client.world.getBlockState(mutable);
-                    if (blocks.contains(state.getBlock())) {
-                        double distance = mutable.getSquaredDistance(playerPos);
-                        if (distance < bestDistance) {
-                            bestDistance = distance;
-                            bestPos = mutable.toImmutable();
-                        }
-                    }
-                }
-            }
+        Set<Block> targets = new HashSet<>(blocks);
+        BlockLocationIndex index = BlockLocationIndex.getInstance();
+        if (index.canAnswer(targets)) {
+            return index.findNearest(client.world, client.player.getBlockPos(), radius, targets);
         }
-
-        return Optional.ofNullable(bestPos);
+        return BlockSearch.findNearest(client.world, client.player.getBlockPos(), radius,
+            state -> targets.contains(state.getBlock()), null);
     }
 
     private Optional<BlockPos> findNearestOpenBlock(net.minecraft.client.MinecraftClient client, int range) {
@@ -2949,45 +3100,33 @@ public class Node {
             return Optional.empty();
         }
         int radius = Math.max(1, Math.min(range, 32));
-        BlockPos playerPos = client.player.getBlockPos();
-        BlockPos.Mutable mutable = new BlockPos.Mutable();
-        BlockPos bestPos = null;
-        double bestDistance = Double.MAX_VALUE;
-
-        for (int dx = -radius; dx <= radius; dx++) {
-            for (int dy = -radius; dy <= radius; dy++) {
-                for (int dz = -radius; dz <= radius; dz++) {
-                    mutable.set(playerPos.getX() + dx, playerPos.getY() + dy, playerPos.getZ() + dz);
-                    if (!client.world.getWorldBorder().contains(mutable)) {
-                        continue;
-                    }
-                    if (!isBlockReplaceable(client.world, mutable)) {
-                        continue;
-                    }
-                    if (!hasPlacementSupport(client.world, mutable)) {
-                        continue;
-                    }
-                    Box blockBox = new Box(mutable.getX(), mutable.getY(), mutable.getZ(), mutable.getX() + 1, mutable.getY() + 1, mutable.getZ() + 1);
-                    if (!client.world.getOtherEntities(null, blockBox).isEmpty()) {
-                        continue;
-                    }
-                    double distance = mutable.getSquaredDistance(playerPos);
-                    if (distance < bestDistance) {
-                        bestDistance = distance;
-                        bestPos = mutable.toImmutable();
-                    }
+        net.minecraft.client.world.ClientWorld world = client.world;
+        // Palette pre-check mirrors isBlockReplaceable so fully solid sections are skipped
+        return BlockSearch.findNearest(world, client.player.getBlockPos(), radius,
+            state -> state.isAir()
+                || !state.getFluidState().isEmpty()
+                || state.getCollisionShape(net.minecraft.world.EmptyBlockView.INSTANCE, BlockPos.ORIGIN).isEmpty(),
+            (pos, state) -> {
+                if (!world.getWorldBorder().contains(pos)) {
+                    return false;
                 }
-            }
-        }
-
-        return Optional.ofNullable(bestPos);
+                if (!isBlockReplaceable(world, pos)) {
+                    return false;
+                }
+                if (!hasPlacementSupport(world, pos)) {
+                    return false;
+                }
+                Box blockBox = new Box(pos.getX(), pos.getY(), pos.getZ(), pos.getX() + 1, pos.getY() + 1, pos.getZ() + 1);
+                return world.getOtherEntities(null, blockBox).isEmpty();
+            });
     }
 
     /**
      * Execute the actual command for this node type.
      * This method should be overridden by specific node implementations if needed.
      */
-    private void executeNodeCommand(CompletableFuture<Void> future) {
+    private void executeNodeCommand(CompletableFuture<Void> future, ExecutionFrame frame, int frameIndex) {
+        RuntimeParameterData runtime = frame != null ? frame.beginRuntimeParameters(frameIndex) : new RuntimeParameterData();
         switch (type) {
             case START:
                 // START node doesn't execute any command, just passes through
@@ -3005,124 +3144,124 @@ public class Node {
 
             // Generalized nodes
             case GOTO:
-                executeGotoCommand(future);
+                executeGotoCommand(future, runtime);
                 break;
             case GOAL:
-                executeGoalCommand(future);
+                executeGoalCommand(future, runtime);
                 break;
             case COLLECT:
-                executeCollectCommand(future);
+                executeCollectCommand(future, runtime);
                 break;
             case BUILD:
-                executeBuildCommand(future);
+                executeBuildCommand(future, runtime);
                 break;
             case EXPLORE:
-                executeExploreCommand(future);
+                executeExploreCommand(future, runtime);
                 break;
             case FOLLOW:
-                executeFollowCommand(future);
+                executeFollowCommand(future, runtime);
                 break;
             case CONTROL_REPEAT:
-                executeControlRepeat(future);
+                executeControlRepeat(future, frame, frameIndex, runtime);
                 break;
             case CONTROL_REPEAT_UNTIL:
-                executeControlRepeatUntil(future);
+                executeControlRepeatUntil(future, frame, frameIndex, runtime);
                 break;
             case CONTROL_FOREVER:
-                executeControlForever(future);
+                executeControlForever(future, frame, frameIndex, runtime);
                 break;
             case CONTROL_IF:
-                executeControlIf(future);
+                executeControlIf(future, frame, frameIndex, runtime);
                 break;
             case CONTROL_IF_ELSE:
-                executeControlIfElse(future);
+                executeControlIfElse(future, frame, frameIndex, runtime);
                 break;
             case FARM:
-                executeFarmCommand(future);
+                executeFarmCommand(future, runtime);
                 break;
             case STOP:
-                executeStopCommand(future);
+                executeStopCommand(future, runtime);
                 break;
             case PLACE:
-                executePlaceCommand(future);
+                executePlaceCommand(future, runtime);
                 break;
             case CRAFT:
-                executeCraftCommand(future);
+                executeCraftCommand(future, runtime);
                 break;
             case OPEN_INVENTORY:
-                executePlayerGuiCommand(future, NodeMode.PLAYER_GUI_OPEN);
+                executePlayerGuiCommand(future, NodeMode.PLAYER_GUI_OPEN, runtime);
                 break;
             case CLOSE_GUI:
-                executePlayerGuiCommand(future, NodeMode.PLAYER_GUI_CLOSE);
+                executePlayerGuiCommand(future, NodeMode.PLAYER_GUI_CLOSE, runtime);
                 break;
             case SCREEN_CONTROL:
-                executeScreenControlCommand(future);
+                executeScreenControlCommand(future, runtime);
                 break;
             case WAIT:
-                executeWaitCommand(future);
+                executeWaitCommand(future, runtime);
                 break;
             case MESSAGE:
-                executeMessageCommand(future);
+                executeMessageCommand(future, runtime);
                 break;
             case HOTBAR:
-                executeHotbarCommand(future);
+                executeHotbarCommand(future, runtime);
                 break;
             case DROP_ITEM:
-                executeDropItemCommand(future);
+                executeDropItemCommand(future, runtime);
                 break;
             case DROP_SLOT:
-                executeDropSlotCommand(future);
+                executeDropSlotCommand(future, runtime);
                 break;
             case MOVE_ITEM:
-                executeMoveItemCommand(future);
+                executeMoveItemCommand(future, runtime);
                 break;
             case CLEAR_SLOT:
-                executeClearSlotCommand(future);
+                executeClearSlotCommand(future, runtime);
                 break;
             case USE:
-                executeUseCommand(future);
+                executeUseCommand(future, runtime);
                 break;
             case PLACE_HAND:
-                executePlaceHandCommand(future);
+                executePlaceHandCommand(future, runtime);
                 break;
             case LOOK:
-                executeLookCommand(future);
+                executeLookCommand(future, runtime);
                 break;
             case TURN:
-                executeTurnCommand(future);
+                executeTurnCommand(future, runtime);
                 break;
             case JUMP:
-                executeJumpCommand(future);
+                executeJumpCommand(future, runtime);
                 break;
             case CROUCH:
-                executeCrouchCommand(future);
+                executeCrouchCommand(future, runtime);
                 break;
             case SPRINT:
-                executeSprintCommand(future);
+                executeSprintCommand(future, runtime);
                 break;
             case INTERACT:
-                executeInteractCommand(future);
+                executeInteractCommand(future, runtime);
                 break;
             case ATTACK:
-                executeAttackCommand(future);
+                executeAttackCommand(future, runtime);
                 break;
             case SWING:
-                executeSwingCommand(future);
+                executeSwingCommand(future, runtime);
                 break;
             case SWAP_HANDS:
-                executeSwapHandsCommand(future);
+                executeSwapHandsCommand(future, runtime);
                 break;
             case EQUIP_ARMOR:
-                executeEquipArmorCommand(future);
+                executeEquipArmorCommand(future, runtime);
                 break;
             case UNEQUIP_ARMOR:
-                executeUnequipArmorCommand(future);
+                executeUnequipArmorCommand(future, runtime);
                 break;
             case EQUIP_HAND:
-                executeEquipHandCommand(future);
+                executeEquipHandCommand(future, runtime);
                 break;
             case UNEQUIP_HAND:
-                executeUnequipHandCommand(future);
+                executeUnequipHandCommand(future, runtime);
                 break;
             case SENSOR_TOUCHING_BLOCK:
             case SENSOR_TOUCHING_ENTITY:
@@ -3141,24 +3280,24 @@ public class Node {
             case SENSOR_IS_UNDERWATER:
             case SENSOR_IS_FALLING:
             case SENSOR_IS_RENDERED:
-                completeSensorEvaluation(future);
+                completeSensorEvaluation(future, frame, frameIndex);
                 break;
             
             // Legacy nodes
             case PATH:
-                executePathCommand(future);
+                executePathCommand(future, runtime);
                 break;
             case INVERT:
-                executeInvertCommand(future);
+                executeInvertCommand(future, runtime);
                 break;
             case COME:
-                executeComeCommand(future);
+                executeComeCommand(future, runtime);
                 break;
             case SURFACE:
-                executeSurfaceCommand(future);
+                executeSurfaceCommand(future, runtime);
                 break;
             case TUNNEL:
-                executeTunnelCommand(future);
+                executeTunnelCommand(future, runtime);
                 break;
                 
             default:
@@ -3169,8 +3308,8 @@ public class Node {
     }
     
     // Command execution methods that wait for Baritone completion
-    private void executeGotoCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeGotoCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         if (mode == null) {
@@ -3194,9 +3333,9 @@ public class Node {
         switch (mode) {
             case GOTO_XYZ:
                 int x = 0, y = 64, z = 0;
-                NodeParameter xParam = getParameter("X");
-                NodeParameter yParam = getParameter("Y");
-                NodeParameter zParam = getParameter("Z");
+                NodeParameter xParam = getParameterAt(runtime, ParameterSlots.GOTO_XYZ_X);
+                NodeParameter yParam = getParameterAt(runtime, ParameterSlots.GOTO_XYZ_Y);
+                NodeParameter zParam = getParameterAt(runtime, ParameterSlots.GOTO_XYZ_Z);
 
                 if (xParam != null) x = xParam.getIntValue();
                 if (yParam != null) y = yParam.getIntValue();
@@ -3215,8 +3354,8 @@ public class Node {
                 
             case GOTO_XZ:
                 int x2 = 0, z2 = 0;
-                NodeParameter xParam2 = getParameter("X");
-                NodeParameter zParam2 = getParameter("Z");
+                NodeParameter xParam2 = getParameterAt(runtime, ParameterSlots.GOTO_XZ_X);
+                NodeParameter zParam2 = getParameterAt(runtime, ParameterSlots.GOTO_XZ_Z);
                 
                 if (xParam2 != null) x2 = xParam2.getIntValue();
                 if (zParam2 != null) z2 = zParam2.getIntValue();
@@ -3234,7 +3373,7 @@ public class Node {
                 
             case GOTO_Y:
                 int y3 = 64;
-                NodeParameter yParam3 = getParameter("Y");
+                NodeParameter yParam3 = getParameterAt(runtime, ParameterSlots.GOTO_Y_Y);
                 if (yParam3 != null) y3 = yParam3.getIntValue();
                 
                 System.out.println("Executing goto to Y level: " + y3);
@@ -3255,7 +3394,7 @@ public class Node {
                 
             case GOTO_BLOCK:
                 String block = "stone";
-                NodeParameter blockParam = getParameter("Block");
+                NodeParameter blockParam = getParameterAt(runtime, ParameterSlots.GOTO_BLOCK_BLOCK);
                 if (blockParam != null) {
                     block = blockParam.getStringValue();
                 }
@@ -3470,8 +3609,8 @@ public class Node {
         return true;
     }
     
-    private void executeCollectCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeCollectCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         if (mode == null) {
@@ -3479,7 +3618,7 @@ public class Node {
             return;
         }
 
-        List<String> targets = resolveCollectTargets(future);
+        List<String> targets = resolveCollectTargets(future, runtime);
         if (targets.isEmpty()) {
             return;
         }
@@ -3497,7 +3636,7 @@ public class Node {
 
         switch (mode) {
             case COLLECT_SINGLE: {
-                int amount = Math.max(1, getIntParameter("Amount", 1));
+                int amount = Math.max(1, getIntParameter(runtime, ParameterSlots.COLLECT_SINGLE_AMOUNT, 1));
                 if (hasRequiredBlockAlready(targets.get(0), amount)) {
                     future.complete(null);
                     return;
@@ -3597,7 +3736,7 @@ public class Node {
         if (item == null || item == Items.AIR) {
             return false;
         }
-        int count = client.player.getInventory().count(item);
+        int count = InventoryIndex.getInstance().count(client.player.getInventory(), item);
         if (count >= required) {
             sendNodeInfoMessage(client, "Already have " + count + " " + blockId + ", skipping mine.");
             return true;
@@ -3605,15 +3744,15 @@ public class Node {
         return false;
     }
     
-    private void executeCraftCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeCraftCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         String itemId = "stick";
         int quantity = 1;
 
-        NodeParameter itemParam = getParameter("Item");
-        NodeParameter amountParam = getParameter("Amount");
+        NodeParameter itemParam = getParameterAt(runtime, ParameterSlots.CRAFT_ITEM);
+        NodeParameter amountParam = getParameterAt(runtime, ParameterSlots.CRAFT_AMOUNT);
 
         if (itemParam != null) {
             itemId = itemParam.getStringValue();
@@ -3630,7 +3769,7 @@ public class Node {
                 if (normalized != null && !normalized.isEmpty()) {
                     itemId = normalized;
                     if (!normalized.equals(requestedItemLabel)) {
-                        setParameterValueAndPropagate("Item", normalized);
+                        setRuntimeParameter(runtime, "Item", normalized);
                     }
                 }
             }
@@ -3679,70 +3818,56 @@ public class Node {
             effectiveCraftMode = craftMode;
         }
 
-        java.util.concurrent.atomic.AtomicBoolean requiresCraftingTable = new java.util.concurrent.atomic.AtomicBoolean(false);
-        RecipeEntry<CraftingRecipe> recipeEntry = findCraftingRecipe(client, targetItem, effectiveCraftMode, requiresCraftingTable);
-        if (recipeEntry == null) {
-            String message;
-            if (effectiveCraftMode == NodeMode.CRAFT_PLAYER_GUI && requiresCraftingTable.get()) {
-                message = "Cannot craft " + itemDisplayName + ": recipe requires a crafting table.";
-            } else {
-                message = "Cannot craft " + itemDisplayName + ": no matching recipe found.";
-            }
-            sendNodeErrorMessage(client, message);
-            future.complete(null);
-            return;
-        }
-
-        List<ItemStack> emptyGrid = new ArrayList<>(Collections.nCopies(9, ItemStack.EMPTY));
-        ItemStack outputTemplate = recipeEntry.value().craft(CraftingRecipeInput.create(3, 3, emptyGrid), client.player.getWorld().getRegistryManager());
-        if (outputTemplate.isEmpty()) {
-            sendNodeErrorMessage(client, "Cannot craft " + itemDisplayName + ": the recipe produced no output.");
-            future.complete(null);
-            return;
-        }
-
-        int desiredCount = Math.max(1, quantity);
-        int perCraftOutput = Math.max(1, outputTemplate.getCount());
-        int craftsRequested = Math.max(1, (int) Math.ceil(desiredCount / (double) perCraftOutput));
-
-        List<GridIngredient> gridIngredients = resolveGridIngredients(recipeEntry.value(), effectiveCraftMode);
-        if (gridIngredients.isEmpty()) {
-            sendNodeErrorMessage(client, "Cannot craft " + itemDisplayName + ": the recipe has no ingredients.");
+        int requestedCount = Math.max(1, quantity);
+        // Missing intermediate items (planks for sticks, sticks for tools) become earlier steps of the plan
+        CraftingPlanner.Plan plan = CraftingPlanner.plan(client, targetItem, requestedCount, effectiveCraftMode);
+        if (!plan.isSuccess()) {
+            sendNodeErrorMessage(client, plan.getFailureMessage());
             future.complete(null);
             return;
         }
+        // Short on ingredients: craft what the inventory allows and report the rest afterwards
+        int desiredCount = plan.getPlannedAmount();
 
+        List<CraftingPlanner.Step> steps = plan.getSteps();
         int[] craftingGridSlots = getCraftingGridSlots(effectiveCraftMode);
 
-        CompletableFuture
-            .supplyAsync(() -> {
-                try {
-                    return craftRecipeUsingScreen(client, effectiveCraftMode, recipeEntry, targetItem, craftsRequested, desiredCount, itemDisplayName, gridIngredients, craftingGridSlots);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    throw new java.util.concurrent.CompletionException(e);
-                }
-            })
+        // All steps run in the crafting screen that is already open, each one after the previous finished
+        CompletableFuture<CraftingSummary> crafting = CompletableFuture.completedFuture(new CraftingSummary(0, null));
+        for (int i = 0; i < steps.size(); i++) {
+            CraftingPlanner.Step step = steps.get(i);
+            CraftingRecipeIndex.IndexedRecipe recipe = step.getRecipe();
+            boolean finalStep = i == steps.size() - 1;
+            int stepCount = finalStep ? desiredCount : step.getCrafts() * recipe.getOutputCount();
+            String stepName = finalStep ? itemDisplayName : step.getOutput().getName().getString();
+            crafting = crafting.thenCompose(previous -> previous.failureMessage != null
+                ? CompletableFuture.completedFuture(previous)
+                : craftRecipeUsingScreen(client, effectiveCraftMode, recipe, step.getOutput(),
+                    step.getCrafts(), stepCount, stepName, craftingGridSlots));
+        }
+
+        crafting
             .whenComplete((summary, throwable) -> {
                 if (throwable != null) {
                     Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
-                    if (!(cause instanceof InterruptedException)) {
-                        sendNodeErrorMessageOnClientThread(client, "Cannot craft " + itemDisplayName + ": " + cause.getMessage());
-                    }
+                    sendNodeErrorMessageOnClientThread(client, "Cannot craft " + itemDisplayName + ": " + cause.getMessage());
                     future.complete(null);
                     return;
                 }
 
                 if (summary.failureMessage != null) {
                     sendNodeErrorMessageOnClientThread(client, summary.failureMessage);
+                } else if (plan.isPartial()) {
+                    sendNodeErrorMessageOnClientThread(client, "Crafted only " + desiredCount + " of " + requestedCount
+                        + " " + itemDisplayName + ". " + plan.getFailureMessage());
                 }
 
                 future.complete(null);
             });
     }
 
-    private void executeScreenControlCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeScreenControlCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         NodeMode screenMode = mode != null ? mode : NodeMode.SCREEN_OPEN_CHAT;
@@ -3753,34 +3878,31 @@ public class Node {
             return;
         }
 
-        try {
-            runOnClientThread(client, () -> {
-                switch (screenMode) {
-                    case SCREEN_OPEN_CHAT:
-                        client.setScreen(new ChatScreen(""));
-                        break;
-                    case SCREEN_CLOSE_CURRENT:
-                        if (client.player != null) {
-                            client.player.closeHandledScreen();
-                        }
-                        client.setScreen(null);
-                        break;
-                    default:
-                        throw new IllegalStateException("Unknown screen control mode: " + screenMode);
-                }
-            });
-            future.complete(null);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            future.completeExceptionally(e);
-        } catch (RuntimeException e) {
-            sendNodeErrorMessage(client, e.getMessage());
+        ClientThreadBridge.run(client, () -> {
+            switch (screenMode) {
+                case SCREEN_OPEN_CHAT:
+                    client.setScreen(new ChatScreen(""));
+                    break;
+                case SCREEN_CLOSE_CURRENT:
+                    if (client.player != null) {
+                        client.player.closeHandledScreen();
+                    }
+                    client.setScreen(null);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown screen control mode: " + screenMode);
+            }
+        }).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                sendNodeErrorMessage(client, cause.getMessage());
+            }
             future.complete(null);
-        }
+        });
     }
 
-    private void executePlayerGuiCommand(CompletableFuture<Void> future, NodeMode desiredMode) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executePlayerGuiCommand(CompletableFuture<Void> future, NodeMode desiredMode, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         NodeMode playerGuiMode = desiredMode != null ? desiredMode : (mode != null ? mode : NodeMode.PLAYER_GUI_OPEN);
@@ -3791,23 +3913,22 @@ public class Node {
             return;
         }
 
-        try {
-            runOnClientThread(client, () -> {
-                switch (playerGuiMode) {
-                    case PLAYER_GUI_OPEN:
-                        if (client.player == null || client.player.networkHandler == null) {
-                            throw new RuntimeException("Cannot open the player GUI without an active player.");
-                        }
+        ClientThreadBridge.run(client, () -> {
+            switch (playerGuiMode) {
+                case PLAYER_GUI_OPEN:
+                    if (client.player == null || client.player.networkHandler == null) {
+                        throw new RuntimeException("Cannot open the player GUI without an active player.");
+                    }
 
-                        client.player.networkHandler.sendPacket(new ClientCommandC2SPacket(
-                                client.player,
-                                ClientCommandC2SPacket.Mode.OPEN_INVENTORY
-                        ));
+                    client.player.networkHandler.sendPacket(new ClientCommandC2SPacket(
+                            client.player,
+                            ClientCommandC2SPacket.Mode.OPEN_INVENTORY
+                    ));
 
-                        if (!(client.currentScreen instanceof InventoryScreen)) {
-                            client.setScreen(new InventoryScreen(client.player));
-                        }
-                        break;
+                    if (!(client.currentScreen instanceof InventoryScreen)) {
+                        client.setScreen(new InventoryScreen(client.player));
+                    }
+                    break;
                 case PLAYER_GUI_CLOSE:
                     if (client.player == null) {
                         throw new RuntimeException("Cannot close the player GUI without an active player.");
@@ -3819,17 +3940,15 @@ public class Node {
                     }
                     break;
                 default:
-                        throw new IllegalStateException("Unknown player GUI mode: " + playerGuiMode);
-                }
-            });
-            future.complete(null);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            future.completeExceptionally(e);
-        } catch (RuntimeException e) {
-            sendNodeErrorMessage(client, e.getMessage());
+                    throw new IllegalStateException("Unknown player GUI mode: " + playerGuiMode);
+            }
+        }).whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                sendNodeErrorMessage(client, cause.getMessage());
+            }
             future.complete(null);
-        }
+        });
     }
 
     private boolean isCraftingScreenAvailable(net.minecraft.client.MinecraftClient client, NodeMode craftMode) {
@@ -3864,383 +3983,334 @@ public class Node {
         return false;
     }
 
-    private RecipeEntry<CraftingRecipe> findCraftingRecipe(net.minecraft.client.MinecraftClient client,
-                                                           Item targetItem,
-                                                           NodeMode craftMode,
-                                                           java.util.concurrent.atomic.AtomicBoolean requiresCraftingTable) {
-        MinecraftServer server = client.getServer();
-        if (server == null) {
-            return null;
+    private CompletableFuture<CraftingSummary> craftRecipeUsingScreen(net.minecraft.client.MinecraftClient client,
+                                                                      NodeMode craftMode,
+                                                                      CraftingRecipeIndex.IndexedRecipe recipe,
+                                                                      Item targetItem,
+                                                                      int craftsRequested,
+                                                                      int desiredCount,
+                                                                      String itemDisplayName,
+                                                                      int[] gridSlots) {
+        List<GridIngredient> gridIngredients = recipe.getLayout(craftMode);
+        return craftRemainingBatches(client, craftMode, gridIngredients, targetItem, craftsRequested, desiredCount,
+            itemDisplayName, gridSlots, 0, 0);
+    }
+
+    /**
+     * Crafts one batch, then continues with the next from the attempt's completion until the
+     * requested crafts are done or an attempt fails.
+     */
+    private CompletableFuture<CraftingSummary> craftRemainingBatches(net.minecraft.client.MinecraftClient client,
+                                                                     NodeMode craftMode,
+                                                                     List<GridIngredient> gridIngredients,
+                                                                     Item targetItem,
+                                                                     int craftsRequested,
+                                                                     int desiredCount,
+                                                                     String itemDisplayName,
+                                                                     int[] gridSlots,
+                                                                     int craftsDone,
+                                                                     int totalProduced) {
+        if (craftsDone >= craftsRequested || totalProduced >= desiredCount) {
+            String failureMessage = totalProduced <= 0
+                    ? "Cannot craft " + itemDisplayName + ": missing required ingredients."
+                    : null;
+            return CompletableFuture.completedFuture(new CraftingSummary(totalProduced, failureMessage));
         }
 
-        ServerRecipeManager recipeManager = server.getRecipeManager();
-        List<ServerRecipeManager.ServerRecipe> serverRecipes = getServerRecipeList(recipeManager);
-        if (serverRecipes.isEmpty()) {
-            return null;
+        if (!isCraftingScreenAvailable(client, craftMode)) {
+            String failureMessage = craftMode == NodeMode.CRAFT_CRAFTING_TABLE
+                    ? "Cannot craft " + itemDisplayName + ": open a crafting table GUI before running this node."
+                    : "Cannot craft " + itemDisplayName + ": open your inventory or a crafting table GUI before running this node.";
+            return CompletableFuture.completedFuture(new CraftingSummary(totalProduced, failureMessage));
         }
 
-        List<ItemStack> emptyGrid = new ArrayList<>(Collections.nCopies(9, ItemStack.EMPTY));
-        for (ServerRecipeManager.ServerRecipe serverRecipe : serverRecipes) {
-            RecipeEntry<?> entry = serverRecipe.parent();
-            if (!(entry.value() instanceof CraftingRecipe craftingRecipe)) {
-                continue;
-            }
+        ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
+        if (!isCompatibleCraftingHandler(handler, craftMode)) {
+            return CompletableFuture.completedFuture(new CraftingSummary(totalProduced,
+                "Cannot craft " + itemDisplayName + ": the crafting screen closed."));
+        }
 
-            ItemStack result = craftingRecipe.craft(CraftingRecipeInput.create(3, 3, emptyGrid), client.player.getWorld().getRegistryManager());
-            if (!result.isOf(targetItem)) {
-                continue;
+        // Fill each grid slot with a whole batch so one shift-click on the output crafts all of it
+        int batch = Math.min(craftsRequested - craftsDone, MAX_CRAFT_BATCH);
+        return performCraftingAttempt(client, targetItem, itemDisplayName, gridIngredients, gridSlots, craftMode, batch)
+            .thenCompose(attemptResult -> {
+                if (attemptResult.errorMessage != null) {
+                    int produced = totalProduced + Math.max(0, attemptResult.produced);
+                    return CompletableFuture.completedFuture(new CraftingSummary(produced, attemptResult.errorMessage));
+                }
+                if (attemptResult.produced <= 0) {
+                    return CompletableFuture.completedFuture(new CraftingSummary(totalProduced,
+                        "Cannot craft " + itemDisplayName + ": missing required ingredients."));
+                }
+                return craftRemainingBatches(client, craftMode, gridIngredients, targetItem, craftsRequested, desiredCount,
+                    itemDisplayName, gridSlots, craftsDone + attemptResult.crafts, totalProduced + attemptResult.produced);
+            });
+    }
+
+    private CompletableFuture<CraftingAttemptResult> performCraftingAttempt(net.minecraft.client.MinecraftClient client,
+                                                                            Item targetItem,
+                                                                            String itemDisplayName,
+                                                                            List<GridIngredient> gridIngredients,
+                                                                            int[] gridSlots,
+                                                                            NodeMode craftMode,
+                                                                            int batch) {
+        return clearCraftingGridOnClient(client, itemDisplayName, gridSlots, craftMode).thenCompose(clearError -> {
+            if (clearError != null) {
+                return CompletableFuture.completedFuture(new CraftingAttemptResult(0, 0, clearError));
             }
 
-            if (craftMode == NodeMode.CRAFT_PLAYER_GUI && !recipeFitsPlayerGrid(craftingRecipe)) {
-                if (requiresCraftingTable != null) {
-                    requiresCraftingTable.set(true);
+            java.util.concurrent.atomic.AtomicReference<String> errorRef = new java.util.concurrent.atomic.AtomicReference<>();
+            // Plan every ingredient placement against one simulated inventory and send the clicks together
+            return ClientThreadBridge.supply(client, () -> {
+                ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
+                if (handler == null) {
+                    errorRef.set("Cannot craft " + itemDisplayName + ": the crafting screen closed.");
+                    return CompletableFuture.completedFuture(false);
                 }
-                continue;
-            }
 
-            @SuppressWarnings("unchecked")
-            RecipeEntry<CraftingRecipe> castEntry = (RecipeEntry<CraftingRecipe>) entry;
-            return castEntry;
-        }
+                InventoryTransaction transaction = InventoryTransaction.begin(handler);
+                for (GridIngredient ingredient : gridIngredients) {
+                    if (ingredient == null || ingredient.ingredient().isEmpty()) {
+                        continue;
+                    }
 
-        return null;
+                    int targetSlot = mapLogicalSlotToHandlerSlot(handler, craftMode, ingredient.slotIndex());
+                    if (targetSlot < 0) {
+                        errorRef.set("Cannot craft " + itemDisplayName + ": crafting grid slot unavailable.");
+                        return CompletableFuture.completedFuture(false);
+                    }
+
+                    if (placeIngredient(transaction, ingredient.ingredient(), targetSlot, batch) <= 0) {
+                        errorRef.set("Cannot craft " + itemDisplayName + ": missing required ingredients.");
+                        return CompletableFuture.completedFuture(false);
+                    }
+                }
+                return transaction.dispatch(client);
+            }).thenCompose(placement -> placement).thenCompose(placed -> {
+                if (errorRef.get() != null) {
+                    return CompletableFuture.completedFuture(new CraftingAttemptResult(0, 0, errorRef.get()));
+                }
+                if (!Boolean.TRUE.equals(placed)) {
+                    return CompletableFuture.completedFuture(new CraftingAttemptResult(0, 0,
+                        "Cannot craft " + itemDisplayName + ": failed to place ingredients."));
+                }
+                return delayOnClientThread(client, CRAFTING_ACTION_DELAY_MS)
+                    .thenCompose(ignored -> pollCraftingOutput(client, targetItem, itemDisplayName, gridSlots, craftMode, 0));
+            });
+        });
     }
 
-    private List<ServerRecipeManager.ServerRecipe> getServerRecipeList(ServerRecipeManager manager) {
-        if (SERVER_RECIPES_FIELD == null) {
-            return Collections.emptyList();
-        }
-        try {
-            @SuppressWarnings("unchecked")
-            List<ServerRecipeManager.ServerRecipe> recipes = (List<ServerRecipeManager.ServerRecipe>) SERVER_RECIPES_FIELD.get(manager);
-            return recipes != null ? recipes : Collections.emptyList();
-        } catch (IllegalAccessException e) {
-            return Collections.emptyList();
-        }
+    /**
+     * Shift-clicks the output once the server shows the result, re-checking every
+     * {@link #CRAFTING_ACTION_DELAY_MS} up to {@link #CRAFTING_OUTPUT_POLL_LIMIT} times, then clears the grid.
+     */
+    private CompletableFuture<CraftingAttemptResult> pollCraftingOutput(net.minecraft.client.MinecraftClient client,
+                                                                        Item targetItem,
+                                                                        String itemDisplayName,
+                                                                        int[] gridSlots,
+                                                                        NodeMode craftMode,
+                                                                        int poll) {
+        return ClientThreadBridge.supply(client, () -> takeCraftingOutput(client, targetItem, itemDisplayName, gridSlots, craftMode))
+            .thenCompose(taken -> {
+                if (taken == null) {
+                    if (poll + 1 >= CRAFTING_OUTPUT_POLL_LIMIT) {
+                        return CompletableFuture.completedFuture(new CraftingAttemptResult(0, 0,
+                            "Cannot craft " + itemDisplayName + ": missing required ingredients."));
+                    }
+                    return delayOnClientThread(client, CRAFTING_ACTION_DELAY_MS)
+                        .thenCompose(ignored -> pollCraftingOutput(client, targetItem, itemDisplayName, gridSlots, craftMode, poll + 1));
+                }
+                if (taken.errorMessage != null) {
+                    return CompletableFuture.completedFuture(taken);
+                }
+                return clearCraftingGridOnClient(client, itemDisplayName, gridSlots, craftMode).thenCompose(clearError -> {
+                    if (clearError != null) {
+                        return CompletableFuture.completedFuture(new CraftingAttemptResult(taken.crafts, taken.produced, clearError));
+                    }
+                    return delayOnClientThread(client, CRAFTING_ACTION_DELAY_MS).thenApply(ignored -> taken);
+                });
+            });
     }
 
-    private boolean recipeFitsPlayerGrid(CraftingRecipe recipe) {
-        if (recipe == null) {
-            return false;
+    /**
+     * Takes the crafted result out of the output slot. Returns null while the output is not showing yet.
+     * Must be called on the client thread.
+     */
+    private CraftingAttemptResult takeCraftingOutput(net.minecraft.client.MinecraftClient client,
+                                                     Item targetItem,
+                                                     String itemDisplayName,
+                                                     int[] gridSlots,
+                                                     NodeMode craftMode) {
+        ClientPlayerInteractionManager interactionManager = client.interactionManager;
+        if (interactionManager == null) {
+            return new CraftingAttemptResult(0, 0, "Cannot craft " + itemDisplayName + ": interaction manager unavailable.");
         }
 
-        if (recipe instanceof ShapedRecipe shapedRecipe) {
-            return shapedRecipe.getWidth() <= 2 && shapedRecipe.getHeight() <= 2;
+        ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
+        if (handler == null) {
+            return new CraftingAttemptResult(0, 0, "Cannot craft " + itemDisplayName + ": the crafting screen closed.");
         }
 
-        IngredientPlacement placement = recipe.getIngredientPlacement();
-        if (placement == null) {
-            return false;
+        Slot outputSlot;
+        try {
+            outputSlot = handler.getSlot(0);
+        } catch (IndexOutOfBoundsException e) {
+            return new CraftingAttemptResult(0, 0, "Cannot craft " + itemDisplayName + ": crafting output unavailable.");
         }
 
-        if (placement.hasNoPlacement()) {
-            return placement.getIngredients().size() <= 4;
+        ItemStack resultStack = outputSlot.getStack();
+        if (resultStack.isEmpty() || !resultStack.isOf(targetItem)) {
+            return null;
         }
 
-        IntList slots = placement.getPlacementSlots();
-        if (slots == null || slots.isEmpty()) {
-            return placement.getIngredients().size() <= 4;
-        }
+        // The client only predicts the first craft of a shift-click, but the server repeats it
+        // while every filled grid slot still holds an item: the smallest stack is the craft count
+        int crafts = Math.max(1, countGridCrafts(handler, gridSlots, craftMode));
+        int produced = crafts * resultStack.getCount();
+        interactionManager.clickSlot(handler.syncId, 0, 0, SlotActionType.QUICK_MOVE, client.player);
+        return new CraftingAttemptResult(crafts, produced, null);
+    }
 
-        int minX = 3;
-        int minY = 3;
-        int maxX = -1;
-        int maxY = -1;
-        for (int slot : slots) {
-            int x = slot % 3;
-            int y = slot / 3;
-            if (x < minX) {
-                minX = x;
+    /**
+     * Clears the crafting grid on the client thread; completes with an error message, or null on success.
+     */
+    private CompletableFuture<String> clearCraftingGridOnClient(net.minecraft.client.MinecraftClient client,
+                                                                String itemDisplayName,
+                                                                int[] gridSlots,
+                                                                NodeMode craftMode) {
+        return ClientThreadBridge.supply(client, () -> {
+            ClientPlayerInteractionManager interactionManager = client.interactionManager;
+            if (interactionManager == null) {
+                return "Cannot craft " + itemDisplayName + ": interaction manager unavailable.";
             }
-            if (y < minY) {
-                minY = y;
+
+            ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
+            if (handler == null) {
+                return "Cannot craft " + itemDisplayName + ": the crafting screen closed.";
             }
-            if (x > maxX) {
-                maxX = x;
+
+            clearCraftingGrid(client, interactionManager, handler, gridSlots, craftMode);
+            return null;
+        });
+    }
+
+    /**
+     * Number of crafts the grid holds ingredients for: the smallest stack among its filled slots.
+     */
+    private int countGridCrafts(ScreenHandler handler, int[] gridSlots, NodeMode craftMode) {
+        int crafts = Integer.MAX_VALUE;
+        for (int slotIndex : mapGridSlotsForHandler(handler, craftMode, gridSlots)) {
+            if (slotIndex < 0 || slotIndex >= handler.slots.size()) {
+                continue;
             }
-            if (y > maxY) {
-                maxY = y;
+            ItemStack stack = handler.getSlot(slotIndex).getStack();
+            if (!stack.isEmpty()) {
+                crafts = Math.min(crafts, stack.getCount());
             }
         }
-
-        int width = maxX - minX + 1;
-        int height = maxY - minY + 1;
-        return width <= 2 && height <= 2;
+        return crafts == Integer.MAX_VALUE ? 0 : crafts;
     }
 
-    private static Field initServerRecipesField() {
-        try {
-            Field field = ServerRecipeManager.class.getDeclaredField("field_54641");
-            field.setAccessible(true);
-            return field;
-        } catch (NoSuchFieldException e) {
-            return null;
+    private void clearCraftingGrid(net.minecraft.client.MinecraftClient client,
+                                   ClientPlayerInteractionManager interactionManager,
+                                   ScreenHandler handler,
+                                   int[] gridSlots,
+                                   NodeMode craftMode) {
+        if (client.player == null || interactionManager == null || handler == null || gridSlots == null) {
+            return;
         }
-    }
 
-    private static final Field SERVER_RECIPES_FIELD = initServerRecipesField();
+        int[] actualSlots = mapGridSlotsForHandler(handler, craftMode, gridSlots);
 
-    private CraftingSummary craftRecipeUsingScreen(net.minecraft.client.MinecraftClient client,
-                                                   NodeMode craftMode,
-                                                   RecipeEntry<CraftingRecipe> recipeEntry,
-                                                   Item targetItem,
-                                                   int craftsRequested,
-                                                   int desiredCount,
-                                                   String itemDisplayName,
-                                                   List<GridIngredient> gridIngredients,
-                                                   int[] gridSlots) throws InterruptedException {
-        int totalProduced = 0;
-        String failureMessage = null;
-
-        for (int attempt = 0; attempt < craftsRequested; attempt++) {
-            if (Thread.currentThread().isInterrupted()) {
-                throw new InterruptedException();
-            }
-
-            if (!isCraftingScreenAvailable(client, craftMode)) {
-                failureMessage = craftMode == NodeMode.CRAFT_CRAFTING_TABLE
-                        ? "Cannot craft " + itemDisplayName + ": open a crafting table GUI before running this node."
-                        : "Cannot craft " + itemDisplayName + ": open your inventory or a crafting table GUI before running this node.";
-                break;
-            }
-
-            ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
-            if (!isCompatibleCraftingHandler(handler, craftMode)) {
-                failureMessage = "Cannot craft " + itemDisplayName + ": the crafting screen closed.";
-                break;
-            }
-
-            CraftingAttemptResult attemptResult = performCraftingAttempt(client, targetItem, itemDisplayName, gridIngredients, gridSlots, craftMode);
-            if (attemptResult.errorMessage != null) {
-                failureMessage = attemptResult.errorMessage;
-                if (attemptResult.produced > 0) {
-                    totalProduced += attemptResult.produced;
+        for (int slotIndex : actualSlots) {
+            try {
+                Slot slot = handler.getSlot(slotIndex);
+                if (slot != null && slot.hasStack()) {
+                    interactionManager.clickSlot(handler.syncId, slotIndex, 0, SlotActionType.QUICK_MOVE, client.player);
                 }
-                break;
-            }
-
-            if (attemptResult.produced <= 0) {
-                failureMessage = "Cannot craft " + itemDisplayName + ": missing required ingredients.";
-                break;
-            }
-
-            totalProduced += attemptResult.produced;
-
-            if (totalProduced >= desiredCount) {
-                break;
+            } catch (IndexOutOfBoundsException ignored) {
+                // Ignore missing grid slots for the current handler.
             }
         }
-
-        if (totalProduced <= 0 && failureMessage == null) {
-            failureMessage = "Cannot craft " + itemDisplayName + ": missing required ingredients.";
-        }
-
-        return new CraftingSummary(totalProduced, failureMessage);
     }
 
-    private CraftingAttemptResult performCraftingAttempt(net.minecraft.client.MinecraftClient client,
-                                                         Item targetItem,
-                                                         String itemDisplayName,
-                                                         List<GridIngredient> gridIngredients,
-                                                         int[] gridSlots,
-                                                         NodeMode craftMode) throws InterruptedException {
-        java.util.concurrent.atomic.AtomicReference<String> errorRef = new java.util.concurrent.atomic.AtomicReference<>();
-        java.util.concurrent.atomic.AtomicInteger producedRef = new java.util.concurrent.atomic.AtomicInteger();
-
-        runOnClientThread(client, () -> {
-            ClientPlayerInteractionManager interactionManager = client.interactionManager;
-            if (interactionManager == null) {
-                errorRef.set("Cannot craft " + itemDisplayName + ": interaction manager unavailable.");
-                return;
-            }
-
-            ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
-            if (handler == null) {
-                errorRef.set("Cannot craft " + itemDisplayName + ": the crafting screen closed.");
-                return;
-            }
-
-            clearCraftingGrid(client, interactionManager, handler, gridSlots, craftMode);
-        });
-
-        if (errorRef.get() != null) {
-            return new CraftingAttemptResult(0, errorRef.get());
-        }
-
-        for (GridIngredient ingredient : gridIngredients) {
-            if (Thread.currentThread().isInterrupted()) {
-                throw new InterruptedException();
-            }
-
-            if (ingredient == null || ingredient.ingredient().isEmpty()) {
-                continue;
-            }
-
-            java.util.concurrent.atomic.AtomicBoolean placed = new java.util.concurrent.atomic.AtomicBoolean(false);
-
-            runOnClientThread(client, () -> {
-                ClientPlayerInteractionManager interactionManager = client.interactionManager;
-                if (interactionManager == null) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": interaction manager unavailable.");
-                    return;
-                }
-
-                ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
-                if (handler == null) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": the crafting screen closed.");
-                    return;
-                }
-
-                int sourceSlot = findIngredientSourceSlot(handler, ingredient.ingredient());
-                if (sourceSlot == -1) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": missing required ingredients.");
-                    return;
-                }
-
-                int targetSlot = mapLogicalSlotToHandlerSlot(handler, craftMode, ingredient.slotIndex());
-                if (targetSlot < 0) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": crafting grid slot unavailable.");
-                    return;
+    /**
+     * Record clicks placing up to {@code count} matching items into the grid slot, drawing on as many
+     * inventory stacks as needed. A cursor stack that fits within the remaining amount is dropped with
+     * one left click; only the remainder is placed one right click at a time. Returns how many items
+     * were placed in the simulation.
+     */
+    private int placeIngredient(InventoryTransaction transaction,
+                                Ingredient ingredient,
+                                int targetSlot,
+                                int count) {
+        int placed = 0;
+        while (placed < count) {
+            int sourceSlot = findIngredientSourceSlot(transaction, ingredient);
+            if (sourceSlot == -1) {
+                break;
+            }
+            transaction.pickup(sourceSlot);
+            boolean slotFull = false;
+            while (placed < count && !transaction.getCursorStack().isEmpty()) {
+                ItemStack cursor = transaction.getCursorStack();
+                ItemStack current = transaction.getStack(targetSlot);
+                int before = current.getCount();
+                boolean wholeStack = count - placed >= cursor.getCount()
+                    && (current.isEmpty() || ItemStack.areItemsAndComponentsEqual(current, cursor));
+                if (wholeStack) {
+                    transaction.pickup(targetSlot);
+                } else {
+                    transaction.placeOne(targetSlot);
+                }
+                int moved = transaction.getStack(targetSlot).getCount() - before;
+                if (moved <= 0) {
+                    slotFull = true;
+                    break;
                 }
-
-                interactionManager.clickSlot(handler.syncId, sourceSlot, 0, SlotActionType.PICKUP, client.player);
-                interactionManager.clickSlot(handler.syncId, targetSlot, 1, SlotActionType.PICKUP, client.player);
-                interactionManager.clickSlot(handler.syncId, sourceSlot, 0, SlotActionType.PICKUP, client.player);
-                placed.set(true);
-            });
-
-            if (errorRef.get() != null) {
-                return new CraftingAttemptResult(producedRef.get(), errorRef.get());
+                placed += moved;
             }
-
-            if (!placed.get()) {
-                return new CraftingAttemptResult(producedRef.get(), "Cannot craft " + itemDisplayName + ": failed to place ingredients.");
+            if (!transaction.getCursorStack().isEmpty()) {
+                // Whatever the grid slot could not take goes back where it came from
+                slotFull = true;
+                transaction.pickup(sourceSlot);
             }
-
-            Thread.sleep(CRAFTING_ACTION_DELAY_MS);
-        }
-
-        for (int poll = 0; poll < CRAFTING_OUTPUT_POLL_LIMIT && producedRef.get() <= 0 && errorRef.get() == null; poll++) {
-            runOnClientThread(client, () -> {
-                ClientPlayerInteractionManager interactionManager = client.interactionManager;
-                if (interactionManager == null) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": interaction manager unavailable.");
-                    return;
-                }
-
-                ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
-                if (handler == null) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": the crafting screen closed.");
-                    return;
-                }
-
-                Slot outputSlot;
-                try {
-                    outputSlot = handler.getSlot(0);
-                } catch (IndexOutOfBoundsException e) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": crafting output unavailable.");
-                    return;
-                }
-
-                ItemStack resultStack = outputSlot.getStack();
-                if (resultStack.isEmpty() || !resultStack.isOf(targetItem)) {
-                    return;
-                }
-
-                producedRef.set(resultStack.getCount());
-                interactionManager.clickSlot(handler.syncId, 0, 0, SlotActionType.QUICK_MOVE, client.player);
-            });
-
-            if (producedRef.get() > 0 || errorRef.get() != null) {
+            if (slotFull) {
                 break;
             }
-
-            Thread.sleep(CRAFTING_ACTION_DELAY_MS);
         }
-
-        if (producedRef.get() > 0) {
-            runOnClientThread(client, () -> {
-                ClientPlayerInteractionManager interactionManager = client.interactionManager;
-                if (interactionManager == null) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": interaction manager unavailable.");
-                    return;
-                }
-
-                ScreenHandler handler = client.player != null ? client.player.currentScreenHandler : null;
-                if (handler == null) {
-                    errorRef.set("Cannot craft " + itemDisplayName + ": the crafting screen closed.");
-                    return;
-                }
-
-                clearCraftingGrid(client, interactionManager, handler, gridSlots, craftMode);
-            });
-
-            if (errorRef.get() != null) {
-                return new CraftingAttemptResult(producedRef.get(), errorRef.get());
-            }
-
-            Thread.sleep(CRAFTING_ACTION_DELAY_MS);
-            return new CraftingAttemptResult(producedRef.get(), null);
-        }
-
-        if (errorRef.get() != null) {
-            return new CraftingAttemptResult(producedRef.get(), errorRef.get());
-        }
-
-        return new CraftingAttemptResult(0, "Cannot craft " + itemDisplayName + ": missing required ingredients.");
+        return placed;
     }
 
-    private void clearCraftingGrid(net.minecraft.client.MinecraftClient client,
-                                   ClientPlayerInteractionManager interactionManager,
-                                   ScreenHandler handler,
-                                   int[] gridSlots,
-                                   NodeMode craftMode) {
-        if (client.player == null || interactionManager == null || handler == null || gridSlots == null) {
-            return;
-        }
-
-        int[] actualSlots = mapGridSlotsForHandler(handler, craftMode, gridSlots);
-
-        for (int slotIndex : actualSlots) {
-            try {
-                Slot slot = handler.getSlot(slotIndex);
-                if (slot != null && slot.hasStack()) {
-                    interactionManager.clickSlot(handler.syncId, slotIndex, 0, SlotActionType.QUICK_MOVE, client.player);
-                }
-            } catch (IndexOutOfBoundsException ignored) {
-                // Ignore missing grid slots for the current handler.
-            }
+    private int findIngredientSourceSlot(InventoryTransaction transaction, Ingredient ingredient) {
+        if (transaction == null || ingredient == null || ingredient.isEmpty()) {
+            return -1;
         }
-    }
 
-    private int findIngredientSourceSlot(ScreenHandler handler, Ingredient ingredient) {
-        if (handler == null || ingredient == null || ingredient.isEmpty()) {
+        PlayerInventory inventory = transaction.getPlayerInventory();
+        if (inventory == null) {
             return -1;
         }
 
-        List<Slot> slots = handler.slots;
-        for (int slotIdx = 0; slotIdx < slots.size(); slotIdx++) {
-            Slot slot = slots.get(slotIdx);
-            if (!(slot.inventory instanceof PlayerInventory)) {
-                continue;
-            }
-
-            int inventoryIndex = slot.getIndex();
-            if (inventoryIndex < 0 || inventoryIndex >= PlayerInventory.MAIN_SIZE) {
+        // Slots the transaction has not touched still match the live inventory the index describes
+        long candidates = InventoryIndex.getInstance().getSlotMask(inventory, ingredient::test)
+            | transaction.getModifiedInventorySlots();
+        candidates &= (1L << PlayerInventory.MAIN_SIZE) - 1L;
+        int best = -1;
+        while (candidates != 0L) {
+            int inventoryIndex = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            int slotIdx = transaction.getHandlerSlot(inventoryIndex);
+            if (slotIdx < 0 || (best != -1 && slotIdx > best)) {
                 continue;
             }
-
-            ItemStack stack = slot.getStack();
-            if (stack.isEmpty()) {
-                continue;
-            }
-
-            if (ingredient.test(stack)) {
-                return slotIdx;
+            ItemStack stack = transaction.getStack(slotIdx);
+            if (!stack.isEmpty() && ingredient.test(stack)) {
+                best = slotIdx;
             }
         }
 
-        return -1;
+        return best;
     }
 
     private int[] mapGridSlotsForHandler(ScreenHandler handler, NodeMode craftMode, int[] logicalSlots) {
@@ -4297,148 +4367,6 @@ public class Node {
         return -1;
     }
 
-    private List<GridIngredient> resolveGridIngredients(CraftingRecipe recipe, NodeMode craftMode) {
-        List<GridIngredient> result = new ArrayList<>();
-        if (recipe == null) {
-            return result;
-        }
-
-        if (recipe instanceof ShapedRecipe shapedRecipe) {
-            if (craftMode == NodeMode.CRAFT_PLAYER_GUI) {
-                return resolvePlayerGridIngredients(shapedRecipe);
-            }
-            return resolveCraftingTableGridIngredients(shapedRecipe);
-        }
-
-        IngredientPlacement placement = recipe.getIngredientPlacement();
-        if (placement == null) {
-            return result;
-        }
-
-        List<Ingredient> ingredients = placement.getIngredients();
-        if (ingredients == null || ingredients.isEmpty()) {
-            return result;
-        }
-
-        IntList slots = placement.getPlacementSlots();
-        int gridLimit = craftMode == NodeMode.CRAFT_CRAFTING_TABLE ? 9 : 4;
-
-        if (placement.hasNoPlacement() || slots == null || slots.isEmpty()) {
-            int limit = Math.min(ingredients.size(), gridLimit);
-            for (int i = 0; i < limit; i++) {
-                Ingredient ingredient = ingredients.get(i);
-                if (ingredient == null || ingredient.isEmpty()) {
-                    continue;
-                }
-                result.add(new GridIngredient(1 + i, ingredient));
-            }
-            return result;
-        }
-
-        int limit = Math.min(ingredients.size(), slots.size());
-        for (int i = 0; i < limit; i++) {
-            Ingredient ingredient = ingredients.get(i);
-            if (ingredient == null || ingredient.isEmpty()) {
-                continue;
-            }
-
-            int logicalSlot = slots.getInt(i);
-            int resolvedSlot;
-            if (craftMode == NodeMode.CRAFT_PLAYER_GUI) {
-                int localX = logicalSlot % 3;
-                int localY = logicalSlot / 3;
-
-                if (localX >= 2 || localY >= 2) {
-                    continue;
-                }
-
-                resolvedSlot = 1 + localX + (localY * 2);
-            } else {
-                resolvedSlot = 1 + logicalSlot;
-            }
-
-            if (resolvedSlot > gridLimit) {
-                continue;
-            }
-
-            result.add(new GridIngredient(resolvedSlot, ingredient));
-        }
-
-        return result;
-    }
-
-    private List<GridIngredient> resolvePlayerGridIngredients(ShapedRecipe recipe) {
-        List<GridIngredient> result = new ArrayList<>();
-        List<Optional<Ingredient>> ingredients = recipe.getIngredients();
-        if (ingredients == null || ingredients.isEmpty()) {
-            return result;
-        }
-
-        int width = Math.min(recipe.getWidth(), 2);
-        int height = Math.min(recipe.getHeight(), 2);
-        int recipeWidth = Math.max(recipe.getWidth(), 1);
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int index = x + (y * recipeWidth);
-                if (index < 0 || index >= ingredients.size()) {
-                    continue;
-                }
-
-                Optional<Ingredient> optional = ingredients.get(index);
-                if (optional == null || optional.isEmpty()) {
-                    continue;
-                }
-
-                Ingredient ingredient = optional.get();
-                if (ingredient.isEmpty()) {
-                    continue;
-                }
-
-                int slotIndex = 1 + x + (y * 2);
-                result.add(new GridIngredient(slotIndex, ingredient));
-            }
-        }
-
-        return result;
-    }
-
-    private List<GridIngredient> resolveCraftingTableGridIngredients(ShapedRecipe recipe) {
-        List<GridIngredient> result = new ArrayList<>();
-        List<Optional<Ingredient>> ingredients = recipe.getIngredients();
-        if (ingredients == null || ingredients.isEmpty()) {
-            return result;
-        }
-
-        int width = Math.min(recipe.getWidth(), 3);
-        int height = Math.min(recipe.getHeight(), 3);
-        int recipeWidth = Math.max(recipe.getWidth(), 1);
-
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                int index = x + (y * recipeWidth);
-                if (index < 0 || index >= ingredients.size()) {
-                    continue;
-                }
-
-                Optional<Ingredient> optional = ingredients.get(index);
-                if (optional == null || optional.isEmpty()) {
-                    continue;
-                }
-
-                Ingredient ingredient = optional.get();
-                if (ingredient.isEmpty()) {
-                    continue;
-                }
-
-                int slotIndex = 1 + x + (y * 3);
-                result.add(new GridIngredient(slotIndex, ingredient));
-            }
-        }
-
-        return result;
-    }
-
     private int[] getCraftingGridSlots(NodeMode craftMode) {
         if (craftMode == NodeMode.CRAFT_CRAFTING_TABLE) {
             return new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9};
@@ -4456,35 +4384,19 @@ public class Node {
         }
     }
 
-    private static class GridIngredient {
-        private final int slotIndex;
-        private final Ingredient ingredient;
-
-        GridIngredient(int slotIndex, Ingredient ingredient) {
-            this.slotIndex = slotIndex;
-            this.ingredient = ingredient;
-        }
-
-        int slotIndex() {
-            return slotIndex;
-        }
-
-        Ingredient ingredient() {
-            return ingredient;
-        }
-    }
-
     private static class CraftingAttemptResult {
+        final int crafts;
         final int produced;
         final String errorMessage;
 
-        CraftingAttemptResult(int produced, String errorMessage) {
+        CraftingAttemptResult(int crafts, int produced, String errorMessage) {
+            this.crafts = crafts;
             this.produced = produced;
             this.errorMessage = errorMessage;
         }
     }
 
-    private void executePlaceCommand(CompletableFuture<Void> future) {
+    private void executePlaceCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
         Node blockParameterNode = getAttachedParameter(0);
         Node coordinateParameterNode = getAttachedParameter(1);
         boolean coordinateHandledByBlockParam = coordinateParameterNode == null && parameterProvidesCoordinates(blockParameterNode);
@@ -4493,18 +4405,18 @@ public class Node {
             EnumSet<ParameterUsage> blockUsages = coordinateHandledByBlockParam
                 ? EnumSet.of(ParameterUsage.POSITION)
                 : EnumSet.noneOf(ParameterUsage.class);
-            if (preprocessParameterSlot(0, blockUsages, future, true) == ParameterHandlingResult.COMPLETE) {
+            if (preprocessParameterSlot(0, blockUsages, future, true, runtime) == ParameterHandlingResult.COMPLETE) {
                 return;
             }
         } else {
-            runtimeParameterData = null;
+            runtime.clear();
         }
 
         if (coordinateParameterNode != null) {
             EnumSet<ParameterUsage> coordinateUsages = parameterProvidesCoordinates(coordinateParameterNode)
                 ? EnumSet.of(ParameterUsage.POSITION)
                 : EnumSet.noneOf(ParameterUsage.class);
-            if (preprocessParameterSlot(1, coordinateUsages, future, blockParameterNode == null) == ParameterHandlingResult.COMPLETE) {
+            if (preprocessParameterSlot(1, coordinateUsages, future, blockParameterNode == null, runtime) == ParameterHandlingResult.COMPLETE) {
                 return;
             }
         }
@@ -4514,22 +4426,22 @@ public class Node {
         String block = "stone";
         int x = 0, y = 0, z = 0;
 
-        NodeParameter blockParam = getParameter("Block");
-        NodeParameter xParam = getParameter("X");
-        NodeParameter yParam = getParameter("Y");
-        NodeParameter zParam = getParameter("Z");
-        Hand hand = resolveHand(getParameter("Hand"), Hand.MAIN_HAND);
+        NodeParameter blockParam = getParameterAt(runtime, ParameterSlots.PLACE_BLOCK);
+        NodeParameter xParam = getParameterAt(runtime, ParameterSlots.PLACE_X);
+        NodeParameter yParam = getParameterAt(runtime, ParameterSlots.PLACE_Y);
+        NodeParameter zParam = getParameterAt(runtime, ParameterSlots.PLACE_Z);
+        Hand hand = resolveHand(getParameter(runtime, "Hand"), Hand.MAIN_HAND);
 
         if (blockParam != null) block = blockParam.getStringValue();
         if (xParam != null) x = xParam.getIntValue();
         if (yParam != null) y = yParam.getIntValue();
         if (zParam != null) z = zParam.getIntValue();
 
-        RuntimeParameterData parameterData = runtimeParameterData;
+        RuntimeParameterData parameterData = runtime;
         if (parameterData != null) {
             if (parameterData.targetBlockId != null && !parameterData.targetBlockId.isEmpty()) {
                 block = parameterData.targetBlockId;
-                setParameterValueAndPropagate("Block", block);
+                setRuntimeParameter(runtime, "Block", block);
             }
             if (inheritPlacementCoordinates && parameterData.targetBlockPos != null) {
                 BlockPos resolved = parameterData.targetBlockPos;
@@ -4548,7 +4460,7 @@ public class Node {
         String originalBlockId = block;
         block = normalizeResourceId(block, "minecraft");
         if (!Objects.equals(originalBlockId, block)) {
-            setParameterValueAndPropagate("Block", block);
+            setRuntimeParameter(runtime, "Block", block);
         }
 
         if (block == null || block.isEmpty()) {
@@ -4581,43 +4493,24 @@ public class Node {
         final Hand resolvedHand = hand;
         final double resolvedReachSquared = reachSquared;
 
-        new Thread(() -> {
-            try {
-                BlockHitResult placementHitResult = supplyFromClient(client, () ->
-                    preparePlacementHitResult(client, placementPos, resolvedBlockId, resolvedHand, resolvedReachSquared)
-                );
-                runOnClientThread(client, () -> {
-                    if (client.world.getBlockState(placementPos).isOf(resolvedBlock)) {
-                        return;
-                    }
+        ClientThreadBridge.run(client, () -> {
+            BlockHitResult placementHitResult = preparePlacementHitResult(client, placementPos, resolvedBlockId, resolvedHand, resolvedReachSquared);
+            if (client.world.getBlockState(placementPos).isOf(resolvedBlock)) {
+                return;
+            }
 
-                    ActionResult result = client.interactionManager.interactBlock(client.player, resolvedHand, placementHitResult);
-                    if (!result.isAccepted()) {
-                        throw new PlacementFailure("Cannot place block at " + formatBlockPos(placementPos) + ": placement rejected (" + result + ").");
-                    }
-                    if (client.player != null) {
-                        client.player.swingHand(resolvedHand);
-                        if (client.player.networkHandler != null) {
-                            client.player.networkHandler.sendPacket(new HandSwingC2SPacket(resolvedHand));
-                        }
-                    }
-                });
-                boolean placed = waitForBlockPlacement(client, placementPos, resolvedBlock);
-                if (!placed) {
-                    sendNodeErrorMessage(client, "Attempted to place block \"" + resolvedBlockId + "\" at " + formatBlockPos(placementPos) + " but it did not appear. Make sure the space is clear and within reach.");
+            ActionResult result = client.interactionManager.interactBlock(client.player, resolvedHand, placementHitResult);
+            if (!result.isAccepted()) {
+                throw new PlacementFailure("Cannot place block at " + formatBlockPos(placementPos) + ": placement rejected (" + result + ").");
+            }
+            if (client.player != null) {
+                client.player.swingHand(resolvedHand);
+                if (client.player.networkHandler != null) {
+                    client.player.networkHandler.sendPacket(new HandSwingC2SPacket(resolvedHand));
                 }
-                future.complete(null);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                future.completeExceptionally(e);
-            } catch (PlacementFailure e) {
-                sendNodeErrorMessage(client, e.getMessage());
-                future.complete(null);
-            } catch (RuntimeException e) {
-                sendNodeErrorMessage(client, "Failed to place block \"" + resolvedBlockId + "\": " + e.getMessage());
-                future.complete(null);
             }
-        }, "Pathmind-Place").start();
+        }).thenCompose(ignored -> awaitBlockPlacement(client, placementPos, resolvedBlock, 0))
+            .whenComplete((placed, throwable) -> completePlacement(future, client, resolvedBlockId, placementPos, placed, throwable));
     }
 
     private boolean shouldInheritPlacementCoordinates() {
@@ -4711,8 +4604,8 @@ public class Node {
         return id != null ? id.toString() : null;
     }
     
-    private void executeBuildCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeBuildCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         if (mode == null) {
@@ -4721,7 +4614,7 @@ public class Node {
         }
         
         String schematic = "house.schematic";
-        NodeParameter schematicParam = getParameter("Schematic");
+        NodeParameter schematicParam = getParameterAt(runtime, ParameterSlots.BUILD_SCHEMATIC);
         if (schematicParam != null) {
             schematic = schematicParam.getStringValue();
         }
@@ -4735,9 +4628,9 @@ public class Node {
                 
             case BUILD_XYZ:
                 int x = 0, y = 0, z = 0;
-                NodeParameter xParam = getParameter("X");
-                NodeParameter yParam = getParameter("Y");
-                NodeParameter zParam = getParameter("Z");
+                NodeParameter xParam = getParameterAt(runtime, ParameterSlots.BUILD_XYZ_X);
+                NodeParameter yParam = getParameterAt(runtime, ParameterSlots.BUILD_XYZ_Y);
+                NodeParameter zParam = getParameterAt(runtime, ParameterSlots.BUILD_XYZ_Z);
                 
                 if (xParam != null) x = xParam.getIntValue();
                 if (yParam != null) y = yParam.getIntValue();
@@ -4756,8 +4649,8 @@ public class Node {
         future.complete(null); // These commands complete immediately
     }
     
-    private void executeExploreCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeExploreCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         if (mode == null) {
@@ -4783,8 +4676,8 @@ public class Node {
                 
             case EXPLORE_XYZ:
                 int x = 0, z = 0;
-                NodeParameter xParam = getParameter("X");
-                NodeParameter zParam = getParameter("Z");
+                NodeParameter xParam = getParameterAt(runtime, ParameterSlots.EXPLORE_XYZ_X);
+                NodeParameter zParam = getParameterAt(runtime, ParameterSlots.EXPLORE_XYZ_Z);
                 
                 if (xParam != null) x = xParam.getIntValue();
                 if (zParam != null) z = zParam.getIntValue();
@@ -4795,7 +4688,7 @@ public class Node {
                 
             case EXPLORE_FILTER:
                 String filter = "explore.txt";
-                NodeParameter filterParam = getParameter("Filter");
+                NodeParameter filterParam = getParameterAt(runtime, ParameterSlots.EXPLORE_FILTER_FILTER);
                 if (filterParam != null) {
                     filter = filterParam.getStringValue();
                 }
@@ -4812,8 +4705,8 @@ public class Node {
         }
     }
     
-    private void executeFollowCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeFollowCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         if (mode == null) {
@@ -4825,7 +4718,7 @@ public class Node {
         switch (mode) {
             case FOLLOW_PLAYER:
                 String player = "PlayerName";
-                NodeParameter playerParam = getParameter("Player");
+                NodeParameter playerParam = getParameterAt(runtime, ParameterSlots.FOLLOW_PLAYER_PLAYER);
                 if (playerParam != null) {
                     player = playerParam.getStringValue();
                 }
@@ -4846,7 +4739,7 @@ public class Node {
                 
             case FOLLOW_ENTITY_TYPE:
                 String entity = "cow";
-                NodeParameter entityParam = getParameter("Entity");
+                NodeParameter entityParam = getParameterAt(runtime, ParameterSlots.FOLLOW_ENTITY_TYPE_ENTITY);
                 if (entityParam != null) {
                     entity = entityParam.getStringValue();
                 }
@@ -4864,13 +4757,13 @@ public class Node {
         future.complete(null); // Follow commands complete immediately
     }
     
-    private void executeWaitCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeWaitCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
-        double baseDuration = Math.max(0.0, getDoubleParameter("Duration", 1.0));
-        double minimum = Math.max(0.0, getDoubleParameter("MinimumDurationSeconds", 0.0));
-        double variance = Math.max(0.0, getDoubleParameter("RandomVarianceSeconds", 0.0));
+        double baseDuration = Math.max(0.0, getDoubleParameter(runtime, ParameterSlots.WAIT_DURATION, 1.0));
+        double minimum = Math.max(0.0, getDoubleParameter(runtime, ParameterSlots.WAIT_MINIMUM_DURATION_SECONDS, 0.0));
+        double variance = Math.max(0.0, getDoubleParameter(runtime, ParameterSlots.WAIT_RANDOM_VARIANCE_SECONDS, 0.0));
 
         double effectiveDuration = Math.max(baseDuration, minimum);
         if (variance > 0.0) {
@@ -4881,86 +4774,72 @@ public class Node {
         final double waitSeconds = effectiveDuration;
         System.out.println("Waiting for " + waitSeconds + " seconds (configured duration=" + baseDuration + ")");
 
-        new Thread(() -> {
-            try {
-                Thread.sleep((long) (waitSeconds * 1000));
-                future.complete(null);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                future.completeExceptionally(e);
-            }
-        }, "Pathmind-Wait").start();
+        CompletableFuture.delayedExecutor((long) (waitSeconds * 1000), TimeUnit.MILLISECONDS)
+            .execute(() -> future.complete(null));
     }
     
-    private void executeControlRepeat(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeControlRepeat(CompletableFuture<Void> future, ExecutionFrame frame, int frameIndex, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
-        int count = Math.max(0, getIntParameter("Count", 1));
-        if (!repeatActive) {
-            repeatRemainingIterations = count;
-            repeatActive = true;
-        }
-        if (repeatRemainingIterations > 0) {
-            repeatRemainingIterations--;
-            setNextOutputSocket(0);
+        int count = Math.max(0, getIntParameter(runtime, ParameterSlots.CONTROL_REPEAT_COUNT, 1));
+        int remaining = frame.isRepeatActive(frameIndex) ? frame.getRepeatRemaining(frameIndex) : count;
+        if (remaining > 0) {
+            frame.setRepeat(frameIndex, true, remaining - 1);
+            frame.setNextOutputSocket(frameIndex, 0);
         } else {
-            repeatRemainingIterations = 0;
-            repeatActive = false;
-            setNextOutputSocket(1);
+            frame.setRepeat(frameIndex, false, 0);
+            frame.setNextOutputSocket(frameIndex, 1);
         }
         future.complete(null);
     }
     
-    private void executeControlRepeatUntil(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeControlRepeatUntil(CompletableFuture<Void> future, ExecutionFrame frame, int frameIndex, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
-        boolean conditionMet = evaluateConditionFromParameters();
-        if (conditionMet) {
-            repeatRemainingIterations = 0;
-            repeatActive = false;
-            setNextOutputSocket(1);
-        } else {
-            repeatActive = true;
-            setNextOutputSocket(0);
-        }
-        future.complete(null);
+        whenConditionEvaluated(evaluateConditionFromParameters(), future, conditionMet -> {
+            if (conditionMet) {
+                frame.setRepeat(frameIndex, false, 0);
+                frame.setNextOutputSocket(frameIndex, 1);
+            } else {
+                frame.setRepeat(frameIndex, true, frame.getRepeatRemaining(frameIndex));
+                frame.setNextOutputSocket(frameIndex, 0);
+            }
+        });
     }
     
-    private void executeControlForever(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeControlForever(CompletableFuture<Void> future, ExecutionFrame frame, int frameIndex, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
-        repeatActive = true;
-        setNextOutputSocket(0);
+        frame.setRepeat(frameIndex, true, frame.getRepeatRemaining(frameIndex));
+        frame.setNextOutputSocket(frameIndex, 0);
         future.complete(null);
     }
 
-    private void executeControlIf(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeControlIf(CompletableFuture<Void> future, ExecutionFrame frame, int frameIndex, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
-        boolean condition = evaluateConditionFromParameters();
-        setNextOutputSocket(condition ? 0 : NO_OUTPUT);
-        future.complete(null);
+        whenConditionEvaluated(evaluateConditionFromParameters(), future,
+            condition -> frame.setNextOutputSocket(frameIndex, condition ? 0 : NO_OUTPUT));
     }
 
-    private void executeControlIfElse(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeControlIfElse(CompletableFuture<Void> future, ExecutionFrame frame, int frameIndex, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
-        boolean condition = evaluateConditionFromParameters();
-        setNextOutputSocket(condition ? 0 : 1);
-        future.complete(null);
+        whenConditionEvaluated(evaluateConditionFromParameters(), future,
+            condition -> frame.setNextOutputSocket(frameIndex, condition ? 0 : 1));
     }
 
-    private void executeMessageCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeMessageCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         String text = "Hello World";
-        NodeParameter textParam = getParameter("Text");
+        NodeParameter textParam = getParameterAt(runtime, ParameterSlots.MESSAGE_TEXT);
         if (textParam != null) {
             text = textParam.getStringValue();
         }
@@ -4974,8 +4853,8 @@ public class Node {
         future.complete(null); // Message commands complete immediately
     }
     
-    private void executeGoalCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeGoalCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         if (mode == null) {
@@ -4995,9 +4874,9 @@ public class Node {
         switch (mode) {
             case GOAL_XYZ:
                 int x = 0, y = 64, z = 0;
-                NodeParameter xParam = getParameter("X");
-                NodeParameter yParam = getParameter("Y");
-                NodeParameter zParam = getParameter("Z");
+                NodeParameter xParam = getParameterAt(runtime, ParameterSlots.GOAL_XYZ_X);
+                NodeParameter yParam = getParameterAt(runtime, ParameterSlots.GOAL_XYZ_Y);
+                NodeParameter zParam = getParameterAt(runtime, ParameterSlots.GOAL_XYZ_Z);
                 
                 if (xParam != null) x = xParam.getIntValue();
                 if (yParam != null) y = yParam.getIntValue();
@@ -5010,8 +4889,8 @@ public class Node {
                 
             case GOAL_XZ:
                 int x2 = 0, z2 = 0;
-                NodeParameter xParam2 = getParameter("X");
-                NodeParameter zParam2 = getParameter("Z");
+                NodeParameter xParam2 = getParameterAt(runtime, ParameterSlots.GOAL_XZ_X);
+                NodeParameter zParam2 = getParameterAt(runtime, ParameterSlots.GOAL_XZ_Z);
                 
                 if (xParam2 != null) x2 = xParam2.getIntValue();
                 if (zParam2 != null) z2 = zParam2.getIntValue();
@@ -5023,7 +4902,7 @@ public class Node {
                 
             case GOAL_Y:
                 int y3 = 64;
-                NodeParameter yParam3 = getParameter("Y");
+                NodeParameter yParam3 = getParameterAt(runtime, ParameterSlots.GOAL_Y_Y);
                 if (yParam3 != null) y3 = yParam3.getIntValue();
                 
                 System.out.println("Setting goal to Y level: " + y3);
@@ -5063,8 +4942,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executePathCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executePathCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
 
@@ -5077,8 +4956,8 @@ public class Node {
 
             // Start the Baritone pathing task
             ICustomGoalProcess customGoalProcess = baritone.getCustomGoalProcess();
-            if (runtimeParameterData != null && runtimeParameterData.targetBlockPos != null) {
-                BlockPos target = runtimeParameterData.targetBlockPos;
+            if (runtime != null && runtime.targetBlockPos != null) {
+                BlockPos target = runtime.targetBlockPos;
                 customGoalProcess.setGoal(new GoalBlock(target.getX(), target.getY(), target.getZ()));
             }
             customGoalProcess.path();
@@ -5090,8 +4969,8 @@ public class Node {
         }
     }
     
-    private void executeStopCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeStopCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         if (mode == null) {
@@ -5140,8 +5019,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeInvertCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeInvertCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         String command = "#invert";
@@ -5151,8 +5030,8 @@ public class Node {
         future.complete(null); // Invert commands complete immediately
     }
 
-    private void executeComeCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeComeCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         String command = "#come";
@@ -5162,8 +5041,8 @@ public class Node {
         future.complete(null); // These commands complete immediately
     }
 
-    private void executeSurfaceCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeSurfaceCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         String command = "#surface";
@@ -5173,8 +5052,8 @@ public class Node {
         future.complete(null); // These commands complete immediately
     }
 
-    private void executeTunnelCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeTunnelCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         String command = "#tunnel";
@@ -5184,8 +5063,8 @@ public class Node {
         future.complete(null); // These commands complete immediately
     }
     
-    private void executeFarmCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeFarmCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         if (mode == null) {
@@ -5206,7 +5085,7 @@ public class Node {
         switch (mode) {
             case FARM_RANGE:
                 int range = 10;
-                NodeParameter rangeParam = getParameter("Range");
+                NodeParameter rangeParam = getParameterAt(runtime, ParameterSlots.FARM_RANGE_RANGE);
                 if (rangeParam != null) {
                     range = rangeParam.getIntValue();
                 }
@@ -5218,8 +5097,8 @@ public class Node {
             case FARM_WAYPOINT:
                 String waypoint = "farm";
                 int waypointRange = 10;
-                NodeParameter waypointParam = getParameter("Waypoint");
-                NodeParameter waypointRangeParam = getParameter("Range");
+                NodeParameter waypointParam = getParameterAt(runtime, ParameterSlots.FARM_WAYPOINT_WAYPOINT);
+                NodeParameter waypointRangeParam = getParameterAt(runtime, ParameterSlots.FARM_WAYPOINT_RANGE);
                 
                 if (waypointParam != null) {
                     waypoint = waypointParam.getStringValue();
@@ -5240,8 +5119,8 @@ public class Node {
         }
     }
     
-    private void executeHotbarCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeHotbarCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -5251,7 +5130,7 @@ public class Node {
         }
 
         PlayerInventory inventory = client.player.getInventory();
-        String itemId = getStringParameter("Item", "").trim();
+        String itemId = getStringParameter(runtime, ParameterSlots.HOTBAR_ITEM, "").trim();
         int slot;
 
         if (!itemId.isEmpty()) {
@@ -5271,7 +5150,7 @@ public class Node {
             }
             slot = foundSlot;
         } else {
-            slot = MathHelper.clamp(getIntParameter("Slot", 0), 0, 8);
+            slot = MathHelper.clamp(getIntParameter(runtime, ParameterSlots.HOTBAR_SLOT, 0), 0, 8);
         }
 
         client.player.getInventory().setSelectedSlot(slot);
@@ -5279,8 +5158,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeDropItemCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeDropItemCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -5289,9 +5168,9 @@ public class Node {
             return;
         }
 
-        boolean dropAll = getBooleanParameter("All", false);
-        int count = Math.max(1, getIntParameter("Count", 1));
-        double interval = Math.max(0.0, getDoubleParameter("IntervalSeconds", 0.0));
+        boolean dropAll = getBooleanParameter(runtime, ParameterSlots.DROP_ITEM_ALL, false);
+        int count = Math.max(1, getIntParameter(runtime, ParameterSlots.DROP_ITEM_COUNT, 1));
+        double interval = Math.max(0.0, getDoubleParameter(runtime, ParameterSlots.DROP_ITEM_INTERVAL_SECONDS, 0.0));
 
         if (dropAll) {
             count = 1; // Dropping all ignores repeat count
@@ -5300,29 +5179,26 @@ public class Node {
         final int dropIterations = count;
         final boolean dropEntireStack = dropAll;
 
-        new Thread(() -> {
-            try {
-                for (int i = 0; i < dropIterations; i++) {
-                    runOnClientThread(client, () -> {
+        long intervalMs = (long) (interval * 1000);
+
+        CompletableFuture<Void> sequence = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < dropIterations; i++) {
+            boolean last = i == dropIterations - 1;
+            sequence = sequence
+                .thenCompose(ignored -> ClientThreadBridge.run(client, () -> {
+                    if (client.player != null) {
                         client.player.dropSelectedItem(dropEntireStack);
                         client.player.getInventory().markDirty();
                         client.player.playerScreenHandler.sendContentUpdates();
-                    });
-
-                    if (interval > 0.0 && i < dropIterations - 1) {
-                        Thread.sleep((long) (interval * 1000));
                     }
-                }
-                future.complete(null);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                future.completeExceptionally(e);
-            }
-        }, "Pathmind-DropItem").start();
+                }))
+                .thenCompose(ignored -> last ? CompletableFuture.<Void>completedFuture(null) : delayOnClientThread(client, intervalMs));
+        }
+        completeWhenDone(sequence, future);
     }
     
-    private void executeDropSlotCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeDropSlotCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -5332,9 +5208,9 @@ public class Node {
         }
         
         PlayerInventory inventory = client.player.getInventory();
-        int slot = clampInventorySlot(inventory, getIntParameter("Slot", 0));
-        boolean entireStack = getBooleanParameter("EntireStack", true);
-        int requestedCount = getIntParameter("Count", 0);
+        int slot = clampInventorySlot(inventory, getIntParameter(runtime, ParameterSlots.DROP_SLOT_SLOT, 0));
+        boolean entireStack = getBooleanParameter(runtime, ParameterSlots.DROP_SLOT_ENTIRE_STACK, true);
+        int requestedCount = getIntParameter(runtime, ParameterSlots.DROP_SLOT_COUNT, 0);
         
         ItemStack stack = inventory.getStack(slot);
         if (stack.isEmpty()) {
@@ -5342,8 +5218,15 @@ public class Node {
             return;
         }
         
+        boolean dropAll = entireStack || requestedCount <= 0 || requestedCount >= stack.getCount();
+        CompletableFuture<Boolean> throwing = throwFromSlot(client, slot, dropAll ? stack.getCount() : requestedCount);
+        if (throwing != null) {
+            completeWhenDone(throwing.thenAccept(sent -> { }), future);
+            return;
+        }
+
         ItemStack removed;
-        if (entireStack || requestedCount <= 0 || requestedCount >= stack.getCount()) {
+        if (dropAll) {
             removed = inventory.removeStack(slot);
         } else {
             removed = inventory.removeStack(slot, requestedCount);
@@ -5358,8 +5241,32 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeMoveItemCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    /**
+     * Drop items from a player inventory slot with throw clicks, so the server sees the same actions as a
+     * player pressing the drop key. Returns null when the slot is not part of the open screen.
+     */
+    private CompletableFuture<Boolean> throwFromSlot(net.minecraft.client.MinecraftClient client, int inventorySlot, int count) {
+        ScreenHandler handler = client.player.currentScreenHandler;
+        if (client.interactionManager == null || handler == null || !handler.getCursorStack().isEmpty()) {
+            return null;
+        }
+        int handlerSlot = mapPlayerInventorySlot(handler, inventorySlot);
+        if (handlerSlot < 0) {
+            return null;
+        }
+        InventoryTransaction transaction = InventoryTransaction.begin(handler);
+        if (count >= transaction.getStack(handlerSlot).getCount()) {
+            transaction.throwItems(handlerSlot, true);
+        } else {
+            for (int i = 0; i < count; i++) {
+                transaction.throwItems(handlerSlot, false);
+            }
+        }
+        return transaction.dispatch(client);
+    }
+
+    private void executeMoveItemCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -5382,8 +5289,8 @@ public class Node {
         }
 
         PlayerInventory inventory = client.player.getInventory();
-        int requestedSourceSlot = getIntParameter("SourceSlot", 0);
-        int requestedTargetSlot = getIntParameter("TargetSlot", 0);
+        int requestedSourceSlot = getIntParameter(runtime, ParameterSlots.MOVE_ITEM_SOURCE_SLOT, 0);
+        int requestedTargetSlot = getIntParameter(runtime, ParameterSlots.MOVE_ITEM_TARGET_SLOT, 0);
 
         SlotSelectionType sourceSelection = resolveInventorySlotSelectionType(0);
         SlotSelectionType targetSelection = resolveInventorySlotSelectionType(1);
@@ -5406,7 +5313,7 @@ public class Node {
             return;
         }
 
-        int requestedCount = getIntParameter("Count", 0);
+        int requestedCount = getIntParameter(runtime, ParameterSlots.MOVE_ITEM_COUNT, 0);
         int available = sourceStack.getCount();
         int moveCount = requestedCount <= 0 ? available : Math.min(requestedCount, available);
         if (moveCount <= 0) {
@@ -5415,42 +5322,45 @@ public class Node {
         }
 
         boolean moveEntireStack = moveCount >= available;
-        performInventoryTransfer(
-            interactionManager,
+        CompletableFuture<Boolean> transfer = performInventoryTransfer(
+            client,
             handler,
-            client.player,
             sourceResolution.handlerSlotIndex,
             targetResolution.handlerSlotIndex,
             moveCount,
             moveEntireStack
         );
 
-        inventory.markDirty();
-        client.player.playerScreenHandler.sendContentUpdates();
-        future.complete(null);
+        completeWhenDone(transfer.thenAccept(sent -> {
+            if (client.player != null) {
+                inventory.markDirty();
+                client.player.playerScreenHandler.sendContentUpdates();
+            }
+        }), future);
     }
 
-    private void performInventoryTransfer(ClientPlayerInteractionManager interactionManager, ScreenHandler handler,
-                                          PlayerEntity player, int sourceSlot, int targetSlot, int moveCount, boolean moveEntireStack) {
+    private CompletableFuture<Boolean> performInventoryTransfer(net.minecraft.client.MinecraftClient client, ScreenHandler handler,
+                                                                int sourceSlot, int targetSlot, int moveCount, boolean moveEntireStack) {
+        InventoryTransaction transaction = InventoryTransaction.begin(handler);
+        transaction.pickup(sourceSlot);
         if (moveEntireStack) {
-            interactionManager.clickSlot(handler.syncId, sourceSlot, 0, SlotActionType.PICKUP, player);
-            interactionManager.clickSlot(handler.syncId, targetSlot, 0, SlotActionType.PICKUP, player);
-            interactionManager.clickSlot(handler.syncId, sourceSlot, 0, SlotActionType.PICKUP, player);
-            return;
-        }
-
-        interactionManager.clickSlot(handler.syncId, sourceSlot, 0, SlotActionType.PICKUP, player);
-        int moved = 0;
-        while (moved < moveCount) {
-            int beforeCursor = handler.getCursorStack().getCount();
-            interactionManager.clickSlot(handler.syncId, targetSlot, 1, SlotActionType.PICKUP, player);
-            int afterCursor = handler.getCursorStack().getCount();
-            if (afterCursor >= beforeCursor) {
-                break;
+            transaction.pickup(targetSlot);
+        } else {
+            int moved = 0;
+            while (moved < moveCount && !transaction.getCursorStack().isEmpty()) {
+                int beforeCursor = transaction.getCursorStack().getCount();
+                transaction.placeOne(targetSlot);
+                if (transaction.getCursorStack().getCount() >= beforeCursor) {
+                    break;
+                }
+                moved++;
             }
-            moved++;
         }
-        interactionManager.clickSlot(handler.syncId, sourceSlot, 0, SlotActionType.PICKUP, player);
+        // Put back whatever is left on the cursor, including a stack swapped out of the target
+        if (!transaction.getCursorStack().isEmpty()) {
+            transaction.pickup(sourceSlot);
+        }
+        return transaction.dispatch(client);
     }
 
     private SlotSelectionType resolveInventorySlotSelectionType(int parameterSlotIndex) {
@@ -5516,7 +5426,7 @@ public class Node {
         }
     }
 
-    private boolean resolveMoveItemSlotFromItemParameter(Node parameterNode, int slotIndex, CompletableFuture<Void> future) {
+    private boolean resolveMoveItemSlotFromItemParameter(Node parameterNode, int slotIndex, CompletableFuture<Void> future, RuntimeParameterData runtime) {
         if (slotIndex < 0 || slotIndex > 1) {
             return false;
         }
@@ -5555,12 +5465,9 @@ public class Node {
         }
 
         String targetParameter = slotIndex == 0 ? "SourceSlot" : "TargetSlot";
-        setParameterValueAndPropagate(targetParameter, Integer.toString(slot));
+        setRuntimeParameter(runtime, targetParameter, Integer.toString(slot));
         if (slotIndex == 0) {
-            if (runtimeParameterData == null) {
-                runtimeParameterData = new RuntimeParameterData();
-            }
-            runtimeParameterData.slotIndex = slot;
+            runtime.slotIndex = slot;
         }
         return true;
     }
@@ -5569,17 +5476,11 @@ public class Node {
         if (inventory == null || item == null) {
             return -1;
         }
-        for (int i = 0; i < inventory.size(); i++) {
-            ItemStack stack = inventory.getStack(i);
-            if (!stack.isEmpty() && stack.isOf(item)) {
-                return i;
-            }
-        }
-        return -1;
+        return InventoryIndex.getInstance().findFirstSlot(inventory, item, 0, inventory.size());
     }
     
-    private void executeClearSlotCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeClearSlotCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -5589,8 +5490,17 @@ public class Node {
         }
         
         PlayerInventory inventory = client.player.getInventory();
-        int slot = clampInventorySlot(inventory, getIntParameter("Slot", 0));
-        boolean dropItems = getBooleanParameter("DropItems", false);
+        int slot = clampInventorySlot(inventory, getIntParameter(runtime, ParameterSlots.CLEAR_SLOT_SLOT, 0));
+        boolean dropItems = getBooleanParameter(runtime, ParameterSlots.CLEAR_SLOT_DROP_ITEMS, false);
+
+        ItemStack current = inventory.getStack(slot);
+        CompletableFuture<Boolean> throwing = dropItems && !current.isEmpty()
+            ? throwFromSlot(client, slot, current.getCount())
+            : null;
+        if (throwing != null) {
+            completeWhenDone(throwing.thenAccept(sent -> { }), future);
+            return;
+        }
         
         ItemStack removed = inventory.removeStack(slot);
         if (!removed.isEmpty() && dropItems) {
@@ -5602,8 +5512,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeUseCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeUseCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -5612,17 +5522,17 @@ public class Node {
             return;
         }
 
-        Hand hand = resolveHand(getParameter("Hand"), Hand.MAIN_HAND);
-        int configuredCount = Math.max(0, getIntParameter("RepeatCount", 1));
-        boolean useUntilEmpty = getBooleanParameter("UseUntilEmpty", false);
-        boolean stopIfUnavailable = getBooleanParameter("StopIfUnavailable", true);
-        double durationSeconds = Math.max(0.0, getDoubleParameter("UseDurationSeconds", 0.0));
-        double intervalSeconds = Math.max(0.0, getDoubleParameter("UseIntervalSeconds", 0.0));
-        boolean allowBlock = getBooleanParameter("AllowBlockInteraction", true);
-        boolean allowEntity = getBooleanParameter("AllowEntityInteraction", true);
-        boolean swingAfterUse = getBooleanParameter("SwingAfterUse", true);
-        boolean sneakWhileUsing = getBooleanParameter("SneakWhileUsing", false);
-        boolean restoreSneak = getBooleanParameter("RestoreSneakState", true);
+        Hand hand = resolveHand(getParameterAt(runtime, ParameterSlots.USE_HAND), Hand.MAIN_HAND);
+        int configuredCount = Math.max(0, getIntParameter(runtime, ParameterSlots.USE_REPEAT_COUNT, 1));
+        boolean useUntilEmpty = getBooleanParameter(runtime, ParameterSlots.USE_UNTIL_EMPTY, false);
+        boolean stopIfUnavailable = getBooleanParameter(runtime, ParameterSlots.USE_STOP_IF_UNAVAILABLE, true);
+        double durationSeconds = Math.max(0.0, getDoubleParameter(runtime, ParameterSlots.USE_DURATION_SECONDS, 0.0));
+        double intervalSeconds = Math.max(0.0, getDoubleParameter(runtime, ParameterSlots.USE_INTERVAL_SECONDS, 0.0));
+        boolean allowBlock = getBooleanParameter(runtime, ParameterSlots.USE_ALLOW_BLOCK_INTERACTION, true);
+        boolean allowEntity = getBooleanParameter(runtime, ParameterSlots.USE_ALLOW_ENTITY_INTERACTION, true);
+        boolean swingAfterUse = getBooleanParameter(runtime, ParameterSlots.USE_SWING_AFTER_USE, true);
+        boolean sneakWhileUsing = getBooleanParameter(runtime, ParameterSlots.USE_SNEAK_WHILE_USING, false);
+        boolean restoreSneak = getBooleanParameter(runtime, ParameterSlots.USE_RESTORE_SNEAK_STATE, true);
 
         if (!useUntilEmpty && configuredCount == 0) {
             future.complete(null);
@@ -5631,102 +5541,138 @@ public class Node {
 
         final int maxIterations = configuredCount == 0 ? Integer.MAX_VALUE : configuredCount;
 
-        new Thread(() -> {
-            try {
-                boolean previousSneak = false;
-
-                if (sneakWhileUsing) {
-                    previousSneak = supplyFromClient(client, () -> client.player.isSneaking());
-                }
-
-                int iteration = 0;
-                while (iteration < maxIterations) {
-                    ItemStack stack = supplyFromClient(client, () -> client.player.getStackInHand(hand).copy());
-                    if ((stack == null || stack.isEmpty()) && stopIfUnavailable) {
-                        break;
-                    }
-
-                    if (sneakWhileUsing) {
-                        runOnClientThread(client, () -> {
-                            client.player.setSneaking(true);
-                            if (client.options != null && client.options.sneakKey != null) {
-                                client.options.sneakKey.setPressed(true);
-                            }
-                        });
-                    }
+        ItemUseLoop loop = new ItemUseLoop(client, hand, maxIterations, useUntilEmpty, stopIfUnavailable,
+            (long) (durationSeconds * 1000), (long) (intervalSeconds * 1000),
+            allowBlock, allowEntity, swingAfterUse, sneakWhileUsing, restoreSneak);
+        completeWhenDone(loop.runFrom(0), future);
+    }
 
-                    runOnClientThread(client, () -> {
-                        boolean performed = false;
-                        HitResult target = client.crosshairTarget;
-                        if (allowEntity && target instanceof EntityHitResult entityHit) {
-                            ActionResult entityResult = client.interactionManager.interactEntity(client.player, entityHit.getEntity(), hand);
-                            performed = entityResult.isAccepted();
-                        }
-                        if (!performed && allowBlock && target instanceof BlockHitResult blockHit) {
-                            ActionResult blockResult = client.interactionManager.interactBlock(client.player, hand, blockHit);
-                            performed = blockResult.isAccepted();
-                        }
-                        if (!performed) {
-                            client.interactionManager.interactItem(client.player, hand);
+    /**
+     * Repeated item use for the USE node. Each use runs as one client-thread step, and the hold
+     * duration and the interval between uses are waited out without parking a thread.
+     */
+    private static final class ItemUseLoop {
+        private final net.minecraft.client.MinecraftClient client;
+        private final Hand hand;
+        private final int maxIterations;
+        private final boolean useUntilEmpty;
+        private final boolean stopIfUnavailable;
+        private final long durationMs;
+        private final long intervalMs;
+        private final boolean allowBlock;
+        private final boolean allowEntity;
+        private final boolean swingAfterUse;
+        private final boolean sneakWhileUsing;
+        private final boolean restoreSneak;
+        private final boolean previousSneak;
+
+        private ItemUseLoop(net.minecraft.client.MinecraftClient client, Hand hand, int maxIterations,
+                            boolean useUntilEmpty, boolean stopIfUnavailable, long durationMs, long intervalMs,
+                            boolean allowBlock, boolean allowEntity, boolean swingAfterUse,
+                            boolean sneakWhileUsing, boolean restoreSneak) {
+            this.client = client;
+            this.hand = hand;
+            this.maxIterations = maxIterations;
+            this.useUntilEmpty = useUntilEmpty;
+            this.stopIfUnavailable = stopIfUnavailable;
+            this.durationMs = durationMs;
+            this.intervalMs = intervalMs;
+            this.allowBlock = allowBlock;
+            this.allowEntity = allowEntity;
+            this.swingAfterUse = swingAfterUse;
+            this.sneakWhileUsing = sneakWhileUsing;
+            this.restoreSneak = restoreSneak;
+            this.previousSneak = client.player != null && client.player.isSneaking();
+        }
+
+        private CompletableFuture<Void> runFrom(int iteration) {
+            return ClientThreadBridge.supply(client, this::useOnce).thenCompose(used -> {
+                if (!used) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                CompletableFuture<Void> held = durationMs > 0L
+                    ? delayOnClientThread(client, durationMs).thenCompose(ignored -> ClientThreadBridge.run(client, this::releaseUse))
+                    : CompletableFuture.completedFuture(null);
+                return held
+                    .thenCompose(ignored -> ClientThreadBridge.supply(client, this::finishUse))
+                    .thenCompose(keepGoing -> {
+                        int next = iteration + 1;
+                        if (!keepGoing || next >= maxIterations) {
+                            return CompletableFuture.<Void>completedFuture(null);
                         }
+                        // Yield to the client between uses even without an interval so the item can be consumed
+                        return delayOnClientThread(client, Math.max(1L, intervalMs)).thenCompose(ignored -> runFrom(next));
+                    });
+            });
+        }
 
-                        if (durationSeconds > 0.0 && client.options != null && client.options.useKey != null) {
-                            client.options.useKey.setPressed(true);
-                        }
+        private boolean useOnce() {
+            if (client.player == null || client.interactionManager == null) {
+                return false;
+            }
+            ItemStack stack = client.player.getStackInHand(hand);
+            if (stack.isEmpty() && stopIfUnavailable) {
+                return false;
+            }
 
-                        if (swingAfterUse) {
-                            client.player.swingHand(hand);
-                            if (client.player.networkHandler != null) {
-                                client.player.networkHandler.sendPacket(new HandSwingC2SPacket(hand));
-                            }
-                        }
-                    });
+            if (sneakWhileUsing) {
+                client.player.setSneaking(true);
+                if (client.options != null && client.options.sneakKey != null) {
+                    client.options.sneakKey.setPressed(true);
+                }
+            }
 
-                    if (durationSeconds > 0.0) {
-                        Thread.sleep((long) (durationSeconds * 1000));
-                        runOnClientThread(client, () -> {
-                            if (client.options != null && client.options.useKey != null) {
-                                client.options.useKey.setPressed(false);
-                            }
-                        });
-                    }
+            boolean performed = false;
+            HitResult target = client.crosshairTarget;
+            if (allowEntity && target instanceof EntityHitResult entityHit) {
+                ActionResult entityResult = client.interactionManager.interactEntity(client.player, entityHit.getEntity(), hand);
+                performed = entityResult.isAccepted();
+            }
+            if (!performed && allowBlock && target instanceof BlockHitResult blockHit) {
+                ActionResult blockResult = client.interactionManager.interactBlock(client.player, hand, blockHit);
+                performed = blockResult.isAccepted();
+            }
+            if (!performed) {
+                client.interactionManager.interactItem(client.player, hand);
+            }
 
-                    if (sneakWhileUsing && restoreSneak) {
-                        boolean sneakState = previousSneak;
-                        runOnClientThread(client, () -> {
-                            client.player.setSneaking(sneakState);
-                            if (client.options != null && client.options.sneakKey != null) {
-                                client.options.sneakKey.setPressed(sneakState);
-                            }
-                        });
-                    }
+            if (durationMs > 0L && client.options != null && client.options.useKey != null) {
+                client.options.useKey.setPressed(true);
+            }
 
-                    if (useUntilEmpty) {
-                        ItemStack afterUse = supplyFromClient(client, () -> client.player.getStackInHand(hand).copy());
-                        if (afterUse == null || afterUse.isEmpty()) {
-                            break;
-                        }
-                    }
+            if (swingAfterUse) {
+                client.player.swingHand(hand);
+                if (client.player.networkHandler != null) {
+                    client.player.networkHandler.sendPacket(new HandSwingC2SPacket(hand));
+                }
+            }
+            return true;
+        }
 
-                    iteration++;
-                    if (iteration >= maxIterations) {
-                        break;
-                    }
+        private void releaseUse() {
+            if (client.options != null && client.options.useKey != null) {
+                client.options.useKey.setPressed(false);
+            }
+        }
 
-                    if (intervalSeconds > 0.0) {
-                        Thread.sleep((long) (intervalSeconds * 1000));
-                    }
+        /**
+         * Restores the sneak state after a use; returns whether another use may follow.
+         */
+        private boolean finishUse() {
+            if (client.player == null) {
+                return false;
+            }
+            if (sneakWhileUsing && restoreSneak) {
+                client.player.setSneaking(previousSneak);
+                if (client.options != null && client.options.sneakKey != null) {
+                    client.options.sneakKey.setPressed(previousSneak);
                 }
-
-                future.complete(null);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                future.completeExceptionally(e);
             }
-        }, "Pathmind-Use").start();
+            return !useUntilEmpty || !client.player.getStackInHand(hand).isEmpty();
+        }
     }
 
-    private void executePlaceHandCommand(CompletableFuture<Void> future) {
+    private void executePlaceHandCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
         Node blockParameterNode = getAttachedParameter(0);
         Node coordinateParameterNode = getAttachedParameter(1);
         boolean blockProvidesCoordinates = blockParameterProvidesPlacementCoordinates(blockParameterNode);
@@ -5737,18 +5683,18 @@ public class Node {
             EnumSet<ParameterUsage> blockUsages = coordinateHandledByBlockParam
                 ? EnumSet.of(ParameterUsage.POSITION)
                 : EnumSet.noneOf(ParameterUsage.class);
-            if (preprocessParameterSlot(0, blockUsages, future, true) == ParameterHandlingResult.COMPLETE) {
+            if (preprocessParameterSlot(0, blockUsages, future, true, runtime) == ParameterHandlingResult.COMPLETE) {
                 return;
             }
         } else {
-            runtimeParameterData = null;
+            runtime.clear();
         }
 
         if (coordinateParameterNode != null) {
             EnumSet<ParameterUsage> coordinateUsages = coordinateProvidesCoordinates
                 ? EnumSet.of(ParameterUsage.POSITION)
                 : EnumSet.noneOf(ParameterUsage.class);
-            if (preprocessParameterSlot(1, coordinateUsages, future, blockParameterNode == null) == ParameterHandlingResult.COMPLETE) {
+            if (preprocessParameterSlot(1, coordinateUsages, future, blockParameterNode == null, runtime) == ParameterHandlingResult.COMPLETE) {
                 return;
             }
         }
@@ -5759,13 +5705,13 @@ public class Node {
             return;
         }
 
-        Hand hand = resolveHand(getParameter("Hand"), Hand.MAIN_HAND);
-        boolean sneakWhilePlacing = getBooleanParameter("SneakWhilePlacing", false);
-        boolean restoreSneak = getBooleanParameter("RestoreSneakState", true);
-        boolean swingOnPlace = getBooleanParameter("SwingOnPlace", true);
-        boolean requireBlockHit = getBooleanParameter("RequireBlockHit", true);
+        Hand hand = resolveHand(getParameterAt(runtime, ParameterSlots.PLACE_HAND_HAND), Hand.MAIN_HAND);
+        boolean sneakWhilePlacing = getBooleanParameter(runtime, ParameterSlots.PLACE_HAND_SNEAK_WHILE_PLACING, false);
+        boolean restoreSneak = getBooleanParameter(runtime, ParameterSlots.PLACE_HAND_RESTORE_SNEAK_STATE, true);
+        boolean swingOnPlace = getBooleanParameter(runtime, ParameterSlots.PLACE_HAND_SWING_ON_PLACE, true);
+        boolean requireBlockHit = getBooleanParameter(runtime, ParameterSlots.PLACE_HAND_REQUIRE_BLOCK_HIT, true);
 
-        RuntimeParameterData parameterData = runtimeParameterData;
+        RuntimeParameterData parameterData = runtime;
         BlockPos directedPlacementPos = null;
         if (parameterData != null && (coordinateProvidesCoordinates || coordinateHandledByBlockParam)) {
             directedPlacementPos = parameterData.targetBlockPos;
@@ -5879,58 +5825,39 @@ public class Node {
         final boolean shouldSneak = sneakWhilePlacing;
         final boolean shouldRestoreSneak = restoreSneak;
 
-        new Thread(() -> {
+        ClientThreadBridge.run(client, () -> {
+            BlockHitResult placementHitResult = preparePlacementHitResult(client, placementPos, resolvedBlockId, resolvedHand, reachSquared);
+            boolean initialSneak = client.player.isSneaking();
+            if (shouldSneak) {
+                client.player.setSneaking(true);
+                if (client.options != null && client.options.sneakKey != null) {
+                    client.options.sneakKey.setPressed(true);
+                }
+            }
             try {
-                BlockHitResult placementHitResult = supplyFromClient(client, () ->
-                    preparePlacementHitResult(client, placementPos, resolvedBlockId, resolvedHand, reachSquared)
-                );
-                runOnClientThread(client, () -> {
-                    boolean initialSneak = client.player.isSneaking();
-                    if (shouldSneak) {
-                        client.player.setSneaking(true);
-                        if (client.options != null && client.options.sneakKey != null) {
-                            client.options.sneakKey.setPressed(true);
-                        }
+                if (client.world.getBlockState(placementPos).isOf(resolvedBlock)) {
+                    return;
+                }
+                ActionResult result = client.interactionManager.interactBlock(client.player, resolvedHand, placementHitResult);
+                if (!result.isAccepted()) {
+                    throw new PlacementFailure("Cannot place block at " + formatBlockPos(placementPos) + ": placement rejected (" + result + ").");
+                }
+                if (shouldSwing) {
+                    client.player.swingHand(resolvedHand);
+                    if (client.player.networkHandler != null) {
+                        client.player.networkHandler.sendPacket(new HandSwingC2SPacket(resolvedHand));
                     }
-                    try {
-                        if (client.world.getBlockState(placementPos).isOf(resolvedBlock)) {
-                            return;
-                        }
-                        ActionResult result = client.interactionManager.interactBlock(client.player, resolvedHand, placementHitResult);
-                        if (!result.isAccepted()) {
-                            throw new PlacementFailure("Cannot place block at " + formatBlockPos(placementPos) + ": placement rejected (" + result + ").");
-                        }
-                        if (shouldSwing) {
-                            client.player.swingHand(resolvedHand);
-                            if (client.player.networkHandler != null) {
-                                client.player.networkHandler.sendPacket(new HandSwingC2SPacket(resolvedHand));
-                            }
-                        }
-                    } finally {
-                        if (shouldSneak && shouldRestoreSneak) {
-                            client.player.setSneaking(initialSneak);
-                            if (client.options != null && client.options.sneakKey != null) {
-                                client.options.sneakKey.setPressed(initialSneak);
-                            }
-                        }
+                }
+            } finally {
+                if (shouldSneak && shouldRestoreSneak) {
+                    client.player.setSneaking(initialSneak);
+                    if (client.options != null && client.options.sneakKey != null) {
+                        client.options.sneakKey.setPressed(initialSneak);
                     }
-                });
-                boolean placed = waitForBlockPlacement(client, placementPos, resolvedBlock);
-                if (!placed) {
-                    sendNodeErrorMessage(client, "Attempted to place block \"" + resolvedBlockId + "\" at " + formatBlockPos(placementPos) + " but it did not appear. Make sure the space is clear and within reach.");
                 }
-                future.complete(null);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                future.completeExceptionally(e);
-            } catch (PlacementFailure e) {
-                sendNodeErrorMessage(client, e.getMessage());
-                future.complete(null);
-            } catch (RuntimeException e) {
-                sendNodeErrorMessage(client, "Failed to place block \"" + resolvedBlockId + "\": " + e.getMessage());
-                future.complete(null);
             }
-        }, "Pathmind-PlaceHand").start();
+        }).thenCompose(ignored -> awaitBlockPlacement(client, placementPos, resolvedBlock, 0))
+            .whenComplete((placed, throwable) -> completePlacement(future, client, resolvedBlockId, placementPos, placed, throwable));
     }
 
     private void ensureBlockInHand(net.minecraft.client.MinecraftClient client, String blockId, Hand hand) {
@@ -5988,48 +5915,47 @@ public class Node {
         }
     }
 
-    private boolean waitForBlockPlacement(net.minecraft.client.MinecraftClient client, BlockPos targetPos, Block desiredBlock) throws InterruptedException {
+    /**
+     * Completes with true once the block shows up at the position, re-checking every 50 ms for up to a second.
+     */
+    private CompletableFuture<Boolean> awaitBlockPlacement(net.minecraft.client.MinecraftClient client, BlockPos targetPos, Block desiredBlock, int attempt) {
         if (client == null || targetPos == null || desiredBlock == null) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
-        for (int attempt = 0; attempt < 20; attempt++) {
-            boolean matches = supplyFromClient(client, () -> {
-                if (client.world == null) {
-                    return false;
+        return ClientThreadBridge.supply(client, () -> client.world != null && client.world.getBlockState(targetPos).isOf(desiredBlock))
+            .thenCompose(matches -> {
+                if (matches || attempt + 1 >= 20) {
+                    return CompletableFuture.completedFuture(matches);
                 }
-                return client.world.getBlockState(targetPos).isOf(desiredBlock);
+                return delayOnClientThread(client, 50L)
+                    .thenCompose(ignored -> awaitBlockPlacement(client, targetPos, desiredBlock, attempt + 1));
             });
-            if (matches) {
-                return true;
+    }
+
+    private void completePlacement(CompletableFuture<Void> future, net.minecraft.client.MinecraftClient client,
+                                   String blockId, BlockPos placementPos, Boolean placed, Throwable throwable) {
+        if (throwable != null) {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            if (cause instanceof PlacementFailure) {
+                sendNodeErrorMessage(client, cause.getMessage());
+            } else {
+                sendNodeErrorMessage(client, "Failed to place block \"" + blockId + "\": " + cause.getMessage());
             }
-            Thread.sleep(50L);
+        } else if (!Boolean.TRUE.equals(placed)) {
+            sendNodeErrorMessage(client, "Attempted to place block \"" + blockId + "\" at " + formatBlockPos(placementPos) + " but it did not appear. Make sure the space is clear and within reach.");
         }
-        return false;
+        future.complete(null);
     }
 
     private int findHotbarSlotWithItem(PlayerInventory inventory, Item targetItem) {
-        int hotbarSize = PlayerInventory.getHotbarSize();
-        for (int slot = 0; slot < hotbarSize; slot++) {
-            ItemStack stack = inventory.getStack(slot);
-            if (!stack.isEmpty() && stack.isOf(targetItem)) {
-                return slot;
-            }
-        }
-        return -1;
+        return InventoryIndex.getInstance().findFirstSlot(inventory, targetItem, 0, PlayerInventory.getHotbarSize());
     }
 
     private int findMainInventorySlotWithItem(PlayerInventory inventory, Item targetItem) {
         if (inventory == null || targetItem == null) {
             return -1;
         }
-        int hotbarSize = PlayerInventory.getHotbarSize();
-        for (int slot = hotbarSize; slot < PlayerInventory.MAIN_SIZE; slot++) {
-            ItemStack stack = inventory.getStack(slot);
-            if (!stack.isEmpty() && stack.isOf(targetItem)) {
-                return slot;
-            }
-        }
-        return -1;
+        return InventoryIndex.getInstance().findFirstSlot(inventory, targetItem, PlayerInventory.getHotbarSize(), PlayerInventory.MAIN_SIZE);
     }
 
     private int findEmptyHotbarSlot(PlayerInventory inventory) {
@@ -6064,7 +5990,7 @@ public class Node {
             return -1;
         }
 
-        client.interactionManager.clickSlot(handler.syncId, handlerSlot, targetHotbarSlot, SlotActionType.SWAP, client.player);
+        InventoryTransaction.begin(handler).swap(handlerSlot, targetHotbarSlot).apply(client);
 
         ItemStack hotbarStack = inventory.getStack(targetHotbarSlot);
         if (hotbarStack.isEmpty() || !hotbarStack.isOf(targetItem)) {
@@ -6303,8 +6229,8 @@ public class Node {
         return false;
     }
 
-    private void executeLookCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.LOOK_ORIENTATION, ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeLookCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.LOOK_ORIENTATION, ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6313,16 +6239,16 @@ public class Node {
             return;
         }
         
-        float yaw = (float) getDoubleParameter("Yaw", client.player.getYaw());
-        float pitch = MathHelper.clamp((float) getDoubleParameter("Pitch", client.player.getPitch()), -90.0F, 90.0F);
+        float yaw = (float) getDoubleParameter(runtime, ParameterSlots.LOOK_YAW, client.player.getYaw());
+        float pitch = MathHelper.clamp((float) getDoubleParameter(runtime, ParameterSlots.LOOK_PITCH, client.player.getPitch()), -90.0F, 90.0F);
         client.player.setYaw(yaw);
         client.player.setPitch(pitch);
         client.player.setHeadYaw(yaw);
         future.complete(null);
     }
 
-    private void executeTurnCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.TURN_OFFSET, ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeTurnCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.TURN_OFFSET, ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6331,8 +6257,8 @@ public class Node {
             return;
         }
 
-        float yawOffset = (float) getDoubleParameter("YawOffset", 0.0D);
-        float pitchOffset = (float) getDoubleParameter("PitchOffset", 0.0D);
+        float yawOffset = (float) getDoubleParameter(runtime, ParameterSlots.TURN_YAW_OFFSET, 0.0D);
+        float pitchOffset = (float) getDoubleParameter(runtime, ParameterSlots.TURN_PITCH_OFFSET, 0.0D);
         float newYaw = client.player.getYaw() + yawOffset;
         float newPitch = MathHelper.clamp(client.player.getPitch() + pitchOffset, -90.0F, 90.0F);
         client.player.setYaw(newYaw);
@@ -6341,8 +6267,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeJumpCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeJumpCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6351,27 +6277,26 @@ public class Node {
             return;
         }
         
-        int count = Math.max(1, getIntParameter("Count", 1));
-        double intervalSeconds = Math.max(0.0, getDoubleParameter("IntervalSeconds", 0.0));
+        int count = Math.max(1, getIntParameter(runtime, ParameterSlots.JUMP_COUNT, 1));
+        double intervalSeconds = Math.max(0.0, getDoubleParameter(runtime, ParameterSlots.JUMP_INTERVAL_SECONDS, 0.0));
+        long intervalMs = (long) (intervalSeconds * 1000);
 
-        new Thread(() -> {
-            try {
-                for (int i = 0; i < count; i++) {
-                    runOnClientThread(client, () -> client.player.jump());
-                    if (intervalSeconds > 0.0 && i < count - 1) {
-                        Thread.sleep((long) (intervalSeconds * 1000));
+        CompletableFuture<Void> sequence = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < count; i++) {
+            boolean last = i == count - 1;
+            sequence = sequence
+                .thenCompose(ignored -> ClientThreadBridge.run(client, () -> {
+                    if (client.player != null) {
+                        client.player.jump();
                     }
-                }
-                future.complete(null);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                future.completeExceptionally(e);
-            }
-        }, "Pathmind-Jump").start();
+                }))
+                .thenCompose(ignored -> last ? CompletableFuture.<Void>completedFuture(null) : delayOnClientThread(client, intervalMs));
+        }
+        completeWhenDone(sequence, future);
     }
     
-    private void executeCrouchCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeCrouchCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6380,8 +6305,8 @@ public class Node {
             return;
         }
         
-        boolean active = getBooleanParameter("Active", true);
-        boolean toggleKey = getBooleanParameter("ToggleKey", false);
+        boolean active = getBooleanParameter(runtime, ParameterSlots.CROUCH_ACTIVE, true);
+        boolean toggleKey = getBooleanParameter(runtime, ParameterSlots.CROUCH_TOGGLE_KEY, false);
         client.player.setSneaking(active);
         if (client.options != null && client.options.sneakKey != null) {
             if (toggleKey) {
@@ -6394,8 +6319,8 @@ public class Node {
         future.complete(null);
     }
 
-    private void executeSprintCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeSprintCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6404,8 +6329,8 @@ public class Node {
             return;
         }
         
-        boolean active = getBooleanParameter("Active", true);
-        boolean allowFlying = getBooleanParameter("AllowFlying", false);
+        boolean active = getBooleanParameter(runtime, ParameterSlots.SPRINT_ACTIVE, true);
+        boolean allowFlying = getBooleanParameter(runtime, ParameterSlots.SPRINT_ALLOW_FLYING, false);
 
         if (!allowFlying && client.player.getAbilities() != null && client.player.getAbilities().flying) {
             future.complete(null);
@@ -6421,8 +6346,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeInteractCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeInteractCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6431,13 +6356,13 @@ public class Node {
             return;
         }
         
-        Hand hand = resolveHand(getParameter("Hand"), Hand.MAIN_HAND);
-        boolean preferEntity = getBooleanParameter("PreferEntity", true);
-        boolean preferBlock = getBooleanParameter("PreferBlock", true);
-        boolean fallbackToItem = getBooleanParameter("FallbackToItemUse", true);
-        boolean swingOnSuccess = getBooleanParameter("SwingOnSuccess", true);
-        boolean sneakWhileInteracting = getBooleanParameter("SneakWhileInteracting", false);
-        boolean restoreSneak = getBooleanParameter("RestoreSneakState", true);
+        Hand hand = resolveHand(getParameterAt(runtime, ParameterSlots.INTERACT_HAND), Hand.MAIN_HAND);
+        boolean preferEntity = getBooleanParameter(runtime, ParameterSlots.INTERACT_PREFER_ENTITY, true);
+        boolean preferBlock = getBooleanParameter(runtime, ParameterSlots.INTERACT_PREFER_BLOCK, true);
+        boolean fallbackToItem = getBooleanParameter(runtime, ParameterSlots.INTERACT_FALLBACK_TO_ITEM_USE, true);
+        boolean swingOnSuccess = getBooleanParameter(runtime, ParameterSlots.INTERACT_SWING_ON_SUCCESS, true);
+        boolean sneakWhileInteracting = getBooleanParameter(runtime, ParameterSlots.INTERACT_SNEAK_WHILE_INTERACTING, false);
+        boolean restoreSneak = getBooleanParameter(runtime, ParameterSlots.INTERACT_RESTORE_SNEAK_STATE, true);
 
         boolean previousSneak = client.player.isSneaking();
         if (sneakWhileInteracting) {
@@ -6456,10 +6381,10 @@ public class Node {
             }
         };
 
-        RuntimeParameterData parameterData = runtimeParameterData;
+        RuntimeParameterData parameterData = runtime;
         BlockPos parameterTargetPos = parameterData != null ? parameterData.targetBlockPos : null;
 
-        NodeParameter blockParameter = getParameter("Block");
+        NodeParameter blockParameter = getParameterAt(runtime, ParameterSlots.INTERACT_BLOCK);
         String configuredBlockId = null;
         String requestedBlockLabel = null;
         if (parameterData != null) {
@@ -6494,7 +6419,7 @@ public class Node {
             }
             targetBlock = Registries.BLOCK.get(identifier);
             configuredBlockId = identifier.toString();
-            setParameterValueAndPropagate("Block", configuredBlockId);
+            setRuntimeParameter(runtime, "Block", configuredBlockId);
         }
 
         HitResult target = client.crosshairTarget;
@@ -6532,7 +6457,7 @@ public class Node {
                 targetBlock = state.getBlock();
                 Identifier stateId = Registries.BLOCK.getId(targetBlock);
                 if (stateId != null) {
-                    setParameterValueAndPropagate("Block", stateId.toString());
+                    setRuntimeParameter(runtime, "Block", stateId.toString());
                 }
             }
 
@@ -6594,8 +6519,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeAttackCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.LOOK_ORIENTATION, ParameterUsage.POSITION), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeAttackCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.of(ParameterUsage.LOOK_ORIENTATION, ParameterUsage.POSITION), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6604,16 +6529,16 @@ public class Node {
             return;
         }
 
-        Hand hand = resolveHand(getParameter("Hand"), Hand.MAIN_HAND);
-        boolean swingOnly = getBooleanParameter("SwingOnly", false);
-        final boolean attackEntities = getBooleanParameter("AttackEntities", true);
-        final boolean attackBlocks = getBooleanParameter("AttackBlocks", true);
-        int repeatCount = Math.max(1, getIntParameter("RepeatCount", 1));
-        double intervalSeconds = Math.max(0.0, getDoubleParameter("AttackIntervalSeconds", 0.0));
-        boolean sneakWhileAttacking = getBooleanParameter("SneakWhileAttacking", false);
-        boolean restoreSneak = getBooleanParameter("RestoreSneakState", true);
+        Hand hand = resolveHand(getParameterAt(runtime, ParameterSlots.ATTACK_HAND), Hand.MAIN_HAND);
+        boolean swingOnly = getBooleanParameter(runtime, ParameterSlots.ATTACK_SWING_ONLY, false);
+        final boolean attackEntities = getBooleanParameter(runtime, ParameterSlots.ATTACK_ENTITIES, true);
+        final boolean attackBlocks = getBooleanParameter(runtime, ParameterSlots.ATTACK_BLOCKS, true);
+        int repeatCount = Math.max(1, getIntParameter(runtime, ParameterSlots.ATTACK_REPEAT_COUNT, 1));
+        double intervalSeconds = Math.max(0.0, getDoubleParameter(runtime, ParameterSlots.ATTACK_INTERVAL_SECONDS, 0.0));
+        boolean sneakWhileAttacking = getBooleanParameter(runtime, ParameterSlots.ATTACK_SNEAK_WHILE_ATTACKING, false);
+        boolean restoreSneak = getBooleanParameter(runtime, ParameterSlots.ATTACK_RESTORE_SNEAK_STATE, true);
 
-        RuntimeParameterData parameterData = runtimeParameterData;
+        RuntimeParameterData parameterData = runtime;
 
         orientPlayerTowardsRuntimeTarget(client, parameterData);
 
@@ -6626,77 +6551,73 @@ public class Node {
         final boolean finalAttackEntities = attackEntities;
         final boolean finalAttackBlocks = attackBlocks;
 
-        new Thread(() -> {
-            try {
-                if (sneakWhileAttacking) {
-                    runOnClientThread(client, () -> {
-                        client.player.setSneaking(true);
-                        if (client.options != null && client.options.sneakKey != null) {
-                            client.options.sneakKey.setPressed(true);
-                        }
-                    });
+        long intervalMs = (long) (intervalSeconds * 1000);
+
+        CompletableFuture<Void> sequence = CompletableFuture.completedFuture(null);
+        if (sneakWhileAttacking) {
+            sequence = ClientThreadBridge.run(client, () -> {
+                client.player.setSneaking(true);
+                if (client.options != null && client.options.sneakKey != null) {
+                    client.options.sneakKey.setPressed(true);
                 }
+            });
+        }
 
-                for (int i = 0; i < repeatCount; i++) {
-                    runOnClientThread(client, () -> {
-                        if (parameterData != null) {
-                            if (parameterData.targetEntity != null && !parameterData.targetEntity.isAlive()) {
-                                parameterData.targetEntity = null;
-                            }
-                            orientPlayerTowardsRuntimeTarget(client, parameterData);
+        for (int i = 0; i < repeatCount; i++) {
+            boolean last = i == repeatCount - 1;
+            sequence = sequence
+                .thenCompose(ignored -> ClientThreadBridge.run(client, () -> {
+                    if (parameterData != null) {
+                        if (parameterData.targetEntity != null && !parameterData.targetEntity.isAlive()) {
+                            parameterData.targetEntity = null;
                         }
+                        orientPlayerTowardsRuntimeTarget(client, parameterData);
+                    }
 
-                        boolean performedAttack = false;
-                        HitResult target = client.crosshairTarget;
-                        if (!finalSwingOnly && finalAttackEntities) {
-                            Entity directEntity = null;
-                            if (parameterData != null && parameterData.targetEntity != null && parameterData.targetEntity.isAlive()) {
-                                directEntity = parameterData.targetEntity;
-                            } else if (target instanceof EntityHitResult entityHit) {
-                                directEntity = entityHit.getEntity();
-                            }
-
-                            if (directEntity != null) {
-                                client.interactionManager.attackEntity(client.player, directEntity);
-                                performedAttack = true;
-                            }
+                    boolean performedAttack = false;
+                    HitResult target = client.crosshairTarget;
+                    if (!finalSwingOnly && finalAttackEntities) {
+                        Entity directEntity = null;
+                        if (parameterData != null && parameterData.targetEntity != null && parameterData.targetEntity.isAlive()) {
+                            directEntity = parameterData.targetEntity;
+                        } else if (target instanceof EntityHitResult entityHit) {
+                            directEntity = entityHit.getEntity();
                         }
 
-                        if (!finalSwingOnly && !performedAttack && target instanceof BlockHitResult blockHit && finalAttackBlocks) {
-                            client.interactionManager.attackBlock(blockHit.getBlockPos(), blockHit.getSide());
+                        if (directEntity != null) {
+                            client.interactionManager.attackEntity(client.player, directEntity);
                             performedAttack = true;
                         }
+                    }
 
-                        client.player.swingHand(hand);
-                        if (client.player.networkHandler != null) {
-                            client.player.networkHandler.sendPacket(new HandSwingC2SPacket(hand));
-                        }
-                    });
+                    if (!finalSwingOnly && !performedAttack && target instanceof BlockHitResult blockHit && finalAttackBlocks) {
+                        client.interactionManager.attackBlock(blockHit.getBlockPos(), blockHit.getSide());
+                        performedAttack = true;
+                    }
 
-                    if (intervalSeconds > 0.0 && i < repeatCount - 1) {
-                        Thread.sleep((long) (intervalSeconds * 1000));
+                    client.player.swingHand(hand);
+                    if (client.player.networkHandler != null) {
+                        client.player.networkHandler.sendPacket(new HandSwingC2SPacket(hand));
                     }
-                }
+                }))
+                .thenCompose(ignored -> last ? CompletableFuture.<Void>completedFuture(null) : delayOnClientThread(client, intervalMs));
+        }
 
-                if (sneakWhileAttacking && restoreSneak) {
-                    runOnClientThread(client, () -> {
-                        client.player.setSneaking(previousSneak);
-                        if (client.options != null && client.options.sneakKey != null) {
-                            client.options.sneakKey.setPressed(previousSneak);
-                        }
-                    });
+        if (sneakWhileAttacking && restoreSneak) {
+            sequence = sequence.thenCompose(ignored -> ClientThreadBridge.run(client, () -> {
+                if (client.player != null) {
+                    client.player.setSneaking(previousSneak);
                 }
-
-                future.complete(null);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                future.completeExceptionally(e);
-            }
-        }, "Pathmind-Attack").start();
+                if (client.options != null && client.options.sneakKey != null) {
+                    client.options.sneakKey.setPressed(previousSneak);
+                }
+            }));
+        }
+        completeWhenDone(sequence, future);
     }
 
-    private void executeSwingCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeSwingCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6705,34 +6626,31 @@ public class Node {
             return;
         }
 
-        Hand hand = resolveHand(getParameter("Hand"), Hand.MAIN_HAND);
-        int count = Math.max(1, getIntParameter("Count", 1));
-        double intervalSeconds = Math.max(0.0, getDoubleParameter("IntervalSeconds", 0.0));
-
-        new Thread(() -> {
-            try {
-                for (int i = 0; i < count; i++) {
-                    runOnClientThread(client, () -> {
-                        client.player.swingHand(hand);
-                        if (client.player.networkHandler != null) {
-                            client.player.networkHandler.sendPacket(new HandSwingC2SPacket(hand));
-                        }
-                    });
+        Hand hand = resolveHand(getParameter(runtime, "Hand"), Hand.MAIN_HAND);
+        int count = Math.max(1, getIntParameter(runtime, "Count", 1));
+        double intervalSeconds = Math.max(0.0, getDoubleParameter(runtime, "IntervalSeconds", 0.0));
+        long intervalMs = (long) (intervalSeconds * 1000);
 
-                    if (intervalSeconds > 0.0 && i < count - 1) {
-                        Thread.sleep((long) (intervalSeconds * 1000));
+        CompletableFuture<Void> sequence = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < count; i++) {
+            boolean last = i == count - 1;
+            sequence = sequence
+                .thenCompose(ignored -> ClientThreadBridge.run(client, () -> {
+                    if (client.player == null) {
+                        return;
                     }
-                }
-                future.complete(null);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                future.completeExceptionally(e);
-            }
-        }, "Pathmind-Swing").start();
+                    client.player.swingHand(hand);
+                    if (client.player.networkHandler != null) {
+                        client.player.networkHandler.sendPacket(new HandSwingC2SPacket(hand));
+                    }
+                }))
+                .thenCompose(ignored -> last ? CompletableFuture.<Void>completedFuture(null) : delayOnClientThread(client, intervalMs));
+        }
+        completeWhenDone(sequence, future);
     }
     
-    private void executeSwapHandsCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeSwapHandsCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6755,8 +6673,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeEquipArmorCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeEquipArmorCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6766,8 +6684,8 @@ public class Node {
         }
         
         PlayerInventory inventory = client.player.getInventory();
-        int sourceSlot = clampInventorySlot(inventory, getIntParameter("SourceSlot", 0));
-        EquipmentSlot equipmentSlot = parseEquipmentSlot(getParameter("ArmorSlot"), EquipmentSlot.HEAD);
+        int sourceSlot = clampInventorySlot(inventory, getIntParameter(runtime, ParameterSlots.EQUIP_ARMOR_SOURCE_SLOT, 0));
+        EquipmentSlot equipmentSlot = parseEquipmentSlot(getParameterAt(runtime, ParameterSlots.EQUIP_ARMOR_ARMOR_SLOT), EquipmentSlot.HEAD);
         
         ItemStack sourceStack = inventory.getStack(sourceSlot);
         if (sourceStack.isEmpty()) {
@@ -6783,8 +6701,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeUnequipArmorCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeUnequipArmorCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6794,9 +6712,9 @@ public class Node {
         }
         
         PlayerInventory inventory = client.player.getInventory();
-        EquipmentSlot equipmentSlot = parseEquipmentSlot(getParameter("ArmorSlot"), EquipmentSlot.HEAD);
-        int targetSlot = clampInventorySlot(inventory, getIntParameter("TargetSlot", 0));
-        boolean dropIfFull = getBooleanParameter("DropIfFull", true);
+        EquipmentSlot equipmentSlot = parseEquipmentSlot(getParameterAt(runtime, ParameterSlots.UNEQUIP_ARMOR_ARMOR_SLOT), EquipmentSlot.HEAD);
+        int targetSlot = clampInventorySlot(inventory, getIntParameter(runtime, ParameterSlots.UNEQUIP_ARMOR_TARGET_SLOT, 0));
+        boolean dropIfFull = getBooleanParameter(runtime, ParameterSlots.UNEQUIP_ARMOR_DROP_IF_FULL, true);
         
         ItemStack equipped = client.player.getEquippedStack(equipmentSlot);
         if (equipped.isEmpty()) {
@@ -6821,8 +6739,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeEquipHandCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeEquipHandCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6832,8 +6750,8 @@ public class Node {
         }
         
         PlayerInventory inventory = client.player.getInventory();
-        int sourceSlot = clampInventorySlot(inventory, getIntParameter("SourceSlot", 0));
-        Hand hand = resolveHand(getParameter("Hand"), Hand.MAIN_HAND);
+        int sourceSlot = clampInventorySlot(inventory, getIntParameter(runtime, ParameterSlots.EQUIP_HAND_SOURCE_SLOT, 0));
+        Hand hand = resolveHand(getParameterAt(runtime, ParameterSlots.EQUIP_HAND_HAND), Hand.MAIN_HAND);
         
         ItemStack sourceStack = inventory.getStack(sourceSlot);
         if (sourceStack.isEmpty()) {
@@ -6849,8 +6767,8 @@ public class Node {
         future.complete(null);
     }
     
-    private void executeUnequipHandCommand(CompletableFuture<Void> future) {
-        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future) == ParameterHandlingResult.COMPLETE) {
+    private void executeUnequipHandCommand(CompletableFuture<Void> future, RuntimeParameterData runtime) {
+        if (preprocessAttachedParameter(EnumSet.noneOf(ParameterUsage.class), future, runtime) == ParameterHandlingResult.COMPLETE) {
             return;
         }
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
@@ -6860,9 +6778,9 @@ public class Node {
         }
         
         PlayerInventory inventory = client.player.getInventory();
-        Hand hand = resolveHand(getParameter("Hand"), Hand.MAIN_HAND);
-        int targetSlot = clampInventorySlot(inventory, getIntParameter("TargetSlot", 0));
-        boolean dropIfFull = getBooleanParameter("DropIfFull", true);
+        Hand hand = resolveHand(getParameterAt(runtime, ParameterSlots.UNEQUIP_HAND_HAND), Hand.MAIN_HAND);
+        int targetSlot = clampInventorySlot(inventory, getIntParameter(runtime, ParameterSlots.UNEQUIP_HAND_TARGET_SLOT, 0));
+        boolean dropIfFull = getBooleanParameter(runtime, ParameterSlots.UNEQUIP_HAND_DROP_IF_FULL, true);
         
         ItemStack handStack = client.player.getStackInHand(hand);
         if (handStack.isEmpty()) {
@@ -6890,57 +6808,43 @@ public class Node {
         future.complete(null);
     }
     
-    private void completeSensorEvaluation(CompletableFuture<Void> future) {
-        boolean result = evaluateSensor();
-        setNextOutputSocket(result ? 0 : 1);
-        future.complete(null);
+    private void completeSensorEvaluation(CompletableFuture<Void> future, ExecutionFrame frame, int frameIndex) {
+        whenConditionEvaluated(evaluateSensorAsync(), future, result -> frame.setNextOutputSocket(frameIndex, result ? 0 : 1));
     }
 
-    private void runOnClientThread(net.minecraft.client.MinecraftClient client, Runnable task) throws InterruptedException {
-        if (client == null || client.isOnThread()) {
-            task.run();
-            return;
-        }
-
-        CountDownLatch latch = new CountDownLatch(1);
-        AtomicReference<RuntimeException> error = new AtomicReference<>();
-        client.execute(() -> {
-            try {
-                task.run();
-            } catch (RuntimeException e) {
-                error.set(e);
-            } finally {
-                latch.countDown();
+    /**
+     * Completes {@code future} once {@code condition} settles, after handing the result to {@code onResult}.
+     */
+    private static void whenConditionEvaluated(CompletableFuture<Boolean> condition, CompletableFuture<Void> future, Consumer<Boolean> onResult) {
+        condition.whenComplete((result, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+                return;
             }
+            onResult.accept(Boolean.TRUE.equals(result));
+            future.complete(null);
         });
-        latch.await();
-        if (error.get() != null) {
-            throw error.get();
-        }
     }
 
-    private <T> T supplyFromClient(net.minecraft.client.MinecraftClient client, java.util.function.Supplier<T> supplier) throws InterruptedException {
-        if (client == null || client.isOnThread()) {
-            return supplier.get();
+    /**
+     * Completes on the client thread after the given delay without parking a thread.
+     */
+    private static CompletableFuture<Void> delayOnClientThread(net.minecraft.client.MinecraftClient client, long delayMs) {
+        if (delayMs <= 0L) {
+            return CompletableFuture.completedFuture(null);
         }
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS))
+            .thenCompose(ignored -> ClientThreadBridge.run(client, () -> { }));
+    }
 
-        CountDownLatch latch = new CountDownLatch(1);
-        AtomicReference<T> result = new AtomicReference<>();
-        AtomicReference<RuntimeException> error = new AtomicReference<>();
-        client.execute(() -> {
-            try {
-                result.set(supplier.get());
-            } catch (RuntimeException e) {
-                error.set(e);
-            } finally {
-                latch.countDown();
+    private static void completeWhenDone(CompletableFuture<Void> source, CompletableFuture<Void> target) {
+        source.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                target.completeExceptionally(throwable);
+            } else {
+                target.complete(null);
             }
         });
-        latch.await();
-        if (error.get() != null) {
-            throw error.get();
-        }
-        return result.get();
     }
 
     private boolean canStacksCombine(ItemStack first, ItemStack second) {
@@ -6980,19 +6884,54 @@ public class Node {
         }
     }
 
+    private int getIntParameter(RuntimeParameterData runtime, int slot, int defaultValue) {
+        NodeParameter param = getParameterAt(runtime, slot);
+        return param != null ? param.asInt(defaultValue) : defaultValue;
+    }
+
+    private int getIntParameter(RuntimeParameterData runtime, String name, int defaultValue) {
+        NodeParameter param = getParameter(runtime, name);
+        return param != null ? param.asInt(defaultValue) : defaultValue;
+    }
+
+    private String getStringParameter(RuntimeParameterData runtime, int slot, String defaultValue) {
+        NodeParameter param = getParameterAt(runtime, slot);
+        String value = param != null ? param.getStringValue() : null;
+        return value != null ? value : defaultValue;
+    }
+
+    private String getStringParameter(RuntimeParameterData runtime, String name, String defaultValue) {
+        NodeParameter param = getParameter(runtime, name);
+        String value = param != null ? param.getStringValue() : null;
+        return value != null ? value : defaultValue;
+    }
+
+    private double getDoubleParameter(RuntimeParameterData runtime, int slot, double defaultValue) {
+        NodeParameter param = getParameterAt(runtime, slot);
+        return param != null ? param.asDouble(defaultValue) : defaultValue;
+    }
+
+    private double getDoubleParameter(RuntimeParameterData runtime, String name, double defaultValue) {
+        NodeParameter param = getParameter(runtime, name);
+        return param != null ? param.asDouble(defaultValue) : defaultValue;
+    }
+
+    private boolean getBooleanParameter(RuntimeParameterData runtime, int slot, boolean defaultValue) {
+        NodeParameter param = getParameterAt(runtime, slot);
+        return param != null ? param.asBoolean(defaultValue) : defaultValue;
+    }
+
+    private boolean getBooleanParameter(RuntimeParameterData runtime, String name, boolean defaultValue) {
+        NodeParameter param = getParameter(runtime, name);
+        return param != null ? param.asBoolean(defaultValue) : defaultValue;
+    }
+
     private int getIntParameter(String name, int defaultValue) {
         NodeParameter param = getParameter(name);
         if (param == null) {
             return defaultValue;
         }
-        if (param.getType() == ParameterType.INTEGER) {
-            return param.getIntValue();
-        }
-        try {
-            return Integer.parseInt(param.getStringValue());
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        return param.asInt(defaultValue);
     }
     
     private String getStringParameter(String name, String defaultValue) {
@@ -7020,14 +6959,7 @@ public class Node {
         if (param == null) {
             return defaultValue;
         }
-        if (param.getType() == ParameterType.DOUBLE) {
-            return param.getDoubleValue();
-        }
-        try {
-            return Double.parseDouble(param.getStringValue());
-        } catch (NumberFormatException e) {
-            return defaultValue;
-        }
+        return param.asDouble(defaultValue);
     }
     
     private boolean getBooleanParameter(String name, boolean defaultValue) {
@@ -7035,14 +6967,7 @@ public class Node {
         if (param == null) {
             return defaultValue;
         }
-        if (param.getType() == ParameterType.BOOLEAN) {
-            return param.getBoolValue();
-        }
-        String value = param.getStringValue();
-        if (value == null) {
-            return defaultValue;
-        }
-        return Boolean.parseBoolean(value);
+        return param.asBoolean(defaultValue);
     }
 
     private static double parseDoubleOrDefault(String value, double defaultValue) {
@@ -7096,12 +7021,6 @@ public class Node {
         return Hand.MAIN_HAND;
     }
 
-    private void resetControlState() {
-        this.repeatRemainingIterations = 0;
-        this.repeatActive = false;
-        this.lastSensorResult = false;
-        this.nextOutputSocket = 0;
-    }
     
     private enum SensorConditionType {
         TOUCHING_BLOCK("Touching Block"),
@@ -7153,6 +7072,69 @@ public class Node {
         return null;
     }
 
+    /**
+     * Evaluates the sensor, completing once slow checks such as rendered-block scans have finished.
+     */
+    public CompletableFuture<Boolean> evaluateSensorAsync() {
+        if (type == NodeType.SENSOR_IS_RENDERED) {
+            return isResourceRendered(resolveRenderedResourceId());
+        }
+        return CompletableFuture.completedFuture(evaluateSensor());
+    }
+
+    private String resolveRenderedResourceId() {
+        String resourceId = getStringParameter(null, ParameterSlots.SENSOR_IS_RENDERED_RESOURCE, "minecraft:stone");
+        Node parameterNode = getAttachedParameterOfType(
+            NodeType.PARAM_BLOCK,
+            NodeType.PARAM_BLOCK_LIST,
+            NodeType.PARAM_ITEM,
+            NodeType.PARAM_ENTITY,
+            NodeType.PARAM_PLAYER,
+            NodeType.PARAM_PLACE_TARGET
+        );
+        if (parameterNode != null) {
+            NodeType parameterType = parameterNode.getType();
+            switch (parameterType) {
+                case PARAM_ITEM: {
+                    String nodeItem = getParameterString(parameterNode, "Item");
+                    if (nodeItem != null && !nodeItem.isEmpty()) {
+                        resourceId = nodeItem;
+                    }
+                    break;
+                }
+                case PARAM_ENTITY: {
+                    String nodeEntity = getParameterString(parameterNode, "Entity");
+                    if (nodeEntity != null && !nodeEntity.isEmpty()) {
+                        resourceId = nodeEntity;
+                    }
+                    break;
+                }
+                case PARAM_PLAYER: {
+                    String nodePlayer = getParameterString(parameterNode, "Player");
+                    if (nodePlayer != null && !nodePlayer.isEmpty()) {
+                        resourceId = nodePlayer;
+                    }
+                    break;
+                }
+                case PARAM_BLOCK_LIST: {
+                    String nodeBlocks = getParameterString(parameterNode, "Blocks");
+                    if (nodeBlocks != null && !nodeBlocks.isEmpty()) {
+                        resourceId = nodeBlocks;
+                    }
+                    break;
+                }
+                default: {
+                    String nodeBlock = getParameterString(parameterNode, "Block");
+                    if (nodeBlock != null && !nodeBlock.isEmpty()) {
+                        resourceId = nodeBlock;
+                    }
+                    break;
+                }
+            }
+        }
+        return resourceId;
+    }
+
     public boolean evaluateSensor() {
         if (!isSensorNode()) {
             return false;
@@ -7222,7 +7204,7 @@ public class Node {
                 break;
             }
             case SENSOR_LIGHT_LEVEL_BELOW: {
-                int threshold = MathHelper.clamp(getIntParameter("Threshold", 7), 0, 15);
+                int threshold = MathHelper.clamp(getIntParameter(null, ParameterSlots.SENSOR_LIGHT_LEVEL_BELOW_THRESHOLD, 7), 0, 15);
                 result = isLightLevelBelow(threshold);
                 break;
             }
@@ -7233,12 +7215,12 @@ public class Node {
                 result = isRaining();
                 break;
             case SENSOR_HEALTH_BELOW: {
-                double amount = MathHelper.clamp(getDoubleParameter("Amount", 10.0), 0.0, 40.0);
+                double amount = MathHelper.clamp(getDoubleParameter(null, ParameterSlots.SENSOR_HEALTH_BELOW_AMOUNT, 10.0), 0.0, 40.0);
                 result = isHealthBelow(amount);
                 break;
             }
             case SENSOR_HUNGER_BELOW: {
-                int amount = MathHelper.clamp(getIntParameter("Amount", 10), 0, 20);
+                int amount = MathHelper.clamp(getIntParameter(null, ParameterSlots.SENSOR_HUNGER_BELOW_AMOUNT, 10), 0, 20);
                 result = isHungerBelow(amount);
                 break;
             }
@@ -7278,61 +7260,13 @@ public class Node {
                 result = isUnderwater();
                 break;
             case SENSOR_IS_FALLING: {
-                double distance = Math.max(0.0, getDoubleParameter("Distance", 2.0));
+                double distance = Math.max(0.0, getDoubleParameter(null, ParameterSlots.SENSOR_IS_FALLING_DISTANCE, 2.0));
                 result = isFalling(distance);
                 break;
             }
             case SENSOR_IS_RENDERED: {
-                String resourceId = getStringParameter("Resource", "minecraft:stone");
-                Node parameterNode = getAttachedParameterOfType(
-                    NodeType.PARAM_BLOCK,
-                    NodeType.PARAM_BLOCK_LIST,
-                    NodeType.PARAM_ITEM,
-                    NodeType.PARAM_ENTITY,
-                    NodeType.PARAM_PLAYER,
-                    NodeType.PARAM_PLACE_TARGET
-                );
-                if (parameterNode != null) {
-                    NodeType parameterType = parameterNode.getType();
-                    switch (parameterType) {
-                        case PARAM_ITEM: {
-                            String nodeItem = getParameterString(parameterNode, "Item");
-                            if (nodeItem != null && !nodeItem.isEmpty()) {
-                                resourceId = nodeItem;
-                            }
-                            break;
-                        }
-                        case PARAM_ENTITY: {
-                            String nodeEntity = getParameterString(parameterNode, "Entity");
-                            if (nodeEntity != null && !nodeEntity.isEmpty()) {
-                                resourceId = nodeEntity;
-                            }
-                            break;
-                        }
-                        case PARAM_PLAYER: {
-                            String nodePlayer = getParameterString(parameterNode, "Player");
-                            if (nodePlayer != null && !nodePlayer.isEmpty()) {
-                                resourceId = nodePlayer;
-                            }
-                            break;
-                        }
-                        case PARAM_BLOCK_LIST: {
-                            String nodeBlocks = getParameterString(parameterNode, "Blocks");
-                            if (nodeBlocks != null && !nodeBlocks.isEmpty()) {
-                                resourceId = nodeBlocks;
-                            }
-                            break;
-                        }
-                        default: {
-                            String nodeBlock = getParameterString(parameterNode, "Block");
-                            if (nodeBlock != null && !nodeBlock.isEmpty()) {
-                                resourceId = nodeBlock;
-                            }
-                            break;
-                        }
-                    }
-                }
-                result = isResourceRendered(resourceId);
+                // Block scans span ticks; an unfinished one reads as not rendered here
+                result = isResourceRendered(resolveRenderedResourceId()).getNow(Boolean.FALSE);
                 break;
             }
             default:
@@ -7340,15 +7274,12 @@ public class Node {
                 break;
         }
 
-        this.lastSensorResult = result;
         return result;
     }
 
-    private boolean evaluateConditionFromParameters() {
+    private CompletableFuture<Boolean> evaluateConditionFromParameters() {
         if (attachedSensor != null) {
-            boolean result = attachedSensor.evaluateSensor();
-            this.lastSensorResult = result;
-            return result;
+            return attachedSensor.evaluateSensorAsync();
         }
 
         // Legacy fallback when no sensor is attached
@@ -7359,8 +7290,7 @@ public class Node {
         int y = getIntParameter("Y", 64);
         int z = getIntParameter("Z", 0);
         boolean result = evaluateSensorCondition(SensorConditionType.fromLabel(condition), blockId, entityId, x, y, z);
-        this.lastSensorResult = result;
-        return result;
+        return CompletableFuture.completedFuture(result);
     }
     
     private boolean evaluateSensorCondition(SensorConditionType type, String blockId, String entityId, int x, int y, int z) {
@@ -7397,11 +7327,13 @@ public class Node {
         int minZ = MathHelper.floor(box.minZ);
         int maxZ = MathHelper.floor(box.maxZ);
         BlockPos.Mutable mutable = new BlockPos.Mutable();
+        SensorContext context = SensorContext.get(client);
         for (int bx = minX; bx <= maxX; bx++) {
             for (int by = minY; by <= maxY; by++) {
                 for (int bz = minZ; bz <= maxZ; bz++) {
                     mutable.set(bx, by, bz);
-                    if (client.player.getWorld().getBlockState(mutable).isOf(block)) {
+                    BlockState state = context != null ? context.getBlockState(mutable) : client.player.getWorld().getBlockState(mutable);
+                    if (state.isOf(block)) {
                         return true;
                     }
                 }
@@ -7420,12 +7352,7 @@ public class Node {
             return false;
         }
         EntityType<?> entityType = Registries.ENTITY_TYPE.get(identifier);
-        List<Entity> entities = client.player.getWorld().getOtherEntities(
-            client.player,
-            client.player.getBoundingBox().expand(0.15),
-            entity -> entity.getType() == entityType
-        );
-        return !entities.isEmpty();
+        return hasEntityWithin(client, entityType, 0.15);
     }
     
     private boolean isAtCoordinates(int x, int y, int z) {
@@ -7449,7 +7376,9 @@ public class Node {
         Block block = Registries.BLOCK.get(identifier);
         Direction facing = client.player.getHorizontalFacing();
         BlockPos targetPos = client.player.getBlockPos().offset(facing);
-        return client.player.getWorld().getBlockState(targetPos).isOf(block);
+        SensorContext context = SensorContext.get(client);
+        BlockState state = context != null ? context.getBlockState(targetPos) : client.player.getWorld().getBlockState(targetPos);
+        return state.isOf(block);
     }
 
     private boolean isBlockBelow(String blockId) {
@@ -7463,7 +7392,9 @@ public class Node {
         }
         Block block = Registries.BLOCK.get(identifier);
         BlockPos below = client.player.getBlockPos().down();
-        return client.player.getWorld().getBlockState(below).isOf(block);
+        SensorContext context = SensorContext.get(client);
+        BlockState state = context != null ? context.getBlockState(below) : client.player.getWorld().getBlockState(below);
+        return state.isOf(block);
     }
 
     private boolean isLightLevelBelow(int threshold) {
@@ -7471,6 +7402,10 @@ public class Node {
         if (client == null || client.player == null || client.player.getWorld() == null) {
             return false;
         }
+        SensorContext context = SensorContext.get(client);
+        if (context != null) {
+            return context.getLightLevel() < threshold;
+        }
         BlockPos pos = client.player.getBlockPos();
         return client.player.getWorld().getLightLevel(pos) < threshold;
     }
@@ -7480,6 +7415,10 @@ public class Node {
         if (client == null || client.world == null) {
             return false;
         }
+        SensorContext context = SensorContext.get(client);
+        if (context != null) {
+            return context.isDaytime();
+        }
         long time = client.world.getTimeOfDay() % 24000L;
         return time < 12000L;
     }
@@ -7489,6 +7428,10 @@ public class Node {
         if (client == null || client.world == null || client.player == null) {
             return false;
         }
+        SensorContext context = SensorContext.get(client);
+        if (context != null) {
+            return context.isRaining();
+        }
         return client.world.isRaining() || client.world.hasRain(client.player.getBlockPos());
     }
 
@@ -7497,7 +7440,8 @@ public class Node {
         if (client == null || client.player == null) {
             return false;
         }
-        return client.player.getHealth() < amount;
+        SensorContext context = SensorContext.get(client);
+        return (context != null ? context.getHealth() : client.player.getHealth()) < amount;
     }
 
     private boolean isHungerBelow(int amount) {
@@ -7505,7 +7449,8 @@ public class Node {
         if (client == null || client.player == null) {
             return false;
         }
-        return client.player.getHungerManager().getFoodLevel() < amount;
+        SensorContext context = SensorContext.get(client);
+        return (context != null ? context.getFoodLevel() : client.player.getHungerManager().getFoodLevel()) < amount;
     }
 
     private boolean isEntityNearby(String entityId, double range) {
@@ -7518,13 +7463,19 @@ public class Node {
             return false;
         }
         EntityType<?> entityType = Registries.ENTITY_TYPE.get(identifier);
-        Box searchBox = client.player.getBoundingBox().expand(range);
-        List<Entity> entities = client.player.getWorld().getOtherEntities(
+        return hasEntityWithin(client, entityType, range);
+    }
+
+    private boolean hasEntityWithin(net.minecraft.client.MinecraftClient client, EntityType<?> entityType, double range) {
+        SensorContext context = SensorContext.get(client);
+        if (context != null) {
+            return context.hasEntityWithin(entityType, range);
+        }
+        return !client.player.getWorld().getOtherEntities(
             client.player,
-            searchBox,
+            client.player.getBoundingBox().expand(range),
             entity -> entity.getType() == entityType
-        );
-        return !entities.isEmpty();
+        ).isEmpty();
     }
 
     private boolean hasItemInInventory(String itemId) {
@@ -7537,109 +7488,67 @@ public class Node {
             return false;
         }
         net.minecraft.item.Item item = Registries.ITEM.get(identifier);
-        return client.player.getInventory().count(item) > 0;
+        SensorContext context = SensorContext.get(client);
+        if (context != null) {
+            return context.countItem(item) > 0;
+        }
+        return InventoryIndex.getInstance().count(client.player.getInventory(), item) > 0;
     }
 
-    private boolean isResourceRendered(String resourceId) {
+    private CompletableFuture<Boolean> isResourceRendered(String resourceId) {
         net.minecraft.client.MinecraftClient client = net.minecraft.client.MinecraftClient.getInstance();
         if (client == null || client.player == null || client.world == null || resourceId == null || resourceId.isEmpty()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         String trimmed = resourceId.trim();
         if (trimmed.isEmpty()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         if (trimmed.indexOf(',') >= 0) {
-            String[] parts = trimmed.split(",");
-            for (String part : parts) {
-                if (part != null && !part.trim().isEmpty() && isResourceRendered(part.trim())) {
-                    return true;
+            // Check entries one after another and stop at the first rendered one
+            CompletableFuture<Boolean> rendered = CompletableFuture.completedFuture(false);
+            for (String part : trimmed.split(",")) {
+                if (part == null || part.trim().isEmpty()) {
+                    continue;
                 }
+                String entry = part.trim();
+                rendered = rendered.thenCompose(found -> found
+                    ? CompletableFuture.completedFuture(true)
+                    : isSingleResourceRendered(client, entry));
             }
-            return false;
+            return rendered;
         }
         return isSingleResourceRendered(client, trimmed);
     }
 
-    private boolean isSingleResourceRendered(net.minecraft.client.MinecraftClient client, String resourceId) {
+    private CompletableFuture<Boolean> isSingleResourceRendered(net.minecraft.client.MinecraftClient client, String resourceId) {
         if (client == null || client.player == null || client.world == null || resourceId == null || resourceId.isEmpty()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         String normalized = resourceId.contains(":")
             ? resourceId.toLowerCase(Locale.ROOT)
             : resourceId;
+        RenderedResourceSensor sensor = RenderedResourceSensor.getInstance();
         Identifier identifier = Identifier.tryParse(normalized);
-        if (identifier != null) {
-            if (Registries.BLOCK.containsId(identifier)) {
-                Block block = Registries.BLOCK.get(identifier);
-                return isBlockRendered(client, block);
-            }
-            if (Registries.ITEM.containsId(identifier)) {
-                Item item = Registries.ITEM.get(identifier);
-                return isItemRendered(client, item);
-            }
-            if (Registries.ENTITY_TYPE.containsId(identifier)) {
-                EntityType<?> entityType = Registries.ENTITY_TYPE.get(identifier);
-                return isEntityRendered(client, entityType);
-            }
-        }
-        return isPlayerRendered(client, resourceId);
-    }
-
-    private boolean isBlockRendered(net.minecraft.client.MinecraftClient client, Block block) {
-        if (client == null || client.player == null || client.world == null || block == null) {
-            return false;
-        }
-
-        HitResult hitResult = client.crosshairTarget;
-        if (hitResult instanceof BlockHitResult blockHit) {
-            BlockPos hitPos = blockHit.getBlockPos();
-            if (client.world.getBlockState(hitPos).isOf(block)) {
-                return true;
-            }
-        }
-
-        BlockPos playerPos = client.player.getBlockPos();
-        int viewDistance = client.options.getViewDistance().getValue();
-        int horizontalRadius = MathHelper.clamp(viewDistance * 4, 8, 48);
-        int verticalRadius = MathHelper.clamp(viewDistance * 2, 6, 32);
-        BlockPos.Mutable mutable = new BlockPos.Mutable();
-
-        for (int dx = -horizontalRadius; dx <= horizontalRadius; dx++) {
-            for (int dy = -verticalRadius; dy <= verticalRadius; dy++) {
-                for (int dz = -horizontalRadius; dz <= horizontalRadius; dz++) {
-                    mutable.set(playerPos.getX() + dx, playerPos.getY() + dy, playerPos.getZ() + dz);
-                    BlockState state = client.world.getBlockState(mutable);
-                    if (state.isOf(block) && isBlockVisible(client, mutable)) {
-                        return true;
-                    }
-                }
-            }
+        if (identifier != null && Registries.BLOCK.containsId(identifier)) {
+            // Block checks are budgeted across ticks and cache themselves once finished
+            return sensor.checkBlockRendered(client, normalized, Registries.BLOCK.get(identifier));
         }
-        return false;
-    }
 
-    private boolean isBlockVisible(net.minecraft.client.MinecraftClient client, BlockPos pos) {
-        if (client == null || client.player == null || client.world == null) {
-            return false;
-        }
-        Vec3d cameraPos = client.gameRenderer.getCamera().getPos();
-        Vec3d target = Vec3d.ofCenter(pos);
-        RaycastContext context = new RaycastContext(
-            cameraPos,
-            target,
-            RaycastContext.ShapeType.COLLIDER,
-            RaycastContext.FluidHandling.NONE,
-            client.player
-        );
-        BlockHitResult hit = client.world.raycast(context);
-        if (hit == null) {
-            return false;
+        Boolean cached = sensor.getCachedResult(normalized);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
         }
-        if (hit.getType() == HitResult.Type.MISS) {
-            return true;
+        boolean rendered;
+        if (identifier != null && Registries.ITEM.containsId(identifier)) {
+            rendered = isItemRendered(client, Registries.ITEM.get(identifier));
+        } else if (identifier != null && Registries.ENTITY_TYPE.containsId(identifier)) {
+            rendered = isEntityRendered(client, Registries.ENTITY_TYPE.get(identifier));
+        } else {
+            rendered = isPlayerRendered(client, resourceId);
         }
-        return hit.getType() == HitResult.Type.BLOCK && hit.getBlockPos().equals(pos);
+        sensor.cacheResult(normalized, rendered);
+        return CompletableFuture.completedFuture(rendered);
     }
 
     private boolean isItemRendered(net.minecraft.client.MinecraftClient client, Item item) {
@@ -8,33 +8,30 @@ public class NodeParameter {
     private final String name;
     private final ParameterType type;
     private String stringValue;
-    private int intValue;
-    private double doubleValue;
-    private boolean boolValue;
+    // Primitive form of the value for INTEGER (the int), DOUBLE (raw double bits) and BOOLEAN (0 or 1)
+    private long bits;
 
     public NodeParameter(String name, ParameterType type, String defaultValue) {
         this.name = name;
         this.type = type;
         this.stringValue = defaultValue;
-        this.intValue = 0;
-        this.doubleValue = 0.0;
-        this.boolValue = false;
+        this.bits = 0L;
         
         // Try to parse the default value based on type
         if (type == ParameterType.INTEGER) {
             try {
-                this.intValue = Integer.parseInt(defaultValue);
+                this.bits = Integer.parseInt(defaultValue);
             } catch (NumberFormatException e) {
-                this.intValue = 0;
+                this.bits = 0L;
             }
         } else if (type == ParameterType.DOUBLE) {
             try {
-                this.doubleValue = Double.parseDouble(defaultValue);
-            } catch (NumberFormatException e) {
-                this.doubleValue = 0.0;
+                this.bits = Double.doubleToRawLongBits(Double.parseDouble(defaultValue));
+            } catch (NumberFormatException | NullPointerException e) {
+                this.bits = Double.doubleToRawLongBits(0.0);
             }
         } else if (type == ParameterType.BOOLEAN) {
-            this.boolValue = Boolean.parseBoolean(defaultValue);
+            this.bits = Boolean.parseBoolean(defaultValue) ? 1L : 0L;
         }
     }
 
@@ -56,56 +53,113 @@ public class NodeParameter {
         // Update typed values
         if (type == ParameterType.INTEGER) {
             try {
-                this.intValue = Integer.parseInt(value);
+                this.bits = Integer.parseInt(value);
             } catch (NumberFormatException e) {
-                // Keep current intValue if parsing fails
+                // Keep current value if parsing fails
             }
         } else if (type == ParameterType.DOUBLE) {
             try {
-                this.doubleValue = Double.parseDouble(value);
-            } catch (NumberFormatException e) {
-                // Keep current doubleValue if parsing fails
+                this.bits = Double.doubleToRawLongBits(Double.parseDouble(value));
+            } catch (NumberFormatException | NullPointerException e) {
+                // Keep current value if parsing fails
             }
         } else if (type == ParameterType.BOOLEAN) {
-            this.boolValue = Boolean.parseBoolean(value);
+            this.bits = Boolean.parseBoolean(value) ? 1L : 0L;
         }
     }
 
     public int getIntValue() {
-        return intValue;
+        return asInt(0);
     }
 
     public void setIntValue(int value) {
-        this.intValue = value;
         this.stringValue = String.valueOf(value);
+        if (type == ParameterType.INTEGER) {
+            this.bits = value;
+        } else {
+            setStringValue(stringValue);
+        }
     }
 
     public double getDoubleValue() {
-        return doubleValue;
+        return asDouble(0.0);
     }
 
     public void setDoubleValue(double value) {
-        this.doubleValue = value;
         this.stringValue = String.valueOf(value);
+        if (type == ParameterType.DOUBLE) {
+            this.bits = Double.doubleToRawLongBits(value);
+        } else {
+            setStringValue(stringValue);
+        }
     }
 
     public boolean getBoolValue() {
-        return boolValue;
+        return asBoolean(false);
     }
 
     public void setBoolValue(boolean value) {
-        this.boolValue = value;
         this.stringValue = String.valueOf(value);
+        if (type == ParameterType.BOOLEAN) {
+            this.bits = value ? 1L : 0L;
+        } else {
+            setStringValue(stringValue);
+        }
+    }
+
+    /**
+     * The value as an int. INTEGER parameters answer from the stored primitive; other types parse
+     * the string form and fall back to {@code defaultValue}.
+     */
+    public int asInt(int defaultValue) {
+        if (type == ParameterType.INTEGER) {
+            return (int) bits;
+        }
+        if (stringValue == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(stringValue);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * The value as a double, parsed from the string form unless this is a DOUBLE parameter.
+     */
+    public double asDouble(double defaultValue) {
+        if (type == ParameterType.DOUBLE) {
+            return Double.longBitsToDouble(bits);
+        }
+        if (stringValue == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(stringValue);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * The value as a boolean, parsed from the string form unless this is a BOOLEAN parameter.
+     */
+    public boolean asBoolean(boolean defaultValue) {
+        if (type == ParameterType.BOOLEAN) {
+            return bits != 0L;
+        }
+        return stringValue != null ? Boolean.parseBoolean(stringValue) : defaultValue;
     }
 
     public String getDisplayValue() {
         switch (type) {
             case INTEGER:
-                return String.valueOf(intValue);
+                return String.valueOf((int) bits);
             case DOUBLE:
-                return String.format("%.2f", doubleValue);
+                return String.format("%.2f", Double.longBitsToDouble(bits));
             case BOOLEAN:
-                return boolValue ? "True" : "False";
+                return bits != 0L ? "True" : "False";
             case STRING:
             default:
                 return stringValue;
@@ -0,0 +1,126 @@
+package com.pathmind.nodes;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed slot layout of a node's parameter list. Every (node type, mode) pair has one shared
+ * schema, built from the first default parameter list created for it, that maps each parameter
+ * name to its index in the list. Lookups go through a hash of the (usually literal, so already
+ * hashed) name instead of scanning the list with {@code equals}. A node's schema always describes
+ * its current list, so a name lookup is a single probe. Lists restored in another layout get their
+ * own schema, which also maps the default slots ({@link ParameterSlots}) to their own indices.
+ */
+final class ParameterSchema {
+    private static final int MODE_SLOTS = NodeMode.values().length + 1;
+    private static final AtomicReferenceArray<ParameterSchema> DEFAULTS =
+        new AtomicReferenceArray<>(NodeType.values().length * MODE_SLOTS);
+    private static final ParameterSchema EMPTY = new ParameterSchema(new String[0], null);
+
+    private final String[] names;
+    private final Object2IntOpenHashMap<String> slots;
+    // Index of each default slot in this list, or null when this is the default layout itself
+    private final int[] defaultSlots;
+
+    private ParameterSchema(String[] names, ParameterSchema defaults) {
+        this.names = names;
+        this.slots = new Object2IntOpenHashMap<>(Math.max(2, names.length));
+        this.slots.defaultReturnValue(-1);
+        // Keep the first slot when a saved list repeats a name, matching the old linear scan
+        for (int i = names.length - 1; i >= 0; i--) {
+            slots.put(names[i], i);
+        }
+        if (defaults == null) {
+            this.defaultSlots = null;
+        } else {
+            this.defaultSlots = new int[defaults.names.length];
+            for (int i = 0; i < defaultSlots.length; i++) {
+                defaultSlots[i] = slotOf(defaults.names[i]);
+            }
+        }
+    }
+
+    /**
+     * Shared schema for a node type and mode, created from {@code defaults} the first time the pair is seen.
+     */
+    static ParameterSchema forDefaults(NodeType type, NodeMode mode, List<NodeParameter> defaults) {
+        if (type == null) {
+            return of(defaults, null);
+        }
+        int key = key(type, mode);
+        ParameterSchema schema = DEFAULTS.get(key);
+        if (schema != null && schema.matches(defaults)) {
+            return schema;
+        }
+        ParameterSchema built = of(defaults, null);
+        // Nodes may be built in parallel during hydration; a lost race just leaves an identical schema
+        DEFAULTS.compareAndSet(key, null, built);
+        return built;
+    }
+
+    /**
+     * Schema for a list that replaced a node's defaults, such as one restored verbatim from a save:
+     * the shared default schema when the layout matches, otherwise one built for the list that maps
+     * the default slots by name. Call {@link #forDefaults} for the pair first.
+     */
+    static ParameterSchema forList(NodeType type, NodeMode mode, List<NodeParameter> parameters) {
+        ParameterSchema defaults = type != null ? DEFAULTS.get(key(type, mode)) : null;
+        if (defaults != null && defaults.matches(parameters)) {
+            return defaults;
+        }
+        // Without a known default layout no slot can be mapped; map against the empty one
+        return of(parameters, defaults != null ? defaults : EMPTY);
+    }
+
+    private static ParameterSchema of(List<NodeParameter> parameters, ParameterSchema defaults) {
+        if ((parameters == null || parameters.isEmpty()) && (defaults == null || defaults.names.length == 0)) {
+            return EMPTY;
+        }
+        int size = parameters != null ? parameters.size() : 0;
+        String[] names = new String[size];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = parameters.get(i).getName();
+        }
+        return new ParameterSchema(names, defaults);
+    }
+
+    private static int key(NodeType type, NodeMode mode) {
+        return type.ordinal() * MODE_SLOTS + (mode != null ? mode.ordinal() + 1 : 0);
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Slot index of the named parameter, or -1 when the schema has no such parameter.
+     */
+    int slotOf(String name) {
+        return name != null ? slots.getInt(name) : -1;
+    }
+
+    /**
+     * Index in this list of the given default slot, or -1 when the list has no such parameter.
+     */
+    int resolve(int defaultSlot) {
+        if (defaultSlots == null) {
+            return defaultSlot >= 0 && defaultSlot < names.length ? defaultSlot : -1;
+        }
+        return defaultSlot >= 0 && defaultSlot < defaultSlots.length ? defaultSlots[defaultSlot] : -1;
+    }
+
+    private boolean matches(List<NodeParameter> parameters) {
+        if (parameters == null || parameters.size() != names.length) {
+            return false;
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (!Objects.equals(names[i], parameters.get(i).getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
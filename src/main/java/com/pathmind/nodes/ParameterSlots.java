@@ -0,0 +1,158 @@
+package com.pathmind.nodes;
+
+/**
+ * Slot indices into the default parameter layout of each node type and mode, as built by
+ * {@code Node.addDefaultParameters}. Executors read parameters through these instead of by name;
+ * a node whose list was restored in another layout maps them through its {@link ParameterSchema}.
+ * Keep each group in the same order as the parameters it describes.
+ */
+final class ParameterSlots {
+    // GOTO modes
+    static final int GOTO_XYZ_X = 0;
+    static final int GOTO_XYZ_Y = 1;
+    static final int GOTO_XYZ_Z = 2;
+    static final int GOTO_XZ_X = 0;
+    static final int GOTO_XZ_Z = 1;
+    static final int GOTO_Y_Y = 0;
+    static final int GOTO_BLOCK_BLOCK = 0;
+
+    // GOAL modes
+    static final int GOAL_XYZ_X = 0;
+    static final int GOAL_XYZ_Y = 1;
+    static final int GOAL_XYZ_Z = 2;
+    static final int GOAL_XZ_X = 0;
+    static final int GOAL_XZ_Z = 1;
+    static final int GOAL_Y_Y = 0;
+
+    // COLLECT modes
+    static final int COLLECT_SINGLE_AMOUNT = 1;
+
+    // BUILD modes; both start with the schematic
+    static final int BUILD_SCHEMATIC = 0;
+    static final int BUILD_XYZ_X = 1;
+    static final int BUILD_XYZ_Y = 2;
+    static final int BUILD_XYZ_Z = 3;
+
+    // EXPLORE modes
+    static final int EXPLORE_XYZ_X = 0;
+    static final int EXPLORE_XYZ_Z = 1;
+    static final int EXPLORE_FILTER_FILTER = 0;
+
+    // FOLLOW modes
+    static final int FOLLOW_PLAYER_PLAYER = 0;
+    static final int FOLLOW_ENTITY_TYPE_ENTITY = 0;
+
+    // CRAFT modes share one layout
+    static final int CRAFT_ITEM = 0;
+    static final int CRAFT_AMOUNT = 1;
+
+    // FARM modes
+    static final int FARM_RANGE_RANGE = 0;
+    static final int FARM_WAYPOINT_WAYPOINT = 0;
+    static final int FARM_WAYPOINT_RANGE = 1;
+
+    static final int PLACE_BLOCK = 0;
+    static final int PLACE_X = 1;
+    static final int PLACE_Y = 2;
+    static final int PLACE_Z = 3;
+
+    static final int WAIT_DURATION = 0;
+    static final int WAIT_MINIMUM_DURATION_SECONDS = 1;
+    static final int WAIT_RANDOM_VARIANCE_SECONDS = 2;
+
+    static final int MESSAGE_TEXT = 0;
+
+    static final int HOTBAR_SLOT = 0;
+    static final int HOTBAR_ITEM = 1;
+
+    static final int DROP_ITEM_ALL = 0;
+    static final int DROP_ITEM_COUNT = 1;
+    static final int DROP_ITEM_INTERVAL_SECONDS = 2;
+
+    static final int DROP_SLOT_SLOT = 0;
+    static final int DROP_SLOT_COUNT = 1;
+    static final int DROP_SLOT_ENTIRE_STACK = 2;
+
+    static final int MOVE_ITEM_SOURCE_SLOT = 0;
+    static final int MOVE_ITEM_TARGET_SLOT = 1;
+    static final int MOVE_ITEM_COUNT = 2;
+
+    static final int CLEAR_SLOT_SLOT = 0;
+    static final int CLEAR_SLOT_DROP_ITEMS = 1;
+
+    static final int EQUIP_ARMOR_SOURCE_SLOT = 0;
+    static final int EQUIP_ARMOR_ARMOR_SLOT = 1;
+
+    static final int UNEQUIP_ARMOR_ARMOR_SLOT = 0;
+    static final int UNEQUIP_ARMOR_TARGET_SLOT = 1;
+    static final int UNEQUIP_ARMOR_DROP_IF_FULL = 2;
+
+    static final int EQUIP_HAND_SOURCE_SLOT = 0;
+    static final int EQUIP_HAND_HAND = 1;
+
+    static final int UNEQUIP_HAND_HAND = 0;
+    static final int UNEQUIP_HAND_TARGET_SLOT = 1;
+    static final int UNEQUIP_HAND_DROP_IF_FULL = 2;
+
+    static final int USE_HAND = 0;
+    static final int USE_DURATION_SECONDS = 1;
+    static final int USE_REPEAT_COUNT = 2;
+    static final int USE_INTERVAL_SECONDS = 3;
+    static final int USE_STOP_IF_UNAVAILABLE = 4;
+    static final int USE_UNTIL_EMPTY = 5;
+    static final int USE_ALLOW_BLOCK_INTERACTION = 6;
+    static final int USE_ALLOW_ENTITY_INTERACTION = 7;
+    static final int USE_SWING_AFTER_USE = 8;
+    static final int USE_SNEAK_WHILE_USING = 9;
+    static final int USE_RESTORE_SNEAK_STATE = 10;
+
+    static final int INTERACT_HAND = 0;
+    static final int INTERACT_BLOCK = 1;
+    static final int INTERACT_PREFER_ENTITY = 2;
+    static final int INTERACT_PREFER_BLOCK = 3;
+    static final int INTERACT_FALLBACK_TO_ITEM_USE = 4;
+    static final int INTERACT_SWING_ON_SUCCESS = 5;
+    static final int INTERACT_SNEAK_WHILE_INTERACTING = 6;
+    static final int INTERACT_RESTORE_SNEAK_STATE = 7;
+
+    static final int PLACE_HAND_HAND = 0;
+    static final int PLACE_HAND_SNEAK_WHILE_PLACING = 1;
+    static final int PLACE_HAND_SWING_ON_PLACE = 2;
+    static final int PLACE_HAND_REQUIRE_BLOCK_HIT = 3;
+    static final int PLACE_HAND_RESTORE_SNEAK_STATE = 4;
+
+    static final int ATTACK_HAND = 0;
+    static final int ATTACK_SWING_ONLY = 1;
+    static final int ATTACK_ENTITIES = 2;
+    static final int ATTACK_BLOCKS = 3;
+    static final int ATTACK_REPEAT_COUNT = 4;
+    static final int ATTACK_INTERVAL_SECONDS = 5;
+    static final int ATTACK_SNEAK_WHILE_ATTACKING = 6;
+    static final int ATTACK_RESTORE_SNEAK_STATE = 7;
+
+    static final int LOOK_YAW = 0;
+    static final int LOOK_PITCH = 1;
+
+    static final int TURN_YAW_OFFSET = 0;
+    static final int TURN_PITCH_OFFSET = 1;
+
+    static final int JUMP_COUNT = 0;
+    static final int JUMP_INTERVAL_SECONDS = 1;
+
+    static final int CROUCH_ACTIVE = 0;
+    static final int CROUCH_TOGGLE_KEY = 1;
+
+    static final int SPRINT_ACTIVE = 0;
+    static final int SPRINT_ALLOW_FLYING = 1;
+
+    static final int CONTROL_REPEAT_COUNT = 0;
+
+    static final int SENSOR_LIGHT_LEVEL_BELOW_THRESHOLD = 0;
+    static final int SENSOR_HEALTH_BELOW_AMOUNT = 0;
+    static final int SENSOR_HUNGER_BELOW_AMOUNT = 0;
+    static final int SENSOR_IS_FALLING_DISTANCE = 0;
+    static final int SENSOR_IS_RENDERED_RESOURCE = 0;
+
+    private ParameterSlots() {
+    }
+}
@@ -0,0 +1,194 @@
+package com.pathmind.nodes;
+
+import com.pathmind.util.InventoryIndex;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.item.Item;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Box;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the world state that sensors read, built lazily and shared by every sensor
+ * evaluated during the same client tick. Each value is computed on first use and the snapshot
+ * is dropped once at the end of every tick. Entities are looked up with bounded box queries
+ * around the player, one per entity type, widened only when a sensor asks for a larger range.
+ */
+public final class SensorContext {
+    private static SensorContext current;
+    private static long lookupCount;
+    private static long hitCount;
+
+    private final ClientPlayerEntity player;
+    private final ClientWorld world;
+    private final Long2ObjectOpenHashMap<BlockState> blockStates = new Long2ObjectOpenHashMap<>();
+    private Map<Item, Integer> itemCounts;
+    private final Map<EntityType<?>, EntityBucket> entitiesByType = new HashMap<>();
+    private Boolean daytime;
+    private Boolean raining;
+    private Integer lightLevel;
+    private Float health;
+    private Integer foodLevel;
+
+    private static final class EntityBucket {
+        private final double range;
+        private final List<Entity> entities;
+
+        private EntityBucket(double range, List<Entity> entities) {
+            this.range = range;
+            this.entities = entities;
+        }
+    }
+
+    private SensorContext(ClientPlayerEntity player, ClientWorld world) {
+        this.player = player;
+        this.world = world;
+    }
+
+    /**
+     * Returns the snapshot for the current tick, or null when sensors must read the world directly
+     * (no player/world, or called off the client thread).
+     */
+    static SensorContext get(MinecraftClient client) {
+        if (client == null || client.player == null || client.world == null || !client.isOnThread()) {
+            return null;
+        }
+        SensorContext context = current;
+        if (context == null || context.player != client.player || context.world != client.world) {
+            context = new SensorContext(client.player, client.world);
+            current = context;
+        }
+        return context;
+    }
+
+    /**
+     * Drop the snapshot so the next sensor evaluation rebuilds it.
+     */
+    public static void invalidate() {
+        current = null;
+    }
+
+    ClientPlayerEntity getPlayer() {
+        return player;
+    }
+
+    BlockState getBlockState(BlockPos pos) {
+        long key = pos.asLong();
+        BlockState state = blockStates.get(key);
+        if (state != null) {
+            recordLookup(true);
+            return state;
+        }
+        recordLookup(false);
+        state = world.getBlockState(pos);
+        blockStates.put(key, state);
+        return state;
+    }
+
+    int countItem(Item item) {
+        Integer cached = itemCounts != null ? itemCounts.get(item) : null;
+        recordLookup(cached != null);
+        if (cached != null) {
+            return cached;
+        }
+        if (itemCounts == null) {
+            itemCounts = new HashMap<>();
+        }
+        int count = InventoryIndex.getInstance().count(player.getInventory(), item);
+        itemCounts.put(item, count);
+        return count;
+    }
+
+    /**
+     * Other entities of the given type whose bounding box intersects the player's box expanded by
+     * {@code range}. Each type is queried once per tick with the largest range asked for so far;
+     * smaller ranges are filtered from that result.
+     */
+    boolean hasEntityWithin(EntityType<?> type, double range) {
+        EntityBucket bucket = entitiesByType.get(type);
+        boolean hit = bucket != null && bucket.range >= range;
+        recordLookup(hit);
+        Box searchBox = player.getBoundingBox().expand(range);
+        if (!hit) {
+            List<Entity> entities = world.getOtherEntities(player, searchBox, entity -> entity.getType() == type);
+            entitiesByType.put(type, new EntityBucket(range, entities));
+            return !entities.isEmpty();
+        }
+        for (Entity entity : bucket.entities) {
+            if (entity.getBoundingBox().intersects(searchBox)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isDaytime() {
+        recordLookup(daytime != null);
+        if (daytime == null) {
+            daytime = world.getTimeOfDay() % 24000L < 12000L;
+        }
+        return daytime;
+    }
+
+    boolean isRaining() {
+        recordLookup(raining != null);
+        if (raining == null) {
+            raining = world.isRaining() || world.hasRain(player.getBlockPos());
+        }
+        return raining;
+    }
+
+    int getLightLevel() {
+        recordLookup(lightLevel != null);
+        if (lightLevel == null) {
+            lightLevel = world.getLightLevel(player.getBlockPos());
+        }
+        return lightLevel;
+    }
+
+    float getHealth() {
+        recordLookup(health != null);
+        if (health == null) {
+            health = player.getHealth();
+        }
+        return health;
+    }
+
+    int getFoodLevel() {
+        recordLookup(foodLevel != null);
+        if (foodLevel == null) {
+            foodLevel = player.getHungerManager().getFoodLevel();
+        }
+        return foodLevel;
+    }
+
+    private static void recordLookup(boolean hit) {
+        lookupCount++;
+        if (hit) {
+            hitCount++;
+        }
+    }
+
+    public static long getLookupCount() {
+        return lookupCount;
+    }
+
+    public static long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the share of sensor lookups answered from an existing snapshot, between 0 and 1.
+     */
+    public static double getHitRate() {
+        return lookupCount == 0 ? 0.0 : (double) hitCount / lookupCount;
+    }
+}
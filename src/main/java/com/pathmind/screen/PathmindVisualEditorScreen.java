@@ -1,7 +1,10 @@
 package com.pathmind.screen;
 
 import com.pathmind.PathmindMod;
+import com.pathmind.data.GraphAutoSaveService;
+import com.pathmind.data.NodeGraphData;
 import com.pathmind.data.NodeGraphPersistence;
+import com.pathmind.data.PresetLibrary;
 import com.pathmind.data.PresetManager;
 import com.pathmind.execution.ExecutionManager;
 import com.pathmind.nodes.Node;
@@ -26,8 +29,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The main visual editor screen for Pathmind.
@@ -48,6 +54,7 @@ public class PathmindVisualEditorScreen extends Screen {
     private static final int BOTTOM_BUTTON_SIZE = 18;
     private static final int BOTTOM_BUTTON_MARGIN = 6;
     private static final int BOTTOM_BUTTON_SPACING = 6;
+    private static final long[] NODE_DELAY_STEPS_MS = {0L, 50L, 150L, 250L, 500L, 1000L};
     private static final int PRESET_DROPDOWN_WIDTH = 160;
     private static final int PRESET_DROPDOWN_HEIGHT = 18;
     private static final int PRESET_DROPDOWN_MARGIN = 8;
@@ -66,6 +73,8 @@ public class PathmindVisualEditorScreen extends Screen {
     private static final int ZOOM_BUTTON_SIZE = 14;
     private static final int ZOOM_BUTTON_MARGIN = 6;
     private static final int ZOOM_BUTTON_SPACING = 4;
+    private static final int MINIMAP_WIDTH = 120;
+    private static final int MINIMAP_HEIGHT = 80;
     private static final int INFO_POPUP_WIDTH = 320;
     private static final int INFO_POPUP_HEIGHT = 180;
     private static final int TITLE_INTERACTION_PADDING = 4;
@@ -89,7 +98,12 @@ public class PathmindVisualEditorScreen extends Screen {
     private int importExportStatusColor = 0xFFCCCCCC;
 
     private boolean presetDropdownOpen = false;
+    private long presetLibraryVersion = -1L;
+    private CompletableFuture<NodeGraphData> pendingPresetLoad;
+    private String pendingPresetName;
     private List<String> availablePresets = new ArrayList<>();
+    private List<String> visiblePresets = availablePresets;
+    private String presetFilter = "";
     private String activePresetName = "";
     private boolean createPresetPopupVisible = false;
     private TextFieldWidget createPresetField;
@@ -142,9 +156,23 @@ public class PathmindVisualEditorScreen extends Screen {
         nodeGraph.initializeWithScreenDimensions(this.width, this.height, sidebar.getWidth(), TITLE_BAR_HEIGHT);
     }
 
+    private long lastBackgroundSaveMs = 0L;
+
     @Override
     public void tick() {
         super.tick();
+        // Persist edits in the background so a crash between opens loses at most one debounce window
+        long now = System.currentTimeMillis();
+        if (nodeGraph.needsSave() && now - lastBackgroundSaveMs >= GraphAutoSaveService.DEBOUNCE_MS) {
+            lastBackgroundSaveMs = now;
+            nodeGraph.saveAsync(true);
+        }
+        if (pendingPresetLoad != null && pendingPresetLoad.isDone()) {
+            finishPresetLoad();
+        }
+        if (PresetLibrary.getInstance().getVersion() != presetLibraryVersion) {
+            refreshAvailablePresets();
+        }
     }
 
     @Override
@@ -185,6 +213,7 @@ public class PathmindVisualEditorScreen extends Screen {
         }
         
         boolean controlsDisabled = isPopupObscuringWorkspace();
+        nodeGraph.renderMinimap(context, getMinimapX(), getMinimapY(), MINIMAP_WIDTH, MINIMAP_HEIGHT);
         renderZoomControls(context, mouseX, mouseY, controlsDisabled);
 
         if (shouldShowExecutionControls()) {
@@ -421,11 +450,16 @@ public class PathmindVisualEditorScreen extends Screen {
                 nodeGraph.zoomIn(getWorkspaceCenterX(), getWorkspaceCenterY());
                 return true;
             }
+            if (nodeGraph.handleMinimapClick((int) mouseX, (int) mouseY, getWorkspaceCenterX(), getWorkspaceCenterY())) {
+                presetDropdownOpen = false;
+                return true;
+            }
         }
 
         if (button == 0) {
             if (isPointInRect((int)mouseX, (int)mouseY, getPresetDropdownX(), getPresetDropdownY(), PRESET_DROPDOWN_WIDTH, PRESET_DROPDOWN_HEIGHT)) {
                 presetDropdownOpen = !presetDropdownOpen;
+                setPresetFilter("");
                 return true;
             }
 
@@ -466,6 +500,11 @@ public class PathmindVisualEditorScreen extends Screen {
             return true;
         }
 
+        if ((button == 0 || button == 1) && isPointInRect((int)mouseX, (int)mouseY, getNodeDelayButtonX(), getWorkspaceButtonY(), BOTTOM_BUTTON_SIZE, BOTTOM_BUTTON_SIZE)) {
+            cycleNodeDelay(button == 0 ? 1 : -1);
+            return true;
+        }
+
         // Check if clicking in sidebar to add nodes
         if (mouseX < sidebar.getWidth() && mouseY > TITLE_BAR_HEIGHT) {
             if (sidebar.mouseClicked(mouseX, mouseY, button)) {
@@ -597,7 +636,7 @@ public class PathmindVisualEditorScreen extends Screen {
             // Check if clicking on a connection to delete it
             var connection = nodeGraph.getConnectionAt((int)mouseX, (int)mouseY);
             if (connection != null && button == 1) {
-                nodeGraph.getConnections().remove(connection);
+                nodeGraph.removeConnection(connection);
                 return true;
             }
             
@@ -794,7 +833,18 @@ public class PathmindVisualEditorScreen extends Screen {
         }
 
         if (presetDropdownOpen && keyCode == GLFW.GLFW_KEY_ESCAPE) {
-            presetDropdownOpen = false;
+            if (!presetFilter.isEmpty()) {
+                setPresetFilter("");
+            } else {
+                presetDropdownOpen = false;
+            }
+            return true;
+        }
+
+        if (presetDropdownOpen && keyCode == GLFW.GLFW_KEY_BACKSPACE) {
+            if (!presetFilter.isEmpty()) {
+                setPresetFilter(presetFilter.substring(0, presetFilter.length() - 1));
+            }
             return true;
         }
 
@@ -857,6 +907,12 @@ public class PathmindVisualEditorScreen extends Screen {
             return true;
         }
 
+        // Typing while the preset dropdown is open filters it
+        if (presetDropdownOpen && !Character.isISOControl(chr)) {
+            setPresetFilter(presetFilter + chr);
+            return true;
+        }
+
         // Handle parameter overlay character typing first
         if (parameterOverlay != null && parameterOverlay.isVisible()) {
             if (parameterOverlay.charTyped(chr, modifiers)) {
@@ -927,11 +983,9 @@ public class PathmindVisualEditorScreen extends Screen {
         nodeGraph.stopCoordinateEditing(true);
         nodeGraph.stopAmountEditing(true);
 
-        if (nodeGraph.save()) {
-            System.out.println("Node graph auto-saved successfully");
-        } else {
-            System.err.println("Failed to auto-save node graph");
-        }
+        // Snapshot now, write off-thread; closing must not wait on disk I/O
+        nodeGraph.saveAsync(false);
+        System.out.println("Node graph auto-save queued");
 
         PresetManager.setActivePreset(activePresetName);
     }
@@ -1521,6 +1575,9 @@ public class PathmindVisualEditorScreen extends Screen {
         String displayName = activePresetName == null || activePresetName.isEmpty()
                 ? PresetManager.getDefaultPresetName()
                 : activePresetName;
+        if (presetDropdownOpen && !presetFilter.isEmpty()) {
+            displayName = "Search: " + presetFilter;
+        }
         int activeTextX = dropdownX + PRESET_TEXT_LEFT_PADDING;
         int activeTextWidth = PRESET_DROPDOWN_WIDTH - PRESET_TEXT_LEFT_PADDING * 2;
         String trimmedName = this.textRenderer.trimToWidth(displayName, activeTextWidth);
@@ -1547,8 +1604,12 @@ public class PathmindVisualEditorScreen extends Screen {
         context.fill(dropdownX, optionStartY, dropdownX + PRESET_DROPDOWN_WIDTH, optionStartY + optionsHeight, DARK_GREY_ALT);
 
         int optionY = optionStartY;
-        for (String preset : availablePresets) {
+        String hoveredPreset = null;
+        for (String preset : visiblePresets) {
             boolean optionHovered = isPointInRect(mouseX, mouseY, dropdownX + 1, optionY + 1, PRESET_DROPDOWN_WIDTH - 2, PRESET_OPTION_HEIGHT - 1);
+            if (optionHovered) {
+                hoveredPreset = preset;
+            }
             int optionColor = optionHovered ? 0xFF3F3F3F : 0xFF2B2B2B;
             context.fill(dropdownX + 1, optionY + 1, dropdownX + PRESET_DROPDOWN_WIDTH - 1, optionY + PRESET_OPTION_HEIGHT, optionColor);
             int textColor = preset.equals(activePresetName) ? ACCENT_COLOR : WHITE;
@@ -1595,6 +1656,45 @@ public class PathmindVisualEditorScreen extends Screen {
         context.drawTextWithShadow(this.textRenderer, Text.literal(createLabel), dropdownX + PRESET_TEXT_LEFT_PADDING, optionY + 5, ACCENT_COLOR);
 
         context.drawBorder(dropdownX, optionStartY, PRESET_DROPDOWN_WIDTH, optionsHeight, GREY_LINE);
+
+        if (hoveredPreset != null) {
+            drawWorkspaceTooltip(context, describePreset(hoveredPreset), mouseX, mouseY);
+        }
+    }
+
+    /**
+     * One-line summary of a preset from the library index: node count, most used node types and file size.
+     */
+    private String describePreset(String presetName) {
+        PresetLibrary.PresetInfo info = PresetLibrary.getInstance().getInfo(presetName);
+        if (info == null) {
+            return "Not saved yet";
+        }
+        String size = String.format(Locale.ROOT, "%.1f KB", info.getSize() / 1024.0);
+        if (!info.hasSummary()) {
+            return "Not summarized yet \u00b7 " + size;
+        }
+        List<Map.Entry<NodeType, Integer>> types = new ArrayList<>(info.getNodeTypeCounts().entrySet());
+        types.sort(Map.Entry.<NodeType, Integer>comparingByValue().reversed());
+        StringBuilder summary = new StringBuilder();
+        summary.append(info.getNodeCount()).append(info.getNodeCount() == 1 ? " node" : " nodes");
+        int shown = Math.min(3, types.size());
+        if (shown > 0) {
+            summary.append(" (");
+            for (int i = 0; i < shown; i++) {
+                if (i > 0) {
+                    summary.append(", ");
+                }
+                summary.append(types.get(i).getKey().getDisplayName()).append(" x").append(types.get(i).getValue());
+            }
+            summary.append(")");
+        }
+        return summary.append(" \u00b7 ").append(size).toString();
+    }
+
+    private void setPresetFilter(String filter) {
+        presetFilter = filter;
+        visiblePresets = PresetLibrary.search(availablePresets, presetFilter);
     }
 
     private int getPresetDropdownX() {
@@ -1628,6 +1728,14 @@ public class PathmindVisualEditorScreen extends Screen {
         return this.height - ZOOM_BUTTON_MARGIN - ZOOM_BUTTON_SIZE;
     }
 
+    private int getMinimapX() {
+        return this.width - ZOOM_BUTTON_MARGIN - MINIMAP_WIDTH;
+    }
+
+    private int getMinimapY() {
+        return getZoomButtonY() - ZOOM_BUTTON_SPACING - MINIMAP_HEIGHT;
+    }
+
     private int getWorkspaceCenterX() {
         int workspaceLeft = Sidebar.getCollapsedWidth();
         return workspaceLeft + (this.width - workspaceLeft) / 2;
@@ -1647,7 +1755,7 @@ public class PathmindVisualEditorScreen extends Screen {
     }
 
     private int getPresetDropdownOptionsHeight() {
-        return (availablePresets.size() + 1) * PRESET_OPTION_HEIGHT;
+        return (visiblePresets.size() + 1) * PRESET_OPTION_HEIGHT;
     }
 
     private int getPresetDeleteIconLeft(int dropdownX) {
@@ -1681,11 +1789,11 @@ public class PathmindVisualEditorScreen extends Screen {
         }
 
         int relativeY = (int) mouseY - optionStartY;
-        int presetAreaHeight = availablePresets.size() * PRESET_OPTION_HEIGHT;
+        int presetAreaHeight = visiblePresets.size() * PRESET_OPTION_HEIGHT;
         if (relativeY < presetAreaHeight) {
             int index = relativeY / PRESET_OPTION_HEIGHT;
-            if (index >= 0 && index < availablePresets.size()) {
-                String selectedPreset = availablePresets.get(index);
+            if (index >= 0 && index < visiblePresets.size()) {
+                String selectedPreset = visiblePresets.get(index);
                 int optionTop = optionStartY + index * PRESET_OPTION_HEIGHT;
                 if (isPointInPresetDeleteIcon((int) mouseX, (int) mouseY, optionTop, dropdownX)) {
                     if (!isPresetDeleteDisabled(selectedPreset)) {
@@ -1913,7 +2021,9 @@ public class PathmindVisualEditorScreen extends Screen {
     }
 
     private void refreshAvailablePresets() {
+        presetLibraryVersion = PresetLibrary.getInstance().getVersion();
         availablePresets = new ArrayList<>(PresetManager.getAvailablePresets());
+        visiblePresets = PresetLibrary.search(availablePresets, presetFilter);
         activePresetName = PresetManager.getActivePreset();
     }
 
@@ -1922,10 +2032,9 @@ public class PathmindVisualEditorScreen extends Screen {
     }
 
     private void switchPreset(String presetName) {
-        nodeGraph.save();
+        nodeGraph.saveAsync(false);
         PresetManager.setActivePreset(presetName);
         refreshAvailablePresets();
-        nodeGraph.setActivePreset(activePresetName);
         dismissParameterOverlay();
         isDraggingFromSidebar = false;
         draggingNodeType = null;
@@ -1939,7 +2048,30 @@ public class PathmindVisualEditorScreen extends Screen {
         presetDropdownOpen = false;
         clearImportExportStatus();
 
-        if (!nodeGraph.load()) {
+        // The graph keeps its current preset until the new one has loaded, so edits made meanwhile
+        // are not saved under the wrong name
+        pendingPresetName = activePresetName;
+        pendingPresetLoad = PresetLibrary.getInstance().loadGraphAsync(activePresetName);
+    }
+
+    private void finishPresetLoad() {
+        CompletableFuture<NodeGraphData> load = pendingPresetLoad;
+        String presetName = pendingPresetName;
+        pendingPresetLoad = null;
+        pendingPresetName = null;
+        if (!presetName.equals(activePresetName)) {
+            return;
+        }
+
+        NodeGraphData data = load.exceptionally(throwable -> {
+            System.err.println("Failed to load preset " + presetName + ": " + throwable.getMessage());
+            return null;
+        }).join();
+        if (nodeGraph.isWorkspaceDirty()) {
+            nodeGraph.saveAsync(false);
+        }
+        nodeGraph.setActivePreset(presetName);
+        if (!nodeGraph.applyPresetData(data)) {
             nodeGraph.initializeWithScreenDimensions(this.width, this.height, sidebar.getWidth(), TITLE_BAR_HEIGHT);
         }
         nodeGraph.resetCamera();
@@ -1951,8 +2083,11 @@ public class PathmindVisualEditorScreen extends Screen {
         boolean importHovered = renderImportExportButton(context, mouseX, mouseY, buttonY);
         boolean clearHovered = renderClearButton(context, mouseX, mouseY, buttonY);
         boolean homeHovered = renderHomeButton(context, mouseX, mouseY, buttonY);
+        boolean delayHovered = renderNodeDelayButton(context, mouseX, mouseY, buttonY);
 
-        if (homeHovered) {
+        if (delayHovered) {
+            drawWorkspaceTooltip(context, "Node delay: " + nodeGraph.getNodeDelayMs() + " ms (click / right-click)", mouseX, mouseY);
+        } else if (homeHovered) {
             drawWorkspaceTooltip(context, "Reset view", mouseX, mouseY);
         } else if (clearHovered) {
             drawWorkspaceTooltip(context, "Clear workspace", mouseX, mouseY);
@@ -1977,6 +2112,48 @@ public class PathmindVisualEditorScreen extends Screen {
         return hovered;
     }
 
+    private boolean renderNodeDelayButton(DrawContext context, int mouseX, int mouseY, int buttonY) {
+        int buttonX = getNodeDelayButtonX();
+        boolean hovered = renderButtonBackground(context, buttonX, buttonY, mouseX, mouseY, false);
+        int iconColor = hovered ? ACCENT_COLOR : WHITE;
+        int centerX = buttonX + BOTTOM_BUTTON_SIZE / 2;
+        int centerY = buttonY + BOTTOM_BUTTON_SIZE / 2;
+
+        // Clock face
+        context.drawHorizontalLine(centerX - 2, centerX + 2, centerY - 5, iconColor);
+        context.drawHorizontalLine(centerX - 2, centerX + 2, centerY + 5, iconColor);
+        context.drawVerticalLine(centerX - 5, centerY - 3, centerY + 3, iconColor);
+        context.drawVerticalLine(centerX + 5, centerY - 3, centerY + 3, iconColor);
+        context.fill(centerX - 4, centerY - 4, centerX - 3, centerY - 3, iconColor);
+        context.fill(centerX + 3, centerY - 4, centerX + 4, centerY - 3, iconColor);
+        context.fill(centerX - 4, centerY + 3, centerX - 3, centerY + 4, iconColor);
+        context.fill(centerX + 3, centerY + 3, centerX + 4, centerY + 4, iconColor);
+
+        // Hands
+        context.drawVerticalLine(centerX, centerY - 4, centerY, iconColor);
+        context.drawHorizontalLine(centerX, centerX + 3, centerY, iconColor);
+        return hovered;
+    }
+
+    /**
+     * Step the graph's node delay through {@link #NODE_DELAY_STEPS_MS}, wrapping at either end.
+     */
+    private void cycleNodeDelay(int direction) {
+        long current = nodeGraph.getNodeDelayMs();
+        int index = 0;
+        for (int i = 0; i < NODE_DELAY_STEPS_MS.length; i++) {
+            if (NODE_DELAY_STEPS_MS[i] <= current) {
+                index = i;
+            }
+        }
+        if (direction < 0 && NODE_DELAY_STEPS_MS[index] < current) {
+            // A custom value between two steps moves down to the lower one
+            direction = 0;
+        }
+        int next = Math.floorMod(index + direction, NODE_DELAY_STEPS_MS.length);
+        nodeGraph.setNodeDelayMs(NODE_DELAY_STEPS_MS[next]);
+    }
+
     private boolean renderClearButton(DrawContext context, int mouseX, int mouseY, int buttonY) {
         int buttonX = getClearButtonX();
         boolean hovered = renderButtonBackground(context, buttonX, buttonY, mouseX, mouseY, clearPopupVisible);
@@ -2070,6 +2247,10 @@ public class PathmindVisualEditorScreen extends Screen {
         return getSidebarVisibleWidth() + BOTTOM_BUTTON_MARGIN + (BOTTOM_BUTTON_SIZE + BOTTOM_BUTTON_SPACING) * 2;
     }
 
+    private int getNodeDelayButtonX() {
+        return getSidebarVisibleWidth() + BOTTOM_BUTTON_MARGIN + (BOTTOM_BUTTON_SIZE + BOTTOM_BUTTON_SPACING) * 3;
+    }
+
     private int getClearButtonX() {
         return getSidebarVisibleWidth() + BOTTOM_BUTTON_MARGIN + BOTTOM_BUTTON_SIZE + BOTTOM_BUTTON_SPACING;
     }
@@ -2119,7 +2300,7 @@ public class PathmindVisualEditorScreen extends Screen {
         dismissParameterOverlay();
         isDraggingFromSidebar = false;
         draggingNodeType = null;
-        ExecutionManager.getInstance().executeGraph(nodeGraph.getNodes(), nodeGraph.getConnections());
+        ExecutionManager.getInstance().executeGraph(nodeGraph.getNodes(), nodeGraph.getConnections(), nodeGraph.getNodeDelayMs());
         if (this.client != null) {
             this.client.setScreen(null);
         }
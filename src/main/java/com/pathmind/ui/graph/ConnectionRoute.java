@@ -0,0 +1,189 @@
+package com.pathmind.ui.graph;
+
+import com.pathmind.nodes.Node;
+import com.pathmind.nodes.NodeConnection;
+import net.minecraft.client.gui.DrawContext;
+
+/**
+ * Cached world-space route of one connection: the L-shaped path between its sockets and the
+ * wire color. The spatial index refreshes it only when an endpoint node moves or resizes, so
+ * drawing a frame is a handful of fills per connection with no socket math.
+ *
+ * All connection quads are emitted back to back before any node text or texture, so the GUI
+ * renderer batches them into a single buffer.
+ */
+final class ConnectionRoute {
+    static final int DOT_SPACING = 12;
+    static final int DOT_LENGTH = 4;
+
+    private final NodeConnection connection;
+    private int outputX;
+    private int outputY;
+    private int inputX;
+    private int inputY;
+    private int midX;
+    private int color;
+
+    ConnectionRoute(NodeConnection connection) {
+        this.connection = connection;
+        update();
+    }
+
+    NodeConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Recompute the socket endpoints; called when either endpoint node changes bounds.
+     */
+    void update() {
+        Node output = connection.getOutputNode();
+        Node input = connection.getInputNode();
+        outputX = output.getSocketX(false);
+        outputY = output.getSocketY(connection.getOutputSocket(), false);
+        inputX = input.getSocketX(true);
+        inputY = input.getSocketY(connection.getInputSocket(), true);
+        midX = outputX + (inputX - outputX) / 2;
+        color = output.getOutputSocketColor(connection.getOutputSocket());
+    }
+
+    int getOutputX() {
+        return outputX;
+    }
+
+    int getOutputY() {
+        return outputY;
+    }
+
+    int getInputX() {
+        return inputX;
+    }
+
+    int getInputY() {
+        return inputY;
+    }
+
+    int getMinX() {
+        return Math.min(outputX, inputX);
+    }
+
+    int getMinY() {
+        return Math.min(outputY, inputY);
+    }
+
+    int getMaxX() {
+        return Math.max(outputX, inputX);
+    }
+
+    int getMaxY() {
+        return Math.max(outputY, inputY);
+    }
+
+    boolean isVisible() {
+        return connection.getOutputNode().shouldRenderSockets() && connection.getInputNode().shouldRenderSockets();
+    }
+
+    void render(DrawContext context, int offsetX, int offsetY) {
+        int x1 = outputX + offsetX;
+        int y1 = outputY + offsetY;
+        int mid = midX + offsetX;
+        int x2 = inputX + offsetX;
+        int y2 = inputY + offsetY;
+        context.fill(Math.min(x1, mid), y1, Math.max(x1, mid) + 1, y1 + 1, color);
+        context.fill(mid, Math.min(y1, y2) + 1, mid + 1, Math.max(y1, y2), color);
+        context.fill(Math.min(mid, x2), y2, Math.max(mid, x2) + 1, y2 + 1, color);
+    }
+
+    /**
+     * Draw the route as one straight segment between the sockets; used at the block detail tier,
+     * where the elbow of the L-shaped route is no longer readable.
+     */
+    void renderStraight(DrawContext context, int offsetX, int offsetY, int thickness) {
+        float dx = inputX - outputX;
+        float dy = inputY - outputY;
+        int length = Math.round((float) Math.sqrt(dx * dx + dy * dy));
+        if (length == 0) {
+            return;
+        }
+        int half = thickness / 2;
+        var matrices = context.getMatrices();
+        matrices.pushMatrix();
+        matrices.translate(outputX + offsetX, outputY + offsetY);
+        matrices.rotate((float) Math.atan2(dy, dx));
+        context.fill(0, -half, length, thickness - half, color);
+        matrices.popMatrix();
+    }
+
+    void renderAnimated(DrawContext context, int offsetX, int offsetY, int animationOffset) {
+        drawAnimatedCurve(context, outputX + offsetX, outputY + offsetY, midX + offsetX, inputX + offsetX, inputY + offsetY,
+            color, animationOffset);
+    }
+
+    /**
+     * Phase of the marching-dots animation for the given time; every animated wire shares it.
+     */
+    static int animationOffset(long timestamp, long stepMs) {
+        return (int) ((timestamp / stepMs) % DOT_SPACING);
+    }
+
+    static void drawCurve(DrawContext context, int x1, int y1, int x2, int y2, int color) {
+        int mid = x1 + (x2 - x1) / 2;
+        context.fill(Math.min(x1, mid), y1, Math.max(x1, mid) + 1, y1 + 1, color);
+        context.fill(mid, Math.min(y1, y2) + 1, mid + 1, Math.max(y1, y2), color);
+        context.fill(Math.min(mid, x2), y2, Math.max(mid, x2) + 1, y2 + 1, color);
+    }
+
+    static void drawAnimatedCurve(DrawContext context, int x1, int y1, int x2, int y2, int color, int animationOffset) {
+        drawAnimatedCurve(context, x1, y1, x1 + (x2 - x1) / 2, x2, y2, color, animationOffset);
+    }
+
+    private static void drawAnimatedCurve(DrawContext context, int x1, int y1, int mid, int x2, int y2, int color, int animationOffset) {
+        int firstLength = Math.abs(mid - x1);
+        int secondLength = Math.abs(y2 - y1);
+        drawDashes(context, x1, mid, y1, true, color, animationOffset, 0);
+        drawDashes(context, y1, y2, mid, false, color, animationOffset, firstLength);
+        drawDashes(context, mid, x2, y2, true, color, animationOffset, firstLength + secondLength);
+    }
+
+    /**
+     * Draw the dashes of one straight segment. Dash positions are derived from the shared phase and
+     * the distance already travelled along the wire, so no per-dot state is kept between frames.
+     */
+    private static void drawDashes(DrawContext context, int from, int to, int fixed, boolean horizontal, int color,
+                                   int animationOffset, int distanceOffset) {
+        int length = Math.abs(to - from);
+        if (length == 0) {
+            return;
+        }
+        int direction = to >= from ? 1 : -1;
+        int phase = Math.floorMod(distanceOffset - animationOffset, DOT_SPACING);
+        int first = phase == 0 ? 0 : DOT_SPACING - phase;
+        // A dash that started before this segment may still overlap its beginning
+        int start = first - DOT_SPACING;
+        boolean drew = false;
+        for (int position = start; position <= length; position += DOT_SPACING) {
+            int minDistance = Math.max(position, 0);
+            int maxDistance = Math.min(position + DOT_LENGTH - 1, length);
+            if (minDistance > maxDistance) {
+                continue;
+            }
+            fillSpan(context, from + minDistance * direction, from + maxDistance * direction, fixed, horizontal, color);
+            drew = true;
+        }
+        if (!drew) {
+            int fallback = Math.min(DOT_LENGTH, length);
+            fillSpan(context, from + (length - fallback) * direction, to, fixed, horizontal, color);
+        }
+    }
+
+    // Same pixel coverage as DrawContext#drawHorizontalLine / #drawVerticalLine
+    private static void fillSpan(DrawContext context, int a, int b, int fixed, boolean horizontal, int color) {
+        int min = Math.min(a, b);
+        int max = Math.max(a, b);
+        if (horizontal) {
+            context.fill(min, fixed, max + 1, fixed + 1, color);
+        } else {
+            context.fill(fixed, min + 1, fixed + 1, max, color);
+        }
+    }
+}
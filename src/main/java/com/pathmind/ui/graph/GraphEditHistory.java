@@ -0,0 +1,646 @@
+package com.pathmind.ui.graph;
+
+import com.pathmind.nodes.Node;
+import com.pathmind.nodes.NodeConnection;
+import com.pathmind.nodes.NodeMode;
+import com.pathmind.nodes.NodeParameter;
+import com.pathmind.nodes.ParameterType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Undo/redo log for the editor that stores deltas instead of whole-graph snapshots.
+ * A baseline record per node describes the last committed state. The graph reports what it
+ * touches: the spatial index forwards every node it adds, removes, moves or resizes, the graph
+ * calls {@link #touch} for other node edits and reports connections as it adds and removes them.
+ * {@link #commit()} compares only the touched nodes (and the nodes linked to them) against the
+ * baseline, so a step costs time in proportion to the edit, not the graph; undo/redo re-apply the
+ * recorded states of just those. Removed nodes are kept by reference so they come back with their
+ * identity and connections intact. Consecutive moves or parameter edits of the same nodes are
+ * merged, and the history is bounded by an estimate of the memory it retains rather than by entry count.
+ */
+final class GraphEditHistory {
+    static final long MAX_HISTORY_BYTES = 4L * 1024L * 1024L;
+    private static final long COALESCE_WINDOW_MS = 1000L;
+    private static final long NODE_STATE_BYTES = 96L;
+    private static final long PARAMETER_BYTES = 64L;
+    private static final long CONNECTION_BYTES = 48L;
+    // Rough footprint of a removed node kept alive for undo, beyond its recorded state
+    private static final long RETAINED_NODE_BYTES = 512L;
+
+    private final List<Node> nodes;
+    private final List<NodeConnection> connections;
+    private final GraphSpatialIndex spatialIndex;
+    private final Map<Node, NodeState> baseline = new IdentityHashMap<>();
+    private final Set<Node> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+    // List positions of nodes removed since the last commit, in removal order
+    private final Map<Node, Integer> removedAt = new LinkedHashMap<>();
+    private final Set<NodeConnection> addedSinceCommit = new LinkedHashSet<>();
+    private final Set<NodeConnection> removedSinceCommit = new LinkedHashSet<>();
+    private final Deque<Delta> undoStack = new ArrayDeque<>();
+    private final Deque<Delta> redoStack = new ArrayDeque<>();
+    private long retainedBytes;
+
+    private enum Kind {
+        MOVE,
+        PARAMETER,
+        STRUCTURE
+    }
+
+    GraphEditHistory(List<Node> nodes, List<NodeConnection> connections, GraphSpatialIndex spatialIndex) {
+        this.nodes = nodes;
+        this.connections = connections;
+        this.spatialIndex = spatialIndex;
+        spatialIndex.setChangeListener(this::touch);
+    }
+
+    /**
+     * Forget all history and take the current graph as the new baseline.
+     */
+    void reset() {
+        undoStack.clear();
+        redoStack.clear();
+        retainedBytes = 0L;
+        baseline.clear();
+        for (Node node : nodes) {
+            baseline.put(node, NodeState.capture(node));
+        }
+        clearPending();
+    }
+
+    /**
+     * Mark a node as possibly edited since the last commit.
+     */
+    void touch(Node node) {
+        if (node != null) {
+            touched.add(node);
+        }
+    }
+
+    /**
+     * Note the list position a node had when it was removed, so undo can put it back there.
+     */
+    void nodeRemovedAt(Node node, int listIndex) {
+        removedAt.remove(node);
+        removedAt.put(node, listIndex);
+        touch(node);
+    }
+
+    void connectionAdded(NodeConnection connection) {
+        if (!removedSinceCommit.remove(connection)) {
+            addedSinceCommit.add(connection);
+        }
+    }
+
+    void connectionRemoved(NodeConnection connection) {
+        if (!addedSinceCommit.remove(connection)) {
+            removedSinceCommit.add(connection);
+        }
+    }
+
+    /**
+     * Record everything that changed since the last commit as one undo step.
+     * Nodes are compared field by field, so unchanged nodes cost no allocation.
+     *
+     * @return true if a change was recorded
+     */
+    boolean commit() {
+        if (touched.isEmpty() && addedSinceCommit.isEmpty() && removedSinceCommit.isEmpty()) {
+            return false;
+        }
+        Map<Node, NodeState> before = new IdentityHashMap<>();
+        Map<Node, NodeState> after = new IdentityHashMap<>();
+        Map<Node, Integer> removedIndices = new LinkedHashMap<>();
+        Kind kind = null;
+
+        // Attaching or detaching changes both ends, so also check the nodes linked before and after
+        Deque<Node> pending = new ArrayDeque<>(touched);
+        Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (!pending.isEmpty()) {
+            Node node = pending.poll();
+            if (!visited.add(node)) {
+                continue;
+            }
+            NodeState previous = baseline.get(node);
+            boolean present = spatialIndex.contains(node);
+            if (previous != null) {
+                previous.collectLinked(pending);
+            }
+            if (present) {
+                collectLinked(node, pending);
+            }
+            if (previous == null) {
+                if (present) {
+                    before.put(node, null);
+                    after.put(node, NodeState.capture(node));
+                    kind = Kind.STRUCTURE;
+                }
+                continue;
+            }
+            if (!present) {
+                before.put(node, previous);
+                after.put(node, null);
+                kind = Kind.STRUCTURE;
+                continue;
+            }
+            Kind change = previous.compare(node);
+            if (change != null) {
+                before.put(node, previous);
+                after.put(node, NodeState.capture(node));
+                kind = merge(kind, change);
+            }
+        }
+        for (Map.Entry<Node, Integer> entry : removedAt.entrySet()) {
+            if (before.get(entry.getKey()) != null && after.get(entry.getKey()) == null) {
+                removedIndices.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<NodeConnection> addedConnections = new ArrayList<>(addedSinceCommit);
+        List<NodeConnection> removedConnections = new ArrayList<>(removedSinceCommit);
+        clearPending();
+        if (!addedConnections.isEmpty() || !removedConnections.isEmpty()) {
+            kind = Kind.STRUCTURE;
+        }
+
+        if (kind == null) {
+            return false;
+        }
+
+        for (Map.Entry<Node, NodeState> entry : after.entrySet()) {
+            if (entry.getValue() == null) {
+                baseline.remove(entry.getKey());
+            } else {
+                baseline.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Delta delta = new Delta(kind, before, after, removedIndices, addedConnections, removedConnections);
+        Delta last = undoStack.peek();
+        if (last != null && last.canAbsorb(delta)) {
+            retainedBytes -= last.estimatedBytes;
+            last.absorb(delta);
+            retainedBytes += last.estimatedBytes;
+        } else {
+            undoStack.push(delta);
+            retainedBytes += delta.estimatedBytes;
+        }
+        redoStack.clear();
+        trimToBudget();
+        return true;
+    }
+
+    /**
+     * Revert the newest step. Callers should {@link #commit()} first so pending edits form their own step.
+     */
+    boolean undo() {
+        Delta delta = undoStack.poll();
+        if (delta == null) {
+            return false;
+        }
+        retainedBytes -= delta.estimatedBytes;
+        apply(delta, true);
+        redoStack.push(delta);
+        return true;
+    }
+
+    boolean redo() {
+        Delta delta = redoStack.poll();
+        if (delta == null) {
+            return false;
+        }
+        apply(delta, false);
+        undoStack.push(delta);
+        retainedBytes += delta.estimatedBytes;
+        trimToBudget();
+        return true;
+    }
+
+    long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    private void trimToBudget() {
+        // Always keep the newest step, however large
+        while (retainedBytes > MAX_HISTORY_BYTES && undoStack.size() > 1) {
+            retainedBytes -= undoStack.removeLast().estimatedBytes;
+        }
+    }
+
+    private void clearPending() {
+        touched.clear();
+        removedAt.clear();
+        addedSinceCommit.clear();
+        removedSinceCommit.clear();
+    }
+
+    private static void collectLinked(Node node, Deque<Node> out) {
+        addIfPresent(out, node.getAttachedSensor());
+        addIfPresent(out, node.getAttachedActionNode());
+        Map<Integer, Node> attached = node.getAttachedParameters();
+        if (attached != null) {
+            for (Node parameterNode : attached.values()) {
+                addIfPresent(out, parameterNode);
+            }
+        }
+        addIfPresent(out, node.getParentControl());
+        addIfPresent(out, node.getParentActionControl());
+        addIfPresent(out, node.getParentParameterHost());
+    }
+
+    private static void addIfPresent(Deque<Node> out, Node node) {
+        if (node != null) {
+            out.add(node);
+        }
+    }
+
+    private void apply(Delta delta, boolean undo) {
+        Map<Node, NodeState> target = undo ? delta.before : delta.after;
+        Map<Node, NodeState> source = undo ? delta.after : delta.before;
+        List<NodeConnection> connectionsToDrop = undo ? delta.addedConnections : delta.removedConnections;
+        List<NodeConnection> connectionsToRestore = undo ? delta.removedConnections : delta.addedConnections;
+
+        if (!connectionsToDrop.isEmpty()) {
+            connections.removeAll(new HashSet<>(connectionsToDrop));
+            for (NodeConnection connection : connectionsToDrop) {
+                spatialIndex.removeConnection(connection);
+            }
+        }
+
+        // Drop nodes that do not exist in the target state
+        for (Map.Entry<Node, NodeState> entry : target.entrySet()) {
+            if (entry.getValue() == null) {
+                Node node = entry.getKey();
+                detachFromParent(node);
+                detachChildren(node, null);
+                nodes.remove(node);
+                spatialIndex.removeNode(node);
+            }
+        }
+
+        // Bring back nodes that exist only in the target state. Removed nodes go back to their list
+        // positions in reverse removal order, which undoes the index shifts of the removals.
+        List<Node> restored = new ArrayList<>();
+        for (Map.Entry<Node, NodeState> entry : target.entrySet()) {
+            if (entry.getValue() != null && source.get(entry.getKey()) == null && !delta.removedIndices.containsKey(entry.getKey())) {
+                restored.add(entry.getKey());
+            }
+        }
+        List<Node> reinserted = new ArrayList<>();
+        for (Node node : delta.removedIndices.keySet()) {
+            if (target.get(node) != null && source.get(node) == null) {
+                reinserted.add(node);
+            }
+        }
+        for (int i = reinserted.size() - 1; i >= 0; i--) {
+            Node node = reinserted.get(i);
+            nodes.add(Math.min(delta.removedIndices.get(node), nodes.size()), node);
+            spatialIndex.addNode(node);
+        }
+        for (Node node : restored) {
+            nodes.add(node);
+            spatialIndex.addNode(node);
+        }
+
+        List<Node> present = new ArrayList<>();
+        for (Map.Entry<Node, NodeState> entry : target.entrySet()) {
+            if (entry.getValue() != null) {
+                present.add(entry.getKey());
+            }
+        }
+
+        // Detach everything that differs first so re-attaching never trips over a stale slot
+        for (Node node : present) {
+            NodeState state = target.get(node);
+            detachChildren(node, state);
+            if (node.getMode() != state.mode && state.mode != null) {
+                node.setMode(state.mode);
+            }
+        }
+        for (Node node : present) {
+            target.get(node).attachChildren(node);
+        }
+        for (Node node : present) {
+            target.get(node).restoreParameters(node);
+        }
+
+        // Lay out from the deepest nodes up so parents size around their restored children
+        present.sort(Comparator.comparingInt(GraphEditHistory::depthOf).reversed());
+        for (Node node : present) {
+            node.recalculateDimensions();
+        }
+        for (Node node : present) {
+            if (depthOf(node) == 0) {
+                NodeState state = target.get(node);
+                node.setPosition(state.x, state.y);
+            }
+        }
+
+        for (NodeConnection connection : connectionsToRestore) {
+            connections.add(connection);
+            spatialIndex.addConnection(connection);
+        }
+
+        // Move the baseline to the applied state so the next commit only sees new edits
+        for (Map.Entry<Node, NodeState> entry : target.entrySet()) {
+            if (entry.getValue() == null) {
+                baseline.remove(entry.getKey());
+            } else {
+                baseline.put(entry.getKey(), NodeState.capture(entry.getKey()));
+            }
+        }
+        // The nodes touched while applying now match the baseline
+        clearPending();
+    }
+
+    private static void detachFromParent(Node node) {
+        Node parentControl = node.getParentControl();
+        if (parentControl != null && parentControl.getAttachedSensor() == node) {
+            parentControl.detachSensor();
+        }
+        Node parentAction = node.getParentActionControl();
+        if (parentAction != null && parentAction.getAttachedActionNode() == node) {
+            parentAction.detachActionNode();
+        }
+        Node host = node.getParentParameterHost();
+        if (host != null) {
+            host.detachParameter(node.getParentParameterSlotIndex());
+        }
+    }
+
+    /**
+     * Detach the children of a node that the target state does not keep; a null state detaches all.
+     */
+    private static void detachChildren(Node node, NodeState state) {
+        if (node.getAttachedSensor() != null && (state == null || state.sensor != node.getAttachedSensor())) {
+            node.detachSensor();
+        }
+        if (node.getAttachedActionNode() != null && (state == null || state.action != node.getAttachedActionNode())) {
+            node.detachActionNode();
+        }
+        Map<Integer, Node> attached = node.getAttachedParameters();
+        if (attached != null && !attached.isEmpty()) {
+            for (Integer slot : new ArrayList<>(attached.keySet())) {
+                if (state == null || state.parameterAt(slot) != attached.get(slot)) {
+                    node.detachParameter(slot);
+                }
+            }
+        }
+    }
+
+    private static int depthOf(Node node) {
+        int depth = 0;
+        Node current = node;
+        while (current != null) {
+            Node parent = current.getParentParameterHost();
+            if (parent == null) {
+                parent = current.getParentControl();
+            }
+            if (parent == null) {
+                parent = current.getParentActionControl();
+            }
+            if (parent == null) {
+                break;
+            }
+            depth++;
+            current = parent;
+        }
+        return depth;
+    }
+
+    private static Kind merge(Kind current, Kind change) {
+        if (current == null) {
+            return change;
+        }
+        return current == change ? current : Kind.STRUCTURE;
+    }
+
+    /**
+     * Editable state of one node at a point in time. Children are held by reference.
+     */
+    private static final class NodeState {
+        private final NodeMode mode;
+        private final int x;
+        private final int y;
+        private final String[] parameterNames;
+        private final ParameterType[] parameterTypes;
+        private final String[] parameterValues;
+        private final Node sensor;
+        private final Node action;
+        private final int[] parameterSlots;
+        private final Node[] parameterNodes;
+        private final Node parent;
+
+        private NodeState(Node node) {
+            this.mode = node.getMode();
+            this.x = node.getX();
+            this.y = node.getY();
+            List<NodeParameter> parameters = node.getParameters();
+            int count = parameters.size();
+            this.parameterNames = new String[count];
+            this.parameterTypes = new ParameterType[count];
+            this.parameterValues = new String[count];
+            for (int i = 0; i < count; i++) {
+                NodeParameter parameter = parameters.get(i);
+                parameterNames[i] = parameter.getName();
+                parameterTypes[i] = parameter.getType();
+                parameterValues[i] = parameter.getStringValue();
+            }
+            this.sensor = node.getAttachedSensor();
+            this.action = node.getAttachedActionNode();
+            Node host = node.getParentParameterHost();
+            if (host == null) {
+                host = node.getParentControl();
+            }
+            this.parent = host != null ? host : node.getParentActionControl();
+            Map<Integer, Node> attached = node.getAttachedParameters();
+            int attachedCount = attached != null ? attached.size() : 0;
+            this.parameterSlots = new int[attachedCount];
+            this.parameterNodes = new Node[attachedCount];
+            if (attachedCount > 0) {
+                Integer[] slots = attached.keySet().toArray(new Integer[0]);
+                Arrays.sort(slots);
+                for (int i = 0; i < slots.length; i++) {
+                    parameterSlots[i] = slots[i];
+                    parameterNodes[i] = attached.get(slots[i]);
+                }
+            }
+        }
+
+        private static NodeState capture(Node node) {
+            return new NodeState(node);
+        }
+
+        /**
+         * @return null when the node still matches this state, otherwise the kind of change
+         */
+        private Kind compare(Node node) {
+            if (node.getMode() != mode || node.getAttachedSensor() != sensor || node.getAttachedActionNode() != action) {
+                return Kind.STRUCTURE;
+            }
+            Map<Integer, Node> attached = node.getAttachedParameters();
+            int attachedCount = attached != null ? attached.size() : 0;
+            if (attachedCount != parameterSlots.length) {
+                return Kind.STRUCTURE;
+            }
+            for (int i = 0; i < parameterSlots.length; i++) {
+                if (attached.get(parameterSlots[i]) != parameterNodes[i]) {
+                    return Kind.STRUCTURE;
+                }
+            }
+            List<NodeParameter> parameters = node.getParameters();
+            if (parameters.size() != parameterNames.length) {
+                return Kind.PARAMETER;
+            }
+            boolean parametersChanged = false;
+            for (int i = 0; i < parameterNames.length; i++) {
+                NodeParameter parameter = parameters.get(i);
+                if (!Objects.equals(parameter.getName(), parameterNames[i])
+                    || parameter.getType() != parameterTypes[i]
+                    || !Objects.equals(parameter.getStringValue(), parameterValues[i])) {
+                    parametersChanged = true;
+                    break;
+                }
+            }
+            boolean moved = node.getX() != x || node.getY() != y;
+            if (parametersChanged) {
+                // A value edit can resize the node and shift it; it is still a parameter edit
+                return Kind.PARAMETER;
+            }
+            return moved ? Kind.MOVE : null;
+        }
+
+        private void collectLinked(Deque<Node> out) {
+            addIfPresent(out, sensor);
+            addIfPresent(out, action);
+            addIfPresent(out, parent);
+            for (Node parameterNode : parameterNodes) {
+                addIfPresent(out, parameterNode);
+            }
+        }
+
+        private Node parameterAt(int slot) {
+            for (int i = 0; i < parameterSlots.length; i++) {
+                if (parameterSlots[i] == slot) {
+                    return parameterNodes[i];
+                }
+            }
+            return null;
+        }
+
+        private void attachChildren(Node node) {
+            if (sensor != null && node.getAttachedSensor() != sensor) {
+                node.attachSensor(sensor);
+            }
+            if (action != null && node.getAttachedActionNode() != action) {
+                node.attachActionNode(action);
+            }
+            for (int i = 0; i < parameterSlots.length; i++) {
+                Map<Integer, Node> attached = node.getAttachedParameters();
+                if (attached == null || attached.get(parameterSlots[i]) != parameterNodes[i]) {
+                    node.attachParameter(parameterNodes[i], parameterSlots[i]);
+                }
+            }
+        }
+
+        private void restoreParameters(Node node) {
+            List<NodeParameter> parameters = node.getParameters();
+            boolean sameShape = parameters.size() == parameterNames.length;
+            for (int i = 0; sameShape && i < parameterNames.length; i++) {
+                NodeParameter parameter = parameters.get(i);
+                sameShape = Objects.equals(parameter.getName(), parameterNames[i]) && parameter.getType() == parameterTypes[i];
+            }
+            if (sameShape) {
+                // Keep the existing parameter objects so open editors stay bound to them
+                node.notifyDefinitionChanging();
+                for (int i = 0; i < parameterNames.length; i++) {
+                    NodeParameter parameter = parameters.get(i);
+                    if (!Objects.equals(parameter.getStringValue(), parameterValues[i])) {
+                        parameter.setStringValue(parameterValues[i]);
+                    }
+                }
+                return;
+            }
+            List<NodeParameter> restored = new ArrayList<>(parameterNames.length);
+            for (int i = 0; i < parameterNames.length; i++) {
+                restored.add(new NodeParameter(parameterNames[i], parameterTypes[i], parameterValues[i]));
+            }
+            node.replaceParameters(restored);
+        }
+
+        private long estimateBytes() {
+            long bytes = NODE_STATE_BYTES + (long) parameterSlots.length * 16L;
+            for (String value : parameterValues) {
+                bytes += PARAMETER_BYTES + (value != null ? 2L * value.length() : 0L);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * One undo step: the before and after state of every node it touched, where a null state
+     * means the node was absent, plus the connections it added and removed.
+     */
+    private static final class Delta {
+        private final Kind kind;
+        private final Map<Node, NodeState> before;
+        private Map<Node, NodeState> after;
+        private final Map<Node, Integer> removedIndices;
+        private final List<NodeConnection> addedConnections;
+        private final List<NodeConnection> removedConnections;
+        private long timestamp;
+        private long estimatedBytes;
+
+        private Delta(Kind kind, Map<Node, NodeState> before, Map<Node, NodeState> after, Map<Node, Integer> removedIndices,
+                      List<NodeConnection> addedConnections, List<NodeConnection> removedConnections) {
+            this.kind = kind;
+            this.before = before;
+            this.after = after;
+            this.removedIndices = removedIndices;
+            this.addedConnections = addedConnections;
+            this.removedConnections = removedConnections;
+            this.timestamp = System.currentTimeMillis();
+            this.estimatedBytes = estimate();
+        }
+
+        private boolean canAbsorb(Delta next) {
+            return kind != Kind.STRUCTURE
+                && kind == next.kind
+                && next.timestamp - timestamp <= COALESCE_WINDOW_MS
+                && before.keySet().equals(next.before.keySet());
+        }
+
+        /**
+         * Fold a newer step over the same nodes into this one: keep the oldest before, take the newest after.
+         */
+        private void absorb(Delta next) {
+            this.after = next.after;
+            this.timestamp = next.timestamp;
+            this.estimatedBytes = estimate();
+        }
+
+        private long estimate() {
+            long bytes = (long) (addedConnections.size() + removedConnections.size()) * CONNECTION_BYTES;
+            for (NodeState state : before.values()) {
+                bytes += state != null ? state.estimateBytes() : 0L;
+            }
+            for (NodeState state : after.values()) {
+                bytes += state != null ? state.estimateBytes() : RETAINED_NODE_BYTES;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.pathmind.ui.graph;
+
+import com.pathmind.nodes.Node;
+import net.minecraft.client.gui.DrawContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Overview of the whole workspace drawn in a fixed screen rectangle. Nodes are rasterized into a
+ * coarse grid of category colors that is only rebuilt when the spatial index reports a change, so
+ * a frame costs one fill per run of equal cells regardless of how many nodes the preset holds.
+ * The minimap never takes part in hit-testing; clicks only move the camera.
+ */
+final class GraphMinimap {
+    private static final int CELL_PIXELS = 2;
+    private static final int PADDING = 3;
+    private static final int BACKGROUND_COLOR = 0xE0181818;
+    private static final int BORDER_COLOR = 0xFF555555;
+    private static final int VIEWPORT_COLOR = 0xFF87CEEB;
+
+    private int[] cells = new int[0];
+    private int columns;
+    private int rows;
+    private long rasterVersion = -1L;
+    private int rasterWidth;
+    private int rasterHeight;
+
+    // World bounds and scale of the current raster
+    private int worldMinX;
+    private int worldMinY;
+    private float pixelsPerUnit = 1.0f;
+
+    // Screen rectangle of the last frame, used to resolve clicks
+    private int left;
+    private int top;
+    private int width;
+    private int height;
+    private boolean visible;
+
+    void render(DrawContext context, List<Node> nodes, long version, int left, int top, int width, int height,
+                int viewMinX, int viewMinY, int viewMaxX, int viewMaxY) {
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+        this.visible = true;
+
+        if (version != rasterVersion || width != rasterWidth || height != rasterHeight) {
+            rasterize(nodes, width, height);
+            rasterVersion = version;
+            rasterWidth = width;
+            rasterHeight = height;
+        }
+
+        context.fill(left, top, left + width, top + height, BACKGROUND_COLOR);
+        int originX = left + PADDING;
+        int originY = top + PADDING;
+        for (int row = 0; row < rows; row++) {
+            int base = row * columns;
+            int column = 0;
+            while (column < columns) {
+                int color = cells[base + column];
+                int runEnd = column + 1;
+                while (runEnd < columns && cells[base + runEnd] == color) {
+                    runEnd++;
+                }
+                if (color != 0) {
+                    int y = originY + row * CELL_PIXELS;
+                    context.fill(originX + column * CELL_PIXELS, y, originX + runEnd * CELL_PIXELS, y + CELL_PIXELS, color);
+                }
+                column = runEnd;
+            }
+        }
+
+        int viewLeft = clamp(toScreenX(viewMinX), left, left + width - 1);
+        int viewTop = clamp(toScreenY(viewMinY), top, top + height - 1);
+        int viewRight = clamp(toScreenX(viewMaxX), left + 1, left + width);
+        int viewBottom = clamp(toScreenY(viewMaxY), top + 1, top + height);
+        if (viewRight > viewLeft && viewBottom > viewTop) {
+            context.drawBorder(viewLeft, viewTop, viewRight - viewLeft, viewBottom - viewTop, VIEWPORT_COLOR);
+        }
+        context.drawBorder(left, top, width, height, BORDER_COLOR);
+    }
+
+    /**
+     * Forget the last drawn rectangle; called on frames where the minimap is hidden.
+     */
+    void hide() {
+        visible = false;
+    }
+
+    boolean contains(int screenX, int screenY) {
+        return visible && screenX >= left && screenX < left + width && screenY >= top && screenY < top + height;
+    }
+
+    int toWorldX(int screenX) {
+        return worldMinX + Math.round((screenX - left - PADDING) / pixelsPerUnit);
+    }
+
+    int toWorldY(int screenY) {
+        return worldMinY + Math.round((screenY - top - PADDING) / pixelsPerUnit);
+    }
+
+    private int toScreenX(int worldX) {
+        return left + PADDING + Math.round((worldX - worldMinX) * pixelsPerUnit);
+    }
+
+    private int toScreenY(int worldY) {
+        return top + PADDING + Math.round((worldY - worldMinY) * pixelsPerUnit);
+    }
+
+    private void rasterize(List<Node> nodes, int width, int height) {
+        columns = Math.max(1, (width - PADDING * 2) / CELL_PIXELS);
+        rows = Math.max(1, (height - PADDING * 2) / CELL_PIXELS);
+        if (cells.length != columns * rows) {
+            cells = new int[columns * rows];
+        } else {
+            Arrays.fill(cells, 0);
+        }
+
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Node node : nodes) {
+            minX = Math.min(minX, node.getX());
+            minY = Math.min(minY, node.getY());
+            maxX = Math.max(maxX, node.getX() + node.getWidth());
+            maxY = Math.max(maxY, node.getY() + node.getHeight());
+        }
+        if (minX > maxX) {
+            worldMinX = 0;
+            worldMinY = 0;
+            pixelsPerUnit = 1.0f;
+            return;
+        }
+
+        int spanX = Math.max(1, maxX - minX);
+        int spanY = Math.max(1, maxY - minY);
+        float cellsPerUnit = Math.min(columns / (float) spanX, rows / (float) spanY);
+        pixelsPerUnit = cellsPerUnit * CELL_PIXELS;
+        // Center the content inside the raster along the axis with spare room
+        worldMinX = minX - Math.round((columns / cellsPerUnit - spanX) / 2.0f);
+        worldMinY = minY - Math.round((rows / cellsPerUnit - spanY) / 2.0f);
+
+        // Later nodes are drawn on top in the editor, so they also win here
+        for (Node node : nodes) {
+            int color = node.getType().getCategory().getColor() | 0xFF000000;
+            int firstColumn = clamp((int) Math.floor((node.getX() - worldMinX) * cellsPerUnit), 0, columns - 1);
+            int firstRow = clamp((int) Math.floor((node.getY() - worldMinY) * cellsPerUnit), 0, rows - 1);
+            int lastColumn = clamp((int) Math.ceil((node.getX() + node.getWidth() - worldMinX) * cellsPerUnit) - 1, firstColumn, columns - 1);
+            int lastRow = clamp((int) Math.ceil((node.getY() + node.getHeight() - worldMinY) * cellsPerUnit) - 1, firstRow, rows - 1);
+            for (int row = firstRow; row <= lastRow; row++) {
+                Arrays.fill(cells, row * columns + firstColumn, row * columns + lastColumn + 1, color);
+            }
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,409 @@
+package com.pathmind.ui.graph;
+
+import com.pathmind.nodes.Node;
+import com.pathmind.nodes.NodeConnection;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Uniform grid over node bounds and connection bounding boxes, in world coordinates.
+ * Node entries follow moves and resizes through the node's bounds listener. Connection entries
+ * hold each connection's cached {@link ConnectionRoute}; they are added and removed one at a time
+ * as the graph edits connections, rebuilt only after bulk loads or edits made around the graph,
+ * and re-routed only when an endpoint node moves or resizes.
+ * Every entry carries an order stamp so callers can restore the draw and hit-test order of the
+ * backing lists from a small candidate set.
+ */
+final class GraphSpatialIndex {
+    static final int CELL_SIZE = 256;
+    // Entries spanning more cells than this are kept in a list that every query checks
+    private static final int MAX_CELLS_PER_ENTRY = 1024;
+
+    private final Grid<Node> nodeGrid = new Grid<>();
+    private final Grid<ConnectionRoute> connectionGrid = new Grid<>();
+    private final Map<Node, List<ConnectionRoute>> connectionsByNode = new IdentityHashMap<>();
+    private final Map<NodeConnection, ConnectionRoute> routesByConnection = new HashMap<>();
+    private final Consumer<Node> boundsListener = this::onNodeBoundsChanged;
+    private Consumer<Node> changeListener;
+    private long nextNodeStamp;
+    private long nextConnectionStamp;
+    private long nodeVersion;
+    private boolean connectionsDirty = true;
+    private int indexedConnectionCount;
+
+    /**
+     * Called with every node that is indexed, removed, moved or resized.
+     */
+    void setChangeListener(Consumer<Node> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Index a node, or move it to the top of the order when it is already indexed.
+     */
+    void addNode(Node node) {
+        if (node == null) {
+            return;
+        }
+        nodeGrid.put(node, node.getX(), node.getY(), node.getX() + node.getWidth(), node.getY() + node.getHeight(), nextNodeStamp++);
+        node.setBoundsListener(boundsListener);
+        nodeVersion++;
+        notifyChanged(node);
+    }
+
+    /**
+     * Drop a node and the routes of its connections.
+     */
+    void removeNode(Node node) {
+        if (node == null) {
+            return;
+        }
+        nodeGrid.remove(node);
+        if (node.getBoundsListener() == boundsListener) {
+            node.setBoundsListener(null);
+        }
+        List<ConnectionRoute> attached = connectionsByNode.remove(node);
+        if (attached != null && !connectionsDirty) {
+            for (ConnectionRoute route : attached) {
+                removeRoute(route);
+            }
+        }
+        nodeVersion++;
+        notifyChanged(node);
+    }
+
+    boolean contains(Node node) {
+        return nodeGrid.stampOf(node) >= 0L;
+    }
+
+    /**
+     * Route and index a connection just appended to the connection list.
+     */
+    void addConnection(NodeConnection connection) {
+        if (connection == null || connectionsDirty) {
+            return;
+        }
+        ConnectionRoute route = new ConnectionRoute(connection);
+        ConnectionRoute replaced = routesByConnection.put(connection, route);
+        if (replaced != null) {
+            // An equal connection was indexed already; let the next query rebuild from the list
+            connectionsDirty = true;
+            return;
+        }
+        putRoute(route, nextConnectionStamp++);
+        connectionsByNode.computeIfAbsent(connection.getOutputNode(), ignored -> new ArrayList<>()).add(route);
+        connectionsByNode.computeIfAbsent(connection.getInputNode(), ignored -> new ArrayList<>()).add(route);
+        indexedConnectionCount++;
+    }
+
+    /**
+     * Drop a connection just removed from the connection list.
+     */
+    void removeConnection(NodeConnection connection) {
+        if (connection == null || connectionsDirty) {
+            return;
+        }
+        ConnectionRoute route = routesByConnection.get(connection);
+        if (route != null) {
+            removeRoute(route);
+        }
+    }
+
+    void rebuild(List<Node> nodes) {
+        clear();
+        for (Node node : nodes) {
+            addNode(node);
+        }
+    }
+
+    void clear() {
+        for (Node node : nodeGrid.values()) {
+            if (node.getBoundsListener() == boundsListener) {
+                node.setBoundsListener(null);
+            }
+        }
+        nodeGrid.clear();
+        connectionGrid.clear();
+        connectionsByNode.clear();
+        routesByConnection.clear();
+        nextNodeStamp = 0L;
+        nextConnectionStamp = 0L;
+        connectionsDirty = true;
+        nodeVersion++;
+    }
+
+    void markConnectionsDirty() {
+        connectionsDirty = true;
+    }
+
+    /**
+     * Counter bumped whenever a node is indexed, removed, moved or resized; cheap change detection
+     * for views derived from every node, such as the minimap.
+     */
+    long getNodeVersion() {
+        return nodeVersion;
+    }
+
+    /**
+     * Nodes whose bounds intersect the rectangle, in list order (bottom-most first).
+     */
+    List<Node> queryNodes(int minX, int minY, int maxX, int maxY) {
+        return nodeGrid.query(minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Order stamp of an indexed node; higher values were added or brought to front later.
+     */
+    long getNodeOrder(Node node) {
+        return nodeGrid.stampOf(node);
+    }
+
+    /**
+     * Cached routes of the connections whose bounding box, grown by the margin, intersects the rectangle, in list order.
+     */
+    List<ConnectionRoute> queryRoutes(List<NodeConnection> connections, int minX, int minY, int maxX, int maxY, int margin) {
+        ensureConnections(connections);
+        return connectionGrid.query(minX - margin, minY - margin, maxX + margin, maxY + margin);
+    }
+
+    private void ensureConnections(List<NodeConnection> connections) {
+        // The list is exposed through NodeGraph#getConnections, so also catch edits made around the graph
+        if (!connectionsDirty && indexedConnectionCount == connections.size()) {
+            return;
+        }
+        connectionGrid.clear();
+        connectionsByNode.clear();
+        routesByConnection.clear();
+        for (int i = 0; i < connections.size(); i++) {
+            NodeConnection connection = connections.get(i);
+            ConnectionRoute route = new ConnectionRoute(connection);
+            putRoute(route, i);
+            routesByConnection.put(connection, route);
+            connectionsByNode.computeIfAbsent(connection.getOutputNode(), ignored -> new ArrayList<>()).add(route);
+            connectionsByNode.computeIfAbsent(connection.getInputNode(), ignored -> new ArrayList<>()).add(route);
+        }
+        indexedConnectionCount = connections.size();
+        nextConnectionStamp = connections.size();
+        connectionsDirty = false;
+    }
+
+    private void putRoute(ConnectionRoute route, long stamp) {
+        connectionGrid.put(route, route.getMinX(), route.getMinY(), route.getMaxX(), route.getMaxY(), stamp);
+    }
+
+    private void removeRoute(ConnectionRoute route) {
+        NodeConnection connection = route.getConnection();
+        if (routesByConnection.get(connection) != route) {
+            return;
+        }
+        routesByConnection.remove(connection);
+        connectionGrid.remove(route);
+        unlinkRoute(connection.getOutputNode(), route);
+        unlinkRoute(connection.getInputNode(), route);
+        indexedConnectionCount--;
+    }
+
+    private void unlinkRoute(Node node, ConnectionRoute route) {
+        List<ConnectionRoute> routes = connectionsByNode.get(node);
+        if (routes != null) {
+            routes.remove(route);
+            if (routes.isEmpty()) {
+                connectionsByNode.remove(node);
+            }
+        }
+    }
+
+    private void notifyChanged(Node node) {
+        if (changeListener != null) {
+            changeListener.accept(node);
+        }
+    }
+
+    private void onNodeBoundsChanged(Node node) {
+        long stamp = nodeGrid.stampOf(node);
+        if (stamp < 0L) {
+            return;
+        }
+        nodeGrid.put(node, node.getX(), node.getY(), node.getX() + node.getWidth(), node.getY() + node.getHeight(), stamp);
+        nodeVersion++;
+        notifyChanged(node);
+        if (connectionsDirty) {
+            return;
+        }
+        List<ConnectionRoute> attached = connectionsByNode.get(node);
+        if (attached != null) {
+            for (ConnectionRoute route : attached) {
+                route.update();
+                putRoute(route, connectionGrid.stampOf(route));
+            }
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private long stamp;
+        private int minX, minY, maxX, maxY;
+        private int minCellX, minCellY, maxCellX, maxCellY;
+        private boolean oversized;
+        private int lastQuery;
+
+        private Entry(T value) {
+            this.value = value;
+        }
+
+        private boolean intersects(int queryMinX, int queryMinY, int queryMaxX, int queryMaxY) {
+            return minX <= queryMaxX && maxX >= queryMinX && minY <= queryMaxY && maxY >= queryMinY;
+        }
+    }
+
+    private static final class Grid<T> {
+        private final Long2ObjectOpenHashMap<List<Entry<T>>> cells = new Long2ObjectOpenHashMap<>();
+        private final Map<T, Entry<T>> entries = new IdentityHashMap<>();
+        private final List<Entry<T>> oversized = new ArrayList<>();
+        private int queryCounter;
+
+        private void put(T value, int minX, int minY, int maxX, int maxY, long stamp) {
+            Entry<T> entry = entries.get(value);
+            if (entry == null) {
+                entry = new Entry<>(value);
+                entries.put(value, entry);
+            } else {
+                int minCellX = Math.floorDiv(minX, CELL_SIZE);
+                int minCellY = Math.floorDiv(minY, CELL_SIZE);
+                int maxCellX = Math.floorDiv(maxX, CELL_SIZE);
+                int maxCellY = Math.floorDiv(maxY, CELL_SIZE);
+                if (!entry.oversized && minCellX == entry.minCellX && minCellY == entry.minCellY
+                    && maxCellX == entry.maxCellX && maxCellY == entry.maxCellY) {
+                    // Still covers the same cells, only the exact bounds change
+                    setBounds(entry, minX, minY, maxX, maxY);
+                    entry.stamp = stamp;
+                    return;
+                }
+                unlink(entry);
+            }
+            setBounds(entry, minX, minY, maxX, maxY);
+            entry.stamp = stamp;
+            link(entry);
+        }
+
+        private void remove(T value) {
+            Entry<T> entry = entries.remove(value);
+            if (entry != null) {
+                unlink(entry);
+            }
+        }
+
+        private long stampOf(T value) {
+            Entry<T> entry = entries.get(value);
+            return entry != null ? entry.stamp : -1L;
+        }
+
+        private Iterable<T> values() {
+            return entries.keySet();
+        }
+
+        private void clear() {
+            cells.clear();
+            entries.clear();
+            oversized.clear();
+        }
+
+        private List<T> query(int minX, int minY, int maxX, int maxY) {
+            int query = ++queryCounter;
+            List<Entry<T>> hits = new ArrayList<>();
+            int minCellX = Math.floorDiv(minX, CELL_SIZE);
+            int minCellY = Math.floorDiv(minY, CELL_SIZE);
+            int maxCellX = Math.floorDiv(maxX, CELL_SIZE);
+            int maxCellY = Math.floorDiv(maxY, CELL_SIZE);
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                    List<Entry<T>> cell = cells.get(cellKey(cellX, cellY));
+                    if (cell != null) {
+                        collect(cell, query, minX, minY, maxX, maxY, hits);
+                    }
+                }
+            }
+            collect(oversized, query, minX, minY, maxX, maxY, hits);
+            hits.sort(Comparator.comparingLong(entry -> entry.stamp));
+            List<T> result = new ArrayList<>(hits.size());
+            for (Entry<T> hit : hits) {
+                result.add(hit.value);
+            }
+            return result;
+        }
+
+        private static <T> void collect(List<Entry<T>> source, int query, int minX, int minY, int maxX, int maxY, List<Entry<T>> hits) {
+            for (Entry<T> entry : source) {
+                if (entry.lastQuery == query) {
+                    continue;
+                }
+                entry.lastQuery = query;
+                if (entry.intersects(minX, minY, maxX, maxY)) {
+                    hits.add(entry);
+                }
+            }
+        }
+
+        private static <T> void setBounds(Entry<T> entry, int minX, int minY, int maxX, int maxY) {
+            entry.minX = minX;
+            entry.minY = minY;
+            entry.maxX = maxX;
+            entry.maxY = maxY;
+        }
+
+        private void link(Entry<T> entry) {
+            entry.minCellX = Math.floorDiv(entry.minX, CELL_SIZE);
+            entry.minCellY = Math.floorDiv(entry.minY, CELL_SIZE);
+            entry.maxCellX = Math.floorDiv(entry.maxX, CELL_SIZE);
+            entry.maxCellY = Math.floorDiv(entry.maxY, CELL_SIZE);
+            long cellCount = (long) (entry.maxCellX - entry.minCellX + 1) * (entry.maxCellY - entry.minCellY + 1);
+            entry.oversized = cellCount > MAX_CELLS_PER_ENTRY;
+            if (entry.oversized) {
+                oversized.add(entry);
+                return;
+            }
+            for (int cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+                for (int cellY = entry.minCellY; cellY <= entry.maxCellY; cellY++) {
+                    long key = cellKey(cellX, cellY);
+                    List<Entry<T>> cell = cells.get(key);
+                    if (cell == null) {
+                        cell = new ArrayList<>(4);
+                        cells.put(key, cell);
+                    }
+                    cell.add(entry);
+                }
+            }
+        }
+
+        private void unlink(Entry<T> entry) {
+            if (entry.oversized) {
+                oversized.remove(entry);
+                return;
+            }
+            for (int cellX = entry.minCellX; cellX <= entry.maxCellX; cellX++) {
+                for (int cellY = entry.minCellY; cellY <= entry.maxCellY; cellY++) {
+                    long key = cellKey(cellX, cellY);
+                    List<Entry<T>> cell = cells.get(key);
+                    if (cell == null) {
+                        continue;
+                    }
+                    cell.remove(entry);
+                    if (cell.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+
+        private static long cellKey(int cellX, int cellY) {
+            return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+        }
+    }
+}
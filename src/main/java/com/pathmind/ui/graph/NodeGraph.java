@@ -1,6 +1,8 @@
 package com.pathmind.ui.graph;
 
+import com.pathmind.data.GraphAutoSaveService;
 import com.pathmind.data.NodeGraphData;
+import com.pathmind.data.NodeGraphHydrator;
 import com.pathmind.data.NodeGraphPersistence;
 import com.pathmind.data.PresetManager;
 import com.pathmind.nodes.Node;
@@ -10,46 +12,56 @@ import com.pathmind.nodes.NodeParameter;
 import com.pathmind.nodes.NodeType;
 import com.pathmind.nodes.ParameterType;
 import com.pathmind.execution.ExecutionManager;
+import com.pathmind.util.ClientThreadBridge;
+import com.pathmind.util.TextLayoutCache;
 import org.lwjgl.glfw.GLFW;
+import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.text.Text;
 
 import java.nio.file.Path;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 /**
  * Manages the node graph for the Pathmind visual editor.
  * Handles node rendering, connections, and interactions.
  */
 public class NodeGraph {
-    private static final int CONNECTION_DOT_SPACING = 12;
-    private static final int CONNECTION_DOT_LENGTH = 4;
     private static final int CONNECTION_ANIMATION_STEP_MS = 50;
     private static final int DUPLICATE_OFFSET_X = 32;
     private static final int DUPLICATE_OFFSET_Y = 24;
     private static final int SELECTION_BOX_MIN_DRAG = 3;
+    // World-space slack around the viewport so sockets and outlines drawn just outside a node's bounds are kept
+    private static final int VIEWPORT_CULL_MARGIN = 16;
+    private static final int CONNECTION_HIT_TOLERANCE = 10;
+    // Presets at least this large get the minimap at every zoom level
+    private static final int MINIMAP_NODE_THRESHOLD = 150;
+    private static final int BLOCK_WIRE_THICKNESS = 4;
 
     private final List<Node> nodes;
     private final List<NodeConnection> connections;
+    private final GraphSpatialIndex spatialIndex = new GraphSpatialIndex();
+    private final GraphMinimap minimap = new GraphMinimap();
     private Node selectedNode;
     private final LinkedHashSet<Node> selectedNodes;
     private Node draggingNode;
     private int draggingNodeStartX;
     private int draggingNodeStartY;
     private boolean draggingNodeDetached;
-    private NodeGraphData pendingDragUndoSnapshot = null;
     private boolean dragOperationChanged = false;
     
     // Camera/viewport for infinite scrolling
@@ -93,6 +105,7 @@ public class NodeGraph {
     private int sidebarWidthForRendering = 180;
 
     private String activePreset;
+    private long nodeDelayMs = NodeGraphData.DEFAULT_NODE_DELAY_MS;
     private final Set<Node> cascadeDeletionPreviewNodes;
 
     private static final long COORDINATE_CARET_BLINK_INTERVAL_MS = 500;
@@ -110,12 +123,12 @@ public class NodeGraph {
     private long amountCaretLastToggleTime = 0L;
     private boolean amountCaretVisible = true;
     private boolean workspaceDirty = false;
+    // Bumped on every edit so a finished background save only clears the edits it contains
+    private long workspaceRevision;
+    private long queuedSaveRevision = -1L;
     private ZoomLevel zoomLevel = ZoomLevel.FOCUSED;
     private ClipboardSnapshot clipboardNodeSnapshot = null;
-    private final Deque<NodeGraphData> undoStack = new ArrayDeque<>();
-    private final Deque<NodeGraphData> redoStack = new ArrayDeque<>();
-    private boolean suppressUndoCapture = false;
-    private static final int MAX_HISTORY = 50;
+    private final GraphEditHistory history;
     private boolean selectionBoxActive = false;
     private int selectionBoxStartX = 0;
     private int selectionBoxStartY = 0;
@@ -125,25 +138,41 @@ public class NodeGraph {
     private final Map<Node, DragStartInfo> multiDragStartPositions = new HashMap<>();
     private boolean selectionDeletionPreviewActive = false;
 
+    /**
+     * How much of each node is drawn. Hit-testing always uses the full node geometry.
+     */
+    public enum DetailLevel {
+        // Everything, including labels and input fields
+        FULL,
+        // Node chrome, slots and sockets without text
+        SIMPLIFIED,
+        // Solid category-colored rectangles and straight wires, no sockets
+        BLOCKS
+    }
+
     public enum ZoomLevel {
-        FOCUSED(1.0f, true),
-        OVERVIEW(0.35f, false),
-        DISTANT(0.18f, false);
+        FOCUSED(1.0f, DetailLevel.FULL),
+        OVERVIEW(0.35f, DetailLevel.SIMPLIFIED),
+        DISTANT(0.18f, DetailLevel.BLOCKS);
 
         private final float scale;
-        private final boolean showText;
+        private final DetailLevel detailLevel;
 
-        ZoomLevel(float scale, boolean showText) {
+        ZoomLevel(float scale, DetailLevel detailLevel) {
             this.scale = scale;
-            this.showText = showText;
+            this.detailLevel = detailLevel;
         }
 
         public float getScale() {
             return scale;
         }
 
+        public DetailLevel getDetailLevel() {
+            return detailLevel;
+        }
+
         public boolean shouldShowText() {
-            return showText;
+            return detailLevel == DetailLevel.FULL;
         }
     }
 
@@ -263,6 +292,7 @@ public class NodeGraph {
         this.draggingNodeDetached = false;
         this.activePreset = PresetManager.getActivePreset();
         this.cascadeDeletionPreviewNodes = new HashSet<>();
+        this.history = new GraphEditHistory(nodes, connections, spatialIndex);
 
         // Add preset nodes similar to Blender's shader editor
         // Will be initialized with proper centering when screen dimensions are available
@@ -271,6 +301,7 @@ public class NodeGraph {
     public void initializeWithScreenDimensions(int screenWidth, int screenHeight, int sidebarWidth, int titleBarHeight) {
         // Clear any existing nodes
         nodes.clear();
+        spatialIndex.clear();
         connections.clear();
         
         // Calculate workspace area
@@ -286,26 +317,32 @@ public class NodeGraph {
         // Position nodes with proper spacing, centered in workspace
         Node startNode = new Node(NodeType.START, centerX - 100, centerY - 50);
         nodes.add(startNode);
+        spatialIndex.addNode(startNode);
         
         Node middleNode = new Node(NodeType.GOTO, centerX, centerY - 50);
         nodes.add(middleNode);
+        spatialIndex.addNode(middleNode);
         
         // Connect them
         connections.add(new NodeConnection(startNode, middleNode, 0, 0));
+        spatialIndex.markConnectionsDirty();
+        history.reset();
     }
 
 
     public void addNode(Node node) {
         nodes.add(node);
+        spatialIndex.addNode(node);
     }
 
     public void removeNode(Node node) {
         if (node == null) {
             return;
         }
-        pushUndoState();
+        recordUndoStep();
         removeNodeInternal(node, true, true);
-        workspaceDirty = true;
+        recordUndoStep();
+        markWorkspaceDirty();
     }
 
     private void removeNodeInternal(Node node, boolean autoReconnect, boolean repositionDetachments) {
@@ -402,14 +439,19 @@ public class NodeGraph {
                     Node outputTarget = outputConn.getInputNode();
                     int outputSocket = outputConn.getInputSocket();
 
-                    connections.add(new NodeConnection(inputSource, outputTarget, inputSocket, outputSocket));
+                    addConnectionInternal(new NodeConnection(inputSource, outputTarget, inputSocket, outputSocket));
                 }
             }
         }
 
-        connections.removeIf(conn ->
+        removeConnectionsIf(conn ->
             conn.getOutputNode().equals(node) || conn.getInputNode().equals(node));
-        nodes.remove(node);
+        int listIndex = nodes.indexOf(node);
+        if (listIndex >= 0) {
+            nodes.remove(listIndex);
+            history.nodeRemovedAt(node, listIndex);
+        }
+        spatialIndex.removeNode(node);
 
         if (selectedNodes.remove(node)) {
             node.setSelected(false);
@@ -426,14 +468,11 @@ public class NodeGraph {
         int worldX = screenToWorldX(x);
         int worldY = screenToWorldY(y);
 
-        Set<Node> processedRoots = new HashSet<>();
-        for (int i = nodes.size() - 1; i >= 0; i--) {
-            Node node = nodes.get(i);
-            Node root = getRootNode(node);
-            if (root == null || processedRoots.contains(root)) {
-                continue;
-            }
-            processedRoots.add(root);
+        List<Node> candidates = spatialIndex.queryNodes(worldX, worldY, worldX, worldY);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        for (Node root : getRootsInStackOrder(candidates, true)) {
             Node hit = findNodeInHierarchyAt(root, worldX, worldY);
             if (hit != null) {
                 return hit;
@@ -442,6 +481,34 @@ public class NodeGraph {
         return null;
     }
 
+    /**
+     * Distinct roots of the given nodes, ordered the way a full walk over {@code nodes} would meet them:
+     * by the last stacked member of each hierarchy when topmost first, by the first one otherwise.
+     */
+    private List<Node> getRootsInStackOrder(Collection<Node> members, boolean topmostFirst) {
+        Map<Node, Long> rootOrder = new HashMap<>();
+        for (Node member : members) {
+            Node root = getRootNode(member);
+            if (root == null || rootOrder.containsKey(root)) {
+                continue;
+            }
+            List<Node> hierarchy = new ArrayList<>();
+            collectHierarchy(root, hierarchy, new HashSet<>());
+            long order = topmostFirst ? Long.MIN_VALUE : Long.MAX_VALUE;
+            for (Node node : hierarchy) {
+                long stamp = spatialIndex.getNodeOrder(node);
+                if (stamp >= 0L) {
+                    order = topmostFirst ? Math.max(order, stamp) : Math.min(order, stamp);
+                }
+            }
+            rootOrder.put(root, order);
+        }
+        List<Node> roots = new ArrayList<>(rootOrder.keySet());
+        Comparator<Node> byOrder = Comparator.comparingLong(rootOrder::get);
+        roots.sort(topmostFirst ? byOrder.reversed() : byOrder);
+        return roots;
+    }
+
     private Node findNodeInHierarchyAt(Node node, int worldX, int worldY) {
         if (node == null) {
             return null;
@@ -658,6 +725,10 @@ public class NodeGraph {
         }
         // Append in hierarchy order so they render above others
         nodes.addAll(hierarchy);
+        for (Node member : hierarchy) {
+            // Re-adding refreshes the member's order stamp without touching its cells
+            spatialIndex.addNode(member);
+        }
     }
 
     private Node getRootNode(Node node) {
@@ -717,11 +788,13 @@ public class NodeGraph {
             return null;
         }
         clipboardNodeSnapshot = snapshot;
-        pushUndoState();
+        recordUndoStep();
         SelectionBounds bounds = calculateBounds(selectedNodes);
         int anchorX = bounds != null ? bounds.minX : snapshot.anchorX;
         int anchorY = bounds != null ? bounds.minY : snapshot.anchorY;
-        return instantiateClipboardSnapshot(snapshot, anchorX + DUPLICATE_OFFSET_X, anchorY + DUPLICATE_OFFSET_Y);
+        Node duplicate = instantiateClipboardSnapshot(snapshot, anchorX + DUPLICATE_OFFSET_X, anchorY + DUPLICATE_OFFSET_Y);
+        recordUndoStep();
+        return duplicate;
     }
 
     public Node pasteClipboardNode() {
@@ -731,8 +804,10 @@ public class NodeGraph {
         SelectionBounds bounds = calculateBounds(selectedNodes);
         int baseX = bounds != null ? bounds.minX : clipboardNodeSnapshot.anchorX;
         int baseY = bounds != null ? bounds.minY : clipboardNodeSnapshot.anchorY;
-        pushUndoState();
-        return instantiateClipboardSnapshot(clipboardNodeSnapshot, baseX + DUPLICATE_OFFSET_X, baseY + DUPLICATE_OFFSET_Y);
+        recordUndoStep();
+        Node pasted = instantiateClipboardSnapshot(clipboardNodeSnapshot, baseX + DUPLICATE_OFFSET_X, baseY + DUPLICATE_OFFSET_Y);
+        recordUndoStep();
+        return pasted;
     }
 
     public boolean deleteSelectedNode() {
@@ -740,12 +815,13 @@ public class NodeGraph {
             return false;
         }
         List<Node> targets = new ArrayList<>(selectedNodes);
-        pushUndoState();
+        recordUndoStep();
         for (Node node : targets) {
             removeNodeCascade(node, false);
         }
+        recordUndoStep();
         clearSelection();
-        workspaceDirty = true;
+        markWorkspaceDirty();
         return true;
     }
 
@@ -802,7 +878,7 @@ public class NodeGraph {
             }
             List<NodeGraphData.ParameterData> params = nodeData.getParameters();
             if (params != null) {
-                newNode.getParameters().clear();
+                List<NodeParameter> restored = new ArrayList<>(params.size());
                 for (NodeGraphData.ParameterData paramData : params) {
                     ParameterType parameterType = ParameterType.STRING;
                     String typeName = paramData.getType();
@@ -815,11 +891,13 @@ public class NodeGraph {
                     }
                     String value = paramData.getValue() == null ? "" : paramData.getValue();
                     NodeParameter parameter = new NodeParameter(paramData.getName(), parameterType, value);
-                    newNode.getParameters().add(parameter);
+                    restored.add(parameter);
                 }
+                newNode.replaceParameters(restored);
                 newNode.recalculateDimensions();
             }
             nodes.add(newNode);
+            spatialIndex.addNode(newNode);
             idToNode.put(nodeData.getId(), newNode);
         }
 
@@ -863,7 +941,7 @@ public class NodeGraph {
                 if (outputNode == null || inputNode == null || outputNode.isSensorNode() || inputNode.isSensorNode()) {
                     continue;
                 }
-                connections.add(new NodeConnection(outputNode, inputNode, connData.getOutputSocket(), connData.getInputSocket()));
+                addConnectionInternal(new NodeConnection(outputNode, inputNode, connData.getOutputSocket(), connData.getInputSocket()));
             }
         }
 
@@ -890,12 +968,13 @@ public class NodeGraph {
             bringNodeToFront(primaryClone);
         }
 
-        workspaceDirty = true;
+        markWorkspaceDirty();
         return primaryClone;
     }
 
     private NodeGraphData buildGraphData(Collection<Node> nodeCollection, Collection<NodeConnection> connectionCollection, Set<Node> allowedNodes) {
         NodeGraphData data = new NodeGraphData();
+        data.setNodeDelayMs(nodeDelayMs);
         if (nodeCollection == null) {
             return data;
         }
@@ -984,79 +1063,56 @@ public class NodeGraph {
         return data;
     }
 
-    private void pushUndoState() {
-        if (suppressUndoCapture) {
-            return;
-        }
-        NodeGraphData snapshot = buildGraphData(new ArrayList<>(nodes), new ArrayList<>(connections), null);
-        pushUndoSnapshot(snapshot);
-    }
-
-    private void pushUndoSnapshot(NodeGraphData snapshot) {
-        if (snapshot == null || suppressUndoCapture) {
-            return;
-        }
-        undoStack.push(snapshot);
-        while (undoStack.size() > MAX_HISTORY) {
-            undoStack.removeLast();
-        }
-        redoStack.clear();
-    }
-
-    private void restoreFromSnapshot(NodeGraphData data) {
-        if (data == null) {
-            return;
-        }
-        suppressUndoCapture = true;
-        applyLoadedData(data);
-        suppressUndoCapture = false;
-        workspaceDirty = true;
+    /**
+     * Close the current undo step: everything changed since the previous step becomes one history entry.
+     * Called both before and after an edit so unrelated pending changes never end up in the same step.
+     */
+    private void recordUndoStep() {
+        history.commit();
     }
 
     public boolean undo() {
-        if (undoStack.isEmpty()) {
+        prepareForHistoryStep();
+        if (!history.undo()) {
             return false;
         }
-        NodeGraphData currentState = buildGraphData(new ArrayList<>(nodes), new ArrayList<>(connections), null);
-        NodeGraphData previousState = undoStack.pop();
-        if (currentState != null) {
-            redoStack.push(currentState);
-        }
-        restoreFromSnapshot(previousState);
+        markWorkspaceDirty();
         return true;
     }
 
     public boolean redo() {
-        if (redoStack.isEmpty()) {
+        prepareForHistoryStep();
+        if (!history.redo()) {
             return false;
         }
-        NodeGraphData currentState = buildGraphData(new ArrayList<>(nodes), new ArrayList<>(connections), null);
-        NodeGraphData nextState = redoStack.pop();
-        if (currentState != null) {
-            undoStack.push(currentState);
-        }
-        restoreFromSnapshot(nextState);
+        markWorkspaceDirty();
         return true;
     }
 
+    private void prepareForHistoryStep() {
+        stopCoordinateEditing(true);
+        stopAmountEditing(true);
+        recordUndoStep();
+        clearSelection();
+        draggingNode = null;
+        draggingNodeDetached = false;
+        resetDropTargets();
+        cascadeDeletionPreviewNodes.clear();
+    }
+
     public void startDragging(Node node, int mouseX, int mouseY) {
         stopCoordinateEditing(true);
         stopAmountEditing(true);
         resetDropTargets();
 
         if (node == null) {
-            pendingDragUndoSnapshot = null;
             dragOperationChanged = false;
             multiDragActive = false;
             multiDragStartPositions.clear();
             return;
         }
 
-        if (suppressUndoCapture) {
-            pendingDragUndoSnapshot = null;
-        } else {
-            pendingDragUndoSnapshot = buildGraphData(new ArrayList<>(nodes), new ArrayList<>(connections), null);
-        }
+        recordUndoStep();
         dragOperationChanged = false;
 
         draggingNode = node;
@@ -1102,7 +1158,7 @@ public class NodeGraph {
             for (NodeConnection conn : connections) {
                 if (conn.getOutputNode().equals(node) && conn.getOutputSocket() == socketIndex) {
                     disconnectedConnection = conn;
-                    connections.remove(conn);
+                    removeConnectionInternal(conn);
                     break;
                 }
             }
@@ -1111,7 +1167,7 @@ public class NodeGraph {
             for (NodeConnection conn : connections) {
                 if (conn.getInputNode().equals(node) && conn.getInputSocket() == socketIndex) {
                     disconnectedConnection = conn;
-                    connections.remove(conn);
+                    removeConnectionInternal(conn);
                     break;
                 }
             }
@@ -1298,6 +1354,14 @@ public class NodeGraph {
     }
 
     public Node handleSidebarDrop(NodeType nodeType, int worldMouseX, int worldMouseY) {
+        Node newNode = placeSidebarNode(nodeType, worldMouseX, worldMouseY);
+        if (newNode != null) {
+            recordUndoStep();
+        }
+        return newNode;
+    }
+
+    private Node placeSidebarNode(NodeType nodeType, int worldMouseX, int worldMouseY) {
         resetDropTargets();
         if (nodeType == null) {
             return null;
@@ -1312,8 +1376,9 @@ public class NodeGraph {
                 }
                 if (node.isPointInsideSensorSlot(worldMouseX, worldMouseY)) {
                     nodes.add(newNode);
+                    spatialIndex.addNode(newNode);
                     node.attachSensor(newNode);
-                    workspaceDirty = true;
+                    markWorkspaceDirty();
                     return newNode;
                 }
             }
@@ -1325,8 +1390,9 @@ public class NodeGraph {
                 int slotIndex = node.getParameterSlotIndexAt(worldMouseX, worldMouseY);
                 if (slotIndex >= 0 && node.canAcceptParameterNode(newNode, slotIndex)) {
                     nodes.add(newNode);
+                    spatialIndex.addNode(newNode);
                     node.attachParameter(newNode, slotIndex);
-                    workspaceDirty = true;
+                    markWorkspaceDirty();
                     return newNode;
                 }
             }
@@ -1340,8 +1406,9 @@ public class NodeGraph {
                 }
                 if (node.isPointInsideActionSlot(worldMouseX, worldMouseY)) {
                     nodes.add(newNode);
+                    spatialIndex.addNode(newNode);
                     node.attachActionNode(newNode);
-                    workspaceDirty = true;
+                    markWorkspaceDirty();
                     return newNode;
                 }
             }
@@ -1351,7 +1418,8 @@ public class NodeGraph {
         int nodeY = worldMouseY - newNode.getHeight() / 2;
         newNode.setPosition(nodeX, nodeY);
         nodes.add(newNode);
-        workspaceDirty = true;
+        spatialIndex.addNode(newNode);
+        markWorkspaceDirty();
         return newNode;
     }
     
@@ -1454,10 +1522,9 @@ public class NodeGraph {
         resetDropTargets();
 
         if (dragOperationChanged) {
-            pushUndoSnapshot(pendingDragUndoSnapshot);
-            workspaceDirty = true;
+            recordUndoStep();
+            markWorkspaceDirty();
         }
-        pendingDragUndoSnapshot = null;
         dragOperationChanged = false;
         if (multiDragActive) {
             multiDragActive = false;
@@ -1502,40 +1569,40 @@ public class NodeGraph {
             if (hoveredNode != null && hoveredSocket != -1) {
                 if (isOutputSocket && hoveredSocketIsInput) {
                     // Remove any existing incoming connection to the target socket
-                    connections.removeIf(conn ->
+                    removeConnectionsIf(conn ->
                         conn.getInputNode() == hoveredNode && conn.getInputSocket() == hoveredSocket
                     );
 
                     // Ensure only one outgoing connection per source socket
-                    connections.removeIf(conn ->
+                    removeConnectionsIf(conn ->
                         conn.getOutputNode() == connectionSourceNode && conn.getOutputSocket() == connectionSourceSocket
                     );
 
                     // Connect output to input
                     NodeConnection newConnection = new NodeConnection(connectionSourceNode, hoveredNode, connectionSourceSocket, hoveredSocket);
-                    connections.add(newConnection);
+                    addConnectionInternal(newConnection);
                     System.out.println("Created new connection from " + connectionSourceNode.getType() + " to " + hoveredNode.getType());
                 } else if (!isOutputSocket && !hoveredSocketIsInput) {
                     // Remove any existing outgoing connection from the target socket
-                    connections.removeIf(conn -> 
+                    removeConnectionsIf(conn -> 
                         conn.getOutputNode() == hoveredNode && conn.getOutputSocket() == hoveredSocket
                     );
                     
                     // Connect input to output (reverse connection)
                     NodeConnection newConnection = new NodeConnection(hoveredNode, connectionSourceNode, hoveredSocket, connectionSourceSocket);
-                    connections.add(newConnection);
+                    addConnectionInternal(newConnection);
                     System.out.println("Created new connection from " + hoveredNode.getType() + " to " + connectionSourceNode.getType());
                 } else {
                     // Invalid connection - restore original
                     if (disconnectedConnection != null) {
-                        connections.add(disconnectedConnection);
+                        addConnectionInternal(disconnectedConnection);
                         System.out.println("Restored original connection (invalid target)");
                     }
                 }
             } else {
                 // No valid target - restore original connection
                 if (disconnectedConnection != null) {
-                    connections.add(disconnectedConnection);
+                    addConnectionInternal(disconnectedConnection);
                     System.out.println("Restored original connection (no target)");
                 }
             }
@@ -1547,6 +1614,7 @@ public class NodeGraph {
         hoveredNode = null;
         hoveredSocket = -1;
         disconnectedConnection = null;
+        recordUndoStep();
     }
     
     public boolean isInSidebar(int mouseX, int sidebarWidth) {
@@ -1639,7 +1707,7 @@ public class NodeGraph {
             return;
         }
         if (captureUndo) {
-            pushUndoState();
+            recordUndoStep();
         }
         List<Node> removalOrder = new ArrayList<>();
         collectNodesForCascade(node, removalOrder, new HashSet<>());
@@ -1647,7 +1715,10 @@ public class NodeGraph {
             boolean shouldReconnect = toRemove == node;
             removeNodeInternal(toRemove, shouldReconnect, false);
         }
-        workspaceDirty = true;
+        if (captureUndo) {
+            recordUndoStep();
+        }
+        markWorkspaceDirty();
     }
 
     private void collectNodesForCascade(Node node, List<Node> order, Set<Node> visited) {
@@ -1702,7 +1773,7 @@ public class NodeGraph {
             // Validate connection (output can only connect to input)
             if (isInput && connectionSourceNode != targetNode) {
                 // Create new connection
-                connections.add(new NodeConnection(connectionSourceNode, targetNode, connectionSourceSocket, targetSocket));
+                addConnectionInternal(new NodeConnection(connectionSourceNode, targetNode, connectionSourceSocket, targetSocket));
                 stopDraggingConnection();
                 return true;
             }
@@ -1713,18 +1784,16 @@ public class NodeGraph {
     public NodeConnection getConnectionAt(int mouseX, int mouseY) {
         int worldX = screenToWorldX(mouseX);
         int worldY = screenToWorldY(mouseY);
-        for (NodeConnection connection : connections) {
+        for (ConnectionRoute route : spatialIndex.queryRoutes(connections, worldX, worldY, worldX, worldY, CONNECTION_HIT_TOLERANCE)) {
             // Simple check - could be improved with better line collision detection
-            Node outputNode = connection.getOutputNode();
-            Node inputNode = connection.getInputNode();
-
-            int outputX = outputNode.getSocketX(false);
-            int outputY = outputNode.getSocketY(connection.getOutputSocket(), false);
-            int inputX = inputNode.getSocketX(true);
-            int inputY = inputNode.getSocketY(connection.getInputSocket(), true);
+            NodeConnection connection = route.getConnection();
+            int outputX = route.getOutputX();
+            int outputY = route.getOutputY();
+            int inputX = route.getInputX();
+            int inputY = route.getInputY();
 
             // Check if mouse is near the connection line (simplified)
-            if (Math.abs(worldY - (outputY + inputY) / 2) < 10) {
+            if (Math.abs(worldY - (outputY + inputY) / 2) < CONNECTION_HIT_TOLERANCE) {
                 int minX = Math.min(outputX, inputX);
                 int maxX = Math.max(outputX, inputX);
                 if (worldX >= minX && worldX <= maxX) {
@@ -1740,26 +1809,59 @@ public class NodeGraph {
         matrices.pushMatrix();
         matrices.scale(getZoomScale(), getZoomScale());
 
+        // Visible world rectangle; anything outside it is skipped before any draw call
+        float scale = getZoomScale() == 0.0f ? 1.0f : getZoomScale();
+        int viewMinX = cameraX - VIEWPORT_CULL_MARGIN;
+        int viewMinY = cameraY - VIEWPORT_CULL_MARGIN;
+        int viewMaxX = cameraX + (int) Math.ceil(context.getScaledWindowWidth() / scale) + VIEWPORT_CULL_MARGIN;
+        int viewMaxY = cameraY + (int) Math.ceil(context.getScaledWindowHeight() / scale) + VIEWPORT_CULL_MARGIN;
+
         if (!onlyDragged) {
             updateCascadeDeletionPreview();
-            renderConnections(context);
+            renderConnections(context, viewMinX, viewMinY, viewMaxX, viewMaxY);
         }
 
-        Set<Node> processedRoots = new HashSet<>();
         Set<Node> renderedNodes = new HashSet<>();
-
-        for (Node node : nodes) {
-            Node root = getRootNode(node);
-            if (root == null || processedRoots.contains(root)) {
-                continue;
-            }
-            processedRoots.add(root);
+        List<Node> visibleNodes = spatialIndex.queryNodes(viewMinX, viewMinY, viewMaxX, viewMaxY);
+        for (Node root : getRootsInStackOrder(visibleNodes, false)) {
             renderHierarchy(root, context, textRenderer, mouseX, mouseY, delta, onlyDragged, false, renderedNodes);
         }
 
         matrices.popMatrix();
     }
 
+    public boolean shouldShowMinimap() {
+        return !nodes.isEmpty()
+            && (nodes.size() >= MINIMAP_NODE_THRESHOLD || zoomLevel.getDetailLevel() == DetailLevel.BLOCKS);
+    }
+
+    /**
+     * Draw the workspace overview into the given screen rectangle, or hide it when the graph is
+     * small enough to navigate directly.
+     */
+    public void renderMinimap(DrawContext context, int left, int top, int width, int height) {
+        if (!shouldShowMinimap()) {
+            minimap.hide();
+            return;
+        }
+        float scale = getZoomScale() == 0.0f ? 1.0f : getZoomScale();
+        int viewMaxX = cameraX + Math.round(context.getScaledWindowWidth() / scale);
+        int viewMaxY = cameraY + Math.round(context.getScaledWindowHeight() / scale);
+        minimap.render(context, nodes, spatialIndex.getNodeVersion(), left, top, width, height,
+            cameraX, cameraY, viewMaxX, viewMaxY);
+    }
+
+    /**
+     * Center the camera on the clicked point of the minimap so that it lands on the given screen anchor.
+     */
+    public boolean handleMinimapClick(int mouseX, int mouseY, int anchorScreenX, int anchorScreenY) {
+        if (!minimap.contains(mouseX, mouseY)) {
+            return false;
+        }
+        alignCameraToAnchor(minimap.toWorldX(mouseX), minimap.toWorldY(mouseY), anchorScreenX, anchorScreenY);
+        return true;
+    }
+
     public void renderSelectionBox(DrawContext context) {
         if (!selectionBoxActive || !hasSelectionBoxDrag()) {
             return;
@@ -1789,7 +1891,11 @@ public class NodeGraph {
             return;
         }
 
-        renderNode(context, textRenderer, node, mouseX, mouseY, delta);
+        if (zoomLevel.getDetailLevel() == DetailLevel.BLOCKS) {
+            renderNodeBlock(context, node);
+        } else {
+            renderNode(context, textRenderer, node, mouseX, mouseY, delta);
+        }
         renderedNodes.add(node);
 
         Node actionChild = node.getAttachedActionNode();
@@ -1868,6 +1974,31 @@ public class NodeGraph {
         return false;
     }
 
+    /**
+     * Far-zoom stand-in for {@link #renderNode}: a solid rectangle in the node's category color.
+     */
+    private void renderNodeBlock(DrawContext context, Node node) {
+        int x = node.getX() - cameraX;
+        int y = node.getY() - cameraY;
+        int width = node.getWidth();
+        int height = node.getHeight();
+
+        boolean deletionPreview = (node.isDragging() && isNodeOverSidebar(node, sidebarWidthForRendering, x, width))
+            || (selectionDeletionPreviewActive && node.isSelected())
+            || cascadeDeletionPreviewNodes.contains(node);
+        int color = deletionPreview ? 0xFF333333 : node.getType().getCategory().getColor() | 0xFF000000;
+        context.fill(x, y, x + width, y + height, color);
+
+        // Darker outline keeps attached children distinguishable from a host of the same category
+        int borderColor = 0xFF000000 | ((color >> 1) & 0x7F7F7F);
+        if (node.isDragging()) {
+            borderColor = 0xFFAAAAAA;
+        } else if (node.isSelected()) {
+            borderColor = 0xFF87CEEB;
+        }
+        context.drawBorder(x, y, width, height, borderColor);
+    }
+
     private void renderNode(DrawContext context, TextRenderer textRenderer, Node node, int mouseX, int mouseY, float delta) {
         int x = node.getX() - cameraX;
         int y = node.getY() - cameraY;
@@ -2009,7 +2140,7 @@ public class NodeGraph {
             NodeParameter nameParam = node.getParameter("Name");
             String value = nameParam != null ? nameParam.getDisplayValue() : "";
             String display = value.isEmpty() ? "enter name" : value;
-            display = trimTextToWidth(display, textRenderer, boxRight - boxLeft - 8);
+            display = trimTextToWidth(display, boxRight - boxLeft - 8);
             int textY = boxTop + (boxHeight - textRenderer.fontHeight) / 2 + 1;
             int textColor = isOverSidebar ? 0xFFBFA1AF : 0xFFFFEEF5;
             drawNodeText(
@@ -2047,7 +2178,7 @@ public class NodeGraph {
             NodeParameter nameParam = node.getParameter("Name");
             String value = nameParam != null ? nameParam.getDisplayValue() : "";
             String display = value.isEmpty() ? "enter name" : value;
-            display = trimTextToWidth(display, textRenderer, boxRight - boxLeft - 8);
+            display = trimTextToWidth(display, boxRight - boxLeft - 8);
             int textY = boxTop + (boxHeight - textRenderer.fontHeight) / 2 + 1;
             int textColor = isOverSidebar ? 0xFFBFA1AF : 0xFFFFEEF5;
             drawNodeText(
@@ -2066,35 +2197,9 @@ public class NodeGraph {
 
                     // Render parameters
                     int paramY = y + 18;
-                    List<NodeParameter> parameters = node.getParameters();
-
-                    if (node.supportsModeSelection()) {
-                        String modeLabel = trimTextToWidth(node.getModeDisplayLabel(), textRenderer, width - 10);
-                        int paramTextColor = isOverSidebar ? 0xFF888888 : 0xFFE0E0E0; // Grey text when over sidebar
-                        drawNodeText(
-                            context,
-                            textRenderer,
-                            Text.literal(modeLabel),
-                            x + 5,
-                            paramY,
-                            paramTextColor
-                        );
-                        paramY += 10;
-                    }
-
-                    for (NodeParameter param : parameters) {
-                        String displayText = node.getParameterLabel(param);
-                        displayText = trimTextToWidth(displayText, textRenderer, width - 10);
-
-                        int paramTextColor = isOverSidebar ? 0xFF888888 : 0xFFE0E0E0; // Grey text when over sidebar
-                        drawNodeText(
-                            context,
-                            textRenderer,
-                            displayText,
-                            x + 5,
-                            paramY,
-                            paramTextColor
-                        );
+                    int paramTextColor = isOverSidebar ? 0xFF888888 : 0xFFE0E0E0; // Grey text when over sidebar
+                    for (String label : node.getBodyLabels(width - 10)) {
+                        drawNodeText(context, textRenderer, label, x + 5, paramY, paramTextColor);
                         paramY += 10;
                     }
                 }
@@ -2144,8 +2249,8 @@ public class NodeGraph {
 
         if (!node.hasAttachedSensor()) {
             String placeholder = "Drag a sensor here";
-            String display = trimTextToWidth(placeholder, textRenderer, slotWidth - 8);
-            int textWidth = textRenderer.getWidth(display);
+            String display = trimTextToWidth(placeholder, slotWidth - 8);
+            int textWidth = TextLayoutCache.getInstance().getWidth(display);
             int textX = slotX + Math.max(4, (slotWidth - textWidth) / 2);
             int textY = slotY + (slotHeight - textRenderer.fontHeight) / 2;
             int textColor = sensorDropTarget == node ? 0xFF87CEEB : 0xFF888888;
@@ -2175,8 +2280,8 @@ public class NodeGraph {
 
         if (!node.hasAttachedActionNode()) {
             String placeholder = "Drag a node here";
-            String display = trimTextToWidth(placeholder, textRenderer, slotWidth - 8);
-            int textWidth = textRenderer.getWidth(display);
+            String display = trimTextToWidth(placeholder, slotWidth - 8);
+            int textWidth = TextLayoutCache.getInstance().getWidth(display);
             int textX = slotX + Math.max(4, (slotWidth - textWidth) / 2);
             int textY = slotY + (slotHeight - textRenderer.fontHeight) / 2;
             int textColor = actionDropTarget == node ? 0xFF8BC34A : 0xFF888888;
@@ -2274,7 +2379,7 @@ public class NodeGraph {
 
             String display = editingAxis
                 ? textRenderer.trimToWidth(value, fieldWidth - 6)
-                : trimTextToWidth(value, textRenderer, fieldWidth - 6);
+                : trimTextToWidth(value, fieldWidth - 6);
 
             int textX = fieldX + 3;
             int textY = inputTop + (fieldHeight - textRenderer.fontHeight) / 2 + 1;
@@ -2330,7 +2435,7 @@ public class NodeGraph {
 
         String display = editing
             ? textRenderer.trimToWidth(value, fieldWidth - 6)
-            : trimTextToWidth(value, textRenderer, fieldWidth - 6);
+            : trimTextToWidth(value, fieldWidth - 6);
 
         int textX = fieldLeft + 3;
         int textY = fieldTop + (fieldHeight - textRenderer.fontHeight) / 2 + 1;
@@ -2450,6 +2555,7 @@ public class NodeGraph {
         String previous = parameter != null ? parameter.getStringValue() : "";
         coordinateEditingNode.setParameterValueAndPropagate(axisName, value);
         coordinateEditingNode.recalculateDimensions();
+        history.touch(coordinateEditingNode);
         return !Objects.equals(previous, value);
     }
 
@@ -2603,6 +2709,7 @@ public class NodeGraph {
         String previous = amountParam != null ? amountParam.getStringValue() : "";
         amountEditingNode.setParameterValueAndPropagate("Amount", value);
         amountEditingNode.recalculateDimensions();
+        history.touch(amountEditingNode);
         return !Objects.equals(previous, value);
     }
 
@@ -2683,27 +2790,8 @@ public class NodeGraph {
         drawNodeText(context, renderer, Text.literal(text), x, y, color);
     }
 
-    private String trimTextToWidth(String text, TextRenderer renderer, int maxWidth) {
-        if (renderer.getWidth(text) <= maxWidth) {
-            return text;
-        }
-
-        String ellipsis = "...";
-        int ellipsisWidth = renderer.getWidth(ellipsis);
-        if (ellipsisWidth >= maxWidth) {
-            return ellipsis;
-        }
-
-        String baseText = text;
-        if (baseText.endsWith(ellipsis)) {
-            baseText = baseText.substring(0, baseText.length() - ellipsis.length());
-        }
-
-        StringBuilder builder = new StringBuilder(baseText);
-        while (builder.length() > 0 && renderer.getWidth(builder.toString() + ellipsis) > maxWidth) {
-            builder.setLength(builder.length() - 1);
-        }
-        return builder.append(ellipsis).toString();
+    private String trimTextToWidth(String text, int maxWidth) {
+        return TextLayoutCache.getInstance().trimToWidth(text, maxWidth);
     }
 
     private void renderSocket(DrawContext context, int x, int y, boolean isInput, int color) {
@@ -2715,31 +2803,23 @@ public class NodeGraph {
         context.fill(x - 1, y - 1, x + 1, y + 1, 0xFFFFFFFF);
     }
 
-    private void renderConnections(DrawContext context) {
+    private void renderConnections(DrawContext context, int viewMinX, int viewMinY, int viewMaxX, int viewMaxY) {
         ExecutionManager manager = ExecutionManager.getInstance();
         boolean animateConnections = manager.isExecuting();
-        long animationTimestamp = System.currentTimeMillis();
+        int animationOffset = ConnectionRoute.animationOffset(System.currentTimeMillis(), CONNECTION_ANIMATION_STEP_MS);
+        boolean blocks = zoomLevel.getDetailLevel() == DetailLevel.BLOCKS;
 
-        for (NodeConnection connection : connections) {
-            Node outputNode = connection.getOutputNode();
-            Node inputNode = connection.getInputNode();
-
-            if (!outputNode.shouldRenderSockets() || !inputNode.shouldRenderSockets()) {
+        // Routes are cached in world space; only the camera offset is applied per frame
+        for (ConnectionRoute route : spatialIndex.queryRoutes(connections, viewMinX, viewMinY, viewMaxX, viewMaxY, 0)) {
+            if (!route.isVisible()) {
                 continue;
             }
-
-            int outputX = outputNode.getSocketX(false) - cameraX;
-            int outputY = outputNode.getSocketY(connection.getOutputSocket(), false) - cameraY;
-            int inputX = inputNode.getSocketX(true) - cameraX;
-            int inputY = inputNode.getSocketY(connection.getInputSocket(), true) - cameraY;
-            
-            // Simple bezier-like curve
-            if (animateConnections && manager.shouldAnimateConnection(connection)) {
-                renderAnimatedConnectionCurve(context, outputX, outputY, inputX, inputY,
-                        outputNode.getOutputSocketColor(connection.getOutputSocket()), animationTimestamp);
+            if (blocks) {
+                route.renderStraight(context, -cameraX, -cameraY, BLOCK_WIRE_THICKNESS);
+            } else if (animateConnections && manager.shouldAnimateConnection(route.getConnection())) {
+                route.renderAnimated(context, -cameraX, -cameraY, animationOffset);
             } else {
-                renderConnectionCurve(context, outputX, outputY, inputX, inputY,
-                        outputNode.getOutputSocketColor(connection.getOutputSocket()));
+                route.render(context, -cameraX, -cameraY);
             }
         }
 
@@ -2761,118 +2841,57 @@ public class NodeGraph {
             }
             
             // Render the dragging connection using the source node's color
+            int dragColor = connectionSourceNode.getOutputSocketColor(connectionSourceSocket);
             if (animateConnections) {
-                renderAnimatedConnectionCurve(context, sourceX, sourceY, targetX, targetY,
-                        connectionSourceNode.getOutputSocketColor(connectionSourceSocket), animationTimestamp);
+                ConnectionRoute.drawAnimatedCurve(context, sourceX, sourceY, targetX, targetY, dragColor, animationOffset);
             } else {
-                renderConnectionCurve(context, sourceX, sourceY, targetX, targetY,
-                        connectionSourceNode.getOutputSocketColor(connectionSourceSocket));
+                ConnectionRoute.drawCurve(context, sourceX, sourceY, targetX, targetY, dragColor);
             }
         }
     }
 
-    private void renderAnimatedConnectionCurve(DrawContext context, int x1, int y1, int x2, int y2, int color, long timestamp) {
-        int midX = x1 + (x2 - x1) / 2;
-
-        int firstSegmentLength = Math.abs(midX - x1);
-        int secondSegmentLength = Math.abs(y2 - y1);
-
-        int animationOffset = (int) ((timestamp / CONNECTION_ANIMATION_STEP_MS) % CONNECTION_DOT_SPACING);
-
-        drawAnimatedSegment(context, x1, y1, midX, y1, true, color, animationOffset, 0);
-        drawAnimatedSegment(context, midX, y1, midX, y2, false, color, animationOffset, firstSegmentLength);
-        drawAnimatedSegment(context, midX, y2, x2, y2, true, color, animationOffset,
-                firstSegmentLength + secondSegmentLength);
+    public List<Node> getNodes() {
+        return nodes;
     }
 
-    private void drawAnimatedSegment(DrawContext context, int x1, int y1, int x2, int y2, boolean horizontal,
-                                     int color, int animationOffset, int distanceOffset) {
-        int length = horizontal ? Math.abs(x2 - x1) : Math.abs(y2 - y1);
-        if (length == 0) {
-            return;
-        }
-
-        int direction = horizontal ? Integer.compare(x2, x1) : Integer.compare(y2, y1);
-        int start = horizontal ? x1 : y1;
-        int staticCoord = horizontal ? y1 : x1;
-
-        int initialOffset = mod(distanceOffset - animationOffset, CONNECTION_DOT_SPACING);
-        int stepStart = (CONNECTION_DOT_SPACING - initialOffset) % CONNECTION_DOT_SPACING;
-
-        int position = stepStart;
-        while (position > 0) {
-            position -= CONNECTION_DOT_SPACING;
-        }
-
-        boolean drewSegment = false;
-
-        for (; position <= length; position += CONNECTION_DOT_SPACING) {
-            int minDistance = Math.max(position, 0);
-            int maxDistance = Math.min(position + CONNECTION_DOT_LENGTH - 1, length);
-            if (maxDistance < 0 || minDistance > length || minDistance > maxDistance) {
-                continue;
-            }
-
-            drewSegment = true;
-
-            int startPos = start + minDistance * direction;
-            int endPos = start + maxDistance * direction;
-
-            if (horizontal) {
-                int minX = Math.min(startPos, endPos);
-                int maxX = Math.max(startPos, endPos);
-                context.drawHorizontalLine(minX, maxX, staticCoord, color);
-            } else {
-                int minY = Math.min(startPos, endPos);
-                int maxY = Math.max(startPos, endPos);
-                context.drawVerticalLine(staticCoord, minY, maxY, color);
-            }
-        }
-
-        if (!drewSegment) {
-            int fallbackLength = Math.min(CONNECTION_DOT_LENGTH, length);
-            int minDistance = Math.max(0, length - fallbackLength);
-            int maxDistance = length;
-            int startPos = start + minDistance * direction;
-            int endPos = start + maxDistance * direction;
-
-            if (horizontal) {
-                int minX = Math.min(startPos, endPos);
-                int maxX = Math.max(startPos, endPos);
-                context.drawHorizontalLine(minX, maxX, staticCoord, color);
-            } else {
-                int minY = Math.min(startPos, endPos);
-                int maxY = Math.max(startPos, endPos);
-                context.drawVerticalLine(staticCoord, minY, maxY, color);
-            }
-        }
+    public List<NodeConnection> getConnections() {
+        return connections;
     }
 
-    private int mod(int value, int mod) {
-        int result = value % mod;
-        return result < 0 ? result + mod : result;
+    public void removeConnection(NodeConnection connection) {
+        if (removeConnectionInternal(connection)) {
+            recordUndoStep();
+        }
     }
 
-    private void renderConnectionCurve(DrawContext context, int x1, int y1, int x2, int y2, int color) {
-        // Draw a simple L-shaped connection line
-        int midX = x1 + (x2 - x1) / 2;
-        
-        // Horizontal line from source to middle
-        context.drawHorizontalLine(Math.min(x1, midX), Math.max(x1, midX), y1, color);
-        
-        // Vertical line from middle to target
-        context.drawVerticalLine(midX, Math.min(y1, y2), Math.max(y1, y2), color);
-        
-        // Horizontal line from middle to target
-        context.drawHorizontalLine(Math.min(midX, x2), Math.max(midX, x2), y2, color);
+    /**
+     * Append a connection and report it to the spatial index and the edit history.
+     */
+    private void addConnectionInternal(NodeConnection connection) {
+        connections.add(connection);
+        spatialIndex.addConnection(connection);
+        history.connectionAdded(connection);
     }
 
-    public List<Node> getNodes() {
-        return nodes;
+    private boolean removeConnectionInternal(NodeConnection connection) {
+        if (!connections.remove(connection)) {
+            return false;
+        }
+        spatialIndex.removeConnection(connection);
+        history.connectionRemoved(connection);
+        return true;
     }
 
-    public List<NodeConnection> getConnections() {
-        return connections;
+    private void removeConnectionsIf(Predicate<NodeConnection> filter) {
+        Iterator<NodeConnection> iterator = connections.iterator();
+        while (iterator.hasNext()) {
+            NodeConnection connection = iterator.next();
+            if (filter.test(connection)) {
+                iterator.remove();
+                spatialIndex.removeConnection(connection);
+                history.connectionRemoved(connection);
+            }
+        }
     }
     
     /**
@@ -2969,7 +2988,7 @@ public class NodeGraph {
             return manager.requestStopForStart(startNode);
         }
 
-        boolean started = manager.executeBranch(startNode, nodes, connections);
+        boolean started = manager.executeBranch(startNode, nodes, connections, nodeDelayMs);
         if (started) {
             lastStartButtonTriggeredExecution = true;
         }
@@ -3026,18 +3045,55 @@ public class NodeGraph {
      * Save the current node graph to disk
      */
     public boolean save() {
-        boolean saved = NodeGraphPersistence.saveNodeGraphForPreset(activePreset, nodes, connections);
+        boolean saved = NodeGraphPersistence.saveNodeGraphForPreset(activePreset, nodes, connections, nodeDelayMs);
         if (saved) {
             workspaceDirty = false;
         }
         return saved;
     }
 
+    /**
+     * Hand an immutable snapshot of the graph to the background writer. The workspace is marked clean
+     * once the write succeeds, unless it was edited again meanwhile. When {@code debounce} is set,
+     * rapid edits are coalesced into a single write.
+     */
+    public void saveAsync(boolean debounce) {
+        NodeGraphData snapshot = buildGraphData(new ArrayList<>(nodes), new ArrayList<>(connections), null);
+        long revision = workspaceRevision;
+        queuedSaveRevision = revision;
+        CompletableFuture<Boolean> result = debounce
+            ? GraphAutoSaveService.getInstance().schedule(activePreset, snapshot)
+            : GraphAutoSaveService.getInstance().saveNow(activePreset, snapshot);
+        result.thenAccept(saved -> ClientThreadBridge.run(MinecraftClient.getInstance(), () -> onSaveFinished(revision, saved)));
+    }
+
+    private void onSaveFinished(long revision, boolean saved) {
+        if (queuedSaveRevision == revision) {
+            queuedSaveRevision = -1L;
+        }
+        if (saved && revision == workspaceRevision) {
+            workspaceDirty = false;
+        }
+    }
+
+    /**
+     * True when there are edits that no queued or finished save covers yet.
+     */
+    public boolean needsSave() {
+        return workspaceDirty && queuedSaveRevision != workspaceRevision;
+    }
+
     /**
      * Load a node graph from disk, replacing the current one
      */
     public boolean load() {
-        NodeGraphData data = NodeGraphPersistence.loadNodeGraphForPreset(activePreset);
+        return applyPresetData(NodeGraphPersistence.loadNodeGraphForPreset(activePreset));
+    }
+
+    /**
+     * Replace the workspace with graph data already loaded for the active preset.
+     */
+    public boolean applyPresetData(NodeGraphData data) {
         if (data != null) {
             boolean applied = applyLoadedData(data);
             if (applied) {
@@ -3053,7 +3109,7 @@ public class NodeGraph {
         if (data != null) {
             boolean applied = applyLoadedData(data);
             if (applied) {
-                workspaceDirty = true;
+                markWorkspaceDirty();
             }
             return applied;
         }
@@ -3061,7 +3117,7 @@ public class NodeGraph {
     }
 
     public boolean exportToPath(Path savePath) {
-        boolean saved = NodeGraphPersistence.saveNodeGraphToPath(nodes, connections, savePath);
+        boolean saved = NodeGraphPersistence.saveNodeGraphToPath(nodes, connections, savePath, nodeDelayMs);
         if (saved) {
             workspaceDirty = false;
         }
@@ -3069,7 +3125,9 @@ public class NodeGraph {
     }
 
     public void markWorkspaceDirty() {
+        workspaceRevision++;
         workspaceDirty = true;
+        ExecutionManager.getInstance().invalidateEventDispatch();
     }
 
     public void markWorkspaceClean() {
@@ -3084,8 +3142,11 @@ public class NodeGraph {
         if (node == null) {
             return;
         }
+        node.invalidateTextLayout();
+        history.touch(node);
+        recordUndoStep();
         markWorkspaceDirty();
-        save();
+        saveAsync(true);
     }
 
     public void clearWorkspace() {
@@ -3122,6 +3183,7 @@ public class NodeGraph {
         }
 
         nodes.clear();
+        spatialIndex.clear();
         connections.clear();
         clearSelection();
         draggingNode = null;
@@ -3143,148 +3205,25 @@ public class NodeGraph {
         cascadeDeletionPreviewNodes.clear();
         selectionDeletionPreviewActive = false;
         selectionBoxActive = false;
+        history.reset();
     }
 
     private boolean applyLoadedData(NodeGraphData data) {
+        nodeDelayMs = data.getNodeDelayMs();
         nodes.clear();
+        spatialIndex.clear();
         connections.clear();
         clearSelection();
         draggingNode = null;
         selectionDeletionPreviewActive = false;
         selectionBoxActive = false;
 
-        // Load nodes and create node map for connections
-        java.util.Map<String, Node> nodeMap = new java.util.HashMap<>();
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            Node node = new Node(nodeData.getType(), nodeData.getX(), nodeData.getY());
-
-            // Set the same ID using reflection
-            try {
-                java.lang.reflect.Field idField = Node.class.getDeclaredField("id");
-                idField.setAccessible(true);
-                idField.set(node, nodeData.getId());
-            } catch (Exception e) {
-                System.err.println("Failed to set node ID: " + e.getMessage());
-            }
-
-            // Set the mode if it exists (this will reinitialize parameters)
-            if (nodeData.getMode() != null) {
-                node.setMode(nodeData.getMode());
-            }
-
-            // Restore parameters (overwrite the default parameters with saved ones)
-            node.getParameters().clear();
-            if (nodeData.getParameters() != null) {
-                for (NodeGraphData.ParameterData paramData : nodeData.getParameters()) {
-                    ParameterType paramType = ParameterType.valueOf(paramData.getType());
-                    NodeParameter param = new NodeParameter(paramData.getName(), paramType, paramData.getValue());
-                    node.getParameters().add(param);
-                }
-            }
-            node.recalculateDimensions();
-
-            nodes.add(node);
-            nodeMap.put(nodeData.getId(), node);
-        }
-
-        // Restore sensor attachments
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            if (nodeData.getAttachedSensorId() != null) {
-                Node control = nodeMap.get(nodeData.getId());
-                Node sensor = nodeMap.get(nodeData.getAttachedSensorId());
-                if (control != null && sensor != null) {
-                    control.attachSensor(sensor);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            if (nodeData.getParentControlId() != null) {
-                Node sensor = nodeMap.get(nodeData.getId());
-                Node control = nodeMap.get(nodeData.getParentControlId());
-                if (sensor != null && control != null && sensor.isSensorNode()) {
-                    control.attachSensor(sensor);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            if (nodeData.getAttachedActionId() != null) {
-                Node control = nodeMap.get(nodeData.getId());
-                Node child = nodeMap.get(nodeData.getAttachedActionId());
-                if (control != null && child != null) {
-                    control.attachActionNode(child);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            if (nodeData.getParentActionControlId() != null) {
-                Node child = nodeMap.get(nodeData.getId());
-                Node control = nodeMap.get(nodeData.getParentActionControlId());
-                if (child != null && control != null && control.canAcceptActionNode(child)) {
-                    control.attachActionNode(child);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            List<NodeGraphData.ParameterAttachmentData> attachments = nodeData.getParameterAttachments();
-            if (attachments != null && !attachments.isEmpty()) {
-                Node host = nodeMap.get(nodeData.getId());
-                if (host != null) {
-                    attachments.sort(java.util.Comparator.comparingInt(NodeGraphData.ParameterAttachmentData::getSlotIndex));
-                    for (NodeGraphData.ParameterAttachmentData attachment : attachments) {
-                        Node parameter = nodeMap.get(attachment.getParameterNodeId());
-                        if (parameter != null) {
-                            host.attachParameter(parameter, attachment.getSlotIndex());
-                        }
-                    }
-                }
-            } else if (nodeData.getAttachedParameterId() != null) {
-                Node host = nodeMap.get(nodeData.getId());
-                Node parameter = nodeMap.get(nodeData.getAttachedParameterId());
-                if (host != null && parameter != null && parameter.getParentParameterHost() == null) {
-                    host.attachParameter(parameter);
-                }
-            }
-        }
-
-        for (NodeGraphData.NodeData nodeData : data.getNodes()) {
-            List<NodeGraphData.ParameterAttachmentData> attachments = nodeData.getParameterAttachments();
-            if (attachments != null && !attachments.isEmpty()) {
-                continue;
-            }
-            if (nodeData.getParentParameterHostId() != null) {
-                Node parameter = nodeMap.get(nodeData.getId());
-                Node host = nodeMap.get(nodeData.getParentParameterHostId());
-                if (parameter != null && host != null && parameter.isParameterNode()
-                    && parameter.getParentParameterHost() == null) {
-                    host.attachParameter(parameter);
-                }
-            }
-        }
-
-        // Load connections
-        for (NodeGraphData.ConnectionData connData : data.getConnections()) {
-            Node outputNode = nodeMap.get(connData.getOutputNodeId());
-            Node inputNode = nodeMap.get(connData.getInputNodeId());
-
-            if (outputNode != null && inputNode != null) {
-                if (outputNode.isSensorNode() || inputNode.isSensorNode()) {
-                    continue;
-                }
-                NodeConnection connection = new NodeConnection(
-                    outputNode,
-                    inputNode,
-                    connData.getOutputSocket(),
-                    connData.getInputSocket()
-                );
-                connections.add(connection);
-            } else {
-                System.err.println("Failed to restore connection: missing node(s)");
-            }
-        }
+        NodeGraphHydrator.Result hydrated = NodeGraphHydrator.hydrate(data, NodeGraphHydrator.ParameterRestore.REPLACE);
+        nodes.addAll(hydrated.getNodes());
+        connections.addAll(hydrated.getConnections());
+        // Indexed after linking, so attachment layout changes do not churn the grid
+        spatialIndex.rebuild(nodes);
+        spatialIndex.markConnectionsDirty();
 
         sensorDropTarget = null;
         actionDropTarget = null;
@@ -3302,6 +3241,7 @@ public class NodeGraph {
         lastClickTime = 0;
         cascadeDeletionPreviewNodes.clear();
 
+        history.reset();
         System.out.println("Loaded " + nodes.size() + " nodes and " + connections.size() + " connections");
         return true;
     }
@@ -3320,4 +3260,19 @@ public class NodeGraph {
     public String getActivePreset() {
         return activePreset;
     }
+
+    /**
+     * Delay between node executions for this graph, in milliseconds.
+     */
+    public long getNodeDelayMs() {
+        return nodeDelayMs;
+    }
+
+    public void setNodeDelayMs(long nodeDelayMs) {
+        long clamped = Math.max(0L, nodeDelayMs);
+        if (this.nodeDelayMs != clamped) {
+            this.nodeDelayMs = clamped;
+            markWorkspaceDirty();
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.pathmind.ui.overlay;
 
 import com.pathmind.execution.ExecutionManager;
 import com.pathmind.nodes.Node;
+import com.pathmind.nodes.SensorContext;
+import com.pathmind.util.ClientThreadBridge;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.text.Text;
@@ -19,6 +21,9 @@ public class ActiveNodeOverlay {
     private static final int TEXT_COLOR = 0xFFFFFFFF; // White text
     private static final int ACCENT_COLOR = 0xFF87CEEB; // Light blue accent
     private static final int COMPLETION_COLOR = 0xFFFF5555; // Red for completion state
+    private static final int STATS_HEIGHT = 40;
+    // -Dpathmind.overlayStats=true adds client-thread hop and sensor cache counters below the overlay
+    private static final boolean SHOW_STATS = Boolean.getBoolean("pathmind.overlayStats");
     
     private final ExecutionManager executionManager;
     
@@ -113,6 +118,34 @@ public class ActiveNodeOverlay {
         int dotY = overlayY + 8;
         context.fill(dotX, dotY, dotX + 8, dotY + 8, nodeColor);
         context.drawBorder(dotX, dotY, 8, 8, BORDER_COLOR);
+
+        if (SHOW_STATS) {
+            renderStats(context, textRenderer, overlayX, overlayY + OVERLAY_HEIGHT + 2, textRightX);
+        }
+    }
+
+    /**
+     * Render the client-thread bridge and sensor snapshot counters (right-aligned)
+     */
+    private void renderStats(DrawContext context, TextRenderer textRenderer, int statsX, int statsY, int textRightX) {
+        context.fill(statsX, statsY, statsX + OVERLAY_WIDTH, statsY + STATS_HEIGHT, BACKGROUND_COLOR);
+        context.drawBorder(statsX, statsY, OVERLAY_WIDTH, STATS_HEIGHT, BORDER_COLOR);
+
+        String[] lines = {
+            "Hops: " + ClientThreadBridge.getCompletedTaskCount() + " / " + ClientThreadBridge.getDrainCount() + " drains",
+            String.format("Hop wait: %.0f \u00b5s avg", ClientThreadBridge.getAverageLatencyMicros()),
+            String.format("Sensor hits: %.0f%%", SensorContext.getHitRate() * 100.0)
+        };
+        for (int i = 0; i < lines.length; i++) {
+            int lineWidth = textRenderer.getWidth(lines[i]);
+            context.drawTextWithShadow(
+                textRenderer,
+                Text.literal(lines[i]),
+                textRightX - lineWidth,
+                statsY + 6 + i * 11,
+                TEXT_COLOR
+            );
+        }
     }
     
     /**
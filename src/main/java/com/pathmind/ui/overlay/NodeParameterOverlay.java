@@ -782,6 +782,7 @@ public class NodeParameterOverlay {
     }
 
     private void saveParameters() {
+        node.notifyDefinitionChanging();
         // Update node mode if applicable
         if (hasModeSelection() && selectedMode != null) {
             node.setMode(selectedMode);
@@ -0,0 +1,322 @@
+package com.pathmind.util;
+
+import com.pathmind.nodes.Node;
+import com.pathmind.nodes.NodeParameter;
+import com.pathmind.nodes.NodeType;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Opt-in index of block positions in loaded chunks, limited to the block types that the
+ * running graph references through PARAM_BLOCK / PARAM_BLOCK_LIST parameters.
+ * Kept current from chunk load/unload callbacks and block update packets so nearest-block
+ * queries become a lookup instead of a volume scan. Enable with -Dpathmind.blockIndex=true
+ * or {@link #setEnabled(boolean)}. All methods are expected to run on the client thread.
+ */
+public final class BlockLocationIndex {
+    private static final long BYTES_PER_POSITION = 16L;
+    private static final long BYTES_PER_CHUNK_ENTRY = 96L;
+
+    private static BlockLocationIndex instance;
+
+    private boolean enabled = Boolean.getBoolean("pathmind.blockIndex");
+    private Set<Block> trackedBlocks = Collections.emptySet();
+    private final Long2ObjectOpenHashMap<Map<Block, LongOpenHashSet>> chunks = new Long2ObjectOpenHashMap<>();
+    private long positionCount;
+
+    private BlockLocationIndex() {
+    }
+
+    public static BlockLocationIndex getInstance() {
+        if (instance == null) {
+            instance = new BlockLocationIndex();
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        if (enabled) {
+            rebuild();
+        } else {
+            clear();
+        }
+    }
+
+    /**
+     * Track the block types referenced by the given graph nodes, rebuilding the index when the set changes.
+     */
+    public void trackBlocksFor(Collection<Node> nodes) {
+        if (!enabled) {
+            return;
+        }
+        Set<Block> referenced = collectReferencedBlocks(nodes);
+        if (referenced.equals(trackedBlocks)) {
+            return;
+        }
+        trackedBlocks = referenced;
+        rebuild();
+    }
+
+    /**
+     * @return true when every given block type is indexed, so {@link #findNearest} is authoritative.
+     */
+    public boolean canAnswer(Collection<Block> blocks) {
+        return enabled && blocks != null && !blocks.isEmpty() && trackedBlocks.containsAll(blocks);
+    }
+
+    /**
+     * Nearest indexed position within the cube of the given radius around the origin.
+     * Ties resolve to the lowest x, y, z like {@link BlockSearch}. Stale entries are dropped on the way.
+     */
+    public Optional<BlockPos> findNearest(World world, BlockPos origin, int radius, Collection<Block> blocks) {
+        if (world == null || origin == null || !canAnswer(blocks)) {
+            return Optional.empty();
+        }
+        int minChunkX = (origin.getX() - radius) >> 4;
+        int maxChunkX = (origin.getX() + radius) >> 4;
+        int minChunkZ = (origin.getZ() - radius) >> 4;
+        int maxChunkZ = (origin.getZ() + radius) >> 4;
+
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        long bestPacked = 0L;
+        boolean found = false;
+        long bestDistance = Long.MAX_VALUE;
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Map<Block, LongOpenHashSet> entry = chunks.get(ChunkPos.toLong(chunkX, chunkZ));
+                if (entry == null) {
+                    continue;
+                }
+                for (Block block : blocks) {
+                    LongOpenHashSet positions = entry.get(block);
+                    if (positions == null) {
+                        continue;
+                    }
+                    LongIterator iterator = positions.iterator();
+                    while (iterator.hasNext()) {
+                        long packed = iterator.nextLong();
+                        int x = BlockPos.unpackLongX(packed);
+                        int y = BlockPos.unpackLongY(packed);
+                        int z = BlockPos.unpackLongZ(packed);
+                        int dx = x - origin.getX();
+                        int dy = y - origin.getY();
+                        int dz = z - origin.getZ();
+                        if (Math.abs(dx) > radius || Math.abs(dy) > radius || Math.abs(dz) > radius) {
+                            continue;
+                        }
+                        long distance = (long) dx * dx + (long) dy * dy + (long) dz * dz;
+                        if (distance > bestDistance
+                            || (distance == bestDistance && !isLowerCorner(x, y, z, bestPacked))) {
+                            continue;
+                        }
+                        if (world.getBlockState(mutable.set(x, y, z)).getBlock() != block) {
+                            iterator.remove();
+                            positionCount--;
+                            continue;
+                        }
+                        bestDistance = distance;
+                        bestPacked = packed;
+                        found = true;
+                    }
+                }
+            }
+        }
+
+        return found ? Optional.of(BlockPos.fromLong(bestPacked)) : Optional.empty();
+    }
+
+    public void onChunkLoad(WorldChunk chunk) {
+        if (!enabled || trackedBlocks.isEmpty() || chunk == null) {
+            return;
+        }
+        removeChunk(chunk.getPos().toLong());
+        indexChunk(chunk);
+    }
+
+    public void onChunkUnload(WorldChunk chunk) {
+        if (!enabled || chunk == null) {
+            return;
+        }
+        removeChunk(chunk.getPos().toLong());
+    }
+
+    public void onBlockUpdate(BlockPos pos, BlockState state) {
+        if (!enabled || trackedBlocks.isEmpty() || pos == null || state == null) {
+            return;
+        }
+        long chunkKey = ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4);
+        long packed = pos.asLong();
+        Map<Block, LongOpenHashSet> entry = chunks.get(chunkKey);
+        if (entry != null) {
+            for (LongOpenHashSet positions : entry.values()) {
+                if (positions.remove(packed)) {
+                    positionCount--;
+                }
+            }
+        }
+        Block block = state.getBlock();
+        if (trackedBlocks.contains(block)) {
+            if (entry == null) {
+                entry = new HashMap<>();
+                chunks.put(chunkKey, entry);
+            }
+            if (entry.computeIfAbsent(block, ignored -> new LongOpenHashSet()).add(packed)) {
+                positionCount++;
+            }
+        }
+    }
+
+    public void clear() {
+        chunks.clear();
+        positionCount = 0;
+    }
+
+    public long getIndexedPositionCount() {
+        return positionCount;
+    }
+
+    public int getIndexedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Rough heap estimate covering packed positions, hash set slack and per-chunk maps.
+     */
+    public long estimateMemoryBytes() {
+        return positionCount * BYTES_PER_POSITION + (long) chunks.size() * BYTES_PER_CHUNK_ENTRY;
+    }
+
+    private void rebuild() {
+        clear();
+        MinecraftClient client = MinecraftClient.getInstance();
+        if (client == null || client.world == null || client.player == null || trackedBlocks.isEmpty()) {
+            return;
+        }
+        ClientWorld world = client.world;
+        ChunkPos center = client.player.getChunkPos();
+        int viewDistance = client.options.getClampedViewDistance() + 1;
+        for (int chunkX = center.x - viewDistance; chunkX <= center.x + viewDistance; chunkX++) {
+            for (int chunkZ = center.z - viewDistance; chunkZ <= center.z + viewDistance; chunkZ++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+                if (chunk != null) {
+                    indexChunk(chunk);
+                }
+            }
+        }
+        System.out.println("BlockLocationIndex: Indexed " + positionCount + " positions of " + trackedBlocks.size()
+            + " block types across " + chunks.size() + " chunks (~" + (estimateMemoryBytes() / 1024) + " KiB)");
+    }
+
+    private void indexChunk(WorldChunk chunk) {
+        ChunkSection[] sections = chunk.getSectionArray();
+        int baseX = chunk.getPos().getStartX();
+        int baseZ = chunk.getPos().getStartZ();
+        Map<Block, LongOpenHashSet> entry = null;
+        for (int index = 0; index < sections.length; index++) {
+            ChunkSection section = sections[index];
+            if (section == null || !section.hasAny(state -> trackedBlocks.contains(state.getBlock()))) {
+                continue;
+            }
+            int baseY = chunk.sectionIndexToCoord(index) << 4;
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        Block block = section.getBlockState(x, y, z).getBlock();
+                        if (!trackedBlocks.contains(block)) {
+                            continue;
+                        }
+                        if (entry == null) {
+                            entry = new HashMap<>();
+                        }
+                        if (entry.computeIfAbsent(block, ignored -> new LongOpenHashSet())
+                            .add(BlockPos.asLong(baseX + x, baseY + y, baseZ + z))) {
+                            positionCount++;
+                        }
+                    }
+                }
+            }
+        }
+        if (entry != null) {
+            chunks.put(chunk.getPos().toLong(), entry);
+        }
+    }
+
+    private void removeChunk(long chunkKey) {
+        Map<Block, LongOpenHashSet> removed = chunks.remove(chunkKey);
+        if (removed == null) {
+            return;
+        }
+        for (LongOpenHashSet positions : removed.values()) {
+            positionCount -= positions.size();
+        }
+    }
+
+    private static boolean isLowerCorner(int x, int y, int z, long bestPacked) {
+        int bestX = BlockPos.unpackLongX(bestPacked);
+        if (x != bestX) {
+            return x < bestX;
+        }
+        int bestY = BlockPos.unpackLongY(bestPacked);
+        if (y != bestY) {
+            return y < bestY;
+        }
+        return z < BlockPos.unpackLongZ(bestPacked);
+    }
+
+    private static Set<Block> collectReferencedBlocks(Collection<Node> nodes) {
+        Set<Block> blocks = new HashSet<>();
+        if (nodes == null) {
+            return blocks;
+        }
+        for (Node node : nodes) {
+            if (node == null || (node.getType() != NodeType.PARAM_BLOCK && node.getType() != NodeType.PARAM_BLOCK_LIST)) {
+                continue;
+            }
+            for (NodeParameter parameter : node.getParameters()) {
+                if (!"Block".equals(parameter.getName()) && !"Blocks".equals(parameter.getName())) {
+                    continue;
+                }
+                String value = parameter.getStringValue();
+                if (value == null) {
+                    continue;
+                }
+                for (String entry : value.split(",")) {
+                    Identifier identifier = Identifier.tryParse(entry.trim());
+                    if (identifier != null && Registries.BLOCK.containsId(identifier)) {
+                        blocks.add(Registries.BLOCK.get(identifier));
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,190 @@
+package com.pathmind.util;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Nearest-block search over loaded chunk sections.
+ * Sections are visited in order of their distance to the origin; a section is skipped
+ * without reading any blocks when its palette holds no matching state, and the search
+ * stops once the next section is farther away than the best match found so far.
+ * Results match a full cube scan, including its tie-breaking on the lowest x, y, z.
+ */
+public final class BlockSearch {
+    private static final AtomicLong SECTIONS_SCANNED = new AtomicLong();
+    private static final AtomicLong SECTIONS_SKIPPED = new AtomicLong();
+
+    private static final class SectionRef {
+        private final ChunkSection section;
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final long distanceSq;
+
+        private SectionRef(ChunkSection section, int minX, int minY, int minZ, long distanceSq) {
+            this.section = section;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.distanceSq = distanceSq;
+        }
+    }
+
+    private BlockSearch() {
+    }
+
+    /**
+     * Finds the closest position within the cube of the given radius around the origin whose state
+     * matches {@code stateFilter} and, when provided, {@code positionFilter}.
+     *
+     * @param stateFilter    must depend on the block state only; it is also used to test section palettes
+     * @param positionFilter optional extra check for candidates that passed the state filter
+     */
+    public static Optional<BlockPos> findNearest(World world, BlockPos origin, int radius,
+                                                 Predicate<BlockState> stateFilter,
+                                                 BiPredicate<BlockPos, BlockState> positionFilter) {
+        if (world == null || origin == null || stateFilter == null || radius < 0) {
+            return Optional.empty();
+        }
+
+        int minX = origin.getX() - radius;
+        int maxX = origin.getX() + radius;
+        int minY = Math.max(origin.getY() - radius, world.getBottomY());
+        int maxY = Math.min(origin.getY() + radius, world.getBottomY() + world.getHeight() - 1);
+        int minZ = origin.getZ() - radius;
+        int maxZ = origin.getZ() + radius;
+        if (minY > maxY) {
+            return Optional.empty();
+        }
+
+        List<SectionRef> sections = collectSections(world, origin, minX, maxX, minY, maxY, minZ, maxZ);
+        sections.sort((a, b) -> Long.compare(a.distanceSq, b.distanceSq));
+
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        BlockPos bestPos = null;
+        long bestDistance = Long.MAX_VALUE;
+        int ox = origin.getX();
+        int oy = origin.getY();
+        int oz = origin.getZ();
+
+        for (SectionRef ref : sections) {
+            if (ref.distanceSq > bestDistance) {
+                break;
+            }
+            if (!ref.section.hasAny(stateFilter)) {
+                SECTIONS_SKIPPED.incrementAndGet();
+                continue;
+            }
+            SECTIONS_SCANNED.incrementAndGet();
+
+            int x0 = Math.max(ref.minX, minX);
+            int x1 = Math.min(ref.minX + 15, maxX);
+            int y0 = Math.max(ref.minY, minY);
+            int y1 = Math.min(ref.minY + 15, maxY);
+            int z0 = Math.max(ref.minZ, minZ);
+            int z1 = Math.min(ref.minZ + 15, maxZ);
+            for (int x = x0; x <= x1; x++) {
+                for (int y = y0; y <= y1; y++) {
+                    for (int z = z0; z <= z1; z++) {
+                        long dx = x - ox;
+                        long dy = y - oy;
+                        long dz = z - oz;
+                        long distance = dx * dx + dy * dy + dz * dz;
+                        if (distance > bestDistance
+                            || (distance == bestDistance && !isLowerCorner(x, y, z, bestPos))) {
+                            continue;
+                        }
+                        BlockState state = ref.section.getBlockState(x & 15, y & 15, z & 15);
+                        if (!stateFilter.test(state)) {
+                            continue;
+                        }
+                        mutable.set(x, y, z);
+                        if (positionFilter != null && !positionFilter.test(mutable, state)) {
+                            continue;
+                        }
+                        bestDistance = distance;
+                        bestPos = mutable.toImmutable();
+                    }
+                }
+            }
+        }
+
+        return Optional.ofNullable(bestPos);
+    }
+
+    private static List<SectionRef> collectSections(World world, BlockPos origin,
+                                                    int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
+        List<SectionRef> sections = new ArrayList<>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+                if (chunk == null) {
+                    continue;
+                }
+                ChunkSection[] chunkSections = chunk.getSectionArray();
+                for (int sectionY = minY >> 4; sectionY <= maxY >> 4; sectionY++) {
+                    int index = chunk.sectionCoordToIndex(sectionY);
+                    if (index < 0 || index >= chunkSections.length) {
+                        continue;
+                    }
+                    ChunkSection section = chunkSections[index];
+                    if (section == null) {
+                        continue;
+                    }
+                    int sx = chunkX << 4;
+                    int sy = sectionY << 4;
+                    int sz = chunkZ << 4;
+                    long distanceSq = axisDistanceSq(origin.getX(), sx)
+                        + axisDistanceSq(origin.getY(), sy)
+                        + axisDistanceSq(origin.getZ(), sz);
+                    sections.add(new SectionRef(section, sx, sy, sz, distanceSq));
+                }
+            }
+        }
+        return sections;
+    }
+
+    private static long axisDistanceSq(int value, int sectionMin) {
+        int sectionMax = sectionMin + 15;
+        long delta;
+        if (value < sectionMin) {
+            delta = sectionMin - value;
+        } else if (value > sectionMax) {
+            delta = value - sectionMax;
+        } else {
+            delta = 0;
+        }
+        return delta * delta;
+    }
+
+    private static boolean isLowerCorner(int x, int y, int z, BlockPos best) {
+        if (best == null) {
+            return true;
+        }
+        if (x != best.getX()) {
+            return x < best.getX();
+        }
+        if (y != best.getY()) {
+            return y < best.getY();
+        }
+        return z < best.getZ();
+    }
+
+    public static long getSectionsScanned() {
+        return SECTIONS_SCANNED.get();
+    }
+
+    public static long getSectionsSkipped() {
+        return SECTIONS_SKIPPED.get();
+    }
+}
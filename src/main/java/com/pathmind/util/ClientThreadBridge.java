@@ -0,0 +1,113 @@
+package com.pathmind.util;
+
+import net.minecraft.client.MinecraftClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking bridge for running work on the Minecraft client thread.
+ * Work submitted from other threads is queued and drained in a single client task,
+ * so a burst of world reads costs one hop instead of one hop per call.
+ */
+public final class ClientThreadBridge {
+    private static final ConcurrentLinkedQueue<QueuedTask<?>> QUEUE = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean DRAIN_SCHEDULED = new AtomicBoolean(false);
+    private static final AtomicLong COMPLETED_TASKS = new AtomicLong();
+    private static final AtomicLong TOTAL_LATENCY_NANOS = new AtomicLong();
+    private static final AtomicLong DRAIN_COUNT = new AtomicLong();
+
+    private static final class QueuedTask<T> {
+        private final Supplier<T> supplier;
+        private final CompletableFuture<T> future;
+        private final long queuedAt;
+
+        private QueuedTask(Supplier<T> supplier) {
+            this.supplier = supplier;
+            this.future = new CompletableFuture<>();
+            this.queuedAt = System.nanoTime();
+        }
+
+        private void run() {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(supplier.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private ClientThreadBridge() {
+    }
+
+    /**
+     * Runs the supplier on the client thread and returns its result asynchronously.
+     * When already on the client thread the supplier runs immediately.
+     */
+    public static <T> CompletableFuture<T> supply(MinecraftClient client, Supplier<T> supplier) {
+        if (client == null || client.isOnThread()) {
+            try {
+                return CompletableFuture.completedFuture(supplier.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        QueuedTask<T> task = new QueuedTask<>(supplier);
+        QUEUE.add(task);
+        if (DRAIN_SCHEDULED.compareAndSet(false, true)) {
+            client.execute(ClientThreadBridge::drain);
+        }
+        return task.future;
+    }
+
+    public static CompletableFuture<Void> run(MinecraftClient client, Runnable task) {
+        return supply(client, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs every queued task. Must be called on the client thread; also invoked once per tick
+     * as a safety net in case a scheduled drain was dropped.
+     */
+    public static void drain() {
+        DRAIN_SCHEDULED.set(false);
+        if (QUEUE.isEmpty()) {
+            return;
+        }
+        DRAIN_COUNT.incrementAndGet();
+        QueuedTask<?> task;
+        while ((task = QUEUE.poll()) != null) {
+            TOTAL_LATENCY_NANOS.addAndGet(System.nanoTime() - task.queuedAt);
+            COMPLETED_TASKS.incrementAndGet();
+            task.run();
+        }
+    }
+
+    public static long getCompletedTaskCount() {
+        return COMPLETED_TASKS.get();
+    }
+
+    public static long getDrainCount() {
+        return DRAIN_COUNT.get();
+    }
+
+    /**
+     * @return the average time between queuing a task and running it on the client thread, in microseconds.
+     */
+    public static double getAverageLatencyMicros() {
+        long completed = COMPLETED_TASKS.get();
+        if (completed == 0) {
+            return 0.0;
+        }
+        return TOTAL_LATENCY_NANOS.get() / 1000.0 / completed;
+    }
+}
@@ -0,0 +1,283 @@
+package com.pathmind.util;
+
+import com.pathmind.nodes.NodeMode;
+import it.unimi.dsi.fastutil.objects.Object2IntLinkedOpenHashMap;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.Ingredient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Expands a crafting request into the ordered list of crafts needed to make it from the player's
+ * current inventory, e.g. logs into planks into sticks into a tool. Planning runs against a snapshot
+ * of item counts: ingredients already owned are used first, missing ones are crafted from their own
+ * recipes (depth first, so every step only depends on steps before it) and leftover output of a
+ * step is available to later ones. Recipes come from the {@link CraftingRecipeIndex}.
+ * When the inventory cannot cover the whole amount, the plan makes as many as it can and keeps the
+ * reason for the shortfall.
+ */
+public final class CraftingPlanner {
+    private static final int MAX_DEPTH = 12;
+
+    public static final class Step {
+        private final CraftingRecipeIndex.IndexedRecipe recipe;
+        private final Item output;
+        private final int crafts;
+
+        private Step(CraftingRecipeIndex.IndexedRecipe recipe, Item output, int crafts) {
+            this.recipe = recipe;
+            this.output = output;
+            this.crafts = crafts;
+        }
+
+        public CraftingRecipeIndex.IndexedRecipe getRecipe() {
+            return recipe;
+        }
+
+        public Item getOutput() {
+            return output;
+        }
+
+        /**
+         * Number of times the recipe is crafted in this step.
+         */
+        public int getCrafts() {
+            return crafts;
+        }
+    }
+
+    public static final class Plan {
+        private final List<Step> steps;
+        private final int plannedAmount;
+        private final String failureMessage;
+
+        private Plan(List<Step> steps, int plannedAmount, String failureMessage) {
+            this.steps = steps;
+            this.plannedAmount = plannedAmount;
+            this.failureMessage = failureMessage;
+        }
+
+        /**
+         * Whether anything at all can be crafted.
+         */
+        public boolean isSuccess() {
+            return plannedAmount > 0;
+        }
+
+        /**
+         * Amount of the target the steps produce, at most the requested amount.
+         */
+        public int getPlannedAmount() {
+            return plannedAmount;
+        }
+
+        /**
+         * Whether the plan falls short of the requested amount; {@link #getFailureMessage()} then says why.
+         */
+        public boolean isPartial() {
+            return plannedAmount > 0 && failureMessage != null;
+        }
+
+        /**
+         * Crafts in execution order; the last step produces the requested item.
+         */
+        public List<Step> getSteps() {
+            return steps;
+        }
+
+        public String getFailureMessage() {
+            return failureMessage;
+        }
+    }
+
+    private final MinecraftClient client;
+    private final NodeMode craftMode;
+    private final CraftingRecipeIndex index = CraftingRecipeIndex.getInstance();
+    private final Map<Ingredient, List<Item>> craftableCandidates = new IdentityHashMap<>();
+    private Object2IntLinkedOpenHashMap<Item> available;
+    private List<Step> steps;
+    private String failure;
+
+    private CraftingPlanner(MinecraftClient client, NodeMode craftMode) {
+        this.client = client;
+        this.craftMode = craftMode;
+    }
+
+    /**
+     * Plan the crafts that produce {@code amount} of the target on top of what the player already holds,
+     * or the largest amount the inventory allows when that is not possible.
+     * Must run on the client thread, since it reads the player inventory.
+     */
+    public static Plan plan(MinecraftClient client, Item target, int amount, NodeMode craftMode) {
+        if (client == null || client.player == null || target == null) {
+            return new Plan(Collections.emptyList(), 0, "Cannot craft: Minecraft client not available.");
+        }
+        Object2IntLinkedOpenHashMap<Item> inventory = snapshotInventory(client.player.getInventory());
+        CraftingPlanner planner = new CraftingPlanner(client, craftMode);
+        int requested = Math.max(1, amount);
+        if (planner.tryPlan(inventory, target, requested)) {
+            return new Plan(Collections.unmodifiableList(planner.steps), requested, null);
+        }
+        String message = planner.failure != null
+            ? planner.failure
+            : "Cannot craft " + target.getName().getString() + ": missing required ingredients.";
+
+        // Ingredient needs only grow with the amount, so binary search the largest amount that plans
+        int low = 0;
+        int high = requested;
+        List<Step> best = Collections.emptyList();
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (planner.tryPlan(inventory, target, mid)) {
+                low = mid;
+                best = planner.steps;
+            } else {
+                high = mid;
+            }
+        }
+        return new Plan(Collections.unmodifiableList(best), low, message);
+    }
+
+    private boolean tryPlan(Object2IntLinkedOpenHashMap<Item> inventory, Item target, int amount) {
+        available = inventory.clone();
+        steps = new ArrayList<>();
+        failure = null;
+        return craft(target, amount, new HashSet<>(), 0);
+    }
+
+    private static Object2IntLinkedOpenHashMap<Item> snapshotInventory(PlayerInventory inventory) {
+        Object2IntLinkedOpenHashMap<Item> counts = new Object2IntLinkedOpenHashMap<>();
+        for (int slot = 0; slot < PlayerInventory.MAIN_SIZE; slot++) {
+            ItemStack stack = inventory.getStack(slot);
+            if (!stack.isEmpty()) {
+                counts.addTo(stack.getItem(), stack.getCount());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Add the crafts producing {@code amount} of the item to the plan, planning their ingredients first.
+     */
+    private boolean craft(Item item, int amount, Set<Item> inProgress, int depth) {
+        String itemName = item.getName().getString();
+        if (depth > MAX_DEPTH || !inProgress.add(item)) {
+            failure = "Cannot craft " + itemName + ": its recipe depends on itself.";
+            return false;
+        }
+
+        AtomicBoolean requiresCraftingTable = new AtomicBoolean(false);
+        CraftingRecipeIndex.IndexedRecipe recipe = index.find(client, item, craftMode, requiresCraftingTable);
+        if (recipe == null) {
+            inProgress.remove(item);
+            failure = craftMode == NodeMode.CRAFT_PLAYER_GUI && requiresCraftingTable.get()
+                ? "Cannot craft " + itemName + ": recipe requires a crafting table."
+                : "Cannot craft " + itemName + ": no matching recipe found.";
+            return false;
+        }
+
+        List<CraftingRecipeIndex.GridIngredient> layout = recipe.getLayout(craftMode);
+        if (layout.isEmpty()) {
+            inProgress.remove(item);
+            failure = "Cannot craft " + itemName + ": the recipe has no ingredients.";
+            return false;
+        }
+
+        int crafts = (amount + recipe.getOutputCount() - 1) / recipe.getOutputCount();
+        // Slots sharing one ingredient are resolved together so owned items are not counted twice
+        Map<Ingredient, Integer> perCraft = new IdentityHashMap<>();
+        List<Ingredient> order = new ArrayList<>();
+        for (CraftingRecipeIndex.GridIngredient gridIngredient : layout) {
+            Ingredient ingredient = gridIngredient.ingredient();
+            if (ingredient == null || ingredient.isEmpty()) {
+                continue;
+            }
+            if (perCraft.merge(ingredient, 1, Integer::sum) == 1) {
+                order.add(ingredient);
+            }
+        }
+        for (Ingredient ingredient : order) {
+            if (!supply(ingredient, perCraft.get(ingredient) * crafts, inProgress, depth)) {
+                inProgress.remove(item);
+                if (failure == null) {
+                    failure = "Cannot craft " + itemName + ": missing required ingredients.";
+                }
+                return false;
+            }
+        }
+
+        inProgress.remove(item);
+        steps.add(new Step(recipe, item, crafts));
+        int surplus = crafts * recipe.getOutputCount() - amount;
+        if (surplus > 0) {
+            available.addTo(item, surplus);
+        }
+        return true;
+    }
+
+    /**
+     * Take {@code amount} items matching the ingredient from the snapshot, crafting whatever is missing.
+     */
+    private boolean supply(Ingredient ingredient, int amount, Set<Item> inProgress, int depth) {
+        int missing = amount;
+        for (Object2IntLinkedOpenHashMap.Entry<Item> entry : available.object2IntEntrySet()) {
+            if (missing <= 0) {
+                break;
+            }
+            int have = entry.getIntValue();
+            if (have <= 0 || !ingredient.test(entry.getKey().getDefaultStack())) {
+                continue;
+            }
+            int used = Math.min(have, missing);
+            entry.setValue(have - used);
+            missing -= used;
+        }
+        if (missing <= 0) {
+            return true;
+        }
+
+        // Try each craftable match in turn, rolling the snapshot back when one cannot be made
+        String firstFailure = null;
+        for (Item candidate : craftableCandidates(ingredient)) {
+            if (inProgress.contains(candidate)) {
+                continue;
+            }
+            Object2IntLinkedOpenHashMap<Item> savedAvailable = available.clone();
+            int savedSteps = steps.size();
+            if (craft(candidate, missing, inProgress, depth + 1)) {
+                return true;
+            }
+            if (firstFailure == null) {
+                firstFailure = failure;
+            }
+            available = savedAvailable;
+            steps.subList(savedSteps, steps.size()).clear();
+        }
+        failure = firstFailure;
+        return false;
+    }
+
+    private List<Item> craftableCandidates(Ingredient ingredient) {
+        List<Item> candidates = craftableCandidates.get(ingredient);
+        if (candidates == null) {
+            candidates = new ArrayList<>();
+            for (Item item : index.getCraftableItems(client)) {
+                if (ingredient.test(item.getDefaultStack())) {
+                    candidates.add(item);
+                }
+            }
+            craftableCandidates.put(ingredient, candidates);
+        }
+        return candidates;
+    }
+}
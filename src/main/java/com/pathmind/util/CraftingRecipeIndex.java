@@ -0,0 +1,385 @@
+package com.pathmind.util;
+
+import com.pathmind.nodes.NodeMode;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.CraftingRecipe;
+import net.minecraft.recipe.Ingredient;
+import net.minecraft.recipe.IngredientPlacement;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.ServerRecipeManager;
+import net.minecraft.recipe.ShapedRecipe;
+import net.minecraft.recipe.input.CraftingRecipeInput;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.server.MinecraftServer;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Crafting recipes of the integrated server keyed by the item they produce. The index is built in
+ * one pass over the server's recipe list, crafting each recipe once on an empty grid to learn its
+ * output, and stores the output count, whether the recipe fits the 2x2 player grid, and the grid
+ * layout for both screens. It is rebuilt when the server swaps its recipe list, which happens on
+ * data pack reload, or when the world's registries change.
+ */
+public final class CraftingRecipeIndex {
+    private static final Field SERVER_RECIPES_FIELD = initServerRecipesField();
+
+    private static CraftingRecipeIndex instance;
+
+    // Items compare by identity; the linked map keeps outputs in server recipe order
+    private final Map<Item, List<IndexedRecipe>> recipesByOutput = new LinkedHashMap<>();
+    private Object indexedRecipeList;
+    private DynamicRegistryManager indexedRegistries;
+
+    /**
+     * Ingredient to place in one logical crafting grid slot (1-4 in the player grid, 1-9 in a crafting table).
+     */
+    public static final class GridIngredient {
+        private final int slotIndex;
+        private final Ingredient ingredient;
+
+        GridIngredient(int slotIndex, Ingredient ingredient) {
+            this.slotIndex = slotIndex;
+            this.ingredient = ingredient;
+        }
+
+        public int slotIndex() {
+            return slotIndex;
+        }
+
+        public Ingredient ingredient() {
+            return ingredient;
+        }
+    }
+
+    public static final class IndexedRecipe {
+        private final RecipeEntry<CraftingRecipe> entry;
+        private final int outputCount;
+        private final boolean fitsPlayerGrid;
+        private final List<GridIngredient> playerGridLayout;
+        private final List<GridIngredient> craftingTableLayout;
+
+        private IndexedRecipe(RecipeEntry<CraftingRecipe> entry, int outputCount) {
+            CraftingRecipe recipe = entry.value();
+            this.entry = entry;
+            this.outputCount = Math.max(1, outputCount);
+            this.fitsPlayerGrid = recipeFitsPlayerGrid(recipe);
+            this.playerGridLayout = fitsPlayerGrid
+                ? Collections.unmodifiableList(resolveGridIngredients(recipe, NodeMode.CRAFT_PLAYER_GUI))
+                : Collections.emptyList();
+            this.craftingTableLayout = Collections.unmodifiableList(resolveGridIngredients(recipe, NodeMode.CRAFT_CRAFTING_TABLE));
+        }
+
+        public RecipeEntry<CraftingRecipe> getEntry() {
+            return entry;
+        }
+
+        /**
+         * Items produced by one craft.
+         */
+        public int getOutputCount() {
+            return outputCount;
+        }
+
+        public boolean fitsPlayerGrid() {
+            return fitsPlayerGrid;
+        }
+
+        /**
+         * Ingredients by logical grid slot for the given craft mode.
+         */
+        public List<GridIngredient> getLayout(NodeMode craftMode) {
+            return craftMode == NodeMode.CRAFT_PLAYER_GUI ? playerGridLayout : craftingTableLayout;
+        }
+    }
+
+    private CraftingRecipeIndex() {
+    }
+
+    public static synchronized CraftingRecipeIndex getInstance() {
+        if (instance == null) {
+            instance = new CraftingRecipeIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * First recipe for the item usable in the given craft mode, in server recipe order, or null.
+     * When only recipes larger than the player grid exist in CRAFT_PLAYER_GUI mode,
+     * {@code requiresCraftingTable} is set.
+     */
+    public synchronized IndexedRecipe find(MinecraftClient client, Item targetItem, NodeMode craftMode,
+                                           AtomicBoolean requiresCraftingTable) {
+        for (IndexedRecipe recipe : getRecipes(client, targetItem)) {
+            if (craftMode == NodeMode.CRAFT_PLAYER_GUI && !recipe.fitsPlayerGrid()) {
+                if (requiresCraftingTable != null) {
+                    requiresCraftingTable.set(true);
+                }
+                continue;
+            }
+            return recipe;
+        }
+        return null;
+    }
+
+    /**
+     * Every indexed recipe producing the item, in server recipe order.
+     */
+    public synchronized List<IndexedRecipe> getRecipes(MinecraftClient client, Item targetItem) {
+        if (targetItem == null || !ensureIndexed(client)) {
+            return Collections.emptyList();
+        }
+        List<IndexedRecipe> recipes = recipesByOutput.get(targetItem);
+        return recipes != null ? recipes : Collections.emptyList();
+    }
+
+    /**
+     * Every item some indexed recipe produces, in server recipe order.
+     */
+    public synchronized List<Item> getCraftableItems(MinecraftClient client) {
+        if (!ensureIndexed(client)) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(recipesByOutput.keySet());
+    }
+
+    public synchronized void invalidate() {
+        recipesByOutput.clear();
+        indexedRecipeList = null;
+        indexedRegistries = null;
+    }
+
+    private boolean ensureIndexed(MinecraftClient client) {
+        MinecraftServer server = client != null ? client.getServer() : null;
+        if (server == null || client.player == null) {
+            invalidate();
+            return false;
+        }
+
+        List<ServerRecipeManager.ServerRecipe> serverRecipes = getServerRecipeList(server.getRecipeManager());
+        DynamicRegistryManager registries = client.player.getWorld().getRegistryManager();
+        if (serverRecipes == indexedRecipeList && registries == indexedRegistries) {
+            return true;
+        }
+
+        recipesByOutput.clear();
+        List<ItemStack> emptyGrid = new ArrayList<>(Collections.nCopies(9, ItemStack.EMPTY));
+        CraftingRecipeInput emptyInput = CraftingRecipeInput.create(3, 3, emptyGrid);
+        for (ServerRecipeManager.ServerRecipe serverRecipe : serverRecipes) {
+            RecipeEntry<?> entry = serverRecipe.parent();
+            if (!(entry.value() instanceof CraftingRecipe craftingRecipe)) {
+                continue;
+            }
+            ItemStack result;
+            try {
+                result = craftingRecipe.craft(emptyInput, registries);
+            } catch (RuntimeException e) {
+                // Some special recipes assume a non-empty grid; they cannot be looked up by output anyway
+                continue;
+            }
+            if (result.isEmpty()) {
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            RecipeEntry<CraftingRecipe> castEntry = (RecipeEntry<CraftingRecipe>) entry;
+            List<IndexedRecipe> recipes = recipesByOutput.get(result.getItem());
+            if (recipes == null) {
+                recipes = new ArrayList<>(1);
+                recipesByOutput.put(result.getItem(), recipes);
+            }
+            recipes.add(new IndexedRecipe(castEntry, result.getCount()));
+        }
+        indexedRecipeList = serverRecipes;
+        indexedRegistries = registries;
+        return true;
+    }
+
+    private static List<ServerRecipeManager.ServerRecipe> getServerRecipeList(ServerRecipeManager manager) {
+        if (SERVER_RECIPES_FIELD == null || manager == null) {
+            return Collections.emptyList();
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            List<ServerRecipeManager.ServerRecipe> recipes = (List<ServerRecipeManager.ServerRecipe>) SERVER_RECIPES_FIELD.get(manager);
+            return recipes != null ? recipes : Collections.emptyList();
+        } catch (IllegalAccessException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private static Field initServerRecipesField() {
+        try {
+            Field field = ServerRecipeManager.class.getDeclaredField("field_54641");
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static boolean recipeFitsPlayerGrid(CraftingRecipe recipe) {
+        if (recipe == null) {
+            return false;
+        }
+
+        if (recipe instanceof ShapedRecipe shapedRecipe) {
+            return shapedRecipe.getWidth() <= 2 && shapedRecipe.getHeight() <= 2;
+        }
+
+        IngredientPlacement placement = recipe.getIngredientPlacement();
+        if (placement == null) {
+            return false;
+        }
+
+        if (placement.hasNoPlacement()) {
+            return placement.getIngredients().size() <= 4;
+        }
+
+        IntList slots = placement.getPlacementSlots();
+        if (slots == null || slots.isEmpty()) {
+            return placement.getIngredients().size() <= 4;
+        }
+
+        int minX = 3;
+        int minY = 3;
+        int maxX = -1;
+        int maxY = -1;
+        for (int slot : slots) {
+            int x = slot % 3;
+            int y = slot / 3;
+            if (x < minX) {
+                minX = x;
+            }
+            if (y < minY) {
+                minY = y;
+            }
+            if (x > maxX) {
+                maxX = x;
+            }
+            if (y > maxY) {
+                maxY = y;
+            }
+        }
+
+        int width = maxX - minX + 1;
+        int height = maxY - minY + 1;
+        return width <= 2 && height <= 2;
+    }
+
+    private static List<GridIngredient> resolveGridIngredients(CraftingRecipe recipe, NodeMode craftMode) {
+        List<GridIngredient> result = new ArrayList<>();
+        if (recipe == null) {
+            return result;
+        }
+
+        if (recipe instanceof ShapedRecipe shapedRecipe) {
+            if (craftMode == NodeMode.CRAFT_PLAYER_GUI) {
+                return resolveShapedIngredients(shapedRecipe, 2);
+            }
+            return resolveShapedIngredients(shapedRecipe, 3);
+        }
+
+        IngredientPlacement placement = recipe.getIngredientPlacement();
+        if (placement == null) {
+            return result;
+        }
+
+        List<Ingredient> ingredients = placement.getIngredients();
+        if (ingredients == null || ingredients.isEmpty()) {
+            return result;
+        }
+
+        IntList slots = placement.getPlacementSlots();
+        int gridLimit = craftMode == NodeMode.CRAFT_CRAFTING_TABLE ? 9 : 4;
+
+        if (placement.hasNoPlacement() || slots == null || slots.isEmpty()) {
+            int limit = Math.min(ingredients.size(), gridLimit);
+            for (int i = 0; i < limit; i++) {
+                Ingredient ingredient = ingredients.get(i);
+                if (ingredient == null || ingredient.isEmpty()) {
+                    continue;
+                }
+                result.add(new GridIngredient(1 + i, ingredient));
+            }
+            return result;
+        }
+
+        int limit = Math.min(ingredients.size(), slots.size());
+        for (int i = 0; i < limit; i++) {
+            Ingredient ingredient = ingredients.get(i);
+            if (ingredient == null || ingredient.isEmpty()) {
+                continue;
+            }
+
+            int logicalSlot = slots.getInt(i);
+            int resolvedSlot;
+            if (craftMode == NodeMode.CRAFT_PLAYER_GUI) {
+                int localX = logicalSlot % 3;
+                int localY = logicalSlot / 3;
+
+                if (localX >= 2 || localY >= 2) {
+                    continue;
+                }
+
+                resolvedSlot = 1 + localX + (localY * 2);
+            } else {
+                resolvedSlot = 1 + logicalSlot;
+            }
+
+            if (resolvedSlot > gridLimit) {
+                continue;
+            }
+
+            result.add(new GridIngredient(resolvedSlot, ingredient));
+        }
+
+        return result;
+    }
+
+    private static List<GridIngredient> resolveShapedIngredients(ShapedRecipe recipe, int gridSize) {
+        List<GridIngredient> result = new ArrayList<>();
+        List<Optional<Ingredient>> ingredients = recipe.getIngredients();
+        if (ingredients == null || ingredients.isEmpty()) {
+            return result;
+        }
+
+        int width = Math.min(recipe.getWidth(), gridSize);
+        int height = Math.min(recipe.getHeight(), gridSize);
+        int recipeWidth = Math.max(recipe.getWidth(), 1);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = x + (y * recipeWidth);
+                if (index < 0 || index >= ingredients.size()) {
+                    continue;
+                }
+
+                Optional<Ingredient> optional = ingredients.get(index);
+                if (optional == null || optional.isEmpty()) {
+                    continue;
+                }
+
+                Ingredient ingredient = optional.get();
+                if (ingredient.isEmpty()) {
+                    continue;
+                }
+
+                int slotIndex = 1 + x + (y * gridSize);
+                result.add(new GridIngredient(slotIndex, ingredient));
+            }
+        }
+
+        return result;
+    }
+}
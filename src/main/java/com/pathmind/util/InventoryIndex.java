@@ -0,0 +1,176 @@
+package com.pathmind.util;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.function.Predicate;
+
+/**
+ * Item to slot index over the player's inventory: for every item held, a bitmask of the slots that
+ * contain it and the total count. The index is fed by slot updates from the inventory mixins, which
+ * mark the touched slots dirty; a query re-reads only those slots, so finding or counting an item
+ * costs a map lookup instead of a pass over the inventory. Changes that mutate a stack in place
+ * without setting it, such as merges inside a screen handler, end in a {@code markDirty} call and
+ * mark every slot dirty.
+ */
+public final class InventoryIndex {
+    private static final int MAX_SLOTS = Long.SIZE;
+
+    private static InventoryIndex instance;
+
+    private PlayerInventory inventory;
+    private Item[] items = new Item[0];
+    private int[] counts = new int[0];
+    private long dirtySlots;
+    private final Object2LongOpenHashMap<Item> slotMasks = new Object2LongOpenHashMap<>();
+    private final Object2IntOpenHashMap<Item> totals = new Object2IntOpenHashMap<>();
+
+    private InventoryIndex() {
+    }
+
+    public static synchronized InventoryIndex getInstance() {
+        if (instance == null) {
+            instance = new InventoryIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Record that a slot of the inventory was set or emptied.
+     */
+    public synchronized void onSlotChanged(PlayerInventory changed, int slot) {
+        if (changed == inventory && slot >= 0 && slot < items.length) {
+            dirtySlots |= 1L << slot;
+        }
+    }
+
+    /**
+     * Record a change that may have touched any slot of the inventory.
+     */
+    public synchronized void onInventoryChanged(PlayerInventory changed) {
+        if (changed == inventory) {
+            dirtySlots = -1L;
+        }
+    }
+
+    /**
+     * Total number of the item across all inventory slots, including armor and offhand.
+     */
+    public synchronized int count(PlayerInventory inventory, Item item) {
+        if (item == null || !sync(inventory)) {
+            return 0;
+        }
+        return totals.getInt(item);
+    }
+
+    /**
+     * Bitmask of the inventory slots holding the item; bit {@code n} is set for slot {@code n}.
+     */
+    public synchronized long getSlotMask(PlayerInventory inventory, Item item) {
+        if (item == null || !sync(inventory)) {
+            return 0L;
+        }
+        return slotMasks.getLong(item);
+    }
+
+    /**
+     * Bitmask of the inventory slots holding any item accepted by the filter. The filter is tried
+     * once per distinct item held, against the stack in the lowest slot holding it.
+     */
+    public synchronized long getSlotMask(PlayerInventory inventory, Predicate<ItemStack> filter) {
+        if (filter == null || !sync(inventory)) {
+            return 0L;
+        }
+        long mask = 0L;
+        for (Object2LongMap.Entry<Item> entry : slotMasks.object2LongEntrySet()) {
+            long slots = entry.getLongValue();
+            if (filter.test(inventory.getStack(Long.numberOfTrailingZeros(slots)))) {
+                mask |= slots;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Lowest slot in {@code [fromSlot, toSlot)} holding the item, or -1 when there is none.
+     */
+    public synchronized int findFirstSlot(PlayerInventory inventory, Item item, int fromSlot, int toSlot) {
+        long mask = getSlotMask(inventory, item) & rangeMask(fromSlot, toSlot);
+        return mask == 0L ? -1 : Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * Forget the indexed inventory so the next query indexes it from scratch.
+     */
+    public synchronized void invalidate() {
+        inventory = null;
+        items = new Item[0];
+        counts = new int[0];
+        dirtySlots = 0L;
+        slotMasks.clear();
+        totals.clear();
+    }
+
+    private boolean sync(PlayerInventory current) {
+        if (current == null) {
+            return false;
+        }
+        int size = Math.min(current.size(), MAX_SLOTS);
+        if (current != inventory || size != items.length) {
+            invalidate();
+            inventory = current;
+            items = new Item[size];
+            counts = new int[size];
+            dirtySlots = -1L;
+        }
+        long dirty = dirtySlots & rangeMask(0, size);
+        dirtySlots = 0L;
+        while (dirty != 0L) {
+            int slot = Long.numberOfTrailingZeros(dirty);
+            dirty &= dirty - 1;
+            reindexSlot(slot, current.getStack(slot));
+        }
+        return true;
+    }
+
+    private void reindexSlot(int slot, ItemStack stack) {
+        Item item = stack.isEmpty() ? null : stack.getItem();
+        int count = item == null ? 0 : stack.getCount();
+        Item previous = items[slot];
+        if (previous == item && counts[slot] == count) {
+            return;
+        }
+        long bit = 1L << slot;
+        if (previous != null) {
+            long mask = slotMasks.getLong(previous) & ~bit;
+            if (mask == 0L) {
+                slotMasks.removeLong(previous);
+                totals.removeInt(previous);
+            } else {
+                slotMasks.put(previous, mask);
+                totals.addTo(previous, -counts[slot]);
+            }
+        }
+
+        items[slot] = item;
+        counts[slot] = count;
+        if (item != null) {
+            slotMasks.put(item, slotMasks.getLong(item) | bit);
+            totals.addTo(item, count);
+        }
+    }
+
+    private static long rangeMask(int fromSlot, int toSlot) {
+        int from = Math.max(0, fromSlot);
+        int to = Math.min(MAX_SLOTS, toSlot);
+        if (to <= from) {
+            return 0L;
+        }
+        long upper = to == MAX_SLOTS ? -1L : (1L << to) - 1L;
+        return upper & (-1L << from);
+    }
+}
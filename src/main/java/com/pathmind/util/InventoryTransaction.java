@@ -0,0 +1,366 @@
+package com.pathmind.util;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerInteractionManager;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.screen.slot.Slot;
+import net.minecraft.screen.slot.SlotActionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of slot clicks planned against a simulated copy of a screen handler's slots and cursor.
+ * Each recorded click is applied to the copy right away, so later clicks can be chosen from what
+ * earlier ones moved without waiting on the real inventory. A click that undoes the one before it
+ * (putting a stack back and picking it up again) removes both. The batch is then sent in a single
+ * client-thread task; with -Dpathmind.maxClicksPerTick=N it is spread over ticks instead, for
+ * servers that kick players for clicking too fast.
+ * Quick moves send items to a slot the simulation cannot predict, so after one the copy is only
+ * approximate ({@link #isExact()}) and no further clicks are merged.
+ */
+public final class InventoryTransaction {
+    private static final int MAX_CLICKS_PER_TICK = Math.max(0, Integer.getInteger("pathmind.maxClicksPerTick", 0));
+    private static final long TICK_MS = 50L;
+
+    private final ScreenHandler handler;
+    private final ItemStack[] slots;
+    private PlayerInventory playerInventory;
+    private int[] handlerSlotByInventorySlot = new int[0];
+    private long modifiedInventorySlots;
+    private ItemStack cursor;
+    private final List<Click> clicks = new ArrayList<>();
+    private boolean exact = true;
+    private int mergedClicks;
+
+    private static final class Click {
+        private final int slot;
+        private final int button;
+        private final SlotActionType action;
+        // Simulated state right before the click, used to undo it when the next click cancels it out
+        private final ItemStack slotBefore;
+        private final ItemStack cursorBefore;
+        private final boolean exactBefore;
+
+        private Click(int slot, int button, SlotActionType action, ItemStack slotBefore, ItemStack cursorBefore, boolean exactBefore) {
+            this.slot = slot;
+            this.button = button;
+            this.action = action;
+            this.slotBefore = slotBefore;
+            this.cursorBefore = cursorBefore;
+            this.exactBefore = exactBefore;
+        }
+    }
+
+    private InventoryTransaction(ScreenHandler handler) {
+        this.handler = handler;
+        this.slots = new ItemStack[handler.slots.size()];
+        for (int i = 0; i < slots.length; i++) {
+            Slot slot = handler.slots.get(i);
+            slots[i] = slot.getStack().copy();
+            if (slot.inventory instanceof PlayerInventory inventory) {
+                mapInventorySlot(inventory, slot.getIndex(), i);
+            }
+        }
+        this.cursor = handler.getCursorStack().copy();
+    }
+
+    private void mapInventorySlot(PlayerInventory inventory, int inventorySlot, int handlerSlot) {
+        if (playerInventory == null) {
+            playerInventory = inventory;
+            handlerSlotByInventorySlot = new int[inventory.size()];
+            Arrays.fill(handlerSlotByInventorySlot, -1);
+        }
+        if (inventory == playerInventory && inventorySlot >= 0 && inventorySlot < handlerSlotByInventorySlot.length) {
+            handlerSlotByInventorySlot[inventorySlot] = handlerSlot;
+        }
+    }
+
+    /**
+     * Start a transaction from the handler's current contents. Must be called on the client thread.
+     */
+    public static InventoryTransaction begin(ScreenHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Screen handler is required");
+        }
+        return new InventoryTransaction(handler);
+    }
+
+    public ScreenHandler getHandler() {
+        return handler;
+    }
+
+    /**
+     * Simulated stack in the handler slot after the clicks recorded so far; must not be modified.
+     */
+    public ItemStack getStack(int slot) {
+        return slot >= 0 && slot < slots.length ? slots[slot] : ItemStack.EMPTY;
+    }
+
+    /**
+     * The player inventory whose slots this handler shows, or null when it shows none.
+     */
+    public PlayerInventory getPlayerInventory() {
+        return playerInventory;
+    }
+
+    /**
+     * Handler slot showing the given player inventory slot, or -1 when the handler does not show it.
+     */
+    public int getHandlerSlot(int inventorySlot) {
+        return inventorySlot >= 0 && inventorySlot < handlerSlotByInventorySlot.length
+            ? handlerSlotByInventorySlot[inventorySlot]
+            : -1;
+    }
+
+    /**
+     * Bitmask of the player inventory slots whose simulated stack may differ from the live one;
+     * bit {@code n} is set for inventory slot {@code n}.
+     */
+    public long getModifiedInventorySlots() {
+        return modifiedInventorySlots;
+    }
+
+    /**
+     * Simulated cursor stack after the clicks recorded so far; must not be modified.
+     */
+    public ItemStack getCursorStack() {
+        return cursor;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Left click: pick up, put down, merge into or swap with the slot's stack.
+     */
+    public InventoryTransaction pickup(int slot) {
+        return click(slot, 0, SlotActionType.PICKUP);
+    }
+
+    /**
+     * Right click: put one cursor item into the slot, or pick up half of the slot when the cursor is empty.
+     */
+    public InventoryTransaction placeOne(int slot) {
+        return click(slot, 1, SlotActionType.PICKUP);
+    }
+
+    public InventoryTransaction quickMove(int slot) {
+        return click(slot, 0, SlotActionType.QUICK_MOVE);
+    }
+
+    /**
+     * Swap the slot with a player hotbar slot (0-8) or the offhand (40).
+     */
+    public InventoryTransaction swap(int slot, int hotbarSlot) {
+        return click(slot, hotbarSlot, SlotActionType.SWAP);
+    }
+
+    /**
+     * Drop one item, or the whole stack, from the slot into the world.
+     */
+    public InventoryTransaction throwItems(int slot, boolean entireStack) {
+        return click(slot, entireStack ? 1 : 0, SlotActionType.THROW);
+    }
+
+    public int getClickCount() {
+        return clicks.size();
+    }
+
+    /**
+     * Clicks left out because they cancelled each other.
+     */
+    public int getMergedClickCount() {
+        return mergedClicks;
+    }
+
+    /**
+     * Send every click now. Must be called on the client thread and only suits batches that fit within
+     * one tick: with a per-tick limit set, a longer batch is refused and nothing is sent. Returns false
+     * when nothing was sent, including when the handler is no longer open; use {@link #dispatch} for
+     * batches that may exceed the limit.
+     */
+    public boolean apply(MinecraftClient client) {
+        if (MAX_CLICKS_PER_TICK > 0 && clicks.size() > MAX_CLICKS_PER_TICK) {
+            System.err.println("InventoryTransaction: Refusing to send " + clicks.size()
+                + " clicks at once with a limit of " + MAX_CLICKS_PER_TICK + " per tick");
+            return false;
+        }
+        return send(client, clicks, 0, clicks.size());
+    }
+
+    /**
+     * Send the clicks from any thread, in one client task or, with a per-tick limit, one task per tick.
+     * The future completes with false when the handler closed before every click was sent.
+     */
+    public CompletableFuture<Boolean> dispatch(MinecraftClient client) {
+        List<Click> batch = Collections.unmodifiableList(new ArrayList<>(clicks));
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+        int chunk = MAX_CLICKS_PER_TICK > 0 ? MAX_CLICKS_PER_TICK : batch.size();
+        return dispatchFrom(client, batch, 0, chunk);
+    }
+
+    private CompletableFuture<Boolean> dispatchFrom(MinecraftClient client, List<Click> batch, int start, int chunk) {
+        int end = Math.min(batch.size(), start + chunk);
+        return ClientThreadBridge.supply(client, () -> send(client, batch, start, end))
+            .thenCompose(sent -> {
+                if (!sent || end >= batch.size()) {
+                    return CompletableFuture.completedFuture(sent);
+                }
+                Executor nextTick = CompletableFuture.delayedExecutor(TICK_MS, TimeUnit.MILLISECONDS);
+                return CompletableFuture.supplyAsync(() -> end, nextTick)
+                    .thenCompose(next -> dispatchFrom(client, batch, next, chunk));
+            });
+    }
+
+    private boolean send(MinecraftClient client, List<Click> batch, int start, int end) {
+        if (client == null || client.player == null || client.player.currentScreenHandler != handler) {
+            return false;
+        }
+        ClientPlayerInteractionManager interactionManager = client.interactionManager;
+        if (interactionManager == null) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            Click click = batch.get(i);
+            interactionManager.clickSlot(handler.syncId, click.slot, click.button, click.action, client.player);
+        }
+        return true;
+    }
+
+    private InventoryTransaction click(int slot, int button, SlotActionType action) {
+        if (action == SlotActionType.PICKUP && button == 0 && !clicks.isEmpty()) {
+            Click last = clicks.get(clicks.size() - 1);
+            if (last.action == SlotActionType.PICKUP && last.button == 0 && last.slot == slot && isRoundTrip(last)) {
+                clicks.remove(clicks.size() - 1);
+                slots[slot] = last.slotBefore;
+                cursor = last.cursorBefore;
+                exact = last.exactBefore;
+                mergedClicks += 2;
+                return this;
+            }
+        }
+
+        Click recorded = new Click(slot, button, action, getStack(slot), cursor, exact);
+        simulate(slot, button, action);
+        markModified(slot);
+        clicks.add(recorded);
+        return this;
+    }
+
+    /**
+     * Whether a second left click on the slot restores the state before the first one: true when the
+     * first click moved a whole stack between the slot and an empty cursor, in either direction.
+     */
+    private boolean isRoundTrip(Click first) {
+        if (!first.exactBefore || first.slot < 0 || first.slot >= slots.length) {
+            return false;
+        }
+        if (first.cursorBefore.isEmpty()) {
+            return !first.slotBefore.isEmpty();
+        }
+        Slot slot = handler.slots.get(first.slot);
+        return first.slotBefore.isEmpty()
+            && slot.canInsert(first.cursorBefore)
+            && first.cursorBefore.getCount() <= slot.getMaxItemCount(first.cursorBefore);
+    }
+
+    private void simulate(int slotIndex, int button, SlotActionType action) {
+        if (slotIndex < 0 || slotIndex >= slots.length) {
+            exact = false;
+            return;
+        }
+        ItemStack current = slots[slotIndex];
+        switch (action) {
+            case PICKUP -> simulatePickup(slotIndex, button == 1);
+            case QUICK_MOVE -> {
+                if (!current.isEmpty()) {
+                    slots[slotIndex] = ItemStack.EMPTY;
+                    exact = false;
+                }
+            }
+            case SWAP -> simulateSwap(slotIndex, button);
+            case THROW -> {
+                if (cursor.isEmpty() && !current.isEmpty()) {
+                    slots[slotIndex] = button == 1 ? ItemStack.EMPTY : withCount(current, current.getCount() - 1);
+                }
+            }
+            default -> exact = false;
+        }
+    }
+
+    private void simulatePickup(int slotIndex, boolean rightClick) {
+        Slot slot = handler.slots.get(slotIndex);
+        ItemStack current = slots[slotIndex];
+        if (cursor.isEmpty()) {
+            if (current.isEmpty()) {
+                return;
+            }
+            int taken = rightClick ? (current.getCount() + 1) / 2 : current.getCount();
+            cursor = withCount(current, taken);
+            slots[slotIndex] = withCount(current, current.getCount() - taken);
+            return;
+        }
+
+        if (!slot.canInsert(cursor)) {
+            // Output slots merge their result into the cursor; not worth modelling
+            exact = false;
+            return;
+        }
+
+        if (current.isEmpty() || ItemStack.areItemsAndComponentsEqual(current, cursor)) {
+            int room = slot.getMaxItemCount(cursor) - current.getCount();
+            int moved = Math.min(rightClick ? 1 : cursor.getCount(), Math.max(0, room));
+            if (moved <= 0) {
+                return;
+            }
+            slots[slotIndex] = withCount(cursor, current.getCount() + moved);
+            cursor = withCount(cursor, cursor.getCount() - moved);
+            return;
+        }
+
+        if (cursor.getCount() <= slot.getMaxItemCount(cursor)) {
+            slots[slotIndex] = cursor;
+            cursor = current;
+        }
+    }
+
+    private void simulateSwap(int slotIndex, int inventorySlot) {
+        for (int i = 0; i < slots.length; i++) {
+            Slot candidate = handler.slots.get(i);
+            if (candidate.inventory instanceof PlayerInventory && candidate.getIndex() == inventorySlot) {
+                ItemStack other = slots[i];
+                slots[i] = slots[slotIndex];
+                slots[slotIndex] = other;
+                markModified(i);
+                return;
+            }
+        }
+        // The player slot is not part of this handler (e.g. the offhand in a container screen)
+        exact = false;
+    }
+
+    private void markModified(int slotIndex) {
+        if (slotIndex < 0 || slotIndex >= slots.length) {
+            return;
+        }
+        Slot slot = handler.slots.get(slotIndex);
+        if (slot.inventory == playerInventory && slot.getIndex() >= 0 && slot.getIndex() < Long.SIZE) {
+            modifiedInventorySlots |= 1L << slot.getIndex();
+        }
+    }
+
+    private static ItemStack withCount(ItemStack stack, int count) {
+        return count > 0 ? stack.copyWithCount(count) : ItemStack.EMPTY;
+    }
+}
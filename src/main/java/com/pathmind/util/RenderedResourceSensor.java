@@ -0,0 +1,423 @@
+package com.pathmind.util;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.block.Block;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.render.Camera;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.hit.HitResult;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.RaycastContext;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Budgeted engine behind the "is rendered" sensor.
+ * Block checks run as scans that complete asynchronously: each client tick spends at most
+ * {@link #getRaycastBudgetPerTick()} work units on pending scans, where a raycast costs one unit and
+ * scanning a chunk section for candidates costs {@value #SECTION_SCAN_COST}. Sections inside the camera's
+ * view cone are visited nearest first and their candidates raycast nearest first, so a scan stops as soon
+ * as it finds a visible block. Finished results are cached per resource id for {@link #getCacheTtlTicks()}
+ * ticks so repeated checks in loops reuse them.
+ */
+public final class RenderedResourceSensor {
+    private static final int DEFAULT_RAYCAST_BUDGET_PER_TICK = 128;
+    private static final int DEFAULT_CACHE_TTL_TICKS = 10;
+    private static final int SECTION_SCAN_COST = 16;
+    private static final double FOV_MARGIN_DEGREES = 10.0;
+    private static final double SECTION_BOUNDING_RADIUS = Math.sqrt(3.0) * 8.0;
+
+    private static RenderedResourceSensor instance;
+
+    private final Map<String, CachedResult> results = new HashMap<>();
+    private final Map<String, BlockScan> scans = new HashMap<>();
+    private int raycastBudgetPerTick = Integer.getInteger("pathmind.renderedRaycastBudget", DEFAULT_RAYCAST_BUDGET_PER_TICK);
+    private int cacheTtlTicks = Integer.getInteger("pathmind.renderedCacheTicks", DEFAULT_CACHE_TTL_TICKS);
+    private int remainingBudget = raycastBudgetPerTick;
+    private long tick;
+    private long raycastCount;
+    private long cacheHits;
+
+    private static final class CachedResult {
+        private final boolean rendered;
+        private final long tick;
+
+        private CachedResult(boolean rendered, long tick) {
+            this.rendered = rendered;
+            this.tick = tick;
+        }
+    }
+
+    private static final class BlockScan {
+        private final Block block;
+        private final Vec3d cameraPos;
+        private final Vec3d look;
+        private final double coneHalfAngle;
+        private final BlockBox bounds;
+        private final LongArrayList sections;
+        private final LongArrayList candidates = new LongArrayList();
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        private int sectionCursor;
+        private int cursor;
+
+        private BlockScan(Block block, Vec3d cameraPos, Vec3d look, double coneHalfAngle, BlockBox bounds, LongArrayList sections) {
+            this.block = block;
+            this.cameraPos = cameraPos;
+            this.look = look;
+            this.coneHalfAngle = coneHalfAngle;
+            this.bounds = bounds;
+            this.sections = sections;
+        }
+    }
+
+    private RenderedResourceSensor() {
+    }
+
+    public static RenderedResourceSensor getInstance() {
+        if (instance == null) {
+            instance = new RenderedResourceSensor();
+        }
+        return instance;
+    }
+
+    /**
+     * Refill the budget and spend it on scans that are still in progress.
+     */
+    public void onClientTick(MinecraftClient client) {
+        tick++;
+        remainingBudget = raycastBudgetPerTick;
+        if (scans.isEmpty()) {
+            return;
+        }
+        if (client == null || client.player == null || client.world == null) {
+            clear();
+            return;
+        }
+        // Completing a scan runs its waiters, which may start new scans, so finish outside the iteration
+        List<Map.Entry<String, BlockScan>> finishedScans = null;
+        List<Boolean> finishedResults = null;
+        Iterator<Map.Entry<String, BlockScan>> iterator = scans.entrySet().iterator();
+        while (iterator.hasNext() && remainingBudget > 0) {
+            Map.Entry<String, BlockScan> entry = iterator.next();
+            Boolean finished = advance(client, entry.getValue());
+            if (finished != null) {
+                if (finishedScans == null) {
+                    finishedScans = new ArrayList<>();
+                    finishedResults = new ArrayList<>();
+                }
+                finishedScans.add(Map.entry(entry.getKey(), entry.getValue()));
+                finishedResults.add(finished);
+                iterator.remove();
+            }
+        }
+        if (finishedScans != null) {
+            for (int i = 0; i < finishedScans.size(); i++) {
+                Map.Entry<String, BlockScan> entry = finishedScans.get(i);
+                finish(entry.getKey(), entry.getValue(), finishedResults.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return the cached result for the resource id if it is still fresh, otherwise null.
+     */
+    public Boolean getCachedResult(String resourceId) {
+        CachedResult cached = results.get(resourceId);
+        if (cached == null || tick - cached.tick > cacheTtlTicks) {
+            return null;
+        }
+        cacheHits++;
+        return cached.rendered;
+    }
+
+    public void cacheResult(String resourceId, boolean rendered) {
+        results.put(resourceId, new CachedResult(rendered, tick));
+    }
+
+    /**
+     * Checks whether any block of the given type is visible. The returned future completes once the
+     * scan finishes, which may take several ticks; only the budget left in the current tick is spent here.
+     * Must be called on the client thread.
+     */
+    public CompletableFuture<Boolean> checkBlockRendered(MinecraftClient client, String resourceId, Block block) {
+        if (client == null || client.player == null || client.world == null || block == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        Boolean cached = getCachedResult(resourceId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        HitResult hitResult = client.crosshairTarget;
+        if (hitResult instanceof BlockHitResult blockHit && client.world.getBlockState(blockHit.getBlockPos()).isOf(block)) {
+            BlockScan pending = scans.remove(resourceId);
+            if (pending != null) {
+                finish(resourceId, pending, true);
+            }
+            cacheResult(resourceId, true);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        BlockScan scan = scans.get(resourceId);
+        if (scan != null && scan.block != block) {
+            scans.remove(resourceId);
+            finish(resourceId, scan, false);
+            scan = null;
+        }
+        if (scan == null) {
+            scan = startScan(client, block);
+            scans.put(resourceId, scan);
+        }
+        if (remainingBudget > 0) {
+            Boolean finished = advance(client, scan);
+            if (finished != null) {
+                scans.remove(resourceId);
+                finish(resourceId, scan, finished);
+            }
+        }
+        return scan.result;
+    }
+
+    private void finish(String resourceId, BlockScan scan, boolean rendered) {
+        cacheResult(resourceId, rendered);
+        scan.result.complete(rendered);
+    }
+
+    /**
+     * Spend the remaining budget on the scan. Returns null while the scan is unfinished.
+     */
+    private Boolean advance(MinecraftClient client, BlockScan scan) {
+        ClientWorld world = client.world;
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        while (remainingBudget > 0) {
+            if (scan.cursor < scan.candidates.size()) {
+                mutable.set(scan.candidates.getLong(scan.cursor++));
+                if (!world.getBlockState(mutable).isOf(scan.block)) {
+                    continue;
+                }
+                remainingBudget--;
+                raycastCount++;
+                if (isBlockVisible(client, mutable)) {
+                    return true;
+                }
+                continue;
+            }
+            if (scan.sectionCursor >= scan.sections.size()) {
+                return false;
+            }
+            remainingBudget -= SECTION_SCAN_COST;
+            collectSection(client, scan, scan.sections.getLong(scan.sectionCursor++));
+        }
+        return null;
+    }
+
+    /**
+     * Set up a scan over the sections around the player that intersect the view cone, nearest first.
+     * Only section coordinates are visited here; block contents are read later under the budget.
+     */
+    private BlockScan startScan(MinecraftClient client, Block block) {
+        ClientWorld world = client.world;
+        Camera camera = client.gameRenderer.getCamera();
+        Vec3d cameraPos = camera.getPos();
+        Vec3d look = Vec3d.fromPolar(camera.getPitch(), camera.getYaw());
+        double coneHalfAngle = computeConeHalfAngle(client);
+
+        BlockPos playerPos = client.player.getBlockPos();
+        int viewDistance = client.options.getViewDistance().getValue();
+        int horizontalRadius = MathHelper.clamp(viewDistance * 4, 8, 48);
+        int verticalRadius = MathHelper.clamp(viewDistance * 2, 6, 32);
+        BlockBox bounds = new BlockBox(
+            playerPos.getX() - horizontalRadius,
+            Math.max(playerPos.getY() - verticalRadius, world.getBottomY()),
+            playerPos.getZ() - horizontalRadius,
+            playerPos.getX() + horizontalRadius,
+            Math.min(playerPos.getY() + verticalRadius, world.getBottomY() + world.getHeight() - 1),
+            playerPos.getZ() + horizontalRadius
+        );
+
+        LongArrayList sections = new LongArrayList();
+        for (int sectionX = bounds.getMinX() >> 4; sectionX <= bounds.getMaxX() >> 4; sectionX++) {
+            for (int sectionZ = bounds.getMinZ() >> 4; sectionZ <= bounds.getMaxZ() >> 4; sectionZ++) {
+                for (int sectionY = bounds.getMinY() >> 4; sectionY <= bounds.getMaxY() >> 4; sectionY++) {
+                    double centerX = (sectionX << 4) + 8.0;
+                    double centerY = (sectionY << 4) + 8.0;
+                    double centerZ = (sectionZ << 4) + 8.0;
+                    if (isInCone(cameraPos, look, centerX, centerY, centerZ, coneHalfAngle, SECTION_BOUNDING_RADIUS)) {
+                        sections.add(ChunkSectionPos.asLong(sectionX, sectionY, sectionZ));
+                    }
+                }
+            }
+        }
+        sections.sort((a, b) -> Double.compare(
+            sectionSquaredDistance(cameraPos, a),
+            sectionSquaredDistance(cameraPos, b)
+        ));
+        return new BlockScan(block, cameraPos, look, coneHalfAngle, bounds, sections);
+    }
+
+    /**
+     * Replace the scan's candidates with the matching blocks of one section, nearest first.
+     */
+    private void collectSection(MinecraftClient client, BlockScan scan, long sectionPos) {
+        scan.candidates.clear();
+        scan.cursor = 0;
+        int sectionX = ChunkSectionPos.unpackX(sectionPos);
+        int sectionY = ChunkSectionPos.unpackY(sectionPos);
+        int sectionZ = ChunkSectionPos.unpackZ(sectionPos);
+        WorldChunk chunk = client.world.getChunkManager().getWorldChunk(sectionX, sectionZ);
+        if (chunk == null) {
+            return;
+        }
+        ChunkSection[] chunkSections = chunk.getSectionArray();
+        int index = chunk.sectionCoordToIndex(sectionY);
+        if (index < 0 || index >= chunkSections.length) {
+            return;
+        }
+        ChunkSection section = chunkSections[index];
+        Block block = scan.block;
+        if (section == null || section.isEmpty() || !section.hasAny(state -> state.isOf(block))) {
+            return;
+        }
+        int baseX = sectionX << 4;
+        int baseY = sectionY << 4;
+        int baseZ = sectionZ << 4;
+        // Sections the renderer has not built yet cannot show anything
+        if (!client.worldRenderer.isRenderingReady(new BlockPos(baseX, baseY, baseZ))) {
+            return;
+        }
+        BlockBox bounds = scan.bounds;
+        int x0 = Math.max(baseX, bounds.getMinX());
+        int x1 = Math.min(baseX + 15, bounds.getMaxX());
+        int y0 = Math.max(baseY, bounds.getMinY());
+        int y1 = Math.min(baseY + 15, bounds.getMaxY());
+        int z0 = Math.max(baseZ, bounds.getMinZ());
+        int z1 = Math.min(baseZ + 15, bounds.getMaxZ());
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    if (!section.getBlockState(x & 15, y & 15, z & 15).isOf(block)) {
+                        continue;
+                    }
+                    if (isInCone(scan.cameraPos, scan.look, x + 0.5, y + 0.5, z + 0.5, scan.coneHalfAngle, 0.87)) {
+                        scan.candidates.add(BlockPos.asLong(x, y, z));
+                    }
+                }
+            }
+        }
+        Vec3d cameraPos = scan.cameraPos;
+        scan.candidates.sort((a, b) -> Double.compare(
+            squaredDistance(cameraPos, a),
+            squaredDistance(cameraPos, b)
+        ));
+    }
+
+    private static double sectionSquaredDistance(Vec3d origin, long sectionPos) {
+        double dx = (ChunkSectionPos.unpackX(sectionPos) << 4) + 8.0 - origin.x;
+        double dy = (ChunkSectionPos.unpackY(sectionPos) << 4) + 8.0 - origin.y;
+        double dz = (ChunkSectionPos.unpackZ(sectionPos) << 4) + 8.0 - origin.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static double squaredDistance(Vec3d origin, long packed) {
+        double dx = BlockPos.unpackLongX(packed) + 0.5 - origin.x;
+        double dy = BlockPos.unpackLongY(packed) + 0.5 - origin.y;
+        double dz = BlockPos.unpackLongZ(packed) + 0.5 - origin.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Half angle of a cone that encloses the view frustum, widened slightly for FOV effects.
+     */
+    private static double computeConeHalfAngle(MinecraftClient client) {
+        double verticalHalf = Math.toRadians((client.options.getFov().getValue() + FOV_MARGIN_DEGREES) / 2.0);
+        int width = Math.max(1, client.getWindow().getFramebufferWidth());
+        int height = Math.max(1, client.getWindow().getFramebufferHeight());
+        double tanVertical = Math.tan(Math.min(verticalHalf, Math.toRadians(89.0)));
+        double tanHorizontal = tanVertical * width / height;
+        return Math.atan(Math.sqrt(tanVertical * tanVertical + tanHorizontal * tanHorizontal));
+    }
+
+    private static boolean isInCone(Vec3d origin, Vec3d look, double x, double y, double z, double halfAngle, double radius) {
+        double dx = x - origin.x;
+        double dy = y - origin.y;
+        double dz = z - origin.z;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (distance <= radius) {
+            return true;
+        }
+        double cos = (dx * look.x + dy * look.y + dz * look.z) / distance;
+        double angle = Math.acos(MathHelper.clamp(cos, -1.0, 1.0));
+        return angle <= halfAngle + Math.asin(Math.min(1.0, radius / distance));
+    }
+
+    private static boolean isBlockVisible(MinecraftClient client, BlockPos pos) {
+        Vec3d cameraPos = client.gameRenderer.getCamera().getPos();
+        Vec3d target = Vec3d.ofCenter(pos);
+        RaycastContext context = new RaycastContext(
+            cameraPos,
+            target,
+            RaycastContext.ShapeType.COLLIDER,
+            RaycastContext.FluidHandling.NONE,
+            client.player
+        );
+        BlockHitResult hit = client.world.raycast(context);
+        if (hit == null) {
+            return false;
+        }
+        if (hit.getType() == HitResult.Type.MISS) {
+            return true;
+        }
+        return hit.getType() == HitResult.Type.BLOCK && hit.getBlockPos().equals(pos);
+    }
+
+    /**
+     * Drop cached results and settle pending scans as not rendered.
+     */
+    public void clear() {
+        results.clear();
+        if (scans.isEmpty()) {
+            return;
+        }
+        List<BlockScan> pending = new ArrayList<>(scans.values());
+        scans.clear();
+        for (BlockScan scan : pending) {
+            scan.result.complete(false);
+        }
+    }
+
+    public int getRaycastBudgetPerTick() {
+        return raycastBudgetPerTick;
+    }
+
+    public void setRaycastBudgetPerTick(int raycastBudgetPerTick) {
+        this.raycastBudgetPerTick = Math.max(1, raycastBudgetPerTick);
+    }
+
+    public int getCacheTtlTicks() {
+        return cacheTtlTicks;
+    }
+
+    public void setCacheTtlTicks(int cacheTtlTicks) {
+        this.cacheTtlTicks = Math.max(0, cacheTtlTicks);
+    }
+
+    public long getRaycastCount() {
+        return raycastCount;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+}
@@ -0,0 +1,158 @@
+package com.pathmind.util;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.font.TextRenderer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Memoized text measurements for the node editor. Widths are cached per string and ellipsized
+ * display strings per (string, max width), both in unscaled font pixels: the editor applies zoom
+ * through the matrix stack, so one entry serves every zoom level. Entries are keyed by content,
+ * so an edited parameter simply misses and the stale entry ages out of the bounded LRU.
+ * The cache is dropped whenever the client's font renderer is replaced.
+ */
+public final class TextLayoutCache {
+    private static final int MAX_ENTRIES = 4096;
+    private static final String ELLIPSIS = "...";
+    // Used when no renderer exists yet, e.g. nodes built before the client finished loading
+    private static final int FALLBACK_CHAR_WIDTH = 6;
+
+    private static TextLayoutCache instance;
+
+    private final Map<String, Integer> widths = new LruMap<>();
+    private final Map<TrimKey, String> trimmed = new LruMap<>();
+    private TextRenderer renderer;
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private LruMap() {
+            super(256, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    }
+
+    private static final class TrimKey {
+        private final String text;
+        private final int maxWidth;
+
+        private TrimKey(String text, int maxWidth) {
+            this.text = text;
+            this.maxWidth = maxWidth;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof TrimKey)) {
+                return false;
+            }
+            TrimKey key = (TrimKey) other;
+            return maxWidth == key.maxWidth && text.equals(key.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, maxWidth);
+        }
+    }
+
+    private TextLayoutCache() {
+    }
+
+    public static synchronized TextLayoutCache getInstance() {
+        if (instance == null) {
+            instance = new TextLayoutCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Pixel width of the text as drawn by the client font.
+     */
+    public synchronized int getWidth(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        TextRenderer current = currentRenderer();
+        Integer cached = widths.get(text);
+        if (cached != null) {
+            return cached;
+        }
+        int width = current != null ? current.getWidth(text) : text.length() * FALLBACK_CHAR_WIDTH;
+        widths.put(text, width);
+        return width;
+    }
+
+    /**
+     * The text itself if it fits, otherwise the longest prefix that fits with a trailing ellipsis.
+     */
+    public synchronized String trimToWidth(String text, int maxWidth) {
+        if (text == null) {
+            return "";
+        }
+        currentRenderer();
+        TrimKey key = new TrimKey(text, maxWidth);
+        String cached = trimmed.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String result = computeTrimmed(text, maxWidth);
+        trimmed.put(key, result);
+        return result;
+    }
+
+    public synchronized void clear() {
+        widths.clear();
+        trimmed.clear();
+    }
+
+    private String computeTrimmed(String text, int maxWidth) {
+        if (getWidth(text) <= maxWidth) {
+            return text;
+        }
+        if (getWidth(ELLIPSIS) >= maxWidth) {
+            return ELLIPSIS;
+        }
+
+        String baseText = text;
+        if (baseText.endsWith(ELLIPSIS)) {
+            baseText = baseText.substring(0, baseText.length() - ELLIPSIS.length());
+        }
+
+        // Binary search on the prefix length; only the probed prefixes are measured
+        int low = 0;
+        int high = baseText.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (measure(baseText.substring(0, mid) + ELLIPSIS) <= maxWidth) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return baseText.substring(0, low) + ELLIPSIS;
+    }
+
+    // Intermediate prefixes are not worth an entry in the width cache
+    private int measure(String text) {
+        return renderer != null ? renderer.getWidth(text) : text.length() * FALLBACK_CHAR_WIDTH;
+    }
+
+    private TextRenderer currentRenderer() {
+        MinecraftClient client = MinecraftClient.getInstance();
+        TextRenderer current = client != null ? client.textRenderer : null;
+        if (current != renderer) {
+            clear();
+            renderer = current;
+        }
+        return current;
+    }
+}